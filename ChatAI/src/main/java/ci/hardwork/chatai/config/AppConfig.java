@@ -1,20 +1,95 @@
 package ci.hardwork.chatai.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
-import java.time.Duration;
+import java.net.URI;
 
 @Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
+@EnableScheduling
 public class AppConfig {
 
-    @Value("${app.auth.service-url}")
-    private String authServiceUrl;
+    /**
+     * HTTP client shared by calls to other services: connections are kept alive in a
+     * bounded pool, with connect and read timeouts specific to each target.
+     */
+    @Bean
+    public CloseableHttpClient serviceHttpClient(HttpClientProperties properties) {
+        ServiceTargets targets = new ServiceTargets(properties);
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConnections())
+                .setMaxConnPerRoute(properties.getMaxConnectionsPerTarget())
+                .build();
+        connectionManager.setConnectionConfigResolver(route -> {
+            HttpHost host = route.getTargetHost();
+            HttpClientProperties.Target target = targets.target(
+                    targets.name(host.getHostName(), ServiceTargets.port(host.getSchemeName(), host.getPort())));
+            return ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.of(target.getConnectTimeout()))
+                    .setSocketTimeout(Timeout.of(target.getReadTimeout()))
+                    .setTimeToLive(TimeValue.of(properties.getConnectionTimeToLive()))
+                    .build();
+        });
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.getMaxIdleTime()))
+                .build();
+    }
+
+    /**
+     * BPE token count (cl100k) of messages and prompts, close to the tiktoken vocabulary
+     * of the llama3 models.
+     */
+    @Bean
+    public TokenCountEstimator tokenCountEstimator() {
+        return new JTokkitTokenCountEstimator();
+    }
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(CloseableHttpClient serviceHttpClient,
+                                     HttpClientProperties properties,
+                                     CircuitBreakerRegistry circuitBreakerRegistry,
+                                     BulkheadRegistry bulkheadRegistry,
+                                     MeterRegistry meterRegistry) {
+        ServiceTargets targets = new ServiceTargets(properties);
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(serviceHttpClient) {
+            @Override
+            protected HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+                HttpClientProperties.Target target = targets.target(targets.name(uri));
+                HttpClientContext context = HttpClientContext.create();
+                context.setRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(target.getReadTimeout()))
+                        .build());
+                return context;
+            }
+        };
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(
+                new ResilienceInterceptor(targets, circuitBreakerRegistry, bulkheadRegistry, meterRegistry));
+        return restTemplate;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package ci.hardwork.chatai.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of the outgoing HTTP client ({@code app.http}): connection pool size and
+ * per-service timeouts.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.http")
+public class HttpClientProperties {
+
+    private int maxConnections = 100;
+    private int maxConnectionsPerTarget = 20;
+    // Wait for a free connection from the pool
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private Duration connectionTimeToLive = Duration.ofMinutes(5);
+    // Timeouts for calls to a host that is not listed in targets
+    private Target defaults = new Target();
+    private Map<String, Target> targets = new LinkedHashMap<>();
+
+    @Data
+    public static class Target {
+        private String url;
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration readTimeout = Duration.ofSeconds(5);
+    }
+}
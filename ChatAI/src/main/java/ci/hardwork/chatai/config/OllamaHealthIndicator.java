@@ -0,0 +1,40 @@
+package ci.hardwork.chatai.config;
+
+import ci.hardwork.chatai.core.dto.ModelHealthStatus;
+import ci.hardwork.chatai.core.service.ModelHealthService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Status of Ollama and of the default model in the health endpoint ({@code ollama}), part of
+ * the readiness group: the instance gets no traffic until the model is served.
+ * Reads the last status polled in the background, without calling Ollama.
+ */
+@Component
+@RequiredArgsConstructor
+public class OllamaHealthIndicator implements HealthIndicator {
+
+    private final ModelHealthService modelHealthService;
+
+    @Value("${app.ai.ollama.model:llama3}")
+    private String defaultModel;
+
+    @Override
+    public Health health() {
+        ModelHealthStatus status = modelHealthService.getStatus();
+        if (status.getReachable() == null) {
+            return Health.unknown().build();
+        }
+        Health.Builder health = modelHealthService.isModelAvailable(defaultModel) ? Health.up() : Health.down();
+        health.withDetail("defaultModel", defaultModel)
+                .withDetail("availableModels", status.getAvailableModels())
+                .withDetail("checkedAt", status.getCheckedAt());
+        if (status.getError() != null) {
+            health.withDetail("error", status.getError());
+        }
+        return health.build();
+    }
+}
@@ -0,0 +1,88 @@
+package ci.hardwork.chatai.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guards every outgoing call with the bulkhead and circuit breaker of its target, and
+ * times it ({@value #METRIC}, tagged by target and outcome, with a histogram).
+ * <p>
+ * A rejected call (bulkhead full, circuit open) fails at once with an {@link IOException},
+ * which {@code RestTemplate} surfaces like any network error, so callers fall back to
+ * their degraded path instead of waiting on a failing service. 5xx responses and network
+ * errors count as circuit breaker failures, 4xx responses do not.
+ */
+@RequiredArgsConstructor
+public class ResilienceInterceptor implements ClientHttpRequestInterceptor {
+
+    public static final String METRIC = "http.client.service.calls";
+
+    private final ServiceTargets targets;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        String target = targets.name(request.getURI());
+        Bulkhead bulkhead = bulkheads.bulkhead(target);
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(target);
+        long start = System.nanoTime();
+        try {
+            bulkhead.acquirePermission();
+        } catch (BulkheadFullException e) {
+            record(target, "bulkhead-full", start);
+            throw new IOException("Too many concurrent calls to " + target, e);
+        }
+        try {
+            try {
+                circuitBreaker.acquirePermission();
+            } catch (CallNotPermittedException e) {
+                record(target, "circuit-open", start);
+                throw new IOException("Circuit open for " + target, e);
+            }
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                long duration = System.nanoTime() - start;
+                if (response.getStatusCode().is5xxServerError()) {
+                    circuitBreaker.onError(duration, TimeUnit.NANOSECONDS, new HttpServerErrorException(response.getStatusCode()));
+                } else {
+                    circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+                }
+                record(target, String.valueOf(response.getStatusCode().value()), start);
+                return response;
+            } catch (IOException | RuntimeException e) {
+                circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+                record(target, "error", start);
+                throw e;
+            }
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    private void record(String target, String outcome, long start) {
+        Timer.builder(METRIC)
+                .description("Duration of HTTP calls to other services")
+                .tag("target", target)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,47 @@
+package ci.hardwork.chatai.config;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps a called host to the name of its target in {@code app.http.targets}. The name
+ * selects the circuit breaker, the bulkhead and the metrics of that service.
+ */
+public class ServiceTargets {
+
+    public static final String OTHER = "other";
+
+    private record Address(String host, int port) {
+    }
+
+    private final Map<Address, String> names = new HashMap<>();
+    private final HttpClientProperties properties;
+
+    public ServiceTargets(HttpClientProperties properties) {
+        this.properties = properties;
+        properties.getTargets().forEach((name, target) -> {
+            URI uri = URI.create(target.getUrl());
+            names.put(new Address(uri.getHost(), port(uri.getScheme(), uri.getPort())), name);
+        });
+    }
+
+    public String name(URI uri) {
+        return name(uri.getHost(), port(uri.getScheme(), uri.getPort()));
+    }
+
+    public String name(String host, int port) {
+        return names.getOrDefault(new Address(host, port), OTHER);
+    }
+
+    public HttpClientProperties.Target target(String name) {
+        return properties.getTargets().getOrDefault(name, properties.getDefaults());
+    }
+
+    static int port(String scheme, int port) {
+        if (port >= 0) {
+            return port;
+        }
+        return "https".equalsIgnoreCase(scheme) ? 443 : 80;
+    }
+}
@@ -0,0 +1,18 @@
+package ci.hardwork.chatai.core.dto;
+
+import ci.hardwork.chatai.core.models.enums.MessageRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Message as kept in a conversation context window: only what the prompt needs, detached
+ * from the JPA entity.
+ */
+@Data
+@AllArgsConstructor
+public class ContextMessage {
+    private Long id;
+    private MessageRole role;
+    private String content;
+    private int tokenCount;
+}
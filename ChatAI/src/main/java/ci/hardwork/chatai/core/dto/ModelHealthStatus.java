@@ -0,0 +1,17 @@
+package ci.hardwork.chatai.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Data
+@AllArgsConstructor
+public class ModelHealthStatus {
+    // null until the first poll has completed
+    private Boolean reachable;
+    private Set<String> availableModels;
+    private LocalDateTime checkedAt;
+    private String error;
+}
@@ -61,6 +61,13 @@ public class Conversation {
     @Column(name = "max_tokens")
     private Integer maxTokens;
 
+    // Rolling summary of the messages up to summarizedUpToMessageId, sent instead of them
+    @Column(name = "summary", columnDefinition = "TEXT")
+    private String summary;
+
+    @Column(name = "summarized_up_to_message_id")
+    private Long summarizedUpToMessageId;
+
     @PrePersist
     protected void onCreate() {
         LocalDateTime now = LocalDateTime.now();
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -42,6 +43,15 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
     int deleteOldConversations(@Param("status") ConversationStatus status, 
                               @Param("cutoffDate") LocalDateTime cutoffDate);
     
+    // Never moves the summary backwards when two passes overlap
+    @Modifying
+    @Transactional
+    @Query("UPDATE Conversation c SET c.summary = :summary, c.summarizedUpToMessageId = :upToMessageId " +
+           "WHERE c.id = :id AND (c.summarizedUpToMessageId IS NULL OR c.summarizedUpToMessageId < :upToMessageId)")
+    int updateSummary(@Param("id") Long id, 
+                     @Param("summary") String summary, 
+                     @Param("upToMessageId") Long upToMessageId);
+    
     @Query("SELECT c FROM Conversation c WHERE c.title LIKE %:searchTerm% OR c.description LIKE %:searchTerm% AND c.userId = :userId AND c.status = :status")
     Page<Conversation> searchConversations(@Param("userId") Long userId, 
                                          @Param("searchTerm") String searchTerm, 
@@ -22,6 +22,14 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId ORDER BY m.createdAt DESC")
     List<Message> findLastMessages(@Param("conversationId") Long conversationId, Pageable pageable);
     
+    @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId AND m.id > :afterId ORDER BY m.id ASC")
+    List<Message> findMessagesAfter(@Param("conversationId") Long conversationId, 
+                                   @Param("afterId") Long afterId, 
+                                   Pageable pageable);
+    
+    @Query("SELECT COALESCE(SUM(m.tokenCount), 0) FROM Message m WHERE m.conversation.id = :conversationId AND m.id > :afterId")
+    Long sumTokensAfter(@Param("conversationId") Long conversationId, @Param("afterId") Long afterId);
+    
     @Query("SELECT COUNT(m) FROM Message m WHERE m.conversation.id = :conversationId")
     Long countByConversationId(@Param("conversationId") Long conversationId);
     
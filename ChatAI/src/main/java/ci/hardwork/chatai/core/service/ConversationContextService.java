@@ -0,0 +1,15 @@
+package ci.hardwork.chatai.core.service;
+
+import ci.hardwork.chatai.core.dto.ContextMessage;
+import ci.hardwork.chatai.core.models.Message;
+
+import java.util.List;
+
+public interface ConversationContextService {
+    
+    List<ContextMessage> getContext(Long conversationId);
+    
+    void append(Message message);
+    
+    void evict(Long conversationId);
+}
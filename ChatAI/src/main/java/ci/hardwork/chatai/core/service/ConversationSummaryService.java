@@ -0,0 +1,8 @@
+package ci.hardwork.chatai.core.service;
+
+public interface ConversationSummaryService {
+    
+    void summarizeIfNeeded(Long conversationId);
+    
+    void summarize(Long conversationId);
+}
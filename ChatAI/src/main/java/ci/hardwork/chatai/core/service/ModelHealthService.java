@@ -0,0 +1,12 @@
+package ci.hardwork.chatai.core.service;
+
+import ci.hardwork.chatai.core.dto.ModelHealthStatus;
+
+public interface ModelHealthService {
+    
+    boolean isModelAvailable(String modelName);
+    
+    ModelHealthStatus getStatus();
+    
+    void refresh();
+}
@@ -0,0 +1,15 @@
+package ci.hardwork.chatai.core.service;
+
+import ci.hardwork.chatai.core.dto.ChatRequest;
+import ci.hardwork.chatai.core.dto.ContextMessage;
+import ci.hardwork.chatai.core.models.Conversation;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.List;
+
+public interface PromptService {
+    
+    Prompt buildPrompt(Conversation conversation, List<ContextMessage> history, ChatRequest request, String modelName);
+    
+    int countTokens(String text);
+}
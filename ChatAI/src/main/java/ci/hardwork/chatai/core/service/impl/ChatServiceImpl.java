@@ -2,31 +2,36 @@ package ci.hardwork.chatai.core.service.impl;
 
 import ci.hardwork.chatai.core.dto.ChatRequest;
 import ci.hardwork.chatai.core.dto.ChatResponse;
+import ci.hardwork.chatai.core.dto.ContextMessage;
 import ci.hardwork.chatai.core.models.Conversation;
 import ci.hardwork.chatai.core.models.Message;
 import ci.hardwork.chatai.core.models.enums.MessageRole;
 import ci.hardwork.chatai.core.repository.ConversationRepository;
 import ci.hardwork.chatai.core.repository.MessageRepository;
 import ci.hardwork.chatai.core.service.ChatService;
+import ci.hardwork.chatai.core.service.ConversationContextService;
 import ci.hardwork.chatai.core.service.ConversationService;
+import ci.hardwork.chatai.core.service.ConversationSummaryService;
+import ci.hardwork.chatai.core.service.ModelHealthService;
+import ci.hardwork.chatai.core.service.PromptService;
 import ci.hardwork.chatai.core.service.UserSessionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.model.ChatModel;
-import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.chat.prompt.SystemPromptTemplate;
-import org.springframework.ai.ollama.OllamaChatModel;
-import org.springframework.ai.ollama.api.OllamaOptions;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -39,6 +44,10 @@ public class ChatServiceImpl implements ChatService {
     private final MessageRepository messageRepository;
     private final ConversationService conversationService;
     private final UserSessionService userSessionService;
+    private final ModelHealthService modelHealthService;
+    private final ConversationContextService conversationContextService;
+    private final PromptService promptService;
+    private final ConversationSummaryService conversationSummaryService;
 
     @Value("${app.ai.ollama.model:llama3}")
     private String defaultModel;
@@ -49,8 +58,8 @@ public class ChatServiceImpl implements ChatService {
     @Value("${app.ai.ollama.chat.options.max-tokens:2000}")
     private Integer defaultMaxTokens;
 
-    @Value("${app.ai.conversation.max-history:50}")
-    private Integer maxHistoryMessages;
+    @Value("${app.ai.ollama.timeout:60s}")
+    private Duration streamTimeout;
 
     @Override
     public ChatResponse sendMessage(Long userId, ChatRequest request) {
@@ -58,24 +67,23 @@ public class ChatServiceImpl implements ChatService {
         
         validateRateLimit(userId);
         
+        // Validate model availability first: fails fast, before any generation
+        String modelToUse = request.getModel() != null ? request.getModel() : defaultModel;
+        validateModelAvailable(modelToUse);
+        
         Conversation conversation = getOrCreateConversation(userId, request);
         
+        // Context window before this turn: buildPrompt adds the current message itself
+        List<ContextMessage> history = conversationContextService.getContext(conversation.getId());
+        
         // Save user message
         Message userMessage = createMessage(conversation, MessageRole.USER, request.getMessage());
         userMessage = messageRepository.save(userMessage);
+        conversationContextService.append(userMessage);
         
         try {
-            // Validate model availability first
-            String modelToUse = request.getModel() != null ? request.getModel() : defaultModel;
-            if (!isModelAvailable(modelToUse)) {
-                throw new RuntimeException("Model " + modelToUse + " is not available. Please check Ollama service and ensure the model is downloaded.");
-            }
-            
-            // Prepare conversation history
-            List<Message> history = getConversationHistory(conversation.getId());
-            
-            // Create AI prompt with history
-            Prompt prompt = buildPrompt(history, request);
+            // Create AI prompt with the history that fits the model context
+            Prompt prompt = promptService.buildPrompt(conversation, history, request, modelToUse);
             
             // Get AI response with proper error handling
             org.springframework.ai.chat.model.ChatResponse aiResponse = chatModel.call(prompt);
@@ -96,8 +104,15 @@ public class ChatServiceImpl implements ChatService {
             Message assistantMessage = createMessage(conversation, MessageRole.ASSISTANT, responseContent);
             assistantMessage.setResponseTimeMs(responseTime);
             assistantMessage.setModelName(request.getModel() != null ? request.getModel() : defaultModel);
+            Integer completionTokens = completionTokens(aiResponse);
+            if (completionTokens != null) {
+                // Count reported by Ollama for the generation
+                assistantMessage.setTokenCount(completionTokens);
+            }
             // tokenCount is already set in createMessage for ASSISTANT role
             assistantMessage = messageRepository.save(assistantMessage);
+            conversationContextService.append(assistantMessage);
+            conversationSummaryService.summarizeIfNeeded(conversation.getId());
             
             // Update session statistics
             userSessionService.recordRequest(userId, assistantMessage.getTokenCount());
@@ -124,18 +139,45 @@ public class ChatServiceImpl implements ChatService {
 
     @Override
     public SseEmitter sendMessageStream(Long userId, ChatRequest request) {
-        SseEmitter emitter = new SseEmitter(60000L); // 60 second timeout
+        long startTime = System.currentTimeMillis();
         
-        CompletableFuture.runAsync(() -> {
-            try {
-                ChatResponse response = sendMessage(userId, request);
-                emitter.send(SseEmitter.event().name("message").data(response));
-                emitter.complete();
-            } catch (Exception e) {
-                log.error("Error in streaming response: {}", e.getMessage(), e);
-                emitter.completeWithError(e);
-            }
-        });
+        validateRateLimit(userId);
+        
+        String modelToUse = request.getModel() != null ? request.getModel() : defaultModel;
+        validateModelAvailable(modelToUse);
+        
+        Conversation conversation = getOrCreateConversation(userId, request);
+        
+        List<ContextMessage> history = conversationContextService.getContext(conversation.getId());
+        
+        // Save user message
+        Message userMessage = createMessage(conversation, MessageRole.USER, request.getMessage());
+        userMessage = messageRepository.save(userMessage);
+        conversationContextService.append(userMessage);
+        
+        Prompt prompt = promptService.buildPrompt(conversation, history, request, modelToUse);
+        
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        StringBuilder responseContent = new StringBuilder();
+        
+        // Each chunk is forwarded as soon as Ollama produces it; no thread waits for the full answer.
+        // Sends and the final JPA writes run off the Netty event loop, which must never block
+        Disposable generation = chatModel.stream(prompt)
+                .map(ChatServiceImpl::chunkText)
+                .filter(chunk -> !chunk.isEmpty())
+                .publishOn(Schedulers.boundedElastic())
+                .subscribe(
+                        chunk -> sendChunk(emitter, responseContent, chunk, conversation.getId(), modelToUse),
+                        error -> {
+                            log.error("Error in streaming response for user {}: {}", userId, error.getMessage());
+                            emitter.completeWithError(error);
+                        },
+                        () -> completeStream(emitter, userId, conversation, modelToUse, responseContent.toString(), startTime));
+        
+        // Client gone or stream timed out: cancel the upstream generation
+        emitter.onCompletion(generation::dispose);
+        emitter.onTimeout(generation::dispose);
+        emitter.onError(error -> generation.dispose());
         
         return emitter;
     }
@@ -165,17 +207,9 @@ public class ChatServiceImpl implements ChatService {
     }
 
     @Override
-    @Cacheable(value = "modelCache", key = "#modelName")
     public boolean isModelAvailable(String modelName) {
-        try {
-            // Try a simple test call
-            Prompt testPrompt = new Prompt("Hello");
-            org.springframework.ai.chat.model.ChatResponse response = chatModel.call(testPrompt);
-            return response != null && !response.getResults().isEmpty();
-        } catch (Exception e) {
-            log.warn("Model {} not available: {}", modelName, e.getMessage());
-            return false;
-        }
+        // Last state polled in the background: no generation on the request path
+        return modelHealthService.isModelAvailable(modelName);
     }
 
     @Override
@@ -183,6 +217,12 @@ public class ChatServiceImpl implements ChatService {
         userSessionService.validateRateLimit(userId);
     }
 
+    private void validateModelAvailable(String modelName) {
+        if (!isModelAvailable(modelName)) {
+            throw new RuntimeException("Model " + modelName + " is not available. Please check Ollama service and ensure the model is downloaded.");
+        }
+    }
+
     private Conversation getOrCreateConversation(Long userId, ChatRequest request) {
         if (request.getConversationId() != null) {
             return conversationRepository.findByIdAndUserId(request.getConversationId(), userId)
@@ -214,43 +254,84 @@ public class ChatServiceImpl implements ChatService {
         return message;
     }
 
-    private List<Message> getConversationHistory(Long conversationId) {
-        List<Message> allMessages = messageRepository.findByConversationIdOrderByCreatedAtAsc(conversationId);
-        
-        // Limit history to avoid token limits
-        if (allMessages.size() > maxHistoryMessages) {
-            return allMessages.subList(allMessages.size() - maxHistoryMessages, allMessages.size());
+    private void sendChunk(SseEmitter emitter, StringBuilder responseContent, String chunk, Long conversationId, String modelName) {
+        responseContent.append(chunk);
+        try {
+            emitter.send(SseEmitter.event().name("chunk").data(new ChatResponse(
+                chunk,
+                conversationId,
+                null,
+                modelName,
+                null,
+                null,
+                LocalDateTime.now(),
+                false
+            )));
+        } catch (IOException e) {
+            // Thrown back into the stream so that the generation is cancelled
+            throw new UncheckedIOException("Client disconnected during streaming", e);
         }
-        
-        return allMessages;
     }
 
-    private Prompt buildPrompt(List<Message> history, ChatRequest request) {
-        StringBuilder promptBuilder = new StringBuilder();
-        
-        // Add system prompt if provided
-        if (request.getSystemPrompt() != null && !request.getSystemPrompt().trim().isEmpty()) {
-            promptBuilder.append("System: ").append(request.getSystemPrompt()).append("\n\n");
+    private void completeStream(SseEmitter emitter, Long userId, Conversation conversation, String modelName,
+                                String responseContent, long startTime) {
+        if (responseContent.trim().isEmpty()) {
+            emitter.completeWithError(new RuntimeException("Ollama returned empty content. Please try again."));
+            return;
         }
         
-        // Add conversation history
-        for (Message msg : history) {
-            String rolePrefix = switch (msg.getRole()) {
-                case USER -> "Human: ";
-                case ASSISTANT -> "Assistant: ";
-                case SYSTEM -> "System: ";
-            };
-            promptBuilder.append(rolePrefix).append(msg.getContent()).append("\n\n");
+        try {
+            long responseTime = System.currentTimeMillis() - startTime;
+            
+            // Save the assembled assistant message once, when generation is complete
+            Message assistantMessage = createMessage(conversation, MessageRole.ASSISTANT, responseContent);
+            assistantMessage.setResponseTimeMs(responseTime);
+            assistantMessage.setModelName(modelName);
+            assistantMessage = messageRepository.save(assistantMessage);
+            conversationContextService.append(assistantMessage);
+            conversationSummaryService.summarizeIfNeeded(conversation.getId());
+            
+            userSessionService.recordRequest(userId, assistantMessage.getTokenCount());
+            
+            log.info("Chat response streamed for user {} in conversation {} ({}ms)", 
+                    userId, conversation.getId(), responseTime);
+            
+            emitter.send(SseEmitter.event().name("message").data(new ChatResponse(
+                responseContent,
+                conversation.getId(),
+                assistantMessage.getId(),
+                assistantMessage.getModelName(),
+                assistantMessage.getTokenCount(),
+                responseTime,
+                LocalDateTime.now(),
+                true
+            )));
+            emitter.complete();
+        } catch (Exception e) {
+            log.error("Error completing streamed response for user {}: {}", userId, e.getMessage(), e);
+            emitter.completeWithError(e);
         }
-        
-        // Add current user message
-        promptBuilder.append("Human: ").append(request.getMessage()).append("\n\nAssistant: ");
-        
-        return new Prompt(promptBuilder.toString());
+    }
+
+    private static Integer completionTokens(org.springframework.ai.chat.model.ChatResponse aiResponse) {
+        if (aiResponse.getMetadata() == null || aiResponse.getMetadata().getUsage() == null) {
+            return null;
+        }
+        Integer completionTokens = aiResponse.getMetadata().getUsage().getCompletionTokens();
+        return completionTokens != null && completionTokens > 0 ? completionTokens : null;
+    }
+
+    private static String chunkText(org.springframework.ai.chat.model.ChatResponse chunk) {
+        // The last chunk may only carry metadata
+        if (chunk == null || chunk.getResult() == null || chunk.getResult().getOutput() == null) {
+            return "";
+        }
+        String text = chunk.getResult().getOutput().getText();
+        return text != null ? text : "";
     }
 
     private Integer estimateTokenCount(String text) {
-        // Simple estimation: ~4 characters per token
-        return Math.max(1, text.length() / 4);
+        // Computed once when the message is created, then reused for every context window
+        return Math.max(1, promptService.countTokens(text));
     }
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package ci.hardwork.chatai.core.service.impl;
+
+import ci.hardwork.chatai.core.dto.ContextMessage;
+import ci.hardwork.chatai.core.models.Message;
+import ci.hardwork.chatai.core.repository.MessageRepository;
+import ci.hardwork.chatai.core.service.ConversationContextService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Context window of each conversation: its last messages, oldest first, within both a
+ * message count and a token budget. A window is built once from a bounded query on the
+ * latest messages, then kept up to date by appending each saved message, so a turn no
+ * longer reloads the whole conversation.
+ * <p>
+ * Appends are applied after the commit of the saving transaction and only to windows
+ * already cached; a missing window is rebuilt from the database on the next read.
+ * <p>
+ * The cache is bounded by the total length of the cached message contents rather than by
+ * the number of conversations: a window can hold from a few characters to the whole token
+ * budget, so only its content tells how much memory it retains.
+ */
+@Service
+@Slf4j
+public class ConversationContextServiceImpl implements ConversationContextService {
+
+    private final MessageRepository messageRepository;
+    private final TokenCountEstimator tokenCountEstimator;
+    private final int maxHistoryMessages;
+    private final int maxContextTokens;
+    private final Cache<Long, List<ContextMessage>> windows;
+
+    public ConversationContextServiceImpl(MessageRepository messageRepository,
+                                          TokenCountEstimator tokenCountEstimator,
+                                          @Value("${app.ai.conversation.max-history:50}") int maxHistoryMessages,
+                                          @Value("${app.ai.conversation.max-context-tokens:8192}") int maxContextTokens,
+                                          @Value("${app.ai.conversation.context-cache-max-characters:50000000}") long cacheMaxCharacters,
+                                          @Value("${app.ai.conversation.context-cache-expiration:PT30M}") Duration cacheExpiration) {
+        this.messageRepository = messageRepository;
+        this.tokenCountEstimator = tokenCountEstimator;
+        this.maxHistoryMessages = maxHistoryMessages;
+        this.maxContextTokens = maxContextTokens;
+        this.windows = Caffeine.newBuilder()
+                .maximumWeight(cacheMaxCharacters)
+                .weigher(ConversationContextServiceImpl::weigh)
+                .expireAfterAccess(cacheExpiration)
+                .build();
+    }
+
+    @Override
+    public List<ContextMessage> getContext(Long conversationId) {
+        return windows.get(conversationId, this::load);
+    }
+
+    @Override
+    public void append(Message message) {
+        Long conversationId = message.getConversation().getId();
+        ContextMessage entry = toContextMessage(message);
+        Runnable appendToWindow = () -> windows.asMap().computeIfPresent(conversationId, (id, window) -> append(window, entry));
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A rolled back message never enters the window
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    appendToWindow.run();
+                }
+            });
+        } else {
+            appendToWindow.run();
+        }
+    }
+
+    @Override
+    public void evict(Long conversationId) {
+        windows.invalidate(conversationId);
+    }
+
+    private List<ContextMessage> load(Long conversationId) {
+        // Latest messages first, only as many as the window can hold
+        List<Message> latest = messageRepository.findLastMessages(conversationId, PageRequest.of(0, maxHistoryMessages));
+        List<ContextMessage> window = new ArrayList<>(latest.size());
+        for (Message message : latest) {
+            window.add(toContextMessage(message));
+        }
+        Collections.reverse(window);
+        
+        log.debug("Context window of conversation {} rebuilt from {} messages", conversationId, window.size());
+        return trim(window);
+    }
+
+    private List<ContextMessage> append(List<ContextMessage> window, ContextMessage entry) {
+        // Already there when the window was rebuilt after the message was saved
+        if (window.stream().anyMatch(message -> message.getId().equals(entry.getId()))) {
+            return window;
+        }
+        List<ContextMessage> appended = new ArrayList<>(window.size() + 1);
+        appended.addAll(window);
+        appended.add(entry);
+        appended.sort(Comparator.comparing(ContextMessage::getId));
+        return trim(appended);
+    }
+
+    // Drops the oldest messages beyond the count or token budget; the latest one is always kept
+    private List<ContextMessage> trim(List<ContextMessage> window) {
+        int from = Math.max(0, window.size() - maxHistoryMessages);
+        int tokens = 0;
+        for (int i = from; i < window.size(); i++) {
+            tokens += window.get(i).getTokenCount();
+        }
+        while (tokens > maxContextTokens && from < window.size() - 1) {
+            tokens -= window.get(from).getTokenCount();
+            from++;
+        }
+        return List.copyOf(window.subList(from, window.size()));
+    }
+
+    private static int weigh(Long conversationId, List<ContextMessage> window) {
+        long characters = 0;
+        for (ContextMessage message : window) {
+            characters += message.getContent() != null ? message.getContent().length() : 0;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, characters));
+    }
+
+    private ContextMessage toContextMessage(Message message) {
+        int tokenCount = message.getTokenCount() != null
+                ? message.getTokenCount()
+                : Math.max(1, tokenCountEstimator.estimate(message.getContent()));
+        return new ContextMessage(message.getId(), message.getRole(), message.getContent(), tokenCount);
+    }
+}
@@ -10,6 +10,7 @@ import ci.hardwork.chatai.core.models.Message;
 import ci.hardwork.chatai.core.models.enums.ConversationStatus;
 import ci.hardwork.chatai.core.repository.ConversationRepository;
 import ci.hardwork.chatai.core.repository.MessageRepository;
+import ci.hardwork.chatai.core.service.ConversationContextService;
 import ci.hardwork.chatai.core.service.ConversationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,6 +34,7 @@ public class ConversationServiceImpl implements ConversationService {
     private final MessageRepository messageRepository;
     private final ConversationMapper conversationMapper;
     private final MessageMapper messageMapper;
+    private final ConversationContextService conversationContextService;
 
     @Value("${app.ai.conversation.auto-cleanup-days:30}")
     private Integer autoCleanupDays;
@@ -130,6 +132,7 @@ public class ConversationServiceImpl implements ConversationService {
                 .orElseThrow(() -> new RuntimeException("Conversation introuvable"));
         
         conversationRepository.delete(conversation);
+        conversationContextService.evict(conversationId);
         
         log.info("Suppression de la conversation {} pour l'utilisateur {}", conversationId, userId);
     }
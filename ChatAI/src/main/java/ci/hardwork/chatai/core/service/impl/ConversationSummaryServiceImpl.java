@@ -0,0 +1,166 @@
+package ci.hardwork.chatai.core.service.impl;
+
+import ci.hardwork.chatai.core.models.Conversation;
+import ci.hardwork.chatai.core.models.Message;
+import ci.hardwork.chatai.core.repository.ConversationRepository;
+import ci.hardwork.chatai.core.repository.MessageRepository;
+import ci.hardwork.chatai.core.service.ConversationSummaryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.ollama.api.OllamaOptions;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Rolling summary of long conversations. Once the messages not yet summarized exceed a
+ * token threshold, the oldest of them are folded into the conversation summary in the
+ * background, keeping the latest turns verbatim. Prompts then carry the summary and the
+ * recent turns only, so their size no longer grows with the conversation.
+ */
+@Service
+@Slf4j
+public class ConversationSummaryServiceImpl implements ConversationSummaryService {
+
+    private static final String SUMMARY_INSTRUCTIONS = "You maintain the running summary of a conversation between a user "
+            + "and the assistant of a medical appointment platform. Merge the previous summary and the new messages into a "
+            + "single concise summary that keeps facts, names, dates, decisions and open questions. "
+            + "Answer with the summary only, in the language of the conversation.";
+
+    private final ChatModel chatModel;
+    private final ConversationRepository conversationRepository;
+    private final MessageRepository messageRepository;
+    private final Executor executor;
+    private final Set<Long> inProgress = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.ai.ollama.model:llama3}")
+    private String defaultModel;
+
+    @Value("${app.ai.conversation.summary.threshold-tokens:3000}")
+    private Integer thresholdTokens;
+
+    @Value("${app.ai.conversation.summary.keep-recent-messages:6}")
+    private Integer keepRecentMessages;
+
+    @Value("${app.ai.conversation.summary.max-messages-per-pass:40}")
+    private Integer maxMessagesPerPass;
+
+    @Value("${app.ai.conversation.summary.max-tokens:512}")
+    private Integer maxSummaryTokens;
+
+    public ConversationSummaryServiceImpl(ChatModel chatModel,
+                                          ConversationRepository conversationRepository,
+                                          MessageRepository messageRepository,
+                                          @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.chatModel = chatModel;
+        this.conversationRepository = conversationRepository;
+        this.messageRepository = messageRepository;
+        this.executor = executor;
+    }
+
+    @Override
+    public void summarizeIfNeeded(Long conversationId) {
+        Runnable submit = () -> {
+            // One pass at a time per conversation
+            if (!inProgress.add(conversationId)) {
+                return;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        summarize(conversationId);
+                    } catch (Exception e) {
+                        log.warn("Failed to summarize conversation {}: {}", conversationId, e.getMessage());
+                    } finally {
+                        inProgress.remove(conversationId);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inProgress.remove(conversationId);
+                log.warn("Summary of conversation {} skipped: executor saturated", conversationId);
+            }
+        };
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // The messages of the turn must be committed before they are read
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit.run();
+                }
+            });
+        } else {
+            submit.run();
+        }
+    }
+
+    @Override
+    public void summarize(Long conversationId) {
+        Conversation conversation = conversationRepository.findById(conversationId).orElse(null);
+        if (conversation == null) {
+            return;
+        }
+        
+        String summary = conversation.getSummary();
+        long summarizedUpTo = conversation.getSummarizedUpToMessageId() != null ? conversation.getSummarizedUpToMessageId() : 0L;
+        
+        while (messageRepository.sumTokensAfter(conversationId, summarizedUpTo) > thresholdTokens) {
+            List<Message> pending = messageRepository.findMessagesAfter(conversationId, summarizedUpTo, 
+                    PageRequest.of(0, maxMessagesPerPass + keepRecentMessages));
+            // The latest turns stay verbatim in the prompt
+            int foldCount = Math.min(maxMessagesPerPass, pending.size() - keepRecentMessages);
+            if (foldCount <= 0) {
+                return;
+            }
+            List<Message> folded = pending.subList(0, foldCount);
+            
+            summary = generateSummary(conversation, summary, folded);
+            summarizedUpTo = folded.get(folded.size() - 1).getId();
+            conversationRepository.updateSummary(conversationId, summary, summarizedUpTo);
+            
+            log.info("Conversation {} summarized up to message {} ({} messages folded)", 
+                    conversationId, summarizedUpTo, foldCount);
+        }
+    }
+
+    private String generateSummary(Conversation conversation, String previousSummary, List<Message> messages) {
+        StringBuilder content = new StringBuilder("Previous summary:\n")
+                .append(previousSummary != null ? previousSummary : "(none)")
+                .append("\n\nNew messages:\n");
+        for (Message message : messages) {
+            String rolePrefix = switch (message.getRole()) {
+                case USER -> "User: ";
+                case ASSISTANT -> "Assistant: ";
+                case SYSTEM -> "System: ";
+            };
+            content.append(rolePrefix).append(message.getContent()).append("\n");
+        }
+        
+        Prompt prompt = new Prompt(List.of(new SystemMessage(SUMMARY_INSTRUCTIONS), new UserMessage(content.toString())),
+                OllamaOptions.builder()
+                        .model(conversation.getModelName() != null ? conversation.getModelName() : defaultModel)
+                        .temperature(0.2)
+                        .numPredict(maxSummaryTokens)
+                        .build());
+        
+        ChatResponse response = chatModel.call(prompt);
+        if (response == null || response.getResult() == null || response.getResult().getOutput().getText() == null
+                || response.getResult().getOutput().getText().trim().isEmpty()) {
+            throw new IllegalStateException("Ollama returned an empty summary");
+        }
+        return response.getResult().getOutput().getText().trim();
+    }
+}
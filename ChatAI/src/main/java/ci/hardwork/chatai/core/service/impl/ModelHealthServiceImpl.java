@@ -0,0 +1,96 @@
+package ci.hardwork.chatai.core.service.impl;
+
+import ci.hardwork.chatai.core.dto.ModelHealthStatus;
+import ci.hardwork.chatai.core.service.ModelHealthService;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Availability of the Ollama models, refreshed in the background from the lightweight
+ * model-list endpoint ({@code /api/tags}) instead of a test generation on the request path.
+ * Requests only read the last known state, so an outage fails them immediately and a
+ * recovery is seen at the next poll.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ModelHealthServiceImpl implements ModelHealthService {
+
+    private static final String DEFAULT_TAG = ":latest";
+
+    private final RestTemplate restTemplate;
+
+    @Value("${spring.ai.ollama.base-url:http://localhost:11434}")
+    private String ollamaBaseUrl;
+
+    private volatile ModelHealthStatus status = new ModelHealthStatus(null, Set.of(), null, null);
+
+    @Override
+    public boolean isModelAvailable(String modelName) {
+        ModelHealthStatus current = status;
+        if (current.getReachable() == null) {
+            // Not polled yet: let the request go through rather than reject it blindly
+            return true;
+        }
+        return current.getReachable() && current.getAvailableModels().contains(normalize(modelName));
+    }
+
+    @Override
+    public ModelHealthStatus getStatus() {
+        return status;
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${app.ai.ollama.health.initial-delay:PT0S}",
+               fixedDelayString = "${app.ai.ollama.health.interval:PT15S}")
+    public void refresh() {
+        ModelHealthStatus previous = status;
+        try {
+            OllamaTags tags = restTemplate.getForObject(ollamaBaseUrl + "/api/tags", OllamaTags.class);
+            if (tags == null || tags.models() == null) {
+                throw new IllegalStateException("Ollama returned an empty model list");
+            }
+            Set<String> models = tags.models().stream()
+                    .map(OllamaModel::name)
+                    .filter(name -> name != null && !name.isBlank())
+                    .map(ModelHealthServiceImpl::normalize)
+                    .collect(Collectors.toUnmodifiableSet());
+            status = new ModelHealthStatus(true, models, LocalDateTime.now(), null);
+            if (!Boolean.TRUE.equals(previous.getReachable()) || !models.equals(previous.getAvailableModels())) {
+                log.info("Ollama reachable, available models: {}", models);
+            }
+        } catch (Exception e) {
+            status = new ModelHealthStatus(false, Set.of(), LocalDateTime.now(), e.getMessage());
+            if (!Boolean.FALSE.equals(previous.getReachable())) {
+                log.warn("Ollama unreachable at {}: {}", ollamaBaseUrl, e.getMessage());
+            }
+        }
+    }
+
+    // Ollama lists "llama3" as "llama3:latest"
+    private static String normalize(String modelName) {
+        if (modelName == null) {
+            return "";
+        }
+        String name = modelName.trim();
+        return name.contains(":") ? name : name + DEFAULT_TAG;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record OllamaTags(List<OllamaModel> models) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record OllamaModel(String name) {
+    }
+}
@@ -0,0 +1,139 @@
+package ci.hardwork.chatai.core.service.impl;
+
+import ci.hardwork.chatai.core.dto.ChatRequest;
+import ci.hardwork.chatai.core.dto.ContextMessage;
+import ci.hardwork.chatai.core.models.Conversation;
+import ci.hardwork.chatai.core.service.PromptService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.ollama.api.OllamaOptions;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Assembles the prompt of a turn as structured system, history and user messages, within
+ * the model context: the output reserved for the answer, the system prompt and the current
+ * message come first, then history is packed from the newest message back until the
+ * remaining budget is spent. Once a conversation has a rolling summary, it stands in for
+ * the messages it covers and only the later ones are packed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PromptServiceImpl implements PromptService {
+
+    // Role header and end-of-turn markers added by the chat template around each message
+    private static final int MESSAGE_OVERHEAD_TOKENS = 5;
+
+    private static final String SUMMARY_HEADER = "Summary of the earlier conversation:\n";
+
+    private final TokenCountEstimator tokenCountEstimator;
+
+    @Value("${app.ai.ollama.context-window:8192}")
+    private Integer contextWindow;
+
+    @Value("${app.ai.ollama.chat.options.max-tokens:2000}")
+    private Integer defaultMaxTokens;
+
+    @Value("${app.ai.ollama.chat.options.temperature:0.7}")
+    private Double defaultTemperature;
+
+    @Override
+    public Prompt buildPrompt(Conversation conversation, List<ContextMessage> history, ChatRequest request, String modelName) {
+        int reservedOutput = firstNonNull(request.getMaxTokens(), conversation.getMaxTokens(), defaultMaxTokens);
+        String systemPrompt = hasText(request.getSystemPrompt()) ? request.getSystemPrompt() : conversation.getSystemPrompt();
+        
+        int budget = contextWindow - reservedOutput - messageTokens(countTokens(request.getMessage()));
+        if (hasText(systemPrompt)) {
+            budget -= messageTokens(countTokens(systemPrompt));
+        }
+        String summary = hasText(conversation.getSummary()) ? SUMMARY_HEADER + conversation.getSummary() : null;
+        if (summary != null) {
+            budget -= messageTokens(countTokens(summary));
+        }
+        Long summarizedUpTo = summary != null ? conversation.getSummarizedUpToMessageId() : null;
+        
+        // Newest first; an older message is only kept if every newer one is
+        Deque<Message> packedHistory = new ArrayDeque<>();
+        for (int i = history.size() - 1; i >= 0; i--) {
+            ContextMessage message = history.get(i);
+            if (summarizedUpTo != null && message.getId() != null && message.getId() <= summarizedUpTo) {
+                break;
+            }
+            int cost = messageTokens(message.getTokenCount());
+            if (cost > budget) {
+                break;
+            }
+            budget -= cost;
+            packedHistory.addFirst(toPromptMessage(message));
+        }
+        
+        if (budget < 0) {
+            log.warn("Prompt of conversation {} exceeds the context window by {} tokens", conversation.getId(), -budget);
+        } else if (packedHistory.size() < history.size()) {
+            log.debug("Prompt of conversation {} keeps {} of {} history messages", 
+                    conversation.getId(), packedHistory.size(), history.size());
+        }
+        
+        List<Message> messages = new ArrayList<>(packedHistory.size() + 3);
+        if (hasText(systemPrompt)) {
+            messages.add(new SystemMessage(systemPrompt));
+        }
+        if (summary != null) {
+            messages.add(new SystemMessage(summary));
+        }
+        messages.addAll(packedHistory);
+        messages.add(new UserMessage(request.getMessage()));
+        
+        OllamaOptions options = OllamaOptions.builder()
+                .model(modelName)
+                .temperature(firstNonNull(request.getTemperature(), conversation.getTemperature(), defaultTemperature))
+                .numPredict(reservedOutput)
+                .numCtx(contextWindow)
+                .build();
+        
+        return new Prompt(messages, options);
+    }
+
+    @Override
+    public int countTokens(String text) {
+        return hasText(text) ? tokenCountEstimator.estimate(text) : 0;
+    }
+
+    private static Message toPromptMessage(ContextMessage message) {
+        return switch (message.getRole()) {
+            case USER -> new UserMessage(message.getContent());
+            case ASSISTANT -> new AssistantMessage(message.getContent());
+            case SYSTEM -> new SystemMessage(message.getContent());
+        };
+    }
+
+    private static int messageTokens(int contentTokens) {
+        return contentTokens + MESSAGE_OVERHEAD_TOKENS;
+    }
+
+    private static boolean hasText(String text) {
+        return text != null && !text.trim().isEmpty();
+    }
+
+    @SafeVarargs
+    private static <T> T firstNonNull(T... values) {
+        for (T value : values) {
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
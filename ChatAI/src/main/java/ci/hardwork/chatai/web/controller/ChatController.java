@@ -64,7 +64,8 @@ public class ChatController {
         }
     }
 
-    @Operation(summary = "Conversation en streaming", description = "Envoie un message et reçoit la réponse en streaming SSE")
+    @Operation(summary = "Conversation en streaming", description = "Envoie un message et reçoit la réponse en streaming SSE : "
+            + "un événement 'chunk' par fragment généré, puis un événement 'message' avec la réponse complète enregistrée")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Stream de réponse initié"),
         @ApiResponse(responseCode = "400", description = "Requête invalide"),
@@ -2,17 +2,26 @@ package ci.hardwork.chatai.service;
 
 import ci.hardwork.chatai.core.dto.ChatRequest;
 import ci.hardwork.chatai.core.dto.ChatResponse;
+import ci.hardwork.chatai.core.dto.ContextMessage;
 import ci.hardwork.chatai.core.models.Conversation;
 import ci.hardwork.chatai.core.models.Message;
 import ci.hardwork.chatai.core.models.enums.MessageRole;
 import ci.hardwork.chatai.core.repository.ConversationRepository;
 import ci.hardwork.chatai.core.repository.MessageRepository;
+import ci.hardwork.chatai.core.service.ConversationContextService;
 import ci.hardwork.chatai.core.service.ConversationService;
+import ci.hardwork.chatai.core.service.ConversationSummaryService;
+import ci.hardwork.chatai.core.service.ModelHealthService;
+import ci.hardwork.chatai.core.service.PromptService;
 import ci.hardwork.chatai.core.service.UserSessionService;
 import ci.hardwork.chatai.core.service.impl.ChatServiceImpl;
+import ci.hardwork.chatai.web.controller.ChatController;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -20,18 +29,32 @@ import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.model.Generation;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.model.ModelResult;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 
 @ExtendWith(MockitoExtension.class)
 class ChatServiceTest {
 
+    private static final long ATTENTE_MS = 2000;
+
     @Mock
     private ChatModel chatModel;
 
@@ -47,6 +70,18 @@ class ChatServiceTest {
     @Mock
     private UserSessionService userSessionService;
 
+    @Mock
+    private ModelHealthService modelHealthService;
+
+    @Mock
+    private ConversationContextService conversationContextService;
+
+    @Mock
+    private PromptService promptService;
+
+    @Mock
+    private ConversationSummaryService conversationSummaryService;
+
     @InjectMocks
     private ChatServiceImpl chatService;
 
@@ -61,7 +96,9 @@ class ChatServiceTest {
         ReflectionTestUtils.setField(chatService, "defaultModel", "llama3");
         ReflectionTestUtils.setField(chatService, "defaultTemperature", 0.7);
         ReflectionTestUtils.setField(chatService, "defaultMaxTokens", 2000);
-        ReflectionTestUtils.setField(chatService, "maxHistoryMessages", 50);
+        ReflectionTestUtils.setField(chatService, "streamTimeout", Duration.ofSeconds(60));
+        lenient().when(modelHealthService.isModelAvailable(anyString())).thenReturn(true);
+        lenient().when(promptService.buildPrompt(any(), any(), any(), any())).thenReturn(new Prompt("Bonjour"));
 
         // Préparation des objets de test
         chatRequest = new ChatRequest();
@@ -95,8 +132,8 @@ class ChatServiceTest {
         when(messageRepository.save(any(Message.class)))
                 .thenReturn(userMessage)
                 .thenReturn(assistantMessage);
-        when(messageRepository.findByConversationIdOrderByCreatedAtAsc(anyLong()))
-                .thenReturn(List.of(userMessage));
+        when(conversationContextService.getContext(anyLong()))
+                .thenReturn(List.of());
 
         // Mock de la réponse IA
         org.springframework.ai.chat.model.ChatResponse aiResponse = mock(org.springframework.ai.chat.model.ChatResponse.class);
@@ -122,6 +159,7 @@ class ChatServiceTest {
 
         verify(conversationRepository).save(any(Conversation.class));
         verify(messageRepository, times(2)).save(any(Message.class));
+        verify(conversationContextService, times(2)).append(any(Message.class));
         verify(userSessionService).recordRequest(eq(userId), isNull());
     }
 
@@ -136,8 +174,8 @@ class ChatServiceTest {
         when(messageRepository.save(any(Message.class)))
                 .thenReturn(userMessage)
                 .thenReturn(assistantMessage);
-        when(messageRepository.findByConversationIdOrderByCreatedAtAsc(1L))
-                .thenReturn(List.of(userMessage));
+        when(conversationContextService.getContext(1L))
+                .thenReturn(List.of(contexte(userMessage)));
 
         // Mock de la réponse IA
         org.springframework.ai.chat.model.ChatResponse aiResponse = mock(org.springframework.ai.chat.model.ChatResponse.class);
@@ -189,8 +227,8 @@ class ChatServiceTest {
         
         when(conversationRepository.save(any(Conversation.class))).thenReturn(conversation);
         when(messageRepository.save(any(Message.class))).thenReturn(userMessage);
-        when(messageRepository.findByConversationIdOrderByCreatedAtAsc(anyLong()))
-                .thenReturn(List.of(userMessage));
+        when(conversationContextService.getContext(anyLong()))
+                .thenReturn(List.of());
         
         when(chatModel.call(any(Prompt.class)))
                 .thenThrow(new RuntimeException("Erreur de connexion au modèle IA"));
@@ -204,6 +242,135 @@ class ChatServiceTest {
         verify(chatModel, times(2)).call(any(Prompt.class)); // 1 for title generation + 1 for message
     }
 
+    @Test
+    void testSendMessage_ModeleIndisponible_EchecImmediat() {
+        // Given
+        Long userId = 123L;
+        
+        when(modelHealthService.isModelAvailable("llama3")).thenReturn(false);
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class, 
+                () -> chatService.sendMessage(userId, chatRequest));
+        
+        assertTrue(exception.getMessage().contains("Model llama3 is not available"));
+        
+        verifyNoInteractions(chatModel);
+        verify(messageRepository, never()).save(any(Message.class));
+    }
+
+    @Test
+    void testSendMessageStream_Fragments_MessageAssembleEnregistreUneFois() {
+        // Given
+        Long userId = 123L;
+        chatRequest.setConversationId(1L);
+        
+        when(conversationRepository.findByIdAndUserId(1L, userId))
+                .thenReturn(Optional.of(conversation));
+        when(messageRepository.save(any(Message.class)))
+                .thenReturn(userMessage)
+                .thenReturn(assistantMessage);
+        when(conversationContextService.getContext(1L))
+                .thenReturn(List.of(contexte(userMessage)));
+        when(chatModel.stream(any(Prompt.class)))
+                .thenReturn(Flux.just(fragment("Bonjour"), fragment(" !"), fragment("")));
+
+        // When
+        SseEmitter emitter = chatService.sendMessageStream(userId, chatRequest);
+
+        // Then : la réponse est enregistrée hors du thread appelant
+        assertNotNull(emitter);
+        ArgumentCaptor<Message> messages = ArgumentCaptor.forClass(Message.class);
+        verify(messageRepository, timeout(ATTENTE_MS).times(2)).save(messages.capture());
+        Message reponse = messages.getAllValues().get(1);
+        assertEquals(MessageRole.ASSISTANT, reponse.getRole());
+        assertEquals("Bonjour !", reponse.getContent());
+        assertEquals("llama3", reponse.getModelName());
+        verify(userSessionService, timeout(ATTENTE_MS)).recordRequest(eq(userId), isNull());
+        // Pas d'appel bloquant : ni vérification préalable du modèle, ni génération complète
+        verify(chatModel, never()).call(any(Prompt.class));
+    }
+
+    @Test
+    void testSendMessageStream_ErreurIA_ReponseNonEnregistree() {
+        // Given
+        Long userId = 123L;
+        chatRequest.setConversationId(1L);
+        
+        when(conversationRepository.findByIdAndUserId(1L, userId))
+                .thenReturn(Optional.of(conversation));
+        when(messageRepository.save(any(Message.class))).thenReturn(userMessage);
+        when(conversationContextService.getContext(1L))
+                .thenReturn(List.of(contexte(userMessage)));
+        when(chatModel.stream(any(Prompt.class)))
+                .thenReturn(Flux.concat(Flux.just(fragment("Bonjour")),
+                        Flux.<org.springframework.ai.chat.model.ChatResponse>error(new RuntimeException("Connexion perdue"))));
+
+        // When
+        chatService.sendMessageStream(userId, chatRequest);
+
+        // Then : seul le message utilisateur est enregistré
+        verify(messageRepository, after(ATTENTE_MS / 4).times(1)).save(any(Message.class));
+        verify(userSessionService, never()).recordRequest(anyLong(), any());
+    }
+
+    @Test
+    void testSendMessageStream_DelaiDepasse_GenerationAnnulee() throws Exception {
+        // Given
+        AtomicBoolean annulee = preparerGenerationSansFin();
+        MvcResult resultat = demarrerStream();
+
+        // When : le conteneur signale l'expiration de la requête asynchrone
+        MockAsyncContext contexte = (MockAsyncContext) resultat.getRequest().getAsyncContext();
+        for (AsyncListener listener : contexte.getListeners()) {
+            listener.onTimeout(new AsyncEvent(contexte));
+        }
+
+        // Then
+        assertTrue(annulee.get());
+        verify(messageRepository, times(1)).save(any(Message.class));
+    }
+
+    @Test
+    void testSendMessageStream_ClientDeconnecte_GenerationAnnulee() throws Exception {
+        // Given
+        AtomicBoolean annulee = preparerGenerationSansFin();
+        MvcResult resultat = demarrerStream();
+
+        // When : l'écriture vers le client échoue
+        MockAsyncContext contexte = (MockAsyncContext) resultat.getRequest().getAsyncContext();
+        for (AsyncListener listener : contexte.getListeners()) {
+            listener.onError(new AsyncEvent(contexte, new IOException("Connexion fermée par le client")));
+        }
+
+        // Then
+        assertTrue(annulee.get());
+        verify(messageRepository, times(1)).save(any(Message.class));
+    }
+
+    private AtomicBoolean preparerGenerationSansFin() {
+        chatRequest.setConversationId(1L);
+        when(conversationRepository.findByIdAndUserId(1L, 123L)).thenReturn(Optional.of(conversation));
+        when(messageRepository.save(any(Message.class))).thenReturn(userMessage);
+        when(conversationContextService.getContext(1L)).thenReturn(List.of(contexte(userMessage)));
+        AtomicBoolean annulee = new AtomicBoolean();
+        when(chatModel.stream(any(Prompt.class)))
+                .thenReturn(Flux.<org.springframework.ai.chat.model.ChatResponse>never().doOnCancel(() -> annulee.set(true)));
+        return annulee;
+    }
+
+    private MvcResult demarrerStream() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ChatController(chatService)).build();
+        MvcResult resultat = mockMvc.perform(post("/chat/message/stream")
+                        .requestAttr("userId", 123L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"message\": \"Bonjour\", \"conversationId\": 1}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertFalse(((MockAsyncContext) resultat.getRequest().getAsyncContext()).getListeners().isEmpty());
+        return resultat;
+    }
+
     @Test
     void testGenerateTitle_MessageCourt_TitreGenere() {
         // Given
@@ -282,4 +449,13 @@ class ChatServiceTest {
         // Then
         verify(userSessionService).validateRateLimit(userId);
     }
+
+    private ContextMessage contexte(Message message) {
+        return new ContextMessage(message.getId(), message.getRole(), message.getContent(), 8);
+    }
+
+    private org.springframework.ai.chat.model.ChatResponse fragment(String texte) {
+        return new org.springframework.ai.chat.model.ChatResponse(List.of(
+                new Generation(new org.springframework.ai.chat.messages.AssistantMessage(texte))));
+    }
 }
\ No newline at end of file
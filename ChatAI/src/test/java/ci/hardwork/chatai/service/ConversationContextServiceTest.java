@@ -0,0 +1,208 @@
+package ci.hardwork.chatai.service;
+
+import ci.hardwork.chatai.core.dto.ContextMessage;
+import ci.hardwork.chatai.core.models.Conversation;
+import ci.hardwork.chatai.core.models.Message;
+import ci.hardwork.chatai.core.models.enums.MessageRole;
+import ci.hardwork.chatai.core.repository.MessageRepository;
+import ci.hardwork.chatai.core.service.impl.ConversationContextServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConversationContextServiceTest {
+
+    private static final int MAX_MESSAGES = 4;
+    private static final int MAX_TOKENS = 100;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    private ConversationContextServiceImpl contextService;
+    private Conversation conversation;
+
+    @BeforeEach
+    void setUp() {
+        contextService = new ConversationContextServiceImpl(messageRepository, new JTokkitTokenCountEstimator(), MAX_MESSAGES, MAX_TOKENS, 10_000, Duration.ofMinutes(30));
+
+        conversation = new Conversation();
+        conversation.setId(1L);
+        conversation.setUserId(123L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testGetContext_CacheVide_ChargementBorneUneSeuleFois() {
+        // Given : la requête rend les derniers messages, du plus récent au plus ancien
+        when(messageRepository.findLastMessages(1L, PageRequest.of(0, MAX_MESSAGES)))
+                .thenReturn(List.of(message(3L, 10), message(2L, 10), message(1L, 10)));
+
+        // When
+        List<ContextMessage> premier = contextService.getContext(1L);
+        List<ContextMessage> second = contextService.getContext(1L);
+
+        // Then
+        assertEquals(List.of(1L, 2L, 3L), ids(premier));
+        assertSame(premier, second);
+        verify(messageRepository, times(1)).findLastMessages(anyLong(), any());
+        verify(messageRepository, never()).findByConversationIdOrderByCreatedAtAsc(anyLong());
+    }
+
+    @Test
+    void testAppend_FenetreEnCache_AjoutSansRequete() {
+        // Given
+        when(messageRepository.findLastMessages(eq(1L), any()))
+                .thenReturn(List.of(message(2L, 10), message(1L, 10)));
+        contextService.getContext(1L);
+
+        // When
+        contextService.append(message(3L, 10));
+
+        // Then
+        assertEquals(List.of(1L, 2L, 3L), ids(contextService.getContext(1L)));
+        verify(messageRepository, times(1)).findLastMessages(anyLong(), any());
+    }
+
+    @Test
+    void testAppend_NombreMaximum_PlusAnciensRetires() {
+        // Given
+        when(messageRepository.findLastMessages(eq(1L), any()))
+                .thenReturn(List.of(message(4L, 10), message(3L, 10), message(2L, 10), message(1L, 10)));
+        contextService.getContext(1L);
+
+        // When
+        contextService.append(message(5L, 10));
+        contextService.append(message(6L, 10));
+
+        // Then
+        assertEquals(List.of(3L, 4L, 5L, 6L), ids(contextService.getContext(1L)));
+    }
+
+    @Test
+    void testAppend_BudgetTokens_PlusAnciensRetiresDernierConserve() {
+        // Given
+        when(messageRepository.findLastMessages(eq(1L), any()))
+                .thenReturn(List.of(message(2L, 40), message(1L, 40)));
+        contextService.getContext(1L);
+
+        // When : 40 + 40 + 30 dépasse le budget de 100 tokens
+        contextService.append(message(3L, 30));
+        List<ContextMessage> apresBudget = contextService.getContext(1L);
+        contextService.append(message(4L, 150));
+        List<ContextMessage> apresLongMessage = contextService.getContext(1L);
+
+        // Then
+        assertEquals(List.of(2L, 3L), ids(apresBudget));
+        assertEquals(List.of(4L), ids(apresLongMessage));
+    }
+
+    @Test
+    void testGetContext_ChargementAuDelaDuBudget_FenetreTronquee() {
+        // Given
+        when(messageRepository.findLastMessages(eq(1L), any()))
+                .thenReturn(List.of(message(3L, 60), message(2L, 30), message(1L, 30)));
+
+        // When
+        List<ContextMessage> contexte = contextService.getContext(1L);
+
+        // Then
+        assertEquals(List.of(2L, 3L), ids(contexte));
+    }
+
+    @Test
+    void testAppend_FenetreAbsente_RechargeeALaLecture() {
+        // Given
+        contextService.append(message(1L, 10));
+        when(messageRepository.findLastMessages(eq(1L), any()))
+                .thenReturn(List.of(message(1L, 10)));
+
+        // When
+        List<ContextMessage> contexte = contextService.getContext(1L);
+
+        // Then : l'ajout n'a pas créé de fenêtre incomplète
+        assertEquals(List.of(1L), ids(contexte));
+        verify(messageRepository).findLastMessages(eq(1L), any());
+    }
+
+    @Test
+    void testAppend_MessageDejaCharge_PasDeDoublon() {
+        // Given
+        when(messageRepository.findLastMessages(eq(1L), any()))
+                .thenReturn(List.of(message(2L, 10), message(1L, 10)));
+        contextService.getContext(1L);
+
+        // When
+        contextService.append(message(2L, 10));
+
+        // Then
+        assertEquals(List.of(1L, 2L), ids(contextService.getContext(1L)));
+    }
+
+    @Test
+    void testAppend_DansUneTransaction_AppliqueApresCommit() {
+        // Given
+        when(messageRepository.findLastMessages(eq(1L), any()))
+                .thenReturn(List.of(message(1L, 10)));
+        contextService.getContext(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        contextService.append(message(2L, 10));
+        List<ContextMessage> avantCommit = contextService.getContext(1L);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Then
+        assertEquals(List.of(1L), ids(avantCommit));
+        assertEquals(List.of(1L, 2L), ids(contextService.getContext(1L)));
+    }
+
+    @Test
+    void testEvict_FenetreRechargee() {
+        // Given
+        when(messageRepository.findLastMessages(eq(1L), any()))
+                .thenReturn(List.of(message(1L, 10)));
+        contextService.getContext(1L);
+
+        // When
+        contextService.evict(1L);
+        contextService.getContext(1L);
+
+        // Then
+        verify(messageRepository, times(2)).findLastMessages(eq(1L), any());
+    }
+
+    private Message message(Long id, int tokens) {
+        Message message = new Message();
+        message.setId(id);
+        message.setConversation(conversation);
+        message.setRole(id % 2 == 1 ? MessageRole.USER : MessageRole.ASSISTANT);
+        message.setContent("Message " + id);
+        message.setTokenCount(tokens);
+        return message;
+    }
+
+    private List<Long> ids(List<ContextMessage> contexte) {
+        return contexte.stream().map(ContextMessage::getId).toList();
+    }
+}
@@ -10,6 +10,7 @@ import ci.hardwork.chatai.core.models.Message;
 import ci.hardwork.chatai.core.models.enums.ConversationStatus;
 import ci.hardwork.chatai.core.repository.ConversationRepository;
 import ci.hardwork.chatai.core.repository.MessageRepository;
+import ci.hardwork.chatai.core.service.ConversationContextService;
 import ci.hardwork.chatai.core.service.impl.ConversationServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -45,6 +46,9 @@ class ConversationServiceTest {
     @Mock
     private MessageMapper messageMapper;
 
+    @Mock
+    private ConversationContextService conversationContextService;
+
     @InjectMocks
     private ConversationServiceImpl conversationService;
 
@@ -250,6 +254,7 @@ class ConversationServiceTest {
         // Then
         verify(conversationRepository).findByIdAndUserId(conversationId, userId);
         verify(conversationRepository).delete(conversation);
+        verify(conversationContextService).evict(conversationId);
     }
 
     @Test
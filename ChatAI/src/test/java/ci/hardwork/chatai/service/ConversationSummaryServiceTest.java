@@ -0,0 +1,174 @@
+package ci.hardwork.chatai.service;
+
+import ci.hardwork.chatai.core.models.Conversation;
+import ci.hardwork.chatai.core.models.Message;
+import ci.hardwork.chatai.core.models.enums.MessageRole;
+import ci.hardwork.chatai.core.repository.ConversationRepository;
+import ci.hardwork.chatai.core.repository.MessageRepository;
+import ci.hardwork.chatai.core.service.impl.ConversationSummaryServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.ollama.api.OllamaOptions;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConversationSummaryServiceTest {
+
+    @Mock
+    private ChatModel chatModel;
+
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    private ConversationSummaryServiceImpl summaryService;
+    private Conversation conversation;
+
+    @BeforeEach
+    void setUp() {
+        // Exécution immédiate à la place de l'exécuteur de l'application
+        summaryService = new ConversationSummaryServiceImpl(chatModel, conversationRepository, messageRepository, Runnable::run);
+        ReflectionTestUtils.setField(summaryService, "defaultModel", "llama3");
+        ReflectionTestUtils.setField(summaryService, "thresholdTokens", 1000);
+        ReflectionTestUtils.setField(summaryService, "keepRecentMessages", 2);
+        ReflectionTestUtils.setField(summaryService, "maxMessagesPerPass", 40);
+        ReflectionTestUtils.setField(summaryService, "maxSummaryTokens", 256);
+
+        conversation = new Conversation();
+        conversation.setId(1L);
+        conversation.setUserId(123L);
+        when(conversationRepository.findById(1L)).thenReturn(Optional.of(conversation));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testSummarizeIfNeeded_SousLeSeuil_AucunAppelAuModele() {
+        // Given
+        when(messageRepository.sumTokensAfter(1L, 0L)).thenReturn(400L);
+
+        // When
+        summaryService.summarizeIfNeeded(1L);
+
+        // Then
+        verify(chatModel, never()).call(any(Prompt.class));
+        verify(conversationRepository, never()).updateSummary(anyLong(), anyString(), anyLong());
+    }
+
+    @Test
+    void testSummarizeIfNeeded_AuDelaDuSeuil_MessagesAnciensResumesDerniersConserves() {
+        // Given : six messages non résumés, les deux derniers restent tels quels
+        when(messageRepository.sumTokensAfter(1L, 0L)).thenReturn(5000L);
+        when(messageRepository.sumTokensAfter(1L, 4L)).thenReturn(300L);
+        when(messageRepository.findMessagesAfter(eq(1L), eq(0L), any())).thenReturn(messages(1L, 6L));
+        when(chatModel.call(any(Prompt.class))).thenReturn(reponse("Le patient cherche un cardiologue."));
+
+        // When
+        summaryService.summarizeIfNeeded(1L);
+
+        // Then
+        verify(conversationRepository).updateSummary(1L, "Le patient cherche un cardiologue.", 4L);
+        ArgumentCaptor<Prompt> prompt = ArgumentCaptor.forClass(Prompt.class);
+        verify(chatModel).call(prompt.capture());
+        String contenu = prompt.getValue().getInstructions().get(1).getText();
+        assertTrue(contenu.contains("Message 4"));
+        assertFalse(contenu.contains("Message 5"));
+        assertEquals(256, ((OllamaOptions) prompt.getValue().getOptions()).getNumPredict());
+    }
+
+    @Test
+    void testSummarizeIfNeeded_ResumeExistant_ReprendApresLeDernierMessageResume() {
+        // Given
+        conversation.setSummary("Résumé précédent.");
+        conversation.setSummarizedUpToMessageId(10L);
+        when(messageRepository.sumTokensAfter(1L, 10L)).thenReturn(2000L);
+        when(messageRepository.sumTokensAfter(1L, 12L)).thenReturn(200L);
+        when(messageRepository.findMessagesAfter(eq(1L), eq(10L), any())).thenReturn(messages(11L, 14L));
+        when(chatModel.call(any(Prompt.class))).thenReturn(reponse("Résumé mis à jour."));
+
+        // When
+        summaryService.summarizeIfNeeded(1L);
+
+        // Then
+        ArgumentCaptor<Prompt> prompt = ArgumentCaptor.forClass(Prompt.class);
+        verify(chatModel).call(prompt.capture());
+        assertTrue(prompt.getValue().getInstructions().get(1).getText().contains("Résumé précédent."));
+        verify(conversationRepository).updateSummary(1L, "Résumé mis à jour.", 12L);
+    }
+
+    @Test
+    void testSummarizeIfNeeded_EchecDuModele_PasDeMiseAJourEtNouvelleTentativePossible() {
+        // Given
+        when(messageRepository.sumTokensAfter(1L, 0L)).thenReturn(5000L);
+        when(messageRepository.findMessagesAfter(eq(1L), eq(0L), any())).thenReturn(messages(1L, 6L));
+        when(chatModel.call(any(Prompt.class))).thenThrow(new RuntimeException("Ollama indisponible"));
+
+        // When
+        summaryService.summarizeIfNeeded(1L);
+        summaryService.summarizeIfNeeded(1L);
+
+        // Then
+        verify(chatModel, times(2)).call(any(Prompt.class));
+        verify(conversationRepository, never()).updateSummary(anyLong(), anyString(), anyLong());
+    }
+
+    @Test
+    void testSummarizeIfNeeded_TransactionActive_ResumeApresLeCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        when(messageRepository.sumTokensAfter(1L, 0L)).thenReturn(400L);
+
+        // When
+        summaryService.summarizeIfNeeded(1L);
+
+        // Then
+        verify(messageRepository, never()).sumTokensAfter(anyLong(), anyLong());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(messageRepository).sumTokensAfter(1L, 0L);
+    }
+
+    private List<Message> messages(long premier, long dernier) {
+        return LongStream.rangeClosed(premier, dernier)
+                .mapToObj(id -> {
+                    Message message = new Message();
+                    message.setId(id);
+                    message.setConversation(conversation);
+                    message.setRole(id % 2 == 1 ? MessageRole.USER : MessageRole.ASSISTANT);
+                    message.setContent("Message " + id);
+                    message.setTokenCount(500);
+                    return message;
+                })
+                .toList();
+    }
+
+    private ChatResponse reponse(String texte) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(texte))));
+    }
+}
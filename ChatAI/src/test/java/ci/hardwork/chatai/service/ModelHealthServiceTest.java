@@ -0,0 +1,131 @@
+package ci.hardwork.chatai.service;
+
+import ci.hardwork.chatai.core.dto.ModelHealthStatus;
+import ci.hardwork.chatai.core.service.impl.ModelHealthServiceImpl;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Relevé des modèles auprès d'un Ollama simulé par un serveur HTTP local.
+ */
+class ModelHealthServiceTest {
+
+    private HttpServer ollama;
+    private AtomicInteger statut;
+    private volatile String modeles;
+    private ModelHealthServiceImpl modelHealthService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        statut = new AtomicInteger(200);
+        modeles = "{\"models\":[{\"name\":\"llama3:latest\",\"size\":4661224676},{\"name\":\"mistral:7b\"}]}";
+        ollama = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        ollama.createContext("/api/tags", this::repondre);
+        ollama.start();
+
+        modelHealthService = new ModelHealthServiceImpl(new RestTemplate());
+        ReflectionTestUtils.setField(modelHealthService, "ollamaBaseUrl",
+                "http://localhost:" + ollama.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        ollama.stop(0);
+    }
+
+    @Test
+    void testIsModelAvailable_AvantPremierReleve_RequeteAutorisee() {
+        // When & Then
+        assertTrue(modelHealthService.isModelAvailable("llama3"));
+        assertNull(modelHealthService.getStatus().getReachable());
+    }
+
+    @Test
+    void testRefresh_ModelesListes_DisponibiliteParModele() {
+        // When
+        modelHealthService.refresh();
+
+        // Then
+        assertTrue(modelHealthService.isModelAvailable("llama3"));
+        assertTrue(modelHealthService.isModelAvailable("llama3:latest"));
+        assertTrue(modelHealthService.isModelAvailable("mistral:7b"));
+        assertFalse(modelHealthService.isModelAvailable("mistral"));
+        assertFalse(modelHealthService.isModelAvailable("phi3"));
+
+        ModelHealthStatus status = modelHealthService.getStatus();
+        assertTrue(status.getReachable());
+        assertNotNull(status.getCheckedAt());
+        assertNull(status.getError());
+    }
+
+    @Test
+    void testRefresh_OllamaEnPanne_EchecImmediatPuisRetablissement() {
+        // Given
+        modelHealthService.refresh();
+        statut.set(503);
+
+        // When
+        modelHealthService.refresh();
+
+        // Then
+        assertFalse(modelHealthService.isModelAvailable("llama3"));
+        assertFalse(modelHealthService.getStatus().getReachable());
+        assertNotNull(modelHealthService.getStatus().getError());
+
+        // When : Ollama revient
+        statut.set(200);
+        modelHealthService.refresh();
+
+        // Then
+        assertTrue(modelHealthService.isModelAvailable("llama3"));
+    }
+
+    @Test
+    void testRefresh_ModeleRetire_IndisponibleAuReleveSuivant() {
+        // Given
+        modelHealthService.refresh();
+
+        // When
+        modeles = "{\"models\":[{\"name\":\"mistral:7b\"}]}";
+        modelHealthService.refresh();
+
+        // Then
+        assertFalse(modelHealthService.isModelAvailable("llama3"));
+        assertTrue(modelHealthService.isModelAvailable("mistral:7b"));
+    }
+
+    @Test
+    void testRefresh_OllamaInjoignable_Indisponible() {
+        // Given
+        ollama.stop(0);
+
+        // When
+        modelHealthService.refresh();
+
+        // Then
+        assertFalse(modelHealthService.isModelAvailable("llama3"));
+        assertFalse(modelHealthService.getStatus().getReachable());
+    }
+
+    private void repondre(HttpExchange echange) throws IOException {
+        byte[] corps = (statut.get() == 200 ? modeles : "{\"error\":\"unavailable\"}").getBytes(StandardCharsets.UTF_8);
+        echange.getResponseHeaders().add("Content-Type", "application/json");
+        echange.sendResponseHeaders(statut.get(), corps.length);
+        try (OutputStream sortie = echange.getResponseBody()) {
+            sortie.write(corps);
+        }
+    }
+}
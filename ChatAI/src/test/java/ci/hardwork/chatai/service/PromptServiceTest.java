@@ -0,0 +1,155 @@
+package ci.hardwork.chatai.service;
+
+import ci.hardwork.chatai.core.dto.ChatRequest;
+import ci.hardwork.chatai.core.dto.ContextMessage;
+import ci.hardwork.chatai.core.models.Conversation;
+import ci.hardwork.chatai.core.models.enums.MessageRole;
+import ci.hardwork.chatai.core.service.impl.PromptServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.ollama.api.OllamaOptions;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromptServiceTest {
+
+    private PromptServiceImpl promptService;
+    private Conversation conversation;
+    private ChatRequest chatRequest;
+
+    @BeforeEach
+    void setUp() {
+        promptService = new PromptServiceImpl(new JTokkitTokenCountEstimator());
+        ReflectionTestUtils.setField(promptService, "contextWindow", 8192);
+        ReflectionTestUtils.setField(promptService, "defaultMaxTokens", 2000);
+        ReflectionTestUtils.setField(promptService, "defaultTemperature", 0.7);
+
+        conversation = new Conversation();
+        conversation.setId(1L);
+        conversation.setUserId(123L);
+        conversation.setMaxTokens(1000);
+
+        chatRequest = new ChatRequest();
+        chatRequest.setMessage("Quels sont les horaires du cabinet ?");
+    }
+
+    @Test
+    void testBuildPrompt_Historique_MessagesStructuresDansLOrdre() {
+        // Given
+        chatRequest.setSystemPrompt("Tu es l'assistant d'un cabinet médical.");
+        List<ContextMessage> history = List.of(
+                contexte(1L, MessageRole.USER, "Bonjour"),
+                contexte(2L, MessageRole.ASSISTANT, "Bonjour ! Comment puis-je vous aider ?"));
+
+        // When
+        Prompt prompt = promptService.buildPrompt(conversation, history, chatRequest, "llama3");
+
+        // Then
+        List<Message> messages = prompt.getInstructions();
+        assertEquals(4, messages.size());
+        assertInstanceOf(SystemMessage.class, messages.get(0));
+        assertInstanceOf(UserMessage.class, messages.get(1));
+        assertInstanceOf(AssistantMessage.class, messages.get(2));
+        assertInstanceOf(UserMessage.class, messages.get(3));
+        assertEquals("Bonjour", messages.get(1).getText());
+        assertEquals("Quels sont les horaires du cabinet ?", messages.get(3).getText());
+    }
+
+    @Test
+    void testBuildPrompt_BudgetDepasse_MessagesLesPlusRecentsConserves() {
+        // Given : 1200 - 1000 réservés pour la réponse, la question posée déduite, il reste de la place pour deux messages de 80 tokens
+        ReflectionTestUtils.setField(promptService, "contextWindow", 1200);
+        List<ContextMessage> history = List.of(
+                contexte(1L, MessageRole.USER, "Premier", 80),
+                contexte(2L, MessageRole.ASSISTANT, "Deuxième", 80),
+                contexte(3L, MessageRole.USER, "Troisième", 80),
+                contexte(4L, MessageRole.ASSISTANT, "Quatrième", 80));
+
+        // When
+        Prompt prompt = promptService.buildPrompt(conversation, history, chatRequest, "llama3");
+
+        // Then
+        List<String> textes = prompt.getInstructions().stream().map(Message::getText).toList();
+        assertEquals(List.of("Troisième", "Quatrième", "Quels sont les horaires du cabinet ?"), textes);
+    }
+
+    @Test
+    void testBuildPrompt_SansSystemPromptDansLaRequete_SystemPromptDeLaConversation() {
+        // Given
+        conversation.setSystemPrompt("Réponds en français.");
+
+        // When
+        Prompt prompt = promptService.buildPrompt(conversation, List.of(), chatRequest, "llama3");
+
+        // Then
+        assertInstanceOf(SystemMessage.class, prompt.getInstructions().get(0));
+        assertEquals("Réponds en français.", prompt.getInstructions().get(0).getText());
+    }
+
+    @Test
+    void testBuildPrompt_Options_ReponseReserveeEtContexteDuModele() {
+        // Given
+        chatRequest.setTemperature(0.2);
+
+        // When
+        Prompt prompt = promptService.buildPrompt(conversation, List.of(), chatRequest, "mistral:7b");
+
+        // Then
+        OllamaOptions options = (OllamaOptions) prompt.getOptions();
+        assertEquals("mistral:7b", options.getModel());
+        assertEquals(0.2, options.getTemperature());
+        assertEquals(1000, options.getNumPredict());
+        assertEquals(8192, options.getNumCtx());
+    }
+
+    @Test
+    void testBuildPrompt_ResumeGlissant_ResumeALaPlaceDesMessagesResumes() {
+        // Given : les messages 1 et 2 sont couverts par le résumé
+        conversation.setSummary("Le patient cherche un rendez-vous de cardiologie.");
+        conversation.setSummarizedUpToMessageId(2L);
+        List<ContextMessage> history = List.of(
+                contexte(1L, MessageRole.USER, "Premier"),
+                contexte(2L, MessageRole.ASSISTANT, "Deuxième"),
+                contexte(3L, MessageRole.USER, "Troisième"),
+                contexte(4L, MessageRole.ASSISTANT, "Quatrième"));
+
+        // When
+        Prompt prompt = promptService.buildPrompt(conversation, history, chatRequest, "llama3");
+
+        // Then
+        List<Message> messages = prompt.getInstructions();
+        assertEquals(4, messages.size());
+        assertInstanceOf(SystemMessage.class, messages.get(0));
+        assertTrue(messages.get(0).getText().contains("rendez-vous de cardiologie"));
+        assertEquals("Troisième", messages.get(1).getText());
+        assertEquals("Quatrième", messages.get(2).getText());
+        assertEquals("Quels sont les horaires du cabinet ?", messages.get(3).getText());
+    }
+
+    @Test
+    void testCountTokens_TokenizerBpe() {
+        // When
+        int tokens = promptService.countTokens("Bonjour, je voudrais prendre rendez-vous avec un cardiologue.");
+
+        // Then
+        assertTrue(tokens > 0 && tokens < 30);
+        assertEquals(0, promptService.countTokens(""));
+    }
+
+    private ContextMessage contexte(Long id, MessageRole role, String contenu) {
+        return contexte(id, role, contenu, promptService.countTokens(contenu));
+    }
+
+    private ContextMessage contexte(Long id, MessageRole role, String contenu, int tokens) {
+        return new ContextMessage(id, role, contenu, tokens);
+    }
+}
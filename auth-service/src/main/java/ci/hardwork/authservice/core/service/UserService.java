@@ -6,6 +6,7 @@ import ci.hardwork.authservice.core.models.User;
 import ci.hardwork.authservice.core.models.enums.ActionEnum;
 import jakarta.servlet.http.HttpServletRequest;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +16,7 @@ public interface UserService {
     Optional<UserDto> findByUsername(String username);
     Optional<UserDto> findByEmail(String email);
     Optional<UserDto> findById(Long userId);
+    List<UserDto> findByIds(Collection<Long> userIds);
     List<UserDto> findAllUsers();
     void deleteUser(Long userId);
     UserDto updateUser(Long userId, UserDto userDto);
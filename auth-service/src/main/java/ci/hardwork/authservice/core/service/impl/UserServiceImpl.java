@@ -22,6 +22,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import jakarta.annotation.PostConstruct;
@@ -148,6 +149,14 @@ public class UserServiceImpl implements UserService, UserDetailsService {
                 .map(userMapper::toDto);
     }
 
+    @Override
+    public List<UserDto> findByIds(Collection<Long> userIds) {
+        return userRepository.findAllById(userIds)
+                .stream()
+                .map(userMapper::toDto)
+                .toList();
+    }
+
     @Override
     public List<UserDto> findAllUsers() {
         return userRepository.findAll()
@@ -41,6 +41,14 @@ public class UserController {
         return ResponseEntity.notFound().build();
     }
 
+    @Operation(summary = "Get users by IDs", description = "Retrieve several users in one call, unknown IDs are skipped (Admin only)")
+    @GetMapping("/by-ids")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<List<UserDto>> getUsersByIds(@RequestParam List<Long> ids) {
+        log.info("Requesting {} users by ID", ids.size());
+        return ResponseEntity.ok(userService.findByIds(ids));
+    }
+
     @Operation(summary = "Update user", description = "Update user information (Admin or own profile only)")
     @PutMapping("/{id}")
     @PreAuthorize("hasAuthority('ADMIN')")
@@ -1,14 +1,103 @@
 package ci.hardwork.gestionrdvservice.config;
 
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
+
 @Configuration
+@EnableScheduling
+@EnableConfigurationProperties(InterServicesProperties.class)
 public class AppConfig {
 
+    /**
+     * Client HTTP partagé par les appels inter-services : connexions gardées ouvertes dans
+     * un pool borné, délais de connexion et de lecture propres à chaque cible.
+     */
+    @Bean
+    public CloseableHttpClient httpClientInterServices(InterServicesProperties proprietes) {
+        CiblesInterServices cibles = new CiblesInterServices(proprietes);
+        PoolingHttpClientConnectionManager connexions = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(proprietes.getConnexionsMax())
+                .setMaxConnPerRoute(proprietes.getConnexionsParCible())
+                .build();
+        connexions.setConnectionConfigResolver(route -> {
+            HttpHost hote = route.getTargetHost();
+            InterServicesProperties.Cible cible = cibles.cible(
+                    cibles.nom(hote.getHostName(), CiblesInterServices.port(hote.getSchemeName(), hote.getPort())));
+            return ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.of(cible.getConnexion()))
+                    .setSocketTimeout(Timeout.of(cible.getLecture()))
+                    .setTimeToLive(TimeValue.of(proprietes.getDureeVieConnexion()))
+                    .build();
+        });
+        return HttpClients.custom()
+                .setConnectionManager(connexions)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(proprietes.getInactiviteMax()))
+                .build();
+    }
+
+    /**
+     * Exécuteur réservé aux envois de rappels : un passage aux envois lents n'occupe pas
+     * les threads de l'exécuteur de l'application (appels inter-services, tableau de bord,
+     * flux de planning). Le diffuseur n'a jamais plus de {@code envois-simultanes} envois en cours.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor executeurRappels(@Value("${app.rdv.rappels.envois-simultanes:8}") int envoisSimultanes) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(envoisSimultanes);
+        executor.setMaxPoolSize(envoisSimultanes);
+        // Absorbe la soumission suivante pendant qu'un thread qui vient de libérer sa place se rend au pool
+        executor.setQueueCapacity(envoisSimultanes);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("rappels-");
+        return executor;
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(CloseableHttpClient httpClientInterServices,
+                                     InterServicesProperties proprietes,
+                                     CircuitBreakerRegistry circuitBreakerRegistry,
+                                     BulkheadRegistry bulkheadRegistry,
+                                     MeterRegistry meterRegistry) {
+        CiblesInterServices cibles = new CiblesInterServices(proprietes);
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClientInterServices) {
+            @Override
+            protected HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+                InterServicesProperties.Cible cible = cibles.cible(cibles.nom(uri));
+                HttpClientContext context = HttpClientContext.create();
+                context.setRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(proprietes.getAttenteConnexion()))
+                        .setResponseTimeout(Timeout.of(cible.getLecture()))
+                        .build());
+                return context;
+            }
+        };
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(
+                new ResilienceInterServices(cibles, circuitBreakerRegistry, bulkheadRegistry, meterRegistry));
+        return restTemplate;
     }
-}
\ No newline at end of file
+}
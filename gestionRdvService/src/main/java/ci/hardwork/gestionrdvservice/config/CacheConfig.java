@@ -0,0 +1,44 @@
+package ci.hardwork.gestionrdvservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Caches de lecture des médecins, de leurs plages de disponibilité et des patients.
+ * <p>
+ * Les caches sont déclarés au démarrage pour que leurs compteurs de succès et d'échecs
+ * soient publiés sous {@code cache.gets} dans {@code /actuator/metrics}. Les évictions
+ * sont différées au commit : une lecture concurrente ne peut pas remettre en cache
+ * l'état d'avant une modification encore en cours.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String MEDECINS = "medecins";
+    public static final String MEDECINS_PAR_RPPS = "medecins-rpps";
+    public static final String MEDECINS_PAR_UTILISATEUR = "medecins-utilisateur";
+    public static final String CRENEAUX_MEDECIN = "creneaux-medecin";
+    public static final String PATIENTS = "patients";
+    public static final String PATIENTS_PAR_NSS = "patients-nss";
+    public static final String PATIENTS_PAR_UTILISATEUR = "patients-utilisateur";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${spring.cache.caffeine.spec:maximumSize=1000,expireAfterWrite=10m}") String specification) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        // Sans statistiques, les caches seraient publiés sans compteurs de succès ni d'échecs
+        caffeine.setCacheSpecification(specification.contains("recordStats") ? specification : specification + ",recordStats");
+        // Une absence n'est pas gardée : un médecin ou patient créé ensuite serait masqué
+        caffeine.setAllowNullValues(false);
+        caffeine.setCacheNames(List.of(MEDECINS, MEDECINS_PAR_RPPS, MEDECINS_PAR_UTILISATEUR, CRENEAUX_MEDECIN,
+                PATIENTS, PATIENTS_PAR_NSS, PATIENTS_PAR_UTILISATEUR));
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
@@ -0,0 +1,47 @@
+package ci.hardwork.gestionrdvservice.config;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Associe un hôte appelé au nom de la cible déclarée dans {@code app.http.cibles}. Le nom
+ * désigne le disjoncteur, la cloison et les métriques du service.
+ */
+public class CiblesInterServices {
+
+    public static final String AUTRE = "autre";
+
+    private record Adresse(String hote, int port) {
+    }
+
+    private final Map<Adresse, String> noms = new HashMap<>();
+    private final InterServicesProperties proprietes;
+
+    public CiblesInterServices(InterServicesProperties proprietes) {
+        this.proprietes = proprietes;
+        proprietes.getCibles().forEach((nom, cible) -> {
+            URI uri = URI.create(cible.getUrl());
+            noms.put(new Adresse(uri.getHost(), port(uri.getScheme(), uri.getPort())), nom);
+        });
+    }
+
+    public String nom(URI uri) {
+        return nom(uri.getHost(), port(uri.getScheme(), uri.getPort()));
+    }
+
+    public String nom(String hote, int port) {
+        return noms.getOrDefault(new Adresse(hote, port), AUTRE);
+    }
+
+    public InterServicesProperties.Cible cible(String nom) {
+        return proprietes.getCibles().getOrDefault(nom, proprietes.getDefaut());
+    }
+
+    static int port(String schema, int port) {
+        if (port >= 0) {
+            return port;
+        }
+        return "https".equalsIgnoreCase(schema) ? 443 : 80;
+    }
+}
@@ -0,0 +1,34 @@
+package ci.hardwork.gestionrdvservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Réglages du client HTTP inter-services ({@code app.http}) : taille du pool de connexions
+ * et délais propres à chaque service appelé.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.http")
+public class InterServicesProperties {
+
+    private int connexionsMax = 100;
+    private int connexionsParCible = 20;
+    // Attente d'une connexion libre dans le pool
+    private Duration attenteConnexion = Duration.ofSeconds(1);
+    private Duration inactiviteMax = Duration.ofSeconds(30);
+    private Duration dureeVieConnexion = Duration.ofMinutes(5);
+    // Délais des appels vers un service absent de cibles
+    private Cible defaut = new Cible();
+    private Map<String, Cible> cibles = new LinkedHashMap<>();
+
+    @Data
+    public static class Cible {
+        private String url;
+        private Duration connexion = Duration.ofSeconds(2);
+        private Duration lecture = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,88 @@
+package ci.hardwork.gestionrdvservice.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Protège chaque appel sortant par la cloison et le disjoncteur de sa cible et mesure sa
+ * durée ({@value #METRIQUE}, par cible et résultat, avec histogramme).
+ * <p>
+ * Un appel refusé (cloison pleine, circuit ouvert) échoue aussitôt en {@link IOException},
+ * que {@code RestTemplate} remonte comme toute erreur réseau : l'appelant retombe sur son
+ * comportement dégradé sans attendre un service en panne. Les réponses 5xx et les erreurs
+ * réseau comptent comme des échecs pour le disjoncteur, les 4xx non.
+ */
+@RequiredArgsConstructor
+public class ResilienceInterServices implements ClientHttpRequestInterceptor {
+
+    public static final String METRIQUE = "inter_services.appels";
+
+    private final CiblesInterServices cibles;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        String cible = cibles.nom(request.getURI());
+        Bulkhead cloison = bulkheads.bulkhead(cible);
+        CircuitBreaker disjoncteur = circuitBreakers.circuitBreaker(cible);
+        long debut = System.nanoTime();
+        try {
+            cloison.acquirePermission();
+        } catch (BulkheadFullException e) {
+            mesurer(cible, "cloison-pleine", debut);
+            throw new IOException("Trop d'appels simultanés vers " + cible, e);
+        }
+        try {
+            try {
+                disjoncteur.acquirePermission();
+            } catch (CallNotPermittedException e) {
+                mesurer(cible, "circuit-ouvert", debut);
+                throw new IOException("Circuit ouvert vers " + cible, e);
+            }
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                long duree = System.nanoTime() - debut;
+                if (response.getStatusCode().is5xxServerError()) {
+                    disjoncteur.onError(duree, TimeUnit.NANOSECONDS, new HttpServerErrorException(response.getStatusCode()));
+                } else {
+                    disjoncteur.onSuccess(duree, TimeUnit.NANOSECONDS);
+                }
+                mesurer(cible, String.valueOf(response.getStatusCode().value()), debut);
+                return response;
+            } catch (IOException | RuntimeException e) {
+                disjoncteur.onError(System.nanoTime() - debut, TimeUnit.NANOSECONDS, e);
+                mesurer(cible, "erreur", debut);
+                throw e;
+            }
+        } finally {
+            cloison.onComplete();
+        }
+    }
+
+    private void mesurer(String cible, String resultat, long debut) {
+        Timer.builder(METRIQUE)
+                .description("Durée des appels HTTP vers les autres services")
+                .tag("cible", cible)
+                .tag("resultat", resultat)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - debut, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,28 @@
+package ci.hardwork.gestionrdvservice.core.dto;
+
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import ci.hardwork.gestionrdvservice.core.models.enums.TypeChangementPlanning;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangementPlanningDTO {
+    
+    // Numéro croissant propre à l'instance, repris comme id de l'événement SSE
+    private long sequence;
+    private TypeChangementPlanning type;
+    private Long rendezVousId;
+    private Long medecinId;
+    private RendezVousStatus statut;
+    private LocalDateTime dateHeureDebut;
+    private LocalDateTime dateHeureFin;
+    
+    // Créneau quitté lors d'un déplacement (null sinon)
+    private LocalDateTime ancienneDateHeureDebut;
+    private LocalDateTime ancienneDateHeureFin;
+}
@@ -0,0 +1,20 @@
+package ci.hardwork.gestionrdvservice.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageCurseurDTO<T> {
+    
+    private List<T> contenu;
+    
+    // Curseur opaque à renvoyer pour obtenir la page suivante (null sur la dernière page)
+    private String curseurSuivant;
+    
+    private boolean pageSuivante;
+}
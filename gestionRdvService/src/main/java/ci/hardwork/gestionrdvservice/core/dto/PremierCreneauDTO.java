@@ -0,0 +1,22 @@
+package ci.hardwork.gestionrdvservice.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PremierCreneauDTO {
+    
+    private Long medecinId;
+    private String medecinNom;
+    private String medecinPrenom;
+    private String medecinSpecialite;
+    private String villeCabinet;
+    private String adresseCabinet;
+    private LocalDateTime dateHeureDebut;
+    private LocalDateTime dateHeureFin;
+}
@@ -0,0 +1,16 @@
+package ci.hardwork.gestionrdvservice.core.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class RendezVousLotDTO {
+    
+    @NotEmpty(message = "Le lot doit contenir au moins un rendez-vous")
+    @Size(max = 500, message = "Le lot ne peut pas dépasser 500 rendez-vous")
+    private List<@Valid RendezVousCreateDTO> rendezVous;
+}
@@ -0,0 +1,32 @@
+package ci.hardwork.gestionrdvservice.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RendezVousLotResultatDTO {
+    
+    // Le lot est accepté en entier ou refusé en entier
+    private boolean accepte;
+    
+    // Rendez-vous créés, dans l'ordre du lot (vide si le lot est refusé)
+    private List<RendezVousResponseDTO> rendezVous;
+    
+    private List<ErreurLigne> erreurs;
+    
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ErreurLigne {
+        
+        // Position du rendez-vous dans le lot, à partir de 0
+        private int index;
+        
+        private String message;
+    }
+}
@@ -1,11 +1,14 @@
 package ci.hardwork.gestionrdvservice.core.dto;
 
 import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import ci.hardwork.gestionrdvservice.core.models.enums.SpecialiteMedicale;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 public class RendezVousResponseDTO {
     
     private Long id;
@@ -31,4 +34,42 @@ public class RendezVousResponseDTO {
     private String prochainRendezVous;
     private LocalDateTime dateCreation;
     private LocalDateTime dateModification;
+    
+    // Série d'origine ; une occurrence calculée non encore enregistrée n'a pas d'id
+    private Long serieId;
+    private LocalDateTime dateOccurrence;
+    
+    /**
+     * Constructeur de projection JPQL (voir {@code RendezVousRepository#SELECT_RESPONSE_DTO}) :
+     * reprend les colonnes lues par {@code RendezVousMapper#toResponseDTO} en une seule requête.
+     */
+    public RendezVousResponseDTO(Long id, Long patientId, String patientNom, String patientPrenom,
+                                 Long medecinId, String medecinNom, String medecinPrenom, SpecialiteMedicale medecinSpecialite,
+                                 LocalDateTime dateHeureDebut, LocalDateTime dateHeureFin, String motifConsultation,
+                                 RendezVousStatus statut, String notes, BigDecimal tarif, Boolean rappelEnvoye,
+                                 LocalDateTime dateRappel, String examensDemanges,
+                                 LocalDateTime dateCreation, LocalDateTime dateModification,
+                                 Long serieId, LocalDateTime dateOccurrence) {
+        this.id = id;
+        this.patientId = patientId;
+        this.patientNom = patientNom;
+        this.patientPrenom = patientPrenom;
+        this.medecinId = medecinId;
+        this.medecinNom = medecinNom;
+        this.medecinPrenom = medecinPrenom;
+        this.medecinSpecialite = medecinSpecialite != null ? medecinSpecialite.name() : null;
+        this.dateHeureDebut = dateHeureDebut;
+        this.dateHeureFin = dateHeureFin;
+        this.motifConsultation = motifConsultation;
+        this.statut = statut;
+        this.notes = notes;
+        this.tarif = tarif;
+        this.rappelEnvoye = rappelEnvoye;
+        this.dateRappel = dateRappel;
+        this.examensDemanges = examensDemanges;
+        this.dateCreation = dateCreation;
+        this.dateModification = dateModification;
+        this.serieId = serieId;
+        this.dateOccurrence = dateOccurrence;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package ci.hardwork.gestionrdvservice.core.dto;
+
+import ci.hardwork.gestionrdvservice.core.models.enums.FrequenceRecurrence;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class SerieRendezVousDTO {
+    
+    private Long id;
+    
+    @NotNull(message = "L'ID du patient est obligatoire")
+    private Long patientId;
+    
+    @NotNull(message = "L'ID du médecin est obligatoire")
+    private Long medecinId;
+    
+    @NotNull(message = "La première occurrence est obligatoire")
+    @Future(message = "La première occurrence doit être dans le futur")
+    private LocalDateTime premiereOccurrence;
+    
+    @NotNull(message = "La durée est obligatoire")
+    @Min(value = 5, message = "La durée doit être d'au moins 5 minutes")
+    @Max(value = 480, message = "La durée ne peut pas dépasser 480 minutes")
+    private Integer dureeMinutes;
+    
+    @NotNull(message = "La fréquence est obligatoire")
+    private FrequenceRecurrence frequence;
+    
+    @Min(value = 1, message = "L'intervalle doit être d'au moins 1")
+    @Max(value = 12, message = "L'intervalle ne peut pas dépasser 12")
+    private Integer intervalle = 1;
+    
+    @NotNull(message = "La date de fin est obligatoire")
+    private LocalDate dateFin;
+    
+    @Size(max = 100, message = "Le motif ne peut pas dépasser 100 caractères")
+    private String motifConsultation;
+    
+    private BigDecimal tarif;
+    
+    private Boolean actif;
+    
+    // Calculé à partir de la règle
+    private Integer nombreOccurrences;
+}
@@ -0,0 +1,18 @@
+package ci.hardwork.gestionrdvservice.core.evenements;
+
+import ci.hardwork.gestionrdvservice.core.models.Medecin;
+import ci.hardwork.gestionrdvservice.core.models.enums.SpecialiteMedicale;
+
+/**
+ * Événement de domaine publié à chaque écriture d'un médecin, avec son état avant
+ * ({@code null} à la création) et après ({@code null} à la suppression).
+ */
+public record MedecinEvenement(Long medecinId, Etat avant, Etat apres) {
+
+    public record Etat(SpecialiteMedicale specialite, boolean actif) {
+
+        public static Etat de(Medecin medecin) {
+            return new Etat(medecin.getSpecialite(), Boolean.TRUE.equals(medecin.getActif()));
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ci.hardwork.gestionrdvservice.core.evenements;
+
+/**
+ * Événement de domaine publié à chaque écriture d'un patient : indicateur actif avant
+ * ({@code null} à la création) et après ({@code null} à la suppression).
+ */
+public record PatientEvenement(Long patientId, Boolean actifAvant, Boolean actifApres) {
+}
@@ -0,0 +1,50 @@
+package ci.hardwork.gestionrdvservice.core.evenements;
+
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
+import ci.hardwork.gestionrdvservice.core.models.RendezVous;
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement de domaine publié à chaque écriture d'un rendez-vous : état avant
+ * ({@code null} à la création) et état après ({@code null} à la suppression).
+ * Les écouteurs le reçoivent après le commit de la transaction.
+ */
+public record RendezVousEvenement(Long rendezVousId, Etat avant, Etat apres) {
+
+    public record Etat(Long medecinId, Long patientId, LocalDateTime dateHeureDebut,
+                       LocalDateTime dateHeureFin, RendezVousStatus statut) {
+
+        public static Etat de(RendezVous rendezVous) {
+            return new Etat(rendezVous.getMedecin().getId(), rendezVous.getPatient().getId(),
+                    rendezVous.getDateHeureDebut(), rendezVous.getDateHeureFin(), rendezVous.getStatut());
+        }
+
+        public static Etat de(RendezVousResponseDTO rendezVous) {
+            return new Etat(rendezVous.getMedecinId(), rendezVous.getPatientId(),
+                    rendezVous.getDateHeureDebut(), rendezVous.getDateHeureFin(), rendezVous.getStatut());
+        }
+    }
+
+    public static RendezVousEvenement creation(RendezVous rendezVous) {
+        return new RendezVousEvenement(rendezVous.getId(), null, Etat.de(rendezVous));
+    }
+
+    public static RendezVousEvenement modification(Etat avant, RendezVous rendezVous) {
+        return new RendezVousEvenement(rendezVous.getId(), avant, Etat.de(rendezVous));
+    }
+
+    /**
+     * Rappel envoyé : le créneau et le statut ne changent pas, mais les vues qui
+     * affichent le rendez-vous sont à rafraîchir.
+     */
+    public static RendezVousEvenement rappel(RendezVousResponseDTO rendezVous) {
+        Etat etat = Etat.de(rendezVous);
+        return new RendezVousEvenement(rendezVous.getId(), etat, etat);
+    }
+
+    public static RendezVousEvenement suppression(Etat avant, Long rendezVousId) {
+        return new RendezVousEvenement(rendezVousId, avant, null);
+    }
+}
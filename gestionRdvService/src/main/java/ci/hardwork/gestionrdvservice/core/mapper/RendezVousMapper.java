@@ -1,5 +1,6 @@
 package ci.hardwork.gestionrdvservice.core.mapper;
 
+import ci.hardwork.gestionrdvservice.core.dto.MedecinResponseDTO;
 import ci.hardwork.gestionrdvservice.core.dto.RendezVousCreateDTO;
 import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
 import ci.hardwork.gestionrdvservice.core.models.RendezVous;
@@ -10,6 +11,9 @@ public interface RendezVousMapper {
     
     @Mapping(target = "patient", ignore = true)
     @Mapping(target = "medecin", ignore = true)
+    @Mapping(target = "serie", ignore = true)
+    @Mapping(target = "dateOccurrence", ignore = true)
+    @Mapping(target = "version", ignore = true)
     RendezVous toEntity(RendezVousCreateDTO rendezVousCreateDTO);
     
     @Mapping(source = "patient.id", target = "patientId")
@@ -19,10 +23,37 @@ public interface RendezVousMapper {
     @Mapping(source = "medecin.nom", target = "medecinNom")
     @Mapping(source = "medecin.prenom", target = "medecinPrenom")
     @Mapping(source = "medecin.specialite", target = "medecinSpecialite")
+    @Mapping(source = "serie.id", target = "serieId")
     RendezVousResponseDTO toResponseDTO(RendezVous rendezVous);
     
+    /**
+     * Réponse d'une réservation dont le médecin vient du cache : l'entité médecin,
+     * simple référence, n'est pas chargée.
+     */
+    default RendezVousResponseDTO toResponseDTO(RendezVous rendezVous, MedecinResponseDTO medecin) {
+        RendezVousResponseDTO dto = toResponseDTOSansMedecin(rendezVous);
+        dto.setMedecinId(medecin.getId());
+        dto.setMedecinNom(medecin.getNom());
+        dto.setMedecinPrenom(medecin.getPrenom());
+        dto.setMedecinSpecialite(medecin.getSpecialite() != null ? medecin.getSpecialite().name() : null);
+        return dto;
+    }
+    
+    @Mapping(source = "patient.id", target = "patientId")
+    @Mapping(source = "patient.nom", target = "patientNom")
+    @Mapping(source = "patient.prenom", target = "patientPrenom")
+    @Mapping(target = "medecinId", ignore = true)
+    @Mapping(target = "medecinNom", ignore = true)
+    @Mapping(target = "medecinPrenom", ignore = true)
+    @Mapping(target = "medecinSpecialite", ignore = true)
+    @Mapping(source = "serie.id", target = "serieId")
+    RendezVousResponseDTO toResponseDTOSansMedecin(RendezVous rendezVous);
+    
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "patient", ignore = true)
     @Mapping(target = "medecin", ignore = true)
+    @Mapping(target = "serie", ignore = true)
+    @Mapping(target = "dateOccurrence", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntityFromDTO(RendezVousCreateDTO rendezVousUpdateDTO, @MappingTarget RendezVous rendezVous);
 }
\ No newline at end of file
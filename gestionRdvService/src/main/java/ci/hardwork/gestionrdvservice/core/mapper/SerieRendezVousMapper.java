@@ -0,0 +1,22 @@
+package ci.hardwork.gestionrdvservice.core.mapper;
+
+import ci.hardwork.gestionrdvservice.core.dto.SerieRendezVousDTO;
+import ci.hardwork.gestionrdvservice.core.models.SerieRendezVous;
+import org.mapstruct.*;
+
+@Mapper(componentModel = "spring")
+public interface SerieRendezVousMapper {
+    
+    @Mapping(source = "patient.id", target = "patientId")
+    @Mapping(source = "medecin.id", target = "medecinId")
+    @Mapping(target = "nombreOccurrences", expression = "java(serie.regle().nombreOccurrences())")
+    SerieRendezVousDTO toDTO(SerieRendezVous serie);
+    
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "patient", ignore = true)
+    @Mapping(target = "medecin", ignore = true)
+    @Mapping(target = "actif", ignore = true)
+    @Mapping(target = "dateCreation", ignore = true)
+    @Mapping(target = "dateModification", ignore = true)
+    SerieRendezVous toEntity(SerieRendezVousDTO serieDTO);
+}
@@ -0,0 +1,35 @@
+package ci.hardwork.gestionrdvservice.core.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bail d'une tâche planifiée : une ligne par tâche, détenue par une seule instance
+ * jusqu'à son expiration.
+ */
+@Entity
+@Table(name = "baux_taches")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class BailTache {
+
+    @Id
+    @Column(name = "nom", length = 50)
+    private String nom;
+
+    @Column(name = "detenteur", nullable = false, length = 64)
+    private String detenteur;
+
+    @Column(name = "expiration", nullable = false)
+    private LocalDateTime expiration;
+}
@@ -12,7 +12,9 @@ import java.time.LocalTime;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "creneaux_disponibilite")
+@Table(name = "creneaux_disponibilite", indexes = {
+        @Index(name = "idx_creneaux_medecin_jour", columnList = "medecin_id, jour_semaine")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -13,15 +13,25 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "rendez_vous")
+@Table(name = "rendez_vous", indexes = {
+        @Index(name = "idx_rendez_vous_medecin_debut", columnList = "medecin_id, date_heure_debut"),
+        @Index(name = "idx_rendez_vous_patient_debut", columnList = "patient_id, date_heure_debut"),
+        @Index(name = "idx_rendez_vous_statut_debut", columnList = "statut, date_heure_debut"),
+        @Index(name = "idx_rendez_vous_debut", columnList = "date_heure_debut, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_rendez_vous_serie_occurrence", columnNames = {"serie_id", "date_occurrence"})
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
 public class RendezVous {
 
+    // Identifiants réservés par blocs : contrairement à IDENTITY, la séquence permet
+    // à Hibernate de regrouper les insertions en lots JDBC (alignement au démarrage : SequenceRendezVous)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rendez_vous_seq")
+    @SequenceGenerator(name = "rendez_vous_seq", sequenceName = "rendez_vous_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Le patient est obligatoire")
@@ -99,6 +109,20 @@ public class RendezVous {
     @Column(name = "notes", columnDefinition = "TEXT")
     private String notes;
 
+    // Occurrence matérialisée d'une série : date prévue par la règle, même après un déplacement
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "serie_id")
+    private SerieRendezVous serie;
+
+    @Column(name = "date_occurrence")
+    private LocalDateTime dateOccurrence;
+
+    // Verrou optimiste : deux modifications concurrentes du même rendez-vous ne s'écrasent pas.
+    // La valeur par défaut couvre les lignes existantes lors de l'ajout de la colonne.
+    @Version
+    @Column(name = "version", columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         dateCreation = LocalDateTime.now();
@@ -0,0 +1,97 @@
+package ci.hardwork.gestionrdvservice.core.models;
+
+import ci.hardwork.gestionrdvservice.core.models.enums.FrequenceRecurrence;
+import ci.hardwork.gestionrdvservice.core.planning.RegleRecurrence;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Série de rendez-vous récurrents (par exemple kinésithérapie hebdomadaire sur dix semaines).
+ * <p>
+ * Seule la règle est stockée : les occurrences sont calculées à la lecture d'une période
+ * et ne deviennent des lignes {@link RendezVous} (liées par {@code serie} et
+ * {@code dateOccurrence}) qu'une fois confirmées, déplacées ou annulées.
+ */
+@Entity
+@Table(name = "series_rendez_vous", indexes = {
+        @Index(name = "idx_series_medecin_actif", columnList = "medecin_id, actif")
+})
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class SerieRendezVous {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull(message = "Le patient est obligatoire")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id", nullable = false)
+    private Patient patient;
+
+    @NotNull(message = "Le médecin est obligatoire")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "medecin_id", nullable = false)
+    private Medecin medecin;
+
+    @NotNull(message = "La première occurrence est obligatoire")
+    @Column(name = "premiere_occurrence", nullable = false)
+    private LocalDateTime premiereOccurrence;
+
+    @NotNull(message = "La durée est obligatoire")
+    @Column(name = "duree_minutes", nullable = false)
+    private Integer dureeMinutes;
+
+    @NotNull(message = "La fréquence est obligatoire")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "frequence", nullable = false, columnDefinition = "VARCHAR(20)")
+    private FrequenceRecurrence frequence;
+
+    @Column(name = "intervalle", nullable = false)
+    private Integer intervalle = 1;
+
+    @NotNull(message = "La date de fin est obligatoire")
+    @Column(name = "date_fin", nullable = false)
+    private LocalDate dateFin;
+
+    @Column(name = "motif_consultation")
+    private String motifConsultation;
+
+    @Column(name = "tarif_applique", precision = 10, scale = 2)
+    private BigDecimal tarif;
+
+    @Column(name = "actif", nullable = false)
+    private Boolean actif = true;
+
+    @Column(name = "date_creation", nullable = false)
+    private LocalDateTime dateCreation;
+
+    @Column(name = "date_modification")
+    private LocalDateTime dateModification;
+
+    @PrePersist
+    protected void onCreate() {
+        dateCreation = LocalDateTime.now();
+        dateModification = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        dateModification = LocalDateTime.now();
+    }
+
+    public RegleRecurrence regle() {
+        return new RegleRecurrence(premiereOccurrence, Duration.ofMinutes(dureeMinutes), frequence, intervalle, dateFin);
+    }
+}
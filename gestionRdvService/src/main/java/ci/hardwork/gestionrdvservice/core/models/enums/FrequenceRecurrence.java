@@ -0,0 +1,16 @@
+package ci.hardwork.gestionrdvservice.core.models.enums;
+
+public enum FrequenceRecurrence {
+    HEBDOMADAIRE("Hebdomadaire"),
+    MENSUELLE("Mensuelle");
+
+    private final String displayName;
+
+    FrequenceRecurrence(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
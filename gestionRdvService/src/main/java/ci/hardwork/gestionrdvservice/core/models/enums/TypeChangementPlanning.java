@@ -0,0 +1,19 @@
+package ci.hardwork.gestionrdvservice.core.models.enums;
+
+public enum TypeChangementPlanning {
+    CREATION("Création"),
+    MODIFICATION("Modification"),
+    CONFIRMATION("Confirmation"),
+    ANNULATION("Annulation"),
+    SUPPRESSION("Suppression");
+
+    private final String displayName;
+
+    TypeChangementPlanning(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
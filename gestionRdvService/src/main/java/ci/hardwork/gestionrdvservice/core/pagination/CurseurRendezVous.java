@@ -0,0 +1,49 @@
+package ci.hardwork.gestionrdvservice.core.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position dans une liste de rendez-vous triée par (dateHeureDebut, id).
+ * <p>
+ * Exposé aux clients sous forme opaque (Base64 URL) : la page suivante reprend
+ * strictement après cette position, quelle que soit la profondeur atteinte.
+ */
+public record CurseurRendezVous(LocalDateTime dateHeureDebut, Long id) {
+
+    /** Position précédant toute ligne d'un parcours croissant. */
+    public static final CurseurRendezVous DEBUT_CROISSANT =
+            new CurseurRendezVous(LocalDateTime.of(1900, 1, 1, 0, 0), 0L);
+
+    /** Position précédant toute ligne d'un parcours décroissant. */
+    public static final CurseurRendezVous DEBUT_DECROISSANT =
+            new CurseurRendezVous(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    private static final String SEPARATEUR = "|";
+
+    public String encoder() {
+        String valeur = dateHeureDebut + SEPARATEUR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valeur.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param curseur valeur reçue du client, ou null pour la première page
+     * @param debut   position utilisée pour la première page
+     */
+    public static CurseurRendezVous decoder(String curseur, CurseurRendezVous debut) {
+        if (curseur == null || curseur.isBlank()) {
+            return debut;
+        }
+        try {
+            String valeur = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8);
+            int separateur = valeur.lastIndexOf(SEPARATEUR);
+            return new CurseurRendezVous(
+                    LocalDateTime.parse(valeur.substring(0, separateur)),
+                    Long.parseLong(valeur.substring(separateur + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide");
+        }
+    }
+}
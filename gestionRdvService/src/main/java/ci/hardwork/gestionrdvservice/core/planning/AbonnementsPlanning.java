@@ -0,0 +1,248 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import ci.hardwork.gestionrdvservice.core.dto.ChangementPlanningDTO;
+import ci.hardwork.gestionrdvservice.core.evenements.RendezVousEvenement;
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import ci.hardwork.gestionrdvservice.core.models.enums.TypeChangementPlanning;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Abonnés aux changements de planning d'un médecin ou d'un jour, servis en Server-Sent Events.
+ * <p>
+ * Chaque changement est tiré d'un {@link RendezVousEvenement} reçu après le commit : une
+ * transaction annulée ne diffuse rien, une transaction commitée diffuse un changement par
+ * écriture. Un abonné inactif ne retient qu'une connexion en attente, sans thread ; les
+ * envois partent sur l'exécuteur de l'application pour ne pas retarder le commit. Un
+ * battement périodique garde les connexions ouvertes derrière les proxys et libère celles
+ * des clients partis. Il n'y a pas de rejeu : à la reconnexion, le client relit le
+ * planning (ETag) puis reprend le flux.
+ * <p>
+ * Chaque abonné a sa propre file bornée ({@code app.rdv.planning.flux-file-max}), vidée
+ * dans l'ordre par un seul envoi à la fois : un client dont la connexion n'avance plus
+ * ne retarde que lui-même. Quand sa file déborde, il est retiré des abonnés et sa
+ * connexion est fermée dès que l'envoi bloqué rend la main.
+ */
+@Component
+@Slf4j
+public class AbonnementsPlanning {
+
+    static final String NOM_EVENEMENT = "planning";
+
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final int abonnesMax;
+    private final Duration dureeMax;
+    private final int fileMax;
+    private final Map<Long, Set<Abonne>> parMedecin = new ConcurrentHashMap<>();
+    private final Map<LocalDate, Set<Abonne>> parJour = new ConcurrentHashMap<>();
+    private final AtomicInteger abonnes = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    // Numérotation et dépôt d'un changement se font ensemble
+    private final Object depot = new Object();
+
+    public AbonnementsPlanning(ObjectMapper objectMapper,
+                               @Qualifier("applicationTaskExecutor") Executor executor,
+                               @Value("${app.rdv.planning.flux-abonnes-max:10000}") int abonnesMax,
+                               @Value("${app.rdv.planning.flux-duree-max:PT30M}") Duration dureeMax,
+                               @Value("${app.rdv.planning.flux-file-max:32}") int fileMax) {
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.abonnesMax = abonnesMax;
+        this.dureeMax = dureeMax;
+        this.fileMax = fileMax;
+    }
+
+    public SseEmitter abonnerMedecin(Long medecinId) {
+        return abonner(parMedecin, medecinId);
+    }
+
+    public SseEmitter abonnerJour(LocalDate jour) {
+        return abonner(parJour, jour);
+    }
+
+    public int getNombreAbonnes() {
+        return abonnes.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surRendezVous(RendezVousEvenement evenement) {
+        Set<Abonne> destinataires = new LinkedHashSet<>();
+        for (RendezVousEvenement.Etat etat : new RendezVousEvenement.Etat[] {evenement.avant(), evenement.apres()}) {
+            if (etat == null) {
+                continue;
+            }
+            destinataires.addAll(parMedecin.getOrDefault(etat.medecinId(), Set.of()));
+            LocalDate jour = etat.dateHeureDebut().toLocalDate();
+            do {
+                destinataires.addAll(parJour.getOrDefault(jour, Set.of()));
+                jour = jour.plusDays(1);
+            } while (jour.atStartOfDay().isBefore(etat.dateHeureFin()));
+        }
+        if (destinataires.isEmpty()) {
+            return;
+        }
+        // Chaque abonné reçoit les changements dans l'ordre de leurs numéros
+        synchronized (depot) {
+            ChangementPlanningDTO changement = changement(sequence.incrementAndGet(), evenement);
+            String donnees;
+            try {
+                donnees = objectMapper.writeValueAsString(changement);
+            } catch (JsonProcessingException e) {
+                log.error("Sérialisation du changement de planning {} impossible: {}", changement.getSequence(), e.getMessage());
+                return;
+            }
+            publier(destinataires, SseEmitter.event()
+                    .id(String.valueOf(changement.getSequence()))
+                    .name(NOM_EVENEMENT)
+                    .data(donnees));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.rdv.planning.flux-battement:PT30S}")
+    public void battement() {
+        List<Abonne> tous = new ArrayList<>();
+        parMedecin.values().forEach(tous::addAll);
+        parJour.values().forEach(tous::addAll);
+        if (!tous.isEmpty()) {
+            publier(tous, SseEmitter.event().comment("battement"));
+        }
+    }
+
+    static ChangementPlanningDTO changement(long sequence, RendezVousEvenement evenement) {
+        RendezVousEvenement.Etat avant = evenement.avant();
+        RendezVousEvenement.Etat apres = evenement.apres();
+        RendezVousEvenement.Etat courant = apres != null ? apres : avant;
+        boolean deplace = avant != null && apres != null
+                && (!avant.dateHeureDebut().equals(apres.dateHeureDebut()) || !avant.dateHeureFin().equals(apres.dateHeureFin()));
+        return new ChangementPlanningDTO(sequence, type(avant, apres), evenement.rendezVousId(), courant.medecinId(),
+                courant.statut(), courant.dateHeureDebut(), courant.dateHeureFin(),
+                deplace ? avant.dateHeureDebut() : null, deplace ? avant.dateHeureFin() : null);
+    }
+
+    private static TypeChangementPlanning type(RendezVousEvenement.Etat avant, RendezVousEvenement.Etat apres) {
+        if (avant == null) {
+            return TypeChangementPlanning.CREATION;
+        }
+        if (apres == null) {
+            return TypeChangementPlanning.SUPPRESSION;
+        }
+        if (apres.statut() != avant.statut() && apres.statut() == RendezVousStatus.ANNULE) {
+            return TypeChangementPlanning.ANNULATION;
+        }
+        if (apres.statut() != avant.statut() && apres.statut() == RendezVousStatus.CONFIRME) {
+            return TypeChangementPlanning.CONFIRMATION;
+        }
+        return TypeChangementPlanning.MODIFICATION;
+    }
+
+    private <K> SseEmitter abonner(Map<K, Set<Abonne>> abonnements, K cle) {
+        if (abonnes.incrementAndGet() > abonnesMax) {
+            abonnes.decrementAndGet();
+            throw new IllegalStateException("Nombre maximum d'abonnés au planning atteint");
+        }
+        SseEmitter emitter = new SseEmitter(dureeMax.toMillis());
+        Abonne abonne = new Abonne(emitter, () -> retirer(abonnements, cle, emitter));
+        abonnements.computeIfAbsent(cle, c -> ConcurrentHashMap.newKeySet()).add(abonne);
+        emitter.onCompletion(abonne.desabonner);
+        emitter.onTimeout(abonne.desabonner);
+        emitter.onError(erreur -> abonne.desabonner.run());
+        return emitter;
+    }
+
+    private <K> void retirer(Map<K, Set<Abonne>> abonnements, K cle, SseEmitter emitter) {
+        abonnements.computeIfPresent(cle, (c, abonnesCle) -> {
+            if (abonnesCle.removeIf(abonne -> abonne.emitter == emitter)) {
+                abonnes.decrementAndGet();
+            }
+            return abonnesCle.isEmpty() ? null : abonnesCle;
+        });
+    }
+
+    // Ne bloque jamais : le message est construit une fois puis déposé dans la file de chaque abonné
+    private void publier(Collection<Abonne> destinataires, SseEmitter.SseEventBuilder evenement) {
+        Set<ResponseBodyEmitter.DataWithMediaType> message = evenement.build();
+        destinataires.forEach(abonne -> abonne.deposer(message));
+    }
+
+    /**
+     * Connexion d'un abonné et sa file d'envois en attente.
+     */
+    private final class Abonne {
+
+        private final SseEmitter emitter;
+        private final Runnable desabonner;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> file = new ArrayBlockingQueue<>(fileMax);
+        private final AtomicBoolean envoiEnCours = new AtomicBoolean();
+        private volatile boolean abandonne;
+
+        private Abonne(SseEmitter emitter, Runnable desabonner) {
+            this.emitter = emitter;
+            this.desabonner = desabonner;
+        }
+
+        void deposer(Set<ResponseBodyEmitter.DataWithMediaType> message) {
+            if (abandonne) {
+                return;
+            }
+            if (!file.offer(message)) {
+                // Client trop lent : l'emitter est occupé par l'envoi bloqué, qui le fermera en rendant la main
+                log.debug("File de l'abonné au planning pleine, abonné retiré");
+                abandonne = true;
+                desabonner.run();
+            }
+            if (envoiEnCours.compareAndSet(false, true)) {
+                executor.execute(this::vider);
+            }
+        }
+
+        // Un seul envoi à la fois par abonné : il reçoit les messages dans l'ordre de dépôt
+        private void vider() {
+            do {
+                Set<ResponseBodyEmitter.DataWithMediaType> message;
+                while (!abandonne && (message = file.poll()) != null) {
+                    try {
+                        emitter.send(message);
+                    } catch (IOException | IllegalStateException e) {
+                        // Client parti : la fin de l'emitter le retire des abonnés
+                        log.debug("Abonné au planning injoignable: {}", e.getMessage());
+                        abandonne = true;
+                        emitter.completeWithError(e);
+                        return;
+                    }
+                }
+                if (abandonne) {
+                    file.clear();
+                    emitter.complete();
+                    return;
+                }
+                envoiEnCours.set(false);
+            } while (!file.isEmpty() && envoiEnCours.compareAndSet(false, true));
+        }
+    }
+}
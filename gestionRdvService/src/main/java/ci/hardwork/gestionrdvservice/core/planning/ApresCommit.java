@@ -0,0 +1,27 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Diffère une action jusqu'au commit de la transaction courante, ou l'exécute
+ * immédiatement en l'absence de transaction.
+ */
+public final class ApresCommit {
+
+    private ApresCommit() {
+    }
+
+    public static void executer(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
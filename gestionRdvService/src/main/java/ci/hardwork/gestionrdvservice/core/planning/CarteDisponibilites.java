@@ -0,0 +1,183 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import ci.hardwork.gestionrdvservice.core.models.CreneauDisponibilite;
+import ci.hardwork.gestionrdvservice.core.repository.CreneauDisponibiliteRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Cache borné des {@link DisponibiliteJour} par (médecin, jour).
+ * <p>
+ * Une journée est construite à la première consultation à partir des plages
+ * hebdomadaires et de l'index des créneaux occupés, puis corrigée en place après
+ * chaque commit (création, modification, annulation de rendez-vous, ajout de plage)
+ * au lieu d'être recalculée.
+ * <p>
+ * Seules les écritures de cette instance corrigent les journées : chacune est donc
+ * reconstruite au plus tard {@code app.rdv.disponibilites.cache-expiration} après sa
+ * construction, même consultée en continu, pour voir les réservations et annulations
+ * faites ailleurs. Comme elle est construite depuis {@link RendezVousIntervalIndex},
+ * le retard maximal sur une autre instance est la somme des deux expirations.
+ * <p>
+ * Toutes les recherches de créneaux libres (planning d'un médecin, premier créneau
+ * disponible) et le contrôle des réservations passent par ces journées : elles voient
+ * la même grille de quanta et ne peuvent pas se contredire sur un créneau.
+ */
+@Component
+@Slf4j
+public class CarteDisponibilites {
+
+    private final CreneauDisponibiliteRepository creneauDisponibiliteRepository;
+    private final RendezVousIntervalIndex rendezVousIntervalIndex;
+    private final Cache<Cle, DisponibiliteJour> cache;
+
+    public CarteDisponibilites(CreneauDisponibiliteRepository creneauDisponibiliteRepository,
+                               RendezVousIntervalIndex rendezVousIntervalIndex,
+                               @Value("${app.rdv.disponibilites.cache-taille-max:20000}") long tailleMax,
+                               @Value("${app.rdv.disponibilites.cache-expiration:PT2M}") Duration expiration) {
+        this.creneauDisponibiliteRepository = creneauDisponibiliteRepository;
+        this.rendezVousIntervalIndex = rendezVousIntervalIndex;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tailleMax)
+                .expireAfterWrite(expiration)
+                .build();
+    }
+
+    /**
+     * Créneaux libres de chaque jour de la période ; les journées absentes du cache
+     * sont construites ensemble (une lecture des plages, une des créneaux occupés).
+     */
+    public Map<LocalDate, List<LocalDateTime>> getCreneauxLibres(Long medecinId, LocalDate dateDebut, LocalDate dateFin,
+                                                                 Duration duree, LocalDateTime auPlusTot) {
+        Map<LocalDate, List<LocalDateTime>> resultat = new LinkedHashMap<>();
+        for (DisponibiliteJour disponibilite : getJournees(List.of(medecinId), dateDebut, dateFin).get(medecinId)) {
+            resultat.put(disponibilite.getJour(), disponibilite.creneauxLibres(duree, auPlusTot));
+        }
+        return resultat;
+    }
+
+    /**
+     * Journées de plusieurs médecins sur une période, dans l'ordre chronologique. Les
+     * journées absentes du cache sont construites ensemble, tous médecins confondus.
+     */
+    public Map<Long, List<DisponibiliteJour>> getJournees(Collection<Long> medecinIds, LocalDate dateDebut, LocalDate dateFin) {
+        List<Cle> cles = new ArrayList<>();
+        for (Long medecinId : medecinIds) {
+            for (LocalDate jour = dateDebut; !jour.isAfter(dateFin); jour = jour.plusDays(1)) {
+                cles.add(new Cle(medecinId, jour));
+            }
+        }
+        Map<Cle, DisponibiliteJour> disponibilites = cache.getAll(cles, this::charger);
+
+        Map<Long, List<DisponibiliteJour>> resultat = new LinkedHashMap<>();
+        for (Cle cle : cles) {
+            resultat.computeIfAbsent(cle.medecinId(), id -> new ArrayList<>()).add(disponibilites.get(cle));
+        }
+        return resultat;
+    }
+
+    /**
+     * Test de conflit ; un intervalle contenu dans une journée est tranché par le
+     * bitmap de cette journée, les autres par l'index des créneaux occupés.
+     */
+    public boolean estLibre(Long medecinId, LocalDateTime debut, LocalDateTime fin, Long excludeRendezVousId) {
+        LocalDate jour = debut.toLocalDate();
+        if (fin.isAfter(jour.plusDays(1).atStartOfDay())) {
+            return rendezVousIntervalIndex.estLibre(medecinId, debut, fin, excludeRendezVousId);
+        }
+        return cache.get(new Cle(medecinId, jour), cle -> charger(Set.of(cle)).get(cle))
+                .estLibre(debut, fin, excludeRendezVousId);
+    }
+
+    /**
+     * Reflète un créneau occupé (nouveau ou déplacé) après le commit de la transaction courante.
+     */
+    public void ajouter(Long medecinId, CreneauOccupe creneau) {
+        ApresCommit.executer(() -> joursCouverts(creneau).forEach(jour ->
+                modifier(new Cle(medecinId, jour), disponibilite -> disponibilite.ajouter(creneau))));
+    }
+
+    public void retirer(Long medecinId, CreneauOccupe creneau) {
+        ApresCommit.executer(() -> joursCouverts(creneau).forEach(jour ->
+                modifier(new Cle(medecinId, jour), disponibilite -> disponibilite.retirer(creneau.rendezVousId()))));
+    }
+
+    /**
+     * Ouvre une nouvelle plage hebdomadaire sur les journées en cache du même jour de semaine.
+     */
+    public void ajouterPlage(Long medecinId, CreneauDisponibilite plage) {
+        ApresCommit.executer(() -> cache.asMap().forEach((cle, disponibilite) -> {
+            if (cle.medecinId().equals(medecinId)) {
+                disponibilite.ouvrir(plage);
+            }
+        }));
+    }
+
+    /**
+     * Une plage retirée ne peut pas être soustraite des quanta ouverts (les plages
+     * peuvent se recouvrir) : les journées du médecin sont reconstruites à la demande.
+     */
+    public void invalider(Long medecinId) {
+        ApresCommit.executer(() -> cache.asMap().keySet().removeIf(cle -> cle.medecinId().equals(medecinId)));
+    }
+
+    public void invaliderTout() {
+        cache.invalidateAll();
+    }
+
+    // Modifiée en place : une correction ne repousse pas l'expiration, qui garantit la reconstruction
+    private void modifier(Cle cle, Consumer<DisponibiliteJour> modification) {
+        DisponibiliteJour disponibilite = cache.getIfPresent(cle);
+        if (disponibilite != null) {
+            modification.accept(disponibilite);
+        }
+    }
+
+    // Une lecture des plages et une des créneaux occupés, quel que soit le nombre de médecins
+    private Map<Cle, DisponibiliteJour> charger(Set<? extends Cle> cles) {
+        Set<Long> medecinIds = cles.stream().map(Cle::medecinId).collect(Collectors.toSet());
+        LocalDate premierJour = cles.stream().map(Cle::jour).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate dernierJour = cles.stream().map(Cle::jour).max(Comparator.naturalOrder()).orElseThrow();
+        Map<Long, List<CreneauDisponibilite>> plages = creneauDisponibiliteRepository.findByMedecinIdInAndActifTrue(medecinIds)
+                .stream()
+                .collect(Collectors.groupingBy(plage -> plage.getMedecin().getId()));
+        Map<Long, List<CreneauOccupe>> occupes = rendezVousIntervalIndex.getCreneauxOccupes(
+                medecinIds, premierJour.atStartOfDay(), dernierJour.plusDays(1).atStartOfDay());
+        log.debug("Construction de {} journée(s) de disponibilité pour {} médecin(s)", cles.size(), medecinIds.size());
+
+        Map<Cle, DisponibiliteJour> resultat = new HashMap<>();
+        cles.forEach(cle -> resultat.put(cle, DisponibiliteJour.construire(cle.jour(),
+                plages.getOrDefault(cle.medecinId(), List.of()), occupes.getOrDefault(cle.medecinId(), List.of()))));
+        return resultat;
+    }
+
+    private static Collection<LocalDate> joursCouverts(CreneauOccupe creneau) {
+        List<LocalDate> jours = new ArrayList<>();
+        LocalDate jour = creneau.debut().toLocalDate();
+        do {
+            jours.add(jour);
+            jour = jour.plusDays(1);
+        } while (jour.atStartOfDay().isBefore(creneau.fin()));
+        return jours;
+    }
+
+    private record Cle(Long medecinId, LocalDate jour) {
+    }
+}
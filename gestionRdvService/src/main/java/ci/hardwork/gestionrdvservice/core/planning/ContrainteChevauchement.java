@@ -0,0 +1,87 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Contrainte d'exclusion PostgreSQL interdisant deux rendez-vous non annulés qui se
+ * chevauchent pour un même médecin.
+ * <p>
+ * Les {@link VerrousMedecins} suffisent au sein d'une instance ; la contrainte garde la
+ * base cohérente lorsque plusieurs instances écrivent en parallèle. Le schéma étant
+ * maintenu par Hibernate, elle est posée au démarrage si elle n'existe pas encore.
+ * Les autres bases (H2 en test) n'ont que les verrous. Les occurrences non matérialisées
+ * des séries ne sont pas des lignes et échappent à la contrainte (voir {@link SeriesRecurrentes}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ContrainteChevauchement {
+
+    private static final String NOM = "ex_rendez_vous_medecin_creneau";
+
+    // exclusion_violation : seule contrainte d'exclusion du schéma
+    private static final String ETAT_SQL_EXCLUSION = "23P01";
+
+    private static final String CREATION = """
+            DO $$
+            BEGIN
+                IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = '%s') THEN
+                    ALTER TABLE rendez_vous ADD CONSTRAINT %s
+                        EXCLUDE USING gist (medecin_id WITH =, tsrange(date_heure_debut, date_heure_fin) WITH &&)
+                        WHERE (statut <> 'ANNULE');
+                END IF;
+            END $$
+            """.formatted(NOM, NOM);
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void installer() {
+        if (!estPostgreSQL()) {
+            return;
+        }
+        try {
+            // btree_gist permet l'égalité sur medecin_id dans un index GiST
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+            jdbcTemplate.execute(CREATION);
+            log.info("Contrainte d'exclusion {} en place", NOM);
+        } catch (DataAccessException e) {
+            // Droits insuffisants ou chevauchements déjà présents : l'application reste protégée par les verrous
+            log.warn("Impossible de poser la contrainte d'exclusion {}: {}", NOM, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    /**
+     * Vrai si l'écriture a été refusée par cette contrainte ; les autres violations
+     * d'intégrité (clé étrangère, non-nullité, unicité) sont de vraies erreurs de données.
+     */
+    public static boolean estViolee(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && ETAT_SQL_EXCLUSION.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean estPostgreSQL() {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            log.warn("Type de base indéterminé, contrainte d'exclusion ignorée: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import ci.hardwork.gestionrdvservice.core.models.RendezVous;
+
+import java.time.LocalDateTime;
+
+/**
+ * Intervalle [debut, fin[ occupé dans l'agenda d'un médecin.
+ */
+public record CreneauOccupe(Long rendezVousId, LocalDateTime debut, LocalDateTime fin) {
+
+    public static CreneauOccupe de(RendezVous rendezVous) {
+        return new CreneauOccupe(rendezVous.getId(), rendezVous.getDateHeureDebut(), rendezVous.getDateHeureFin());
+    }
+
+    public boolean chevauche(LocalDateTime autreDebut, LocalDateTime autreFin) {
+        return debut.isBefore(autreFin) && fin.isAfter(autreDebut);
+    }
+}
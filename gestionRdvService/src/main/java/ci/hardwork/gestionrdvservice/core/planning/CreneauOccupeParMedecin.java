@@ -0,0 +1,13 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import java.time.LocalDateTime;
+
+/**
+ * Créneau occupé accompagné de son médecin, pour les lectures groupées sur plusieurs agendas.
+ */
+public record CreneauOccupeParMedecin(Long medecinId, Long rendezVousId, LocalDateTime debut, LocalDateTime fin) {
+
+    public CreneauOccupe creneau() {
+        return new CreneauOccupe(rendezVousId, debut, fin);
+    }
+}
@@ -0,0 +1,180 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import ci.hardwork.gestionrdvservice.core.models.CreneauDisponibilite;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Disponibilité d'un médecin sur une journée, sous forme de deux bitmaps d'un bit
+ * par quantum de 5 minutes : les quanta ouverts (entièrement couverts par une plage
+ * hebdomadaire active) et les quanta occupés (touchés par un rendez-vous non annulé).
+ * <p>
+ * Un créneau est proposé s'il ne couvre que des quanta ouverts et libres ; la
+ * recherche se réduit à un parcours des suites de bits à 1 de {@code ouverts & ~occupes}.
+ * Les rendez-vous de la journée sont conservés pour que les mises à jour restent
+ * incrémentales et que le test de conflit reste exact hors de la grille.
+ */
+public final class DisponibiliteJour {
+
+    public static final Duration QUANTUM = Duration.ofMinutes(5);
+    public static final int QUANTA_PAR_JOUR = (int) (Duration.ofDays(1).toSeconds() / QUANTUM.toSeconds());
+
+    private static final long SECONDES_QUANTUM = QUANTUM.toSeconds();
+
+    private final LocalDate jour;
+    private final BitSet ouverts = new BitSet(QUANTA_PAR_JOUR);
+    private final BitSet occupes = new BitSet(QUANTA_PAR_JOUR);
+    private final Map<Long, CreneauOccupe> rendezVous = new HashMap<>();
+
+    private DisponibiliteJour(LocalDate jour) {
+        this.jour = jour;
+    }
+
+    /**
+     * @param plages  plages de disponibilité du médecin (tous jours confondus)
+     * @param occupes créneaux occupés couvrant au moins la journée
+     */
+    public static DisponibiliteJour construire(LocalDate jour, List<CreneauDisponibilite> plages, List<CreneauOccupe> occupes) {
+        DisponibiliteJour disponibilite = new DisponibiliteJour(jour);
+        plages.forEach(disponibilite::ouvrir);
+        occupes.forEach(disponibilite::ajouter);
+        return disponibilite;
+    }
+
+    public LocalDate getJour() {
+        return jour;
+    }
+
+    synchronized DisponibiliteJour ouvrir(CreneauDisponibilite plage) {
+        if (jour.getDayOfWeek().equals(plage.getJourSemaine()) && !Boolean.FALSE.equals(plage.getActif())) {
+            // Seuls les quanta entièrement inclus dans la plage sont ouverts
+            int premier = quantumSuperieur(plage.getHeureDebut().toSecondOfDay());
+            int dernier = quantumInferieur(plage.getHeureFin().toSecondOfDay());
+            if (premier < dernier) {
+                ouverts.set(premier, dernier);
+            }
+        }
+        return this;
+    }
+
+    synchronized DisponibiliteJour ajouter(CreneauOccupe creneau) {
+        retirer(creneau.rendezVousId());
+        if (creneau.chevauche(jour.atStartOfDay(), jour.plusDays(1).atStartOfDay())) {
+            rendezVous.put(creneau.rendezVousId(), creneau);
+            marquer(creneau, 0, QUANTA_PAR_JOUR);
+        }
+        return this;
+    }
+
+    synchronized DisponibiliteJour retirer(Long rendezVousId) {
+        CreneauOccupe precedent = rendezVous.remove(rendezVousId);
+        if (precedent != null) {
+            // Un quantum peut être partagé par deux rendez-vous hors grille : on efface
+            // la plage libérée puis on remarque les rendez-vous restants qui la touchent
+            int premier = premierQuantum(precedent);
+            int dernier = dernierQuantum(precedent);
+            occupes.clear(premier, dernier);
+            rendezVous.values().forEach(c -> marquer(c, premier, dernier));
+        }
+        return this;
+    }
+
+    /**
+     * Débuts des créneaux libres de la journée, découpés en pas de la durée demandée
+     * (arrondie au quantum supérieur) à partir du début de chaque segment libre.
+     *
+     * @param auPlusTot aucun créneau ne commence avant cet instant (null : pas de borne)
+     */
+    public synchronized List<LocalDateTime> creneauxLibres(Duration duree, LocalDateTime auPlusTot) {
+        List<LocalDateTime> resultat = new ArrayList<>();
+        long secondeMin = secondeMinimale(auPlusTot);
+        if (secondeMin > Duration.ofDays(1).toSeconds()) {
+            return resultat;
+        }
+        int pas = (int) Math.max(1, (duree.toSeconds() + SECONDES_QUANTUM - 1) / SECONDES_QUANTUM);
+        BitSet libres = (BitSet) ouverts.clone();
+        libres.andNot(occupes);
+
+        LocalDateTime minuit = jour.atStartOfDay();
+        for (int debutSegment = libres.nextSetBit(0); debutSegment >= 0;
+             debutSegment = libres.nextSetBit(libres.nextClearBit(debutSegment))) {
+            int finSegment = libres.nextClearBit(debutSegment);
+            int quantum = debutSegment;
+            long ecart = secondeMin - quantum * SECONDES_QUANTUM;
+            if (ecart > 0) {
+                // On reste aligné sur la grille du segment
+                long pasSecondes = pas * SECONDES_QUANTUM;
+                quantum += (int) ((ecart + pasSecondes - 1) / pasSecondes) * pas;
+            }
+            for (; quantum + pas <= finSegment; quantum += pas) {
+                resultat.add(minuit.plus(QUANTUM.multipliedBy(quantum)));
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Vérifie l'absence de conflit sur un intervalle inclus dans la journée : si aucun
+     * quantum touché n'est occupé la réponse est immédiate, sinon seuls les rendez-vous
+     * de la journée sont comparés.
+     */
+    public synchronized boolean estLibre(LocalDateTime debut, LocalDateTime fin, Long excludeRendezVousId) {
+        int premier = quantumInferieur(secondeDuJour(debut));
+        int dernier = quantumSuperieur(secondeDuJour(fin));
+        int occupe = occupes.nextSetBit(premier);
+        if (occupe < 0 || occupe >= dernier) {
+            return true;
+        }
+        return rendezVous.values().stream()
+                .filter(c -> !c.rendezVousId().equals(excludeRendezVousId))
+                .noneMatch(c -> c.chevauche(debut, fin));
+    }
+
+    private void marquer(CreneauOccupe creneau, int borneBasse, int borneHaute) {
+        int premier = Math.max(premierQuantum(creneau), borneBasse);
+        int dernier = Math.min(dernierQuantum(creneau), borneHaute);
+        if (premier < dernier) {
+            occupes.set(premier, dernier);
+        }
+    }
+
+    private int premierQuantum(CreneauOccupe creneau) {
+        return creneau.debut().isBefore(jour.atStartOfDay()) ? 0 : quantumInferieur(secondeDuJour(creneau.debut()));
+    }
+
+    private int dernierQuantum(CreneauOccupe creneau) {
+        return creneau.fin().toLocalDate().isAfter(jour) ? QUANTA_PAR_JOUR : quantumSuperieur(secondeDuJour(creneau.fin()));
+    }
+
+    private long secondeMinimale(LocalDateTime auPlusTot) {
+        if (auPlusTot == null || auPlusTot.toLocalDate().isBefore(jour)) {
+            return 0;
+        }
+        if (auPlusTot.toLocalDate().isAfter(jour)) {
+            return Long.MAX_VALUE;
+        }
+        return auPlusTot.toLocalTime().toSecondOfDay() + (auPlusTot.getNano() > 0 ? 1 : 0);
+    }
+
+    private long secondeDuJour(LocalDateTime instant) {
+        if (instant.toLocalDate().isAfter(jour)) {
+            return Duration.ofDays(1).toSeconds();
+        }
+        return instant.toLocalDate().isBefore(jour) ? 0 : instant.toLocalTime().toSecondOfDay();
+    }
+
+    private static int quantumInferieur(long seconde) {
+        return (int) (seconde / SECONDES_QUANTUM);
+    }
+
+    private static int quantumSuperieur(long seconde) {
+        return (int) ((seconde + SECONDES_QUANTUM - 1) / SECONDES_QUANTUM);
+    }
+}
@@ -0,0 +1,11 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+/**
+ * Planning d'une journée déjà sérialisé en JSON, avec son ETag : l'empreinte du contenu,
+ * si bien qu'un instantané reconstruit à l'identique ou servi par une autre instance
+ * garde le même ETag.
+ * <p>
+ * Le tableau n'est jamais modifié après la construction.
+ */
+public record InstantanePlanning(byte[] corps, String etag) {
+}
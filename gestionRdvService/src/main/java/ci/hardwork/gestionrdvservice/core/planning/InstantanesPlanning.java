@@ -0,0 +1,142 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
+import ci.hardwork.gestionrdvservice.core.evenements.MedecinEvenement;
+import ci.hardwork.gestionrdvservice.core.evenements.PatientEvenement;
+import ci.hardwork.gestionrdvservice.core.evenements.RendezVousEvenement;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Instantanés des plannings quotidiens, par (médecin, jour) et pour le planning général
+ * d'un jour, servis aux écrans qui les interrogent en boucle.
+ * <p>
+ * Un instantané est construit à la première consultation puis rendu tel quel, sans
+ * accès à la base, jusqu'à ce qu'un rendez-vous de ce médecin et de ce jour change :
+ * les écritures sont connues par les événements de domaine, reçus après commit. Une
+ * modification de médecin invalide ses journées ; une modification de patient, dont le
+ * nom peut figurer dans n'importe quel planning, les invalide toutes.
+ * <p>
+ * Ces événements ne viennent que de cette instance : un instantané est donc reconstruit
+ * au plus tard {@code app.rdv.planning.instantanes-expiration} après sa construction,
+ * même interrogé en continu, pour servir les écritures commitées sur d'autres instances.
+ */
+@Component
+@Slf4j
+public class InstantanesPlanning {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Cle, InstantanePlanning> cache;
+    // Incrémentée à chaque invalidation : un instantané construit pendant une invalidation n'est pas gardé
+    private final AtomicLong generation = new AtomicLong();
+
+    public InstantanesPlanning(ObjectMapper objectMapper,
+                               @Value("${app.rdv.planning.instantanes-taille-max:5000}") long tailleMax,
+                               @Value("${app.rdv.planning.instantanes-expiration:PT30S}") Duration expiration) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tailleMax)
+                .expireAfterWrite(expiration)
+                .build();
+    }
+
+    public InstantanePlanning planningMedecin(Long medecinId, LocalDate jour, Supplier<List<RendezVousResponseDTO>> chargement) {
+        return obtenir(new Cle(Objects.requireNonNull(medecinId), jour), chargement);
+    }
+
+    public InstantanePlanning planningGeneral(LocalDate jour, Supplier<List<RendezVousResponseDTO>> chargement) {
+        return obtenir(new Cle(null, jour), chargement);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surRendezVous(RendezVousEvenement evenement) {
+        generation.incrementAndGet();
+        invalider(evenement.avant());
+        invalider(evenement.apres());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surMedecin(MedecinEvenement evenement) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(cle -> cle.medecinId() == null || cle.medecinId().equals(evenement.medecinId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surPatient(PatientEvenement evenement) {
+        invaliderTout();
+    }
+
+    /**
+     * Journées d'un médecin dont le contenu change sans écriture de rendez-vous (séries
+     * récurrentes), invalidées après le commit de la transaction courante.
+     */
+    public void invaliderMedecin(Long medecinId) {
+        ApresCommit.executer(() -> {
+            generation.incrementAndGet();
+            cache.asMap().keySet().removeIf(cle -> cle.medecinId() == null || cle.medecinId().equals(medecinId));
+        });
+    }
+
+    public void invaliderTout() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private InstantanePlanning obtenir(Cle cle, Supplier<List<RendezVousResponseDTO>> chargement) {
+        InstantanePlanning instantane = cache.getIfPresent(cle);
+        if (instantane != null) {
+            return instantane;
+        }
+        // Lecture hors du verrou du cache : les invalidations ne l'attendent pas
+        long generationLue = generation.get();
+        instantane = construire(cle, chargement.get());
+        cache.put(cle, instantane);
+        // Lu avant le commit d'une écriture invalidée entre-temps : rendu une fois, pas gardé
+        if (generation.get() != generationLue) {
+            cache.asMap().remove(cle, instantane);
+        }
+        return instantane;
+    }
+
+    private InstantanePlanning construire(Cle cle, List<RendezVousResponseDTO> planning) {
+        try {
+            byte[] corps = objectMapper.writeValueAsBytes(planning);
+            log.debug("Instantané du planning construit pour le médecin ID: {} le {} ({} rendez-vous)",
+                    cle.medecinId(), cle.jour(), planning.size());
+            return new InstantanePlanning(corps, "\"" + DigestUtils.md5DigestAsHex(corps) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sérialisation du planning impossible", e);
+        }
+    }
+
+    private void invalider(RendezVousEvenement.Etat etat) {
+        if (etat == null) {
+            return;
+        }
+        // Un rendez-vous peut déborder sur le lendemain
+        LocalDate jour = etat.dateHeureDebut().toLocalDate();
+        do {
+            cache.invalidate(new Cle(etat.medecinId(), jour));
+            cache.invalidate(new Cle(null, jour));
+            jour = jour.plusDays(1);
+        } while (jour.atStartOfDay().isBefore(etat.dateHeureFin()));
+    }
+
+    // medecinId null : planning général du jour
+    private record Cle(Long medecinId, LocalDate jour) {
+    }
+}
@@ -0,0 +1,9 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import java.time.LocalDateTime;
+
+/**
+ * Occurrence d'une série déjà enregistrée comme rendez-vous : elle n'est plus calculée.
+ */
+public record OccurrenceMaterialisee(Long serieId, LocalDateTime dateOccurrence) {
+}
@@ -0,0 +1,57 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Parcours paresseux, dans l'ordre chronologique, des créneaux libres d'un médecin :
+ * les créneaux d'une journée ne sont extraits que lorsque la précédente est épuisée.
+ */
+public final class ProchainsCreneauxLibres {
+
+    private final Long medecinId;
+    private final Iterator<DisponibiliteJour> journees;
+    private final Duration duree;
+    private final LocalDateTime auPlusTot;
+
+    private Iterator<LocalDateTime> creneauxDuJour = Collections.emptyIterator();
+    private LocalDateTime courant;
+
+    /**
+     * @param journees journées de la période, dans l'ordre chronologique
+     */
+    public ProchainsCreneauxLibres(Long medecinId, List<DisponibiliteJour> journees, Duration duree, LocalDateTime auPlusTot) {
+        this.medecinId = medecinId;
+        this.journees = journees.iterator();
+        this.duree = duree;
+        this.auPlusTot = auPlusTot;
+    }
+
+    /**
+     * Passe au créneau libre suivant.
+     *
+     * @return false lorsque la période est épuisée
+     */
+    public boolean avancer() {
+        while (!creneauxDuJour.hasNext()) {
+            if (!journees.hasNext()) {
+                courant = null;
+                return false;
+            }
+            creneauxDuJour = journees.next().creneauxLibres(duree, auPlusTot).iterator();
+        }
+        courant = creneauxDuJour.next();
+        return true;
+    }
+
+    public Long getMedecinId() {
+        return medecinId;
+    }
+
+    public LocalDateTime getCourant() {
+        return courant;
+    }
+}
@@ -0,0 +1,80 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import ci.hardwork.gestionrdvservice.core.models.enums.FrequenceRecurrence;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Règle d'une série : une occurrence toutes les {@code intervalle} semaines ou mois à
+ * partir de la première, jusqu'à la date de fin incluse.
+ * <p>
+ * L'occurrence de rang n est calculée depuis la première (et non depuis la précédente),
+ * si bien qu'une série mensuelle commencée un 31 revient au 31 les mois qui en ont un.
+ */
+public record RegleRecurrence(LocalDateTime premiereOccurrence, Duration duree, FrequenceRecurrence frequence,
+                              int intervalle, LocalDate dateFin) {
+
+    public LocalDateTime occurrence(int rang) {
+        long pas = (long) rang * intervalle;
+        return frequence == FrequenceRecurrence.HEBDOMADAIRE
+                ? premiereOccurrence.plusWeeks(pas)
+                : premiereOccurrence.plusMonths(pas);
+    }
+
+    /** Nombre total d'occurrences de la série. */
+    public int nombreOccurrences() {
+        int rang = premierRangCandidat(dateFin.plusDays(1).atStartOfDay());
+        while (!occurrence(rang).toLocalDate().isAfter(dateFin)) {
+            rang++;
+        }
+        return rang;
+    }
+
+    /** Rang de l'occurrence qui commence à cette date, ou -1 si la série n'y passe pas. */
+    public int rangDe(LocalDateTime debut) {
+        if (debut.isBefore(premiereOccurrence) || debut.toLocalDate().isAfter(dateFin)) {
+            return -1;
+        }
+        int rang = premierRangCandidat(debut);
+        while (occurrence(rang).isBefore(debut)) {
+            rang++;
+        }
+        return occurrence(rang).equals(debut) ? rang : -1;
+    }
+
+    /**
+     * Occurrences dont l'intervalle [début, début + durée[ chevauche [debut, fin[ ;
+     * le premier rang est calculé directement, sans parcourir la série depuis le début.
+     */
+    public List<Occurrence> occurrencesChevauchant(LocalDateTime debut, LocalDateTime fin) {
+        List<Occurrence> resultat = new ArrayList<>();
+        for (int rang = premierRangCandidat(debut.minus(duree)); ; rang++) {
+            LocalDateTime occurrence = occurrence(rang);
+            if (!occurrence.isBefore(fin) || occurrence.toLocalDate().isAfter(dateFin)) {
+                return resultat;
+            }
+            LocalDateTime finOccurrence = occurrence.plus(duree);
+            if (finOccurrence.isAfter(debut)) {
+                resultat.add(new Occurrence(rang, occurrence, finOccurrence));
+            }
+        }
+    }
+
+    // Rang dont l'occurrence précède la date : aucune occurrence ultérieure n'est sautée
+    private int premierRangCandidat(LocalDateTime date) {
+        if (!date.isAfter(premiereOccurrence)) {
+            return 0;
+        }
+        ChronoUnit unite = frequence == FrequenceRecurrence.HEBDOMADAIRE ? ChronoUnit.WEEKS : ChronoUnit.MONTHS;
+        long pas = unite.between(premiereOccurrence, date) / intervalle;
+        return (int) Math.max(0, pas - 1);
+    }
+
+    public record Occurrence(int rang, LocalDateTime debut, LocalDateTime fin) {
+    }
+}
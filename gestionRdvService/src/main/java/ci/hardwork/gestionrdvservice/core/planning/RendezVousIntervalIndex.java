@@ -0,0 +1,230 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import ci.hardwork.gestionrdvservice.core.models.RendezVous;
+import ci.hardwork.gestionrdvservice.core.repository.RendezVousRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Index en mémoire des créneaux occupés (rendez-vous non annulés) par médecin.
+ * <p>
+ * Chaque agenda est un ensemble trié par date de début : une recherche de conflit
+ * ne parcourt que les intervalles dont le début est compris dans
+ * [debut - dureeMax, fin[, soit O(log n + k) sans aller-retour en base.
+ * L'agenda d'un médecin est chargé depuis la base à la première consultation,
+ * à partir du début de la journée courante ; les requêtes antérieures à cet
+ * horizon retombent sur la requête SQL.
+ * <p>
+ * Les agendas sont gardés dans un cache borné et rechargés au plus tard
+ * {@code app.rdv.agendas.expiration} après leur chargement, ce qui avance l'horizon
+ * chaque jour. Les écritures de cette instance sont appliquées après commit ; celles
+ * d'autres instances ne sont vues qu'au rechargement. L'index suppose donc une instance
+ * unique par base, ou au moins tolère ce retard : la contrainte d'exclusion PostgreSQL
+ * ({@code ContrainteChevauchement}) reste le dernier rempart contre une double réservation.
+ * <p>
+ * Les occurrences calculées des séries récurrentes sont ajoutées aux résultats à la
+ * lecture : elles occupent l'agenda sans être stockées comme rendez-vous.
+ */
+@Component
+@Slf4j
+public class RendezVousIntervalIndex {
+
+    private static final Comparator<CreneauOccupe> ORDRE = Comparator
+            .comparing(CreneauOccupe::debut)
+            .thenComparing(CreneauOccupe::rendezVousId);
+
+    private final RendezVousRepository rendezVousRepository;
+    private final SeriesRecurrentes seriesRecurrentes;
+
+    private final Cache<Long, AgendaMedecin> agendas;
+    // Incrémentée à chaque écriture : un agenda lu pendant une écriture n'est pas gardé
+    private final AtomicLong generation = new AtomicLong();
+
+    public RendezVousIntervalIndex(RendezVousRepository rendezVousRepository,
+                                   SeriesRecurrentes seriesRecurrentes,
+                                   @Value("${app.rdv.agendas.taille-max:5000}") long tailleMax,
+                                   @Value("${app.rdv.agendas.expiration:PT10M}") Duration expiration) {
+        this.rendezVousRepository = rendezVousRepository;
+        this.seriesRecurrentes = seriesRecurrentes;
+        this.agendas = Caffeine.newBuilder()
+                .maximumSize(tailleMax)
+                .expireAfterWrite(expiration)
+                .build();
+    }
+
+    public boolean estLibre(Long medecinId, LocalDateTime debut, LocalDateTime fin, Long excludeRendezVousId) {
+        return getCreneauxOccupes(medecinId, debut, fin).stream()
+                .noneMatch(c -> !c.rendezVousId().equals(excludeRendezVousId));
+    }
+
+    public List<CreneauOccupe> getCreneauxOccupes(Long medecinId, LocalDateTime debut, LocalDateTime fin) {
+        AgendaMedecin agenda = getAgenda(medecinId);
+        List<CreneauOccupe> occupes;
+        if (debut.isBefore(agenda.horizon)) {
+            occupes = rendezVousRepository.findConflictingRendezVous(medecinId, debut, fin)
+                    .stream()
+                    .map(CreneauOccupe::de)
+                    .toList();
+        } else {
+            occupes = agenda.chevauchant(debut, fin);
+        }
+        return avecOccurrences(occupes, seriesRecurrentes.getOccurrences(medecinId, debut, fin));
+    }
+
+    /**
+     * Créneaux occupés de plusieurs médecins sur une période. Les agendas déjà chargés
+     * répondent depuis la mémoire ; les autres sont lus en une seule requête groupée,
+     * sans être ajoutés à l'index.
+     */
+    public Map<Long, List<CreneauOccupe>> getCreneauxOccupes(Collection<Long> medecinIds, LocalDateTime debut, LocalDateTime fin) {
+        Map<Long, List<CreneauOccupe>> resultat = new HashMap<>();
+        List<Long> nonCharges = new ArrayList<>();
+        for (Long medecinId : medecinIds) {
+            AgendaMedecin agenda = agendas.getIfPresent(medecinId);
+            if (agenda != null && !debut.isBefore(agenda.horizon)) {
+                resultat.put(medecinId, agenda.chevauchant(debut, fin));
+            } else {
+                nonCharges.add(medecinId);
+            }
+        }
+        if (!nonCharges.isEmpty()) {
+            rendezVousRepository.findCreneauxOccupesByMedecinIds(nonCharges, debut, fin)
+                    .forEach(c -> resultat.computeIfAbsent(c.medecinId(), id -> new ArrayList<>()).add(c.creneau()));
+        }
+        seriesRecurrentes.getOccurrences(medecinIds, debut, fin).forEach((medecinId, occurrences) ->
+                resultat.put(medecinId, avecOccurrences(resultat.getOrDefault(medecinId, List.of()), occurrences)));
+        return resultat;
+    }
+
+    /**
+     * Reflète l'état d'un rendez-vous après le commit de la transaction courante.
+     */
+    public void synchroniser(RendezVous rendezVous) {
+        Long medecinId = rendezVous.getMedecin().getId();
+        if (rendezVous.isAnnule()) {
+            retirer(medecinId, rendezVous.getId());
+        } else {
+            CreneauOccupe creneau = CreneauOccupe.de(rendezVous);
+            ApresCommit.executer(() -> modifier(medecinId, agenda -> agenda.ajouter(creneau)));
+        }
+    }
+
+    public void retirer(Long medecinId, Long rendezVousId) {
+        ApresCommit.executer(() -> modifier(medecinId, agenda -> agenda.retirer(rendezVousId)));
+    }
+
+    public void invalider(Long medecinId) {
+        generation.incrementAndGet();
+        agendas.invalidate(medecinId);
+    }
+
+    public void invaliderTout() {
+        generation.incrementAndGet();
+        agendas.invalidateAll();
+    }
+
+    // Modifié en place : une lecture ne repousse pas l'expiration, qui garantit le rechargement
+    private void modifier(Long medecinId, Consumer<AgendaMedecin> modification) {
+        generation.incrementAndGet();
+        AgendaMedecin agenda = agendas.getIfPresent(medecinId);
+        if (agenda != null) {
+            modification.accept(agenda);
+        }
+    }
+
+    private static List<CreneauOccupe> avecOccurrences(List<CreneauOccupe> occupes, List<SeriesRecurrentes.OccurrenceSerie> occurrences) {
+        if (occurrences.isEmpty()) {
+            return occupes;
+        }
+        List<CreneauOccupe> resultat = new ArrayList<>(occupes);
+        occurrences.forEach(occurrence -> resultat.add(occurrence.creneau()));
+        return resultat;
+    }
+
+    private AgendaMedecin getAgenda(Long medecinId) {
+        AgendaMedecin agenda = agendas.getIfPresent(medecinId);
+        if (agenda != null) {
+            return agenda;
+        }
+        // Lecture hors du verrou du cache : les autres médecins et les écritures ne l'attendent pas
+        long generationLue = generation.get();
+        agenda = charger(medecinId);
+        agendas.put(medecinId, agenda);
+        // Une écriture commitée pendant la lecture a pu lui échapper : rendu une fois, pas gardé
+        if (generation.get() != generationLue) {
+            agendas.asMap().remove(medecinId, agenda);
+        }
+        return agenda;
+    }
+
+    private AgendaMedecin charger(Long medecinId) {
+        LocalDateTime horizon = LocalDate.now().atStartOfDay();
+        List<CreneauOccupe> creneaux = rendezVousRepository.findCreneauxOccupesByMedecinId(medecinId, horizon);
+        log.debug("Chargement de l'agenda du médecin ID: {} ({} créneaux occupés)", medecinId, creneaux.size());
+        AgendaMedecin agenda = new AgendaMedecin(horizon);
+        creneaux.forEach(agenda::ajouter);
+        return agenda;
+    }
+
+    private static final class AgendaMedecin {
+
+        private final LocalDateTime horizon;
+        private final NavigableSet<CreneauOccupe> creneaux = new TreeSet<>(ORDRE);
+        private final Map<Long, CreneauOccupe> parId = new HashMap<>();
+        private Duration dureeMax = Duration.ZERO;
+
+        private AgendaMedecin(LocalDateTime horizon) {
+            this.horizon = horizon;
+        }
+
+        synchronized AgendaMedecin ajouter(CreneauOccupe creneau) {
+            CreneauOccupe precedent = parId.put(creneau.rendezVousId(), creneau);
+            if (precedent != null) {
+                creneaux.remove(precedent);
+            }
+            creneaux.add(creneau);
+            Duration duree = Duration.between(creneau.debut(), creneau.fin());
+            if (duree.compareTo(dureeMax) > 0) {
+                dureeMax = duree;
+            }
+            return this;
+        }
+
+        synchronized AgendaMedecin retirer(Long rendezVousId) {
+            CreneauOccupe precedent = parId.remove(rendezVousId);
+            if (precedent != null) {
+                creneaux.remove(precedent);
+            }
+            return this;
+        }
+
+        synchronized List<CreneauOccupe> chevauchant(LocalDateTime debut, LocalDateTime fin) {
+            CreneauOccupe borneBasse = new CreneauOccupe(Long.MIN_VALUE, debut.minus(dureeMax), null);
+            CreneauOccupe borneHaute = new CreneauOccupe(Long.MIN_VALUE, fin, null);
+            List<CreneauOccupe> resultat = new ArrayList<>();
+            for (CreneauOccupe creneau : creneaux.subSet(borneBasse, true, borneHaute, false)) {
+                if (creneau.chevauche(debut, fin)) {
+                    resultat.add(creneau);
+                }
+            }
+            return resultat;
+        }
+    }
+}
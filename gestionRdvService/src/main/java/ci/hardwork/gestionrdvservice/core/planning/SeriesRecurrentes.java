@@ -0,0 +1,189 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import ci.hardwork.gestionrdvservice.core.models.SerieRendezVous;
+import ci.hardwork.gestionrdvservice.core.repository.RendezVousRepository;
+import ci.hardwork.gestionrdvservice.core.repository.SerieRendezVousRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Occurrences calculées des séries actives, par médecin.
+ * <p>
+ * Les règles des séries d'un médecin (et les dates déjà matérialisées en rendez-vous)
+ * sont chargées une fois puis développées en mémoire sur la période demandée : le coût
+ * dépend du nombre de séries, pas du nombre d'occurrences. Toute écriture sur une série
+ * ou l'une de ses occurrences (y compris la suppression d'une occurrence matérialisée)
+ * invalide le médecin après le commit.
+ * <p>
+ * Les séries sont gardées dans un cache borné et relues au plus tard
+ * {@code app.rdv.series.expiration} après leur chargement : une série créée, arrêtée ou
+ * modifiée sur une autre instance est vue au rechargement, comme les agendas de
+ * {@link RendezVousIntervalIndex}.
+ * <p>
+ * Une occurrence non matérialisée n'existe pas dans la table {@code rendez_vous} : elle
+ * n'a pas de rappel (le diffuseur ne lit que les rendez-vous enregistrés) et la contrainte
+ * d'exclusion ({@link ContrainteChevauchement}) ne la voit pas. Seuls les contrôles applicatifs,
+ * sous {@link VerrousMedecins}, empêchent de réserver par-dessus ; une réservation concurrente
+ * sur une autre instance n'est donc pas arrêtée par la base. Confirmer l'occurrence la
+ * matérialise et lui rend ces deux garanties.
+ */
+@Component
+@Slf4j
+public class SeriesRecurrentes {
+
+    /** Borne du nombre d'occurrences d'une série, qui fixe aussi l'espace des identifiants calculés. */
+    public static final int OCCURRENCES_MAX = 520;
+
+    private final SerieRendezVousRepository serieRendezVousRepository;
+    private final RendezVousRepository rendezVousRepository;
+
+    private final Cache<Long, List<SerieActive>> parMedecin;
+    // Incrémentée à chaque invalidation : des séries lues pendant une écriture ne sont pas gardées
+    private final AtomicLong generation = new AtomicLong();
+
+    public SeriesRecurrentes(SerieRendezVousRepository serieRendezVousRepository,
+                             RendezVousRepository rendezVousRepository,
+                             @Value("${app.rdv.series.taille-max:5000}") long tailleMax,
+                             @Value("${app.rdv.series.expiration:PT5M}") Duration expiration) {
+        this.serieRendezVousRepository = serieRendezVousRepository;
+        this.rendezVousRepository = rendezVousRepository;
+        this.parMedecin = Caffeine.newBuilder()
+                .maximumSize(tailleMax)
+                .expireAfterWrite(expiration)
+                .build();
+    }
+
+    /**
+     * Occurrence non matérialisée. Son identifiant de créneau est négatif et propre à
+     * (série, rang), ce qui la distingue des rendez-vous dans les index d'agenda.
+     */
+    public record OccurrenceSerie(Long serieId, int rang, LocalDateTime debut, LocalDateTime fin) {
+
+        public CreneauOccupe creneau() {
+            return new CreneauOccupe(identifiant(serieId, rang), debut, fin);
+        }
+
+        public static Long identifiant(Long serieId, int rang) {
+            return -(serieId * OCCURRENCES_MAX + rang);
+        }
+    }
+
+    private record SerieActive(Long id, RegleRecurrence regle, Set<LocalDateTime> materialisees) {
+
+        List<OccurrenceSerie> occurrences(LocalDateTime debut, LocalDateTime fin) {
+            return regle.occurrencesChevauchant(debut, fin).stream()
+                    .filter(o -> !materialisees.contains(o.debut()))
+                    .map(o -> new OccurrenceSerie(id, o.rang(), o.debut(), o.fin()))
+                    .toList();
+        }
+    }
+
+    public List<OccurrenceSerie> getOccurrences(Long medecinId, LocalDateTime debut, LocalDateTime fin) {
+        return developper(getSeries(medecinId), debut, fin);
+    }
+
+    /**
+     * Occurrences de plusieurs médecins ; ceux qui ne sont pas en cache sont lus en deux
+     * requêtes groupées, sans être ajoutés au cache.
+     */
+    public Map<Long, List<OccurrenceSerie>> getOccurrences(Collection<Long> medecinIds, LocalDateTime debut, LocalDateTime fin) {
+        Map<Long, List<OccurrenceSerie>> resultat = new HashMap<>();
+        List<Long> nonCharges = new ArrayList<>();
+        for (Long medecinId : medecinIds) {
+            List<SerieActive> series = parMedecin.getIfPresent(medecinId);
+            if (series != null) {
+                resultat.put(medecinId, developper(series, debut, fin));
+            } else {
+                nonCharges.add(medecinId);
+            }
+        }
+        if (!nonCharges.isEmpty()) {
+            Map<Long, List<SerieRendezVous>> lues = serieRendezVousRepository.findByMedecinIdInAndActifTrue(nonCharges)
+                    .stream()
+                    .collect(Collectors.groupingBy(serie -> serie.getMedecin().getId()));
+            Map<Long, Set<LocalDateTime>> materialisees = materialisees(lues.values().stream().flatMap(List::stream).toList());
+            lues.forEach((medecinId, series) ->
+                    resultat.put(medecinId, developper(actives(series, materialisees), debut, fin)));
+        }
+        return resultat;
+    }
+
+    /** Occurrences calculées des séries données (déjà lues) sur la période. */
+    public List<OccurrenceSerie> getOccurrences(List<SerieRendezVous> series, LocalDateTime debut, LocalDateTime fin) {
+        return developper(actives(series, materialisees(series)), debut, fin);
+    }
+
+    public void invalider(Long medecinId) {
+        ApresCommit.executer(() -> {
+            generation.incrementAndGet();
+            parMedecin.invalidate(medecinId);
+        });
+    }
+
+    public void invaliderTout() {
+        generation.incrementAndGet();
+        parMedecin.invalidateAll();
+    }
+
+    private List<SerieActive> getSeries(Long medecinId) {
+        List<SerieActive> series = parMedecin.getIfPresent(medecinId);
+        if (series != null) {
+            return series;
+        }
+        // Lecture hors du verrou du cache : les autres médecins et les invalidations ne l'attendent pas
+        long generationLue = generation.get();
+        series = charger(medecinId);
+        parMedecin.put(medecinId, series);
+        // Une écriture commitée pendant la lecture a pu lui échapper : rendu une fois, pas gardé
+        if (generation.get() != generationLue) {
+            parMedecin.asMap().remove(medecinId, series);
+        }
+        return series;
+    }
+
+    private List<SerieActive> charger(Long medecinId) {
+        List<SerieRendezVous> series = serieRendezVousRepository.findByMedecinIdAndActifTrue(medecinId);
+        log.debug("Chargement de {} série(s) active(s) pour le médecin ID: {}", series.size(), medecinId);
+        return actives(series, materialisees(series));
+    }
+
+    private Map<Long, Set<LocalDateTime>> materialisees(List<SerieRendezVous> series) {
+        if (series.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Set<LocalDateTime>> resultat = new HashMap<>();
+        rendezVousRepository.findOccurrencesMaterialisees(series.stream().map(SerieRendezVous::getId).toList())
+                .forEach(o -> resultat.computeIfAbsent(o.serieId(), id -> new HashSet<>()).add(o.dateOccurrence()));
+        return resultat;
+    }
+
+    private static List<SerieActive> actives(List<SerieRendezVous> series, Map<Long, Set<LocalDateTime>> materialisees) {
+        return series.stream()
+                .map(serie -> new SerieActive(serie.getId(), serie.regle(), materialisees.getOrDefault(serie.getId(), Set.of())))
+                .toList();
+    }
+
+    private static List<OccurrenceSerie> developper(List<SerieActive> series, LocalDateTime debut, LocalDateTime fin) {
+        if (series.isEmpty()) {
+            return List.of();
+        }
+        List<OccurrenceSerie> resultat = new ArrayList<>();
+        series.forEach(serie -> resultat.addAll(serie.occurrences(debut, fin)));
+        return resultat;
+    }
+}
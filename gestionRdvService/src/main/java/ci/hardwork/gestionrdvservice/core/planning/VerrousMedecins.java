@@ -0,0 +1,66 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * Verrous par médecin, répartis sur un nombre fixe de bandes.
+ * <p>
+ * La vérification d'un créneau et l'écriture du rendez-vous se font sous le verrou du
+ * médecin, tenu jusqu'à la fin de la transaction : les index d'agenda sont mis à jour
+ * après le commit, avant que le demandeur suivant ne fasse sa propre vérification.
+ * Deux médecins ne se bloquent que s'ils partagent une bande.
+ */
+@Component
+public class VerrousMedecins {
+
+    private final ReentrantLock[] bandes;
+
+    public VerrousMedecins(@Value("${app.rdv.verrous.bandes:256}") int nombreBandes) {
+        this.bandes = IntStream.range(0, nombreBandes)
+                .mapToObj(i -> new ReentrantLock())
+                .toArray(ReentrantLock[]::new);
+    }
+
+    public void verrouiller(Long medecinId) {
+        verrouiller(List.of(medecinId));
+    }
+
+    /**
+     * Prend les verrous de plusieurs médecins, toujours dans l'ordre des bandes pour
+     * qu'aucun interblocage ne soit possible entre deux lots.
+     */
+    public void verrouiller(Collection<Long> medecinIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Le verrou d'un médecin ne peut être pris que dans une transaction");
+        }
+        int[] indices = medecinIds.stream()
+                .mapToInt(this::bande)
+                .distinct()
+                .sorted()
+                .toArray();
+        for (int indice : indices) {
+            if (bandes[indice].isHeldByCurrentThread()) {
+                continue;
+            }
+            bandes[indice].lock();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    bandes[indice].unlock();
+                }
+            });
+        }
+    }
+
+    private int bande(Long medecinId) {
+        return Math.floorMod(Long.hashCode(medecinId), bandes.length);
+    }
+}
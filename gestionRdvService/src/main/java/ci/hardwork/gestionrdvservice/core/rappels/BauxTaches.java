@@ -0,0 +1,64 @@
+package ci.hardwork.gestionrdvservice.core.rappels;
+
+import ci.hardwork.gestionrdvservice.core.repository.BailTacheRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Baux des tâches planifiées, stockés en base pour qu'une seule instance de l'application
+ * exécute une tâche donnée à un instant donné.
+ * <p>
+ * Un bail est pris ou prolongé par une mise à jour conditionnelle : la base arbitre entre
+ * les instances, sans verrou applicatif. Un détenteur arrêté brutalement perd son bail à
+ * l'expiration.
+ */
+@Component
+@Slf4j
+public class BauxTaches {
+
+    private final BailTacheRepository bailTacheRepository;
+    private final String detenteur;
+
+    @Autowired
+    public BauxTaches(BailTacheRepository bailTacheRepository) {
+        this(bailTacheRepository, UUID.randomUUID().toString());
+    }
+
+    BauxTaches(BailTacheRepository bailTacheRepository, String detenteur) {
+        this.bailTacheRepository = bailTacheRepository;
+        this.detenteur = detenteur;
+    }
+
+    /**
+     * Prend le bail {@code nom} pour {@code duree}, ou le prolonge si cette instance le détient déjà.
+     *
+     * @return {@code true} si cette instance détient le bail à l'issue de l'appel
+     */
+    public boolean acquerir(String nom, Duration duree) {
+        LocalDateTime maintenant = LocalDateTime.now();
+        LocalDateTime expiration = maintenant.plus(duree);
+        if (bailTacheRepository.prendre(nom, detenteur, maintenant, expiration) == 1) {
+            return true;
+        }
+        if (bailTacheRepository.existsById(nom)) {
+            return false;
+        }
+        try {
+            return bailTacheRepository.creer(nom, detenteur, expiration) == 1;
+        } catch (DataIntegrityViolationException e) {
+            // Une autre instance a créé le bail en même temps
+            log.debug("Bail {} créé par une autre instance", nom);
+            return false;
+        }
+    }
+
+    public void liberer(String nom) {
+        bailTacheRepository.rendre(nom, detenteur, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,213 @@
+package ci.hardwork.gestionrdvservice.core.rappels;
+
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
+import ci.hardwork.gestionrdvservice.core.evenements.RendezVousEvenement;
+import ci.hardwork.gestionrdvservice.core.repository.RendezVousRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Envoi planifié des rappels de rendez-vous.
+ * <p>
+ * Les rendez-vous qui commencent dans les {@code app.rdv.rappel-heures-avant} heures sont
+ * parcourus par lots, en pagination par curseur. Les envois d'un lot partent en parallèle,
+ * au plus {@code app.rdv.rappels.envois-simultanes} à la fois, puis les rappels réussis
+ * sont marqués en une seule requête. Un bail en base réserve le passage à une seule
+ * instance ; il est prolongé entre deux lots et, pendant les envois, dès qu'un quart de
+ * sa durée s'est écoulé : un lot d'envois lents ne le laisse pas expirer. Les envois
+ * partent sur un exécuteur qui leur est réservé ({@code executeurRappels}).
+ */
+@Component
+@ConditionalOnProperty(name = "app.rdv.rappels.actif", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class DiffuseurRappels {
+
+    static final String BAIL = "rappels-rendez-vous";
+
+    private final RendezVousRepository rendezVousRepository;
+    private final NotificationSender notificationSender;
+    private final BauxTaches bauxTaches;
+    private final ApplicationEventPublisher evenements;
+    private final Executor executor;
+    private final long heuresAvant;
+    private final int tailleLot;
+    private final int envoisSimultanes;
+    private final Duration dureeBail;
+    private final long prolongationMs;
+
+    public DiffuseurRappels(RendezVousRepository rendezVousRepository,
+                            NotificationSender notificationSender,
+                            BauxTaches bauxTaches,
+                            ApplicationEventPublisher evenements,
+                            @Qualifier("executeurRappels") Executor executor,
+                            @Value("${app.rdv.rappel-heures-avant:24}") long heuresAvant,
+                            @Value("${app.rdv.rappels.taille-lot:200}") int tailleLot,
+                            @Value("${app.rdv.rappels.envois-simultanes:8}") int envoisSimultanes,
+                            @Value("${app.rdv.rappels.duree-bail:PT2M}") Duration dureeBail) {
+        this.rendezVousRepository = rendezVousRepository;
+        this.notificationSender = notificationSender;
+        this.bauxTaches = bauxTaches;
+        this.evenements = evenements;
+        this.executor = executor;
+        this.heuresAvant = heuresAvant;
+        this.tailleLot = tailleLot;
+        this.envoisSimultanes = envoisSimultanes;
+        this.dureeBail = dureeBail;
+        this.prolongationMs = Math.max(1, dureeBail.toMillis() / 4);
+    }
+
+    /**
+     * @return le nombre de rappels envoyés lors de ce passage
+     */
+    @Scheduled(fixedDelayString = "${app.rdv.rappels.intervalle:PT5M}",
+               initialDelayString = "${app.rdv.rappels.delai-initial:PT1M}")
+    public int diffuser() {
+        if (!bauxTaches.acquerir(BAIL, dureeBail)) {
+            log.debug("Rappels déjà pris en charge par une autre instance");
+            return 0;
+        }
+        BailPassage bail = new BailPassage();
+        try {
+            LocalDateTime maintenant = LocalDateTime.now();
+            LocalDateTime fin = maintenant.plusHours(heuresAvant);
+            LocalDateTime curseurDebut = maintenant;
+            Long curseurId = 0L;
+            int envoyes = 0;
+            while (true) {
+                List<RendezVousResponseDTO> lot = rendezVousRepository.findResponseDTOsRequiringReminderApres(
+                        fin, curseurDebut, curseurId, tailleLot);
+                if (lot.isEmpty()) {
+                    break;
+                }
+                List<RendezVousResponseDTO> reussis = envoyer(lot, bail);
+                if (!reussis.isEmpty()) {
+                    rendezVousRepository.marquerRappelsEnvoyes(
+                            reussis.stream().map(RendezVousResponseDTO::getId).toList(), LocalDateTime.now());
+                    reussis.forEach(rendezVous -> evenements.publishEvent(RendezVousEvenement.rappel(rendezVous)));
+                    envoyes += reussis.size();
+                }
+                if (!bail.tenu()) {
+                    log.warn("Bail des rappels perdu pendant les envois, passage interrompu après {} envois", envoyes);
+                    return envoyes;
+                }
+                RendezVousResponseDTO dernier = lot.get(lot.size() - 1);
+                curseurDebut = dernier.getDateHeureDebut();
+                curseurId = dernier.getId();
+                if (lot.size() < tailleLot) {
+                    break;
+                }
+                if (!bail.prolonger()) {
+                    log.warn("Bail des rappels perdu, passage interrompu après {} envois", envoyes);
+                    return envoyes;
+                }
+            }
+            if (envoyes > 0) {
+                log.info("{} rappel(s) de rendez-vous envoyé(s) jusqu'au {}", envoyes, fin);
+            }
+            return envoyes;
+        } finally {
+            bauxTaches.liberer(BAIL);
+        }
+    }
+
+    // S'arrête de soumettre des envois si le bail est perdu ; ceux déjà partis sont attendus
+    private List<RendezVousResponseDTO> envoyer(List<RendezVousResponseDTO> lot, BailPassage bail) {
+        Semaphore places = new Semaphore(envoisSimultanes);
+        Queue<RendezVousResponseDTO> reussis = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<Void>> envois = new ArrayList<>(lot.size());
+        for (RendezVousResponseDTO rendezVous : lot) {
+            // Le thread planificateur attend une place libre : jamais plus de envoisSimultanes envois en cours
+            if (!bail.entretenir() || !attendrePlace(places, bail)) {
+                break;
+            }
+            envois.add(CompletableFuture.runAsync(() -> {
+                try {
+                    notificationSender.envoyerRappel(rendezVous);
+                    reussis.add(rendezVous);
+                } catch (RuntimeException e) {
+                    log.warn("Échec du rappel du rendez-vous {}: {}", rendezVous.getId(), e.getMessage());
+                } finally {
+                    places.release();
+                }
+            }, executor));
+        }
+        attendre(CompletableFuture.allOf(envois.toArray(CompletableFuture[]::new)), bail);
+        return new ArrayList<>(reussis);
+    }
+
+    private boolean attendrePlace(Semaphore places, BailPassage bail) {
+        try {
+            while (!places.tryAcquire(prolongationMs, TimeUnit.MILLISECONDS)) {
+                if (!bail.entretenir()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void attendre(CompletableFuture<Void> envois, BailPassage bail) {
+        while (true) {
+            try {
+                envois.get(prolongationMs, TimeUnit.MILLISECONDS);
+                return;
+            } catch (TimeoutException e) {
+                bail.entretenir();
+            } catch (ExecutionException e) {
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                envois.join();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Bail détenu pendant un passage, utilisé par le seul thread planificateur.
+     */
+    private final class BailPassage {
+
+        private long prolongeLe = System.nanoTime();
+        private boolean tenu = true;
+
+        boolean tenu() {
+            return tenu;
+        }
+
+        boolean prolonger() {
+            tenu = tenu && bauxTaches.acquerir(BAIL, dureeBail);
+            prolongeLe = System.nanoTime();
+            return tenu;
+        }
+
+        // Ne touche la base que si un quart de la durée du bail s'est écoulé depuis la dernière prolongation
+        boolean entretenir() {
+            if (tenu && System.nanoTime() - prolongeLe >= TimeUnit.MILLISECONDS.toNanos(prolongationMs)) {
+                return prolonger();
+            }
+            return tenu;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ci.hardwork.gestionrdvservice.core.rappels;
+
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Canal par défaut, en attendant l'intégration d'un service d'email/SMS : le rappel
+ * est seulement journalisé.
+ */
+@Slf4j
+public class JournalNotificationSender implements NotificationSender {
+
+    @Override
+    public void envoyerRappel(RendezVousResponseDTO rendezVous) {
+        log.info("Rappel du rendez-vous {} du {} - Patient: {} {}, Médecin: {} {}",
+                rendezVous.getId(), rendezVous.getDateHeureDebut(),
+                rendezVous.getPatientPrenom(), rendezVous.getPatientNom(),
+                rendezVous.getMedecinPrenom(), rendezVous.getMedecinNom());
+    }
+}
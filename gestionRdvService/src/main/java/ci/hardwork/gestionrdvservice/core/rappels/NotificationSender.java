@@ -0,0 +1,15 @@
+package ci.hardwork.gestionrdvservice.core.rappels;
+
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
+
+/**
+ * Canal d'envoi des rappels de rendez-vous (email, SMS...).
+ * <p>
+ * Les envois d'un lot sont faits en parallèle : une implémentation doit accepter des
+ * appels concurrents. Une exception signale un échec ; le rappel sera retenté au
+ * passage suivant.
+ */
+public interface NotificationSender {
+
+    void envoyerRappel(RendezVousResponseDTO rendezVous);
+}
@@ -0,0 +1,15 @@
+package ci.hardwork.gestionrdvservice.core.rappels;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RappelsConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(NotificationSender.class)
+    public NotificationSender notificationSender() {
+        return new JournalNotificationSender();
+    }
+}
@@ -0,0 +1,161 @@
+package ci.hardwork.gestionrdvservice.core.recherche;
+
+import ci.hardwork.gestionrdvservice.core.models.Medecin;
+import ci.hardwork.gestionrdvservice.core.models.Patient;
+import ci.hardwork.gestionrdvservice.core.planning.ApresCommit;
+import ci.hardwork.gestionrdvservice.core.repository.MedecinRepository;
+import ci.hardwork.gestionrdvservice.core.repository.PatientRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Index de recherche approximative des noms de patients et de médecins actifs.
+ * <p>
+ * Chargé au démarrage (ou au premier appel) en une requête par table, puis tenu à
+ * jour par les services après le commit de chaque écriture.
+ * <p>
+ * Ces écritures ne sont que celles de cette instance : l'index est donc reconstruit
+ * toutes les {@code app.rdv.recherche.reconstruction}, ce qui borne le délai avant
+ * qu'un patient ou un médecin enregistré sur une autre instance soit trouvé ici. Les
+ * écritures locales commitées pendant une reconstruction sont rejouées sur le nouvel index.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IndexRecherche {
+
+    private final PatientRepository patientRepository;
+    private final MedecinRepository medecinRepository;
+
+    // Une seule reconstruction à la fois ; pris avant le verrou des écritures
+    private final Object reconstruction = new Object();
+
+    private volatile IndexTrigrammes patients;
+    private volatile IndexTrigrammes medecins;
+    // Écritures appliquées pendant une reconstruction en cours, null sinon (gardé par this)
+    private List<Ecriture> enAttente;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void charger() {
+        reconstruire();
+        log.info("Index de recherche chargé: {} patients, {} médecins actifs", patients.taille(), medecins.taille());
+    }
+
+    @Scheduled(fixedDelayString = "${app.rdv.recherche.reconstruction:PT5M}",
+               initialDelayString = "${app.rdv.recherche.reconstruction:PT5M}")
+    public void rafraichir() {
+        reconstruire();
+        log.debug("Index de recherche reconstruit: {} patients, {} médecins actifs", patients.taille(), medecins.taille());
+    }
+
+    public List<Long> rechercherPatients(String requete, int limite) {
+        return ids(patients().rechercher(requete, limite));
+    }
+
+    public List<Long> rechercherMedecins(String requete, int limite) {
+        return ids(medecins().rechercher(requete, limite));
+    }
+
+    public void indexerPatient(Patient patient) {
+        Long id = patient.getId();
+        String nomComplet = nomComplet(patient.getPrenom(), patient.getNom());
+        ApresCommit.executer(() -> ecrire(true, index -> index.indexer(id, nomComplet)));
+    }
+
+    public void retirerPatient(Long patientId) {
+        ApresCommit.executer(() -> ecrire(true, index -> index.retirer(patientId)));
+    }
+
+    // Seuls les médecins actifs sont proposés à la recherche
+    public void indexerMedecin(Medecin medecin) {
+        Long id = medecin.getId();
+        if (!Boolean.TRUE.equals(medecin.getActif())) {
+            retirerMedecin(id);
+            return;
+        }
+        String nomComplet = nomComplet(medecin.getPrenom(), medecin.getNom());
+        ApresCommit.executer(() -> ecrire(false, index -> index.indexer(id, nomComplet)));
+    }
+
+    public void retirerMedecin(Long medecinId) {
+        ApresCommit.executer(() -> ecrire(false, index -> index.retirer(medecinId)));
+    }
+
+    private void reconstruire() {
+        synchronized (reconstruction) {
+            synchronized (this) {
+                enAttente = new ArrayList<>();
+            }
+            IndexTrigrammes nouveauxPatients = construire(patientRepository.findNomsPourRecherche());
+            IndexTrigrammes nouveauxMedecins = construire(medecinRepository.findNomsActifsPourRecherche());
+            synchronized (this) {
+                // Écritures commitées après la lecture : absentes des lignes lues
+                enAttente.forEach(ecriture -> ecriture.action().accept(ecriture.patient() ? nouveauxPatients : nouveauxMedecins));
+                enAttente = null;
+                patients = nouveauxPatients;
+                medecins = nouveauxMedecins;
+            }
+        }
+    }
+
+    private void ecrire(boolean patient, Consumer<IndexTrigrammes> action) {
+        if (patients == null || medecins == null) {
+            chargerSiAbsent();
+        }
+        synchronized (this) {
+            action.accept(patient ? patients : medecins);
+            if (enAttente != null) {
+                enAttente.add(new Ecriture(patient, action));
+            }
+        }
+    }
+
+    private IndexTrigrammes patients() {
+        if (patients == null) {
+            chargerSiAbsent();
+        }
+        return patients;
+    }
+
+    private IndexTrigrammes medecins() {
+        if (medecins == null) {
+            chargerSiAbsent();
+        }
+        return medecins;
+    }
+
+    private void chargerSiAbsent() {
+        synchronized (reconstruction) {
+            if (patients == null || medecins == null) {
+                charger();
+            }
+        }
+    }
+
+    private static IndexTrigrammes construire(List<Object[]> lignes) {
+        IndexTrigrammes index = new IndexTrigrammes();
+        for (Object[] ligne : lignes) {
+            index.indexer((Long) ligne[0], nomComplet((String) ligne[1], (String) ligne[2]));
+        }
+        return index;
+    }
+
+    private static String nomComplet(String prenom, String nom) {
+        return (prenom != null ? prenom : "") + " " + (nom != null ? nom : "");
+    }
+
+    private static List<Long> ids(List<IndexTrigrammes.Resultat> resultats) {
+        return resultats.stream().map(IndexTrigrammes.Resultat::id).toList();
+    }
+
+    private record Ecriture(boolean patient, Consumer<IndexTrigrammes> action) {
+    }
+}
@@ -0,0 +1,158 @@
+package ci.hardwork.gestionrdvservice.core.recherche;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index inversé de trigrammes pour la recherche approximative de noms.
+ * <p>
+ * Les textes sont normalisés (minuscules, sans accents ni ponctuation) puis découpés en
+ * trigrammes, chaque mot étant préfixé de deux espaces et suivi d'un espace comme dans
+ * pg_trgm. Le dernier mot d'une requête n'est pas terminé, pour la saisie au fil de
+ * l'eau. Le score est la similarité de Jaccard entre les trigrammes de la requête et
+ * ceux du document ; seuls les documents couvrant au moins la moitié des trigrammes
+ * de la requête sont retenus.
+ */
+public final class IndexTrigrammes {
+
+    static final double COUVERTURE_MIN = 0.5;
+
+    private static final Pattern DIACRITIQUES = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATEURS = Pattern.compile("[^a-z0-9]+");
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Set<String>> documents = new HashMap<>();
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    public record Resultat(Long id, double score) {
+    }
+
+    public void indexer(Long id, String texte) {
+        Set<String> trigrammes = trigrammes(texte, true);
+        verrou.writeLock().lock();
+        try {
+            retirerSansVerrou(id);
+            if (trigrammes.isEmpty()) {
+                return;
+            }
+            documents.put(id, trigrammes);
+            for (String trigramme : trigrammes) {
+                postings.computeIfAbsent(trigramme, t -> new HashSet<>()).add(id);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public void retirer(Long id) {
+        verrou.writeLock().lock();
+        try {
+            retirerSansVerrou(id);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public int taille() {
+        verrou.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /** Les {@code limite} meilleurs documents, du plus au moins similaire. */
+    public List<Resultat> rechercher(String requete, int limite) {
+        Set<String> trigrammesRequete = trigrammes(requete, false);
+        if (trigrammesRequete.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        Comparator<Resultat> ordre = Comparator.comparingDouble(Resultat::score).reversed()
+                .thenComparing(Resultat::id);
+        // Tas borné : le pire des retenus est en tête
+        PriorityQueue<Resultat> meilleurs = new PriorityQueue<>(limite + 1, ordre.reversed());
+        double communsMin = trigrammesRequete.size() * COUVERTURE_MIN;
+
+        verrou.readLock().lock();
+        try {
+            Map<Long, Integer> communs = new HashMap<>();
+            for (String trigramme : trigrammesRequete) {
+                for (Long id : postings.getOrDefault(trigramme, Set.of())) {
+                    communs.merge(id, 1, Integer::sum);
+                }
+            }
+            for (Map.Entry<Long, Integer> candidat : communs.entrySet()) {
+                int nombreCommuns = candidat.getValue();
+                if (nombreCommuns < communsMin) {
+                    continue;
+                }
+                int tailleDocument = documents.get(candidat.getKey()).size();
+                double score = (double) nombreCommuns / (trigrammesRequete.size() + tailleDocument - nombreCommuns);
+                meilleurs.offer(new Resultat(candidat.getKey(), score));
+                if (meilleurs.size() > limite) {
+                    meilleurs.poll();
+                }
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+
+        List<Resultat> resultats = new ArrayList<>(meilleurs);
+        resultats.sort(ordre);
+        return resultats;
+    }
+
+    private void retirerSansVerrou(Long id) {
+        Set<String> anciens = documents.remove(id);
+        if (anciens == null) {
+            return;
+        }
+        for (String trigramme : anciens) {
+            Set<Long> ids = postings.get(trigramme);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(trigramme);
+            }
+        }
+    }
+
+    static String normaliser(String texte) {
+        if (texte == null) {
+            return "";
+        }
+        String sansAccents = DIACRITIQUES.matcher(Normalizer.normalize(texte, Normalizer.Form.NFD)).replaceAll("");
+        String minuscules = sansAccents.toLowerCase(Locale.ROOT).replace("œ", "oe").replace("æ", "ae");
+        return SEPARATEURS.matcher(minuscules).replaceAll(" ").trim();
+    }
+
+    static Set<String> trigrammes(String texte, boolean dernierMotComplet) {
+        String normalise = normaliser(texte);
+        Set<String> trigrammes = new LinkedHashSet<>();
+        if (normalise.isEmpty()) {
+            return trigrammes;
+        }
+        String[] mots = normalise.split(" ");
+        for (int i = 0; i < mots.length; i++) {
+            boolean complet = dernierMotComplet || i < mots.length - 1;
+            String mot = "  " + mots[i] + (complet ? " " : "");
+            for (int j = 0; j + 3 <= mot.length(); j++) {
+                trigrammes.add(mot.substring(j, j + 3));
+            }
+        }
+        return trigrammes;
+    }
+}
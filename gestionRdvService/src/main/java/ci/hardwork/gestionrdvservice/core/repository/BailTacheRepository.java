@@ -0,0 +1,34 @@
+package ci.hardwork.gestionrdvservice.core.repository;
+
+import ci.hardwork.gestionrdvservice.core.models.BailTache;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface BailTacheRepository extends JpaRepository<BailTache, String> {
+    
+    /** Prend le bail s'il a expiré ou le prolonge s'il est déjà détenu : 1 si le bail est acquis, 0 sinon. */
+    @Modifying
+    @Transactional
+    @Query("UPDATE BailTache b SET b.detenteur = :detenteur, b.expiration = :expiration "
+            + "WHERE b.nom = :nom AND (b.detenteur = :detenteur OR b.expiration <= :maintenant)")
+    int prendre(@Param("nom") String nom, @Param("detenteur") String detenteur,
+                @Param("maintenant") LocalDateTime maintenant, @Param("expiration") LocalDateTime expiration);
+    
+    // Insertion stricte : une ligne créée entre-temps par une autre instance fait échouer la requête
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO baux_taches (nom, detenteur, expiration) VALUES (:nom, :detenteur, :expiration)", nativeQuery = true)
+    int creer(@Param("nom") String nom, @Param("detenteur") String detenteur, @Param("expiration") LocalDateTime expiration);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE BailTache b SET b.expiration = :maintenant WHERE b.nom = :nom AND b.detenteur = :detenteur")
+    int rendre(@Param("nom") String nom, @Param("detenteur") String detenteur, @Param("maintenant") LocalDateTime maintenant);
+}
@@ -0,0 +1,18 @@
+package ci.hardwork.gestionrdvservice.core.repository;
+
+/**
+ * Projection des compteurs d'inscriptions (patients ou médecins) calculés en une
+ * seule agrégation conditionnelle. Les sommes valent {@code null} sur une table vide.
+ */
+public interface CompteursInscriptions {
+    
+    Long getTotal();
+    
+    Long getActifs();
+    
+    Long getAujourdhui();
+    
+    Long getSemaine();
+    
+    Long getMois();
+}
@@ -0,0 +1,16 @@
+package ci.hardwork.gestionrdvservice.core.repository;
+
+import ci.hardwork.gestionrdvservice.core.models.CreneauDisponibilite;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CreneauDisponibiliteRepository extends JpaRepository<CreneauDisponibilite, Long> {
+    
+    List<CreneauDisponibilite> findByMedecinIdAndActifTrue(Long medecinId);
+    
+    List<CreneauDisponibilite> findByMedecinIdInAndActifTrue(Collection<Long> medecinIds);
+}
@@ -50,4 +50,20 @@ public interface MedecinRepository extends JpaRepository<Medecin, Long> {
     int countByDateCreationBetween(LocalDateTime debut, LocalDateTime fin);
     
     int countByDateCreationAfter(LocalDateTime since);
+    
+    // Chargement de l'index de recherche : id, prénom, nom des médecins actifs
+    @Query("SELECT m.id, m.prenom, m.nom FROM Medecin m WHERE m.actif = true")
+    List<Object[]> findNomsActifsPourRecherche();
+    
+    @Query("SELECT m.specialite, m.actif, COUNT(m) FROM Medecin m GROUP BY m.specialite, m.actif")
+    List<Object[]> countGroupBySpecialiteAndActif();
+    
+    @Query("SELECT COUNT(m) AS total, "
+            + "SUM(CASE WHEN m.actif = true THEN 1 ELSE 0 END) AS actifs, "
+            + "SUM(CASE WHEN m.dateCreation >= :debutJour AND m.dateCreation < :fin THEN 1 ELSE 0 END) AS aujourdhui, "
+            + "SUM(CASE WHEN m.dateCreation >= :debutSemaine AND m.dateCreation < :fin THEN 1 ELSE 0 END) AS semaine, "
+            + "SUM(CASE WHEN m.dateCreation >= :debutMois AND m.dateCreation < :fin THEN 1 ELSE 0 END) AS mois "
+            + "FROM Medecin m")
+    CompteursInscriptions countInscriptions(@Param("debutJour") LocalDateTime debutJour, @Param("debutSemaine") LocalDateTime debutSemaine,
+                                            @Param("debutMois") LocalDateTime debutMois, @Param("fin") LocalDateTime fin);
 }
\ No newline at end of file
@@ -43,4 +43,20 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     int countByDateCreationBetween(LocalDateTime debut, LocalDateTime fin);
     
     int countByDateCreationAfter(LocalDateTime since);
+    
+    // Chargement de l'index de recherche : id, prénom, nom
+    @Query("SELECT p.id, p.prenom, p.nom FROM Patient p")
+    List<Object[]> findNomsPourRecherche();
+    
+    @Query("SELECT p.actif, COUNT(p) FROM Patient p GROUP BY p.actif")
+    List<Object[]> countGroupByActif();
+    
+    @Query("SELECT COUNT(p) AS total, "
+            + "SUM(CASE WHEN p.actif = true THEN 1 ELSE 0 END) AS actifs, "
+            + "SUM(CASE WHEN p.dateCreation >= :debutJour AND p.dateCreation < :fin THEN 1 ELSE 0 END) AS aujourdhui, "
+            + "SUM(CASE WHEN p.dateCreation >= :debutSemaine AND p.dateCreation < :fin THEN 1 ELSE 0 END) AS semaine, "
+            + "SUM(CASE WHEN p.dateCreation >= :debutMois AND p.dateCreation < :fin THEN 1 ELSE 0 END) AS mois "
+            + "FROM Patient p")
+    CompteursInscriptions countInscriptions(@Param("debutJour") LocalDateTime debutJour, @Param("debutSemaine") LocalDateTime debutSemaine,
+                                            @Param("debutMois") LocalDateTime debutMois, @Param("fin") LocalDateTime fin);
 }
\ No newline at end of file
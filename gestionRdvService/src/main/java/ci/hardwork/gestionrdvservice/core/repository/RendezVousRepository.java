@@ -1,21 +1,44 @@
 package ci.hardwork.gestionrdvservice.core.repository;
 
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
 import ci.hardwork.gestionrdvservice.core.models.Medecin;
 import ci.hardwork.gestionrdvservice.core.models.Patient;
 import ci.hardwork.gestionrdvservice.core.models.RendezVous;
 import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import ci.hardwork.gestionrdvservice.core.planning.CreneauOccupe;
+import ci.hardwork.gestionrdvservice.core.planning.CreneauOccupeParMedecin;
+import ci.hardwork.gestionrdvservice.core.planning.OccurrenceMaterialisee;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RendezVousRepository extends JpaRepository<RendezVous, Long> {
     
+    /**
+     * Projection des colonnes de {@link RendezVousResponseDTO} : patient et médecin sont
+     * joints dans la même requête au lieu d'être chargés un par un depuis les associations LAZY.
+     */
+    String SELECT_RESPONSE_DTO = "SELECT new ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO("
+            + "r.id, p.id, p.nom, p.prenom, m.id, m.nom, m.prenom, m.specialite, "
+            + "r.dateHeureDebut, r.dateHeureFin, r.motifConsultation, r.statut, r.notes, r.tarif, r.rappelEnvoye, "
+            + "r.dateRappel, r.examensDemanges, r.dateCreation, r.dateModification, s.id, r.dateOccurrence) "
+            + "FROM RendezVous r JOIN r.patient p JOIN r.medecin m LEFT JOIN r.serie s ";
+    
     List<RendezVous> findByPatient(Patient patient);
     
     List<RendezVous> findByMedecin(Medecin medecin);
@@ -39,17 +62,111 @@ public interface RendezVousRepository extends JpaRepository<RendezVous, Long> {
     @Query("SELECT r FROM RendezVous r WHERE r.medecin.id = :medecinId AND ((r.dateHeureDebut < :fin AND r.dateHeureFin > :debut) OR (r.dateHeureDebut <= :debut AND r.dateHeureFin >= :fin)) AND r.statut NOT IN ('ANNULE')")
     List<RendezVous> findConflictingRendezVous(@Param("medecinId") Long medecinId, @Param("debut") LocalDateTime debut, @Param("fin") LocalDateTime fin);
     
+    @Query("SELECT new ci.hardwork.gestionrdvservice.core.planning.CreneauOccupe(r.id, r.dateHeureDebut, r.dateHeureFin) FROM RendezVous r WHERE r.medecin.id = :medecinId AND r.dateHeureFin > :horizon AND r.statut NOT IN ('ANNULE')")
+    List<CreneauOccupe> findCreneauxOccupesByMedecinId(@Param("medecinId") Long medecinId, @Param("horizon") LocalDateTime horizon);
+    
+    @Query("SELECT new ci.hardwork.gestionrdvservice.core.planning.CreneauOccupeParMedecin(r.medecin.id, r.id, r.dateHeureDebut, r.dateHeureFin) FROM RendezVous r WHERE r.medecin.id IN :medecinIds AND r.dateHeureDebut < :fin AND r.dateHeureFin > :debut AND r.statut NOT IN ('ANNULE')")
+    List<CreneauOccupeParMedecin> findCreneauxOccupesByMedecinIds(@Param("medecinIds") Collection<Long> medecinIds, @Param("debut") LocalDateTime debut, @Param("fin") LocalDateTime fin);
+    
+    @Query("SELECT new ci.hardwork.gestionrdvservice.core.planning.OccurrenceMaterialisee(r.serie.id, r.dateOccurrence) FROM RendezVous r WHERE r.serie.id IN :serieIds")
+    List<OccurrenceMaterialisee> findOccurrencesMaterialisees(@Param("serieIds") Collection<Long> serieIds);
+    
+    Optional<RendezVous> findBySerieIdAndDateOccurrence(Long serieId, LocalDateTime dateOccurrence);
+    
     @Query("SELECT r FROM RendezVous r WHERE r.rappelEnvoye = false AND r.dateHeureDebut BETWEEN :debut AND :fin AND r.statut IN ('PLANIFIE', 'CONFIRME')")
     List<RendezVous> findRendezVousRequiringReminder(@Param("debut") LocalDateTime debut, @Param("fin") LocalDateTime fin);
     
+    @Query(SELECT_RESPONSE_DTO + "WHERE r.id = :id")
+    Optional<RendezVousResponseDTO> findResponseDTOById(@Param("id") Long id);
+    
+    @Query(value = SELECT_RESPONSE_DTO, countQuery = "SELECT COUNT(r) FROM RendezVous r")
+    Page<RendezVousResponseDTO> findAllResponseDTOs(Pageable pageable);
+    
+    @Query(SELECT_RESPONSE_DTO + "WHERE p.id = :patientId ORDER BY r.dateHeureDebut DESC")
+    List<RendezVousResponseDTO> findResponseDTOsByPatientId(@Param("patientId") Long patientId);
+    
+    @Query(SELECT_RESPONSE_DTO + "WHERE m.id = :medecinId ORDER BY r.dateHeureDebut")
+    List<RendezVousResponseDTO> findResponseDTOsByMedecinId(@Param("medecinId") Long medecinId);
+    
+    @Query(SELECT_RESPONSE_DTO + "WHERE r.dateHeureDebut BETWEEN :debut AND :fin ORDER BY r.dateHeureDebut")
+    List<RendezVousResponseDTO> findResponseDTOsByPeriode(@Param("debut") LocalDateTime debut, @Param("fin") LocalDateTime fin);
+    
+    @Query(SELECT_RESPONSE_DTO + "WHERE m.id = :medecinId AND r.dateHeureDebut BETWEEN :debut AND :fin ORDER BY r.dateHeureDebut")
+    List<RendezVousResponseDTO> findResponseDTOsByMedecinIdAndPeriode(@Param("medecinId") Long medecinId, @Param("debut") LocalDateTime debut, @Param("fin") LocalDateTime fin);
+    
+    @Query(SELECT_RESPONSE_DTO + "WHERE p.id = :patientId AND r.dateHeureDebut BETWEEN :debut AND :fin ORDER BY r.dateHeureDebut")
+    List<RendezVousResponseDTO> findResponseDTOsByPatientIdAndPeriode(@Param("patientId") Long patientId, @Param("debut") LocalDateTime debut, @Param("fin") LocalDateTime fin);
+    
+    @Query(SELECT_RESPONSE_DTO + "WHERE r.statut = :statut ORDER BY r.dateHeureDebut")
+    List<RendezVousResponseDTO> findResponseDTOsByStatut(@Param("statut") RendezVousStatus statut);
+    
+    @Query(SELECT_RESPONSE_DTO + "WHERE r.rappelEnvoye = false AND r.dateHeureDebut BETWEEN :debut AND :fin AND r.statut IN ('PLANIFIE', 'CONFIRME')")
+    List<RendezVousResponseDTO> findResponseDTOsRequiringReminder(@Param("debut") LocalDateTime debut, @Param("fin") LocalDateTime fin);
+    
+    @Query(SELECT_RESPONSE_DTO + "ORDER BY r.dateCreation DESC LIMIT :limit")
+    List<RendezVousResponseDTO> findRecentResponseDTOs(@Param("limit") int limit);
+    
+    // Pagination par curseur (dateHeureDebut, id) : la position est un prédicat indexé, pas un OFFSET
+    String APRES_CURSEUR = "(r.dateHeureDebut > :curseurDebut OR (r.dateHeureDebut = :curseurDebut AND r.id > :curseurId)) ";
+    String AVANT_CURSEUR = "(r.dateHeureDebut < :curseurDebut OR (r.dateHeureDebut = :curseurDebut AND r.id < :curseurId)) ";
+    String ORDRE_CROISSANT = "ORDER BY r.dateHeureDebut ASC, r.id ASC LIMIT :limite";
+    String ORDRE_DECROISSANT = "ORDER BY r.dateHeureDebut DESC, r.id DESC LIMIT :limite";
+    
+    @Query(SELECT_RESPONSE_DTO + "WHERE " + APRES_CURSEUR + ORDRE_CROISSANT)
+    List<RendezVousResponseDTO> findResponseDTOsApres(@Param("curseurDebut") LocalDateTime curseurDebut, @Param("curseurId") Long curseurId, @Param("limite") int limite);
+    
+    @Query(SELECT_RESPONSE_DTO + "WHERE m.id = :medecinId AND " + APRES_CURSEUR + ORDRE_CROISSANT)
+    List<RendezVousResponseDTO> findResponseDTOsByMedecinIdApres(@Param("medecinId") Long medecinId, @Param("curseurDebut") LocalDateTime curseurDebut, @Param("curseurId") Long curseurId, @Param("limite") int limite);
+    
+    @Query(SELECT_RESPONSE_DTO + "WHERE p.id = :patientId AND " + AVANT_CURSEUR + ORDRE_DECROISSANT)
+    List<RendezVousResponseDTO> findResponseDTOsByPatientIdAvant(@Param("patientId") Long patientId, @Param("curseurDebut") LocalDateTime curseurDebut, @Param("curseurId") Long curseurId, @Param("limite") int limite);
+    
+    @Query(SELECT_RESPONSE_DTO + "WHERE r.statut = :statut AND " + APRES_CURSEUR + ORDRE_CROISSANT)
+    List<RendezVousResponseDTO> findResponseDTOsByStatutApres(@Param("statut") RendezVousStatus statut, @Param("curseurDebut") LocalDateTime curseurDebut, @Param("curseurId") Long curseurId, @Param("limite") int limite);
+    
+    @Query(SELECT_RESPONSE_DTO + "WHERE r.dateHeureDebut BETWEEN :debut AND :fin AND " + APRES_CURSEUR + ORDRE_CROISSANT)
+    List<RendezVousResponseDTO> findResponseDTOsByPeriodeApres(@Param("debut") LocalDateTime debut, @Param("fin") LocalDateTime fin, @Param("curseurDebut") LocalDateTime curseurDebut, @Param("curseurId") Long curseurId, @Param("limite") int limite);
+    
+    // Rappels dus jusqu'à :fin, parcourus par curseur : un rappel en échec reste non envoyé sans bloquer la suite
+    @Query(SELECT_RESPONSE_DTO + "WHERE r.rappelEnvoye = false AND r.statut IN ('PLANIFIE', 'CONFIRME') AND r.dateHeureDebut <= :fin AND "
+            + APRES_CURSEUR + ORDRE_CROISSANT)
+    List<RendezVousResponseDTO> findResponseDTOsRequiringReminderApres(@Param("fin") LocalDateTime fin, @Param("curseurDebut") LocalDateTime curseurDebut, @Param("curseurId") Long curseurId, @Param("limite") int limite);
+    
+    /**
+     * Marque un lot de rappels envoyés en une seule requête. {@code VERSIONED} incrémente
+     * la version : une modification concurrente partie d'une lecture antérieure échoue au
+     * lieu de remettre le rappel à non envoyé.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE VERSIONED RendezVous r SET r.rappelEnvoye = true, r.dateRappel = :dateRappel WHERE r.id IN :ids")
+    int marquerRappelsEnvoyes(@Param("ids") Collection<Long> ids, @Param("dateRappel") LocalDateTime dateRappel);
+    
+    /**
+     * Lecture en flux pour l'export : curseur JDBC parcouru par lots de 500 lignes,
+     * à consommer (et fermer) dans une transaction en lecture seule.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_RESPONSE_DTO + "WHERE r.dateHeureDebut >= :debut AND r.dateHeureDebut < :fin "
+            + "AND (:medecinId IS NULL OR m.id = :medecinId) AND (:statut IS NULL OR r.statut = :statut) "
+            + "ORDER BY r.dateHeureDebut, r.id")
+    Stream<RendezVousResponseDTO> streamResponseDTOsForExport(@Param("debut") LocalDateTime debut, @Param("fin") LocalDateTime fin,
+                                                              @Param("medecinId") Long medecinId, @Param("statut") RendezVousStatus statut);
+    
     // Méthodes pour statistiques admin
     int countByDateHeureDebutBetween(LocalDateTime debut, LocalDateTime fin);
     
     int countByDateCreationAfter(LocalDateTime since);
     
+    @Query("SELECT r.statut, COUNT(r) FROM RendezVous r GROUP BY r.statut")
+    List<Object[]> countGroupByStatut();
+    
+    @Query("SELECT CAST(r.dateHeureDebut AS LocalDate), COUNT(r) FROM RendezVous r GROUP BY CAST(r.dateHeureDebut AS LocalDate)")
+    List<Object[]> countGroupByJourTous();
+    
+    @Query("SELECT r.medecin.id, COUNT(r) FROM RendezVous r GROUP BY r.medecin.id")
+    List<Object[]> countGroupByMedecin();
+    
     @Query("SELECT r FROM RendezVous r ORDER BY r.dateCreation DESC LIMIT :limit")
     List<RendezVous> findTopByOrderByDateCreationDesc(@Param("limit") int limit);
-    
-    @Query("SELECT m.id, m.nom, m.prenom, COUNT(r) as rdvCount FROM RendezVous r JOIN r.medecin m GROUP BY m.id, m.nom, m.prenom ORDER BY rdvCount DESC LIMIT :limit")
-    List<Object[]> findTopMedecinsByRendezVousCount(@Param("limit") int limit);
 }
\ No newline at end of file
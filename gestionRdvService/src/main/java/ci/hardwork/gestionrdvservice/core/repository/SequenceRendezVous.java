@@ -0,0 +1,63 @@
+package ci.hardwork.gestionrdvservice.core.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Aligne la séquence {@code rendez_vous_seq} sur les identifiants déjà présents.
+ * <p>
+ * Sur une base créée avant le passage de IDENTITY à la séquence, Hibernate crée la
+ * séquence à 1 et les premières insertions entreraient en collision avec les lignes
+ * existantes. L'alignement a lieu une fois tous les beans créés (schéma à jour), avant
+ * l'ouverture du serveur web. Il ne fait qu'avancer une séquence restée derrière la
+ * table : une instance qui détient déjà un bloc d'identifiants n'est pas dérangée.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SequenceRendezVous implements SmartInitializingSingleton {
+
+    // Doit suivre allocationSize de RendezVous : l'optimiseur pooled lit la valeur de la
+    // séquence comme la borne haute du bloc, dont les identifiants commencent 49 plus bas
+    static final int TAILLE_BLOC = 50;
+
+    private static final String ALIGNEMENT = """
+            SELECT setval('rendez_vous_seq', m.max_id + %d, false)
+            FROM (SELECT MAX(id) AS max_id FROM rendez_vous) m, rendez_vous_seq s
+            WHERE m.max_id IS NOT NULL AND s.last_value <= m.max_id
+            """.formatted(TAILLE_BLOC);
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!estPostgreSQL()) {
+            return;
+        }
+        try {
+            if (!jdbcTemplate.queryForList(ALIGNEMENT).isEmpty()) {
+                log.info("Séquence rendez_vous_seq alignée sur les identifiants existants");
+            }
+        } catch (DataAccessException e) {
+            log.warn("Impossible d'aligner la séquence rendez_vous_seq: {}", e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private boolean estPostgreSQL() {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            log.warn("Type de base indéterminé, alignement de la séquence ignoré: {}", e.getMessage());
+            return false;
+        }
+    }
+}
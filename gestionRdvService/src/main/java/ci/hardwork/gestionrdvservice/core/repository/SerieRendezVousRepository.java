@@ -0,0 +1,30 @@
+package ci.hardwork.gestionrdvservice.core.repository;
+
+import ci.hardwork.gestionrdvservice.core.models.SerieRendezVous;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SerieRendezVousRepository extends JpaRepository<SerieRendezVous, Long> {
+    
+    List<SerieRendezVous> findByMedecinIdAndActifTrue(Long medecinId);
+    
+    List<SerieRendezVous> findByMedecinIdInAndActifTrue(Collection<Long> medecinIds);
+    
+    List<SerieRendezVous> findByPatientIdAndActifTrue(Long patientId);
+    
+    // Séries susceptibles d'avoir une occurrence sur la période, avec patient et médecin pour l'affichage
+    @Query("SELECT s FROM SerieRendezVous s JOIN FETCH s.patient JOIN FETCH s.medecin "
+            + "WHERE s.actif = true AND (:medecinId IS NULL OR s.medecin.id = :medecinId) "
+            + "AND s.premiereOccurrence < :fin AND s.dateFin >= :jourDebut")
+    List<SerieRendezVous> findActivesAvecParticipantsByPeriode(@Param("medecinId") Long medecinId,
+                                                              @Param("jourDebut") LocalDate jourDebut,
+                                                              @Param("fin") LocalDateTime fin);
+}
@@ -0,0 +1,12 @@
+package ci.hardwork.gestionrdvservice.core.service;
+
+import ci.hardwork.gestionrdvservice.core.dto.PremierCreneauDTO;
+import ci.hardwork.gestionrdvservice.core.models.enums.SpecialiteMedicale;
+
+import java.util.List;
+
+public interface DisponibiliteService {
+    
+    List<PremierCreneauDTO> getPremiersCreneauxDisponibles(SpecialiteMedicale specialite, String ville,
+                                                           int dureeEnMinutes, int nombre, int jours);
+}
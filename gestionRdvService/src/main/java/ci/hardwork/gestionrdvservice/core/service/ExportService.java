@@ -0,0 +1,23 @@
+package ci.hardwork.gestionrdvservice.core.service;
+
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface ExportService {
+    
+    enum Format { NDJSON, CSV }
+    
+    void validerPeriode(LocalDateTime debut, LocalDateTime fin);
+    
+    /**
+     * Écrit les rendez-vous de la période [debut, fin[ au fil de la lecture en base,
+     * sans les accumuler en mémoire. Les filtres médecin et statut sont optionnels.
+     *
+     * @return le nombre de rendez-vous exportés
+     */
+    long exporterRendezVous(LocalDateTime debut, LocalDateTime fin, Long medecinId, RendezVousStatus statut,
+                            Format format, OutputStream sortie) throws IOException;
+}
@@ -19,6 +19,8 @@ public interface MedecinService {
     
     Optional<MedecinResponseDTO> getMedecinByNumeroRPPS(String numeroRPPS);
     
+    Optional<MedecinResponseDTO> getMedecinByUserId(Long userId);
+    
     Page<MedecinResponseDTO> getAllMedecins(Pageable pageable);
     
     List<MedecinResponseDTO> getMedecinsBySpecialite(SpecialiteMedicale specialite);
@@ -27,6 +29,9 @@ public interface MedecinService {
     
     List<MedecinResponseDTO> getActiveMedecins();
     
+    // Recherche approximative parmi les médecins actifs, classée par pertinence
+    List<MedecinResponseDTO> rechercherMedecins(String requete, int limite);
+    
     MedecinResponseDTO updateMedecin(Long id, MedecinCreateDTO medecinUpdateDTO);
     
     void deleteMedecin(Long id);
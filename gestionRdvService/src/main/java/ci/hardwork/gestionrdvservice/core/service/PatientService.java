@@ -18,12 +18,17 @@ public interface PatientService {
     
     Optional<PatientResponseDTO> getPatientByNumeroSecuriteSociale(String nss);
     
+    Optional<PatientResponseDTO> getPatientByUserId(Long userId);
+    
     Optional<PatientResponseDTO> getPatientByEmail(String email);
     
     Page<PatientResponseDTO> getAllPatients(Pageable pageable);
     
     List<PatientResponseDTO> searchPatientsByName(String nom, String prenom);
     
+    // Recherche approximative (accents, fautes de frappe, saisie partielle), classée par pertinence
+    List<PatientResponseDTO> rechercherPatients(String requete, int limite);
+    
     PatientResponseDTO updatePatient(Long id, PatientUpdateDTO patientUpdateDTO);
     
     void deletePatient(Long id);
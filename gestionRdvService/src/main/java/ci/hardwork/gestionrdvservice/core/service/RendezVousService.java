@@ -1,6 +1,8 @@
 package ci.hardwork.gestionrdvservice.core.service;
 
+import ci.hardwork.gestionrdvservice.core.dto.PageCurseurDTO;
 import ci.hardwork.gestionrdvservice.core.dto.RendezVousCreateDTO;
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousLotResultatDTO;
 import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
 import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
 import org.springframework.data.domain.Page;
@@ -9,12 +11,16 @@ import org.springframework.data.domain.Pageable;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface RendezVousService {
     
     RendezVousResponseDTO createRendezVous(RendezVousCreateDTO rendezVousCreateDTO);
     
+    // Création d'un lot en tout ou rien, avec le détail des lignes refusées
+    RendezVousLotResultatDTO createRendezVousLot(List<RendezVousCreateDTO> lot);
+    
     Optional<RendezVousResponseDTO> getRendezVousById(Long id);
     
     Page<RendezVousResponseDTO> getAllRendezVous(Pageable pageable);
@@ -45,6 +51,8 @@ public interface RendezVousService {
     
     List<LocalDateTime> getCreneauxLibres(Long medecinId, LocalDate date, int dureeEnMinutes);
     
+    Map<LocalDate, List<LocalDateTime>> getCreneauxLibresPeriode(Long medecinId, LocalDate dateDebut, LocalDate dateFin, int dureeEnMinutes);
+    
     void envoyerRappel(Long rendezVousId);
     
     void marquerRappelEnvoye(Long rendezVousId);
@@ -53,6 +61,17 @@ public interface RendezVousService {
     
     List<RendezVousResponseDTO> getRendezVousDuJour(LocalDate date);
     
+    // Pagination par curseur (dateHeureDebut, id) ; curseur null pour la première page
+    PageCurseurDTO<RendezVousResponseDTO> getAllRendezVous(String curseur, int taille);
+    
+    PageCurseurDTO<RendezVousResponseDTO> getRendezVousByPatient(Long patientId, String curseur, int taille);
+    
+    PageCurseurDTO<RendezVousResponseDTO> getRendezVousByMedecin(Long medecinId, String curseur, int taille);
+    
+    PageCurseurDTO<RendezVousResponseDTO> getRendezVousByStatus(RendezVousStatus status, String curseur, int taille);
+    
+    PageCurseurDTO<RendezVousResponseDTO> getRendezVousDuJour(LocalDate date, String curseur, int taille);
+    
     // Méthodes pour statistiques admin
     long countAllRendezVous();
     long countRendezVousByStatus(String status);
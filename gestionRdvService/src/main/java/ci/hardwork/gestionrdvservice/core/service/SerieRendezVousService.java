@@ -0,0 +1,31 @@
+package ci.hardwork.gestionrdvservice.core.service;
+
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
+import ci.hardwork.gestionrdvservice.core.dto.SerieRendezVousDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface SerieRendezVousService {
+    
+    SerieRendezVousDTO createSerie(SerieRendezVousDTO serieDTO);
+    
+    Optional<SerieRendezVousDTO> getSerieById(Long id);
+    
+    List<SerieRendezVousDTO> getSeriesActivesByPatient(Long patientId);
+    
+    // Les occurrences restantes disparaissent ; celles déjà enregistrées sont conservées
+    void arreterSerie(Long id);
+    
+    // Occurrences calculées non enregistrées de la période (tous médecins si medecinId est null)
+    List<RendezVousResponseDTO> getOccurrencesPlanifiees(Long medecinId, LocalDateTime debut, LocalDateTime fin);
+    
+    // Les méthodes suivantes enregistrent l'occurrence comme rendez-vous
+    RendezVousResponseDTO confirmerOccurrence(Long serieId, LocalDateTime dateOccurrence);
+    
+    RendezVousResponseDTO deplacerOccurrence(Long serieId, LocalDateTime dateOccurrence,
+                                             LocalDateTime nouveauDebut, LocalDateTime nouvelleFin);
+    
+    void annulerOccurrence(Long serieId, LocalDateTime dateOccurrence, String motifAnnulation);
+}
@@ -0,0 +1,10 @@
+package ci.hardwork.gestionrdvservice.core.service;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public interface TableauDeBordService {
+    
+    // Statistiques globales, de la semaine, du mois et évolution sur six mois du dashboard admin
+    Map<String, Object> getTableauDeBord(LocalDate aujourdhui);
+}
@@ -2,10 +2,14 @@ package ci.hardwork.gestionrdvservice.core.service;
 
 import ci.hardwork.gestionrdvservice.core.dto.UserReference;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 public interface UserReferenceService {
     Optional<UserReference> getUserById(Long userId);
     Optional<UserReference> getUserByEmail(String email);
     boolean userExists(Long userId);
+    // Utilisateurs trouvés, par id ; les inconnus sont absents de la map
+    Map<Long, UserReference> getUsersByIds(Collection<Long> userIds);
 }
\ No newline at end of file
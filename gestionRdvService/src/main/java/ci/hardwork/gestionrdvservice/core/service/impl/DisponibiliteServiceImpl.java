@@ -0,0 +1,105 @@
+package ci.hardwork.gestionrdvservice.core.service.impl;
+
+import ci.hardwork.gestionrdvservice.core.dto.PremierCreneauDTO;
+import ci.hardwork.gestionrdvservice.core.models.Medecin;
+import ci.hardwork.gestionrdvservice.core.models.enums.SpecialiteMedicale;
+import ci.hardwork.gestionrdvservice.core.planning.CarteDisponibilites;
+import ci.hardwork.gestionrdvservice.core.planning.DisponibiliteJour;
+import ci.hardwork.gestionrdvservice.core.planning.ProchainsCreneauxLibres;
+import ci.hardwork.gestionrdvservice.core.repository.MedecinRepository;
+import ci.hardwork.gestionrdvservice.core.service.DisponibiliteService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class DisponibiliteServiceImpl implements DisponibiliteService {
+
+    private static final int NOMBRE_MAX = 50;
+    private static final int JOURS_MAX = 31;
+
+    private final MedecinRepository medecinRepository;
+    private final CarteDisponibilites carteDisponibilites;
+
+    @Override
+    public List<PremierCreneauDTO> getPremiersCreneauxDisponibles(SpecialiteMedicale specialite, String ville,
+                                                                  int dureeEnMinutes, int nombre, int jours) {
+        if (dureeEnMinutes <= 0) {
+            throw new IllegalArgumentException("La durée du rendez-vous doit être positive");
+        }
+        if (nombre <= 0 || nombre > NOMBRE_MAX) {
+            throw new IllegalArgumentException("Le nombre de créneaux doit être compris entre 1 et " + NOMBRE_MAX);
+        }
+        if (jours <= 0 || jours > JOURS_MAX) {
+            throw new IllegalArgumentException("La période de recherche doit être comprise entre 1 et " + JOURS_MAX + " jours");
+        }
+
+        List<Medecin> medecins = medecinRepository.findBySpecialiteAndVilleCabinetAndActiveTrue(specialite, ville);
+        if (medecins.isEmpty()) {
+            return List.of();
+        }
+        log.debug("Recherche du premier créneau disponible parmi {} médecins ({} à {})", medecins.size(), specialite, ville);
+
+        Map<Long, Medecin> medecinsParId = medecins.stream()
+                .collect(Collectors.toMap(Medecin::getId, Function.identity()));
+        LocalDateTime maintenant = LocalDateTime.now();
+        LocalDate premierJour = maintenant.toLocalDate();
+        LocalDate dernierJour = premierJour.plusDays(jours - 1L);
+        Duration duree = Duration.ofMinutes(dureeEnMinutes);
+
+        // Mêmes journées que le contrôle des réservations ; celles absentes du cache sont
+        // construites en deux lectures groupées pour tous les médecins
+        Map<Long, List<DisponibiliteJour>> journees = carteDisponibilites.getJournees(
+                medecinsParId.keySet(), premierJour, dernierJour);
+
+        // Premier créneau de chaque médecin calculé en parallèle (calcul purement en mémoire)
+        List<ProchainsCreneauxLibres> curseurs = journees.entrySet()
+                .parallelStream()
+                .map(e -> new ProchainsCreneauxLibres(e.getKey(), e.getValue(), duree, maintenant))
+                .filter(ProchainsCreneauxLibres::avancer)
+                .toList();
+
+        // Fusion par file de priorité : seuls les agendas réellement consommés avancent
+        PriorityQueue<ProchainsCreneauxLibres> file = new PriorityQueue<>(Comparator
+                .comparing(ProchainsCreneauxLibres::getCourant)
+                .thenComparing(ProchainsCreneauxLibres::getMedecinId));
+        file.addAll(curseurs);
+
+        List<PremierCreneauDTO> resultat = new ArrayList<>(nombre);
+        while (!file.isEmpty() && resultat.size() < nombre) {
+            ProchainsCreneauxLibres curseur = file.poll();
+            resultat.add(toPremierCreneauDTO(medecinsParId.get(curseur.getMedecinId()), curseur.getCourant(), duree));
+            if (curseur.avancer()) {
+                file.add(curseur);
+            }
+        }
+        return resultat;
+    }
+
+    private PremierCreneauDTO toPremierCreneauDTO(Medecin medecin, LocalDateTime debut, Duration duree) {
+        return new PremierCreneauDTO(
+                medecin.getId(),
+                medecin.getNom(),
+                medecin.getPrenom(),
+                medecin.getSpecialite().name(),
+                medecin.getVilleCabinet(),
+                medecin.getAdresseComplete(),
+                debut,
+                debut.plus(duree));
+    }
+}
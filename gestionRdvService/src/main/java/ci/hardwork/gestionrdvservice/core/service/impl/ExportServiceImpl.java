@@ -0,0 +1,100 @@
+package ci.hardwork.gestionrdvservice.core.service.impl;
+
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import ci.hardwork.gestionrdvservice.core.repository.RendezVousRepository;
+import ci.hardwork.gestionrdvservice.core.service.ExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportServiceImpl implements ExportService {
+    
+    private static final String[] COLONNES_CSV = {
+            "id", "patientId", "patientNom", "patientPrenom", "medecinId", "medecinNom", "medecinPrenom",
+            "medecinSpecialite", "dateHeureDebut", "dateHeureFin", "statut", "motifConsultation", "tarif",
+            "rappelEnvoye", "dateCreation"
+    };
+    
+    private final RendezVousRepository rendezVousRepository;
+    private final ObjectMapper objectMapper;
+    
+    @Override
+    public void validerPeriode(LocalDateTime debut, LocalDateTime fin) {
+        if (debut == null || fin == null || !debut.isBefore(fin)) {
+            throw new IllegalArgumentException("La date de début doit précéder la date de fin");
+        }
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public long exporterRendezVous(LocalDateTime debut, LocalDateTime fin, Long medecinId, RendezVousStatus statut,
+                                   Format format, OutputStream sortie) throws IOException {
+        validerPeriode(debut, fin);
+        log.info("Export {} des rendez-vous du {} au {} (médecin: {}, statut: {})", format, debut, fin, medecinId, statut);
+        
+        // Curseur en lecture seule : la transaction doit rester ouverte pendant tout le parcours
+        Writer writer = new BufferedWriter(new OutputStreamWriter(sortie, StandardCharsets.UTF_8));
+        long nombre = 0;
+        try (Stream<RendezVousResponseDTO> rendezVous = rendezVousRepository.streamResponseDTOsForExport(debut, fin, medecinId, statut)) {
+            if (format == Format.CSV) {
+                writer.write(String.join(",", COLONNES_CSV));
+                writer.write('\n');
+            }
+            Iterator<RendezVousResponseDTO> iterateur = rendezVous.iterator();
+            while (iterateur.hasNext()) {
+                RendezVousResponseDTO ligne = iterateur.next();
+                if (format == Format.CSV) {
+                    ecrireCsv(ligne, writer);
+                } else {
+                    ecrireJson(ligne, writer);
+                }
+                nombre++;
+            }
+        }
+        writer.flush();
+        log.info("Export terminé: {} rendez-vous", nombre);
+        return nombre;
+    }
+    
+    private void ecrireJson(RendezVousResponseDTO ligne, Writer writer) throws IOException {
+        writer.write(objectMapper.writeValueAsString(ligne));
+        writer.write('\n');
+    }
+    
+    private void ecrireCsv(RendezVousResponseDTO ligne, Writer writer) throws IOException {
+        writer.write(Stream.of(
+                        ligne.getId(), ligne.getPatientId(), ligne.getPatientNom(), ligne.getPatientPrenom(),
+                        ligne.getMedecinId(), ligne.getMedecinNom(), ligne.getMedecinPrenom(), ligne.getMedecinSpecialite(),
+                        ligne.getDateHeureDebut(), ligne.getDateHeureFin(), ligne.getStatut(), ligne.getMotifConsultation(),
+                        ligne.getTarif(), ligne.getRappelEnvoye(), ligne.getDateCreation())
+                .map(valeur -> champCsv(Objects.toString(valeur, "")))
+                .collect(Collectors.joining(",")));
+        writer.write('\n');
+    }
+    
+    // RFC 4180 : guillemets autour des champs contenant séparateur, guillemet ou saut de ligne
+    private static String champCsv(String valeur) {
+        if (valeur.indexOf(',') < 0 && valeur.indexOf('"') < 0 && valeur.indexOf('\n') < 0 && valeur.indexOf('\r') < 0) {
+            return valeur;
+        }
+        return '"' + valeur.replace("\"", "\"\"") + '"';
+    }
+}
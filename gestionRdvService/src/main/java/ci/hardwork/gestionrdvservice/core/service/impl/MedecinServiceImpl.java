@@ -1,15 +1,25 @@
 package ci.hardwork.gestionrdvservice.core.service.impl;
 
+import ci.hardwork.gestionrdvservice.config.CacheConfig;
 import ci.hardwork.gestionrdvservice.core.dto.*;
+import ci.hardwork.gestionrdvservice.core.evenements.MedecinEvenement;
 import ci.hardwork.gestionrdvservice.core.mapper.CreneauMapper;
 import ci.hardwork.gestionrdvservice.core.mapper.MedecinMapper;
 import ci.hardwork.gestionrdvservice.core.models.CreneauDisponibilite;
 import ci.hardwork.gestionrdvservice.core.models.Medecin;
 import ci.hardwork.gestionrdvservice.core.models.enums.SpecialiteMedicale;
+import ci.hardwork.gestionrdvservice.core.planning.CarteDisponibilites;
+import ci.hardwork.gestionrdvservice.core.recherche.IndexRecherche;
+import ci.hardwork.gestionrdvservice.core.repository.CreneauDisponibiliteRepository;
 import ci.hardwork.gestionrdvservice.core.repository.MedecinRepository;
 import ci.hardwork.gestionrdvservice.core.service.MedecinService;
+import ci.hardwork.gestionrdvservice.core.statistiques.CompteursStatistiques;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -18,7 +28,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,9 +39,16 @@ import java.util.stream.Collectors;
 @Transactional
 public class MedecinServiceImpl implements MedecinService {
     
+    static final int LIMITE_RECHERCHE_MAX = 50;
+    
     private final MedecinRepository medecinRepository;
+    private final CreneauDisponibiliteRepository creneauDisponibiliteRepository;
     private final MedecinMapper medecinMapper;
     private final CreneauMapper creneauMapper;
+    private final CarteDisponibilites carteDisponibilites;
+    private final ApplicationEventPublisher evenements;
+    private final CompteursStatistiques compteursStatistiques;
+    private final IndexRecherche indexRecherche;
     
     @Override
     public MedecinResponseDTO createMedecin(MedecinCreateDTO medecinCreateDTO) {
@@ -44,6 +63,8 @@ public class MedecinServiceImpl implements MedecinService {
         medecin.setActif(true);
         
         Medecin savedMedecin = medecinRepository.save(medecin);
+        evenements.publishEvent(new MedecinEvenement(savedMedecin.getId(), null, MedecinEvenement.Etat.de(savedMedecin)));
+        indexRecherche.indexerMedecin(savedMedecin);
         log.info("Médecin créé avec succès, ID: {}", savedMedecin.getId());
         
         return medecinMapper.toResponseDTO(savedMedecin);
@@ -51,6 +72,7 @@ public class MedecinServiceImpl implements MedecinService {
     
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.MEDECINS, unless = "#result == null")
     public Optional<MedecinResponseDTO> getMedecinById(Long id) {
         log.debug("Recherche du médecin par ID: {}", id);
         return medecinRepository.findById(id)
@@ -59,12 +81,22 @@ public class MedecinServiceImpl implements MedecinService {
     
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.MEDECINS_PAR_RPPS, unless = "#result == null")
     public Optional<MedecinResponseDTO> getMedecinByNumeroRPPS(String numeroRPPS) {
         log.debug("Recherche du médecin par RPPS: {}", numeroRPPS);
         return medecinRepository.findByNumeroRPPS(numeroRPPS)
                 .map(medecinMapper::toResponseDTO);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.MEDECINS_PAR_UTILISATEUR, unless = "#result == null")
+    public Optional<MedecinResponseDTO> getMedecinByUserId(Long userId) {
+        log.debug("Recherche du médecin par utilisateur: {}", userId);
+        return medecinRepository.findByUserId(userId)
+                .map(medecinMapper::toResponseDTO);
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public Page<MedecinResponseDTO> getAllMedecins(Pageable pageable) {
@@ -104,6 +136,34 @@ public class MedecinServiceImpl implements MedecinService {
     }
     
     @Override
+    @Transactional(readOnly = true)
+    public List<MedecinResponseDTO> rechercherMedecins(String requete, int limite) {
+        if (limite < 1 || limite > LIMITE_RECHERCHE_MAX) {
+            throw new IllegalArgumentException("La limite doit être comprise entre 1 et " + LIMITE_RECHERCHE_MAX);
+        }
+        log.debug("Recherche approximative de médecins: {}", requete);
+        
+        List<Long> ids = indexRecherche.rechercherMedecins(requete, limite);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // findAllById ne garantit pas l'ordre : on restitue celui du classement
+        Map<Long, Medecin> parId = medecinRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Medecin::getId, Function.identity()));
+        return ids.stream()
+                .map(parId::get)
+                .filter(Objects::nonNull)
+                .map(medecinMapper::toResponseDTO)
+                .toList();
+    }
+    
+    // Les caches par RPPS et par utilisateur ne sont pas indexés par l'ID : ils sont vidés,
+    // les modifications de médecins étant rares devant les lectures
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.MEDECINS, key = "#id"),
+            @CacheEvict(cacheNames = {CacheConfig.MEDECINS_PAR_RPPS, CacheConfig.MEDECINS_PAR_UTILISATEUR}, allEntries = true)
+    })
     public MedecinResponseDTO updateMedecin(Long id, MedecinCreateDTO medecinUpdateDTO) {
         log.info("Mise à jour du médecin ID: {}", id);
         
@@ -116,34 +176,50 @@ public class MedecinServiceImpl implements MedecinService {
             throw new IllegalArgumentException("Un médecin avec ce numéro RPPS existe déjà");
         }
         
+        MedecinEvenement.Etat avant = MedecinEvenement.Etat.de(existingMedecin);
         medecinMapper.updateEntityFromDTO(medecinUpdateDTO, existingMedecin);
         existingMedecin.setDateModification(LocalDateTime.now());
         
         Medecin savedMedecin = medecinRepository.save(existingMedecin);
+        evenements.publishEvent(new MedecinEvenement(id, avant, MedecinEvenement.Etat.de(savedMedecin)));
+        indexRecherche.indexerMedecin(savedMedecin);
         log.info("Médecin mis à jour avec succès, ID: {}", savedMedecin.getId());
         
         return medecinMapper.toResponseDTO(savedMedecin);
     }
     
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = {CacheConfig.MEDECINS, CacheConfig.CRENEAUX_MEDECIN}, key = "#id"),
+            @CacheEvict(cacheNames = {CacheConfig.MEDECINS_PAR_RPPS, CacheConfig.MEDECINS_PAR_UTILISATEUR}, allEntries = true)
+    })
     public void deleteMedecin(Long id) {
         log.info("Suppression du médecin ID: {}", id);
         
-        if (!medecinRepository.existsById(id)) {
-            throw new IllegalArgumentException("Médecin non trouvé avec l'ID: " + id);
-        }
+        Medecin medecin = medecinRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Médecin non trouvé avec l'ID: " + id));
         
-        medecinRepository.deleteById(id);
+        medecinRepository.delete(medecin);
+        evenements.publishEvent(new MedecinEvenement(id, MedecinEvenement.Etat.de(medecin), null));
+        indexRecherche.retirerMedecin(id);
         log.info("Médecin supprimé avec succès, ID: {}", id);
     }
     
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.MEDECINS, key = "#id"),
+            @CacheEvict(cacheNames = {CacheConfig.MEDECINS_PAR_RPPS, CacheConfig.MEDECINS_PAR_UTILISATEUR}, allEntries = true)
+    })
     public void deactivateMedecin(Long id) {
         log.info("Désactivation du médecin ID: {}", id);
         updateMedecinActiveStatus(id, false);
     }
     
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.MEDECINS, key = "#id"),
+            @CacheEvict(cacheNames = {CacheConfig.MEDECINS_PAR_RPPS, CacheConfig.MEDECINS_PAR_UTILISATEUR}, allEntries = true)
+    })
     public void activateMedecin(Long id) {
         log.info("Activation du médecin ID: {}", id);
         updateMedecinActiveStatus(id, true);
@@ -153,9 +229,12 @@ public class MedecinServiceImpl implements MedecinService {
         Medecin medecin = medecinRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Médecin non trouvé avec l'ID: " + id));
         
+        MedecinEvenement.Etat avant = MedecinEvenement.Etat.de(medecin);
         medecin.setActif(actif);
         medecin.setDateModification(LocalDateTime.now());
         medecinRepository.save(medecin);
+        evenements.publishEvent(new MedecinEvenement(id, avant, MedecinEvenement.Etat.de(medecin)));
+        indexRecherche.indexerMedecin(medecin);
         
         log.info("Statut du médecin mis à jour, ID: {}, Actif: {}", id, actif);
     }
@@ -174,20 +253,22 @@ public class MedecinServiceImpl implements MedecinService {
     
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(CacheConfig.CRENEAUX_MEDECIN)
     public List<CreneauDisponibiliteDTO> getCreneauxDisponibilite(Long medecinId) {
         log.debug("Récupération des créneaux de disponibilité pour le médecin ID: {}", medecinId);
         
-        Medecin medecin = medecinRepository.findById(medecinId)
+        // Le médecin chargé ici sert au mapping des créneaux sans requête supplémentaire
+        medecinRepository.findById(medecinId)
                 .orElseThrow(() -> new IllegalArgumentException("Médecin non trouvé avec l'ID: " + medecinId));
         
-        return medecin.getCreneauxDisponibilite()
+        return creneauDisponibiliteRepository.findByMedecinIdAndActifTrue(medecinId)
                 .stream()
-                .filter(CreneauDisponibilite::getActif)
                 .map(creneauMapper::toDTO)
                 .toList();
     }
     
     @Override
+    @CacheEvict(cacheNames = CacheConfig.CRENEAUX_MEDECIN, key = "#medecinId")
     public CreneauDisponibiliteDTO addCreneauDisponibilite(Long medecinId, CreneauDisponibiliteDTO creneauDTO) {
         log.info("Ajout d'un créneau de disponibilité pour le médecin ID: {}", medecinId);
         
@@ -198,35 +279,26 @@ public class MedecinServiceImpl implements MedecinService {
         creneau.setMedecin(medecin);
         creneau.setActif(true);
         
-        medecin.getCreneauxDisponibilite().add(creneau);
-        Medecin savedMedecin = medecinRepository.save(medecin);
-        
-        CreneauDisponibilite savedCreneau = savedMedecin.getCreneauxDisponibilite()
-                .stream()
-                .filter(c -> c.getJourSemaine().equals(creneau.getJourSemaine()) &&
-                           c.getHeureDebut().equals(creneau.getHeureDebut()) &&
-                           c.getHeureFin().equals(creneau.getHeureFin()))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Erreur lors de la sauvegarde du créneau"));
+        CreneauDisponibilite savedCreneau = creneauDisponibiliteRepository.save(creneau);
         
+        carteDisponibilites.ajouterPlage(medecinId, savedCreneau);
         log.info("Créneau ajouté avec succès, ID: {}", savedCreneau.getId());
         return creneauMapper.toDTO(savedCreneau);
     }
     
+    // Seul l'ID du créneau est connu avant le chargement : les plages de tous les médecins sont vidées
     @Override
+    @CacheEvict(cacheNames = CacheConfig.CRENEAUX_MEDECIN, allEntries = true)
     public void removeCreneauDisponibilite(Long creneauId) {
         log.info("Suppression du créneau de disponibilité ID: {}", creneauId);
         
-        // Implémentation simplifiée - dans un vrai projet, on aurait un CreneauRepository
-        Medecin medecin = medecinRepository.findAll()
-                .stream()
-                .filter(m -> m.getCreneauxDisponibilite().stream()
-                            .anyMatch(c -> c.getId().equals(creneauId)))
-                .findFirst()
+        CreneauDisponibilite creneau = creneauDisponibiliteRepository.findById(creneauId)
                 .orElseThrow(() -> new IllegalArgumentException("Créneau non trouvé avec l'ID: " + creneauId));
+        // L'identifiant du médecin est lu sur le proxy sans charger le médecin
+        Long medecinId = creneau.getMedecin().getId();
         
-        medecin.getCreneauxDisponibilite().removeIf(c -> c.getId().equals(creneauId));
-        medecinRepository.save(medecin);
+        creneauDisponibiliteRepository.delete(creneau);
+        carteDisponibilites.invalider(medecinId);
         
         log.info("Créneau supprimé avec succès, ID: {}", creneauId);
     }
@@ -235,13 +307,13 @@ public class MedecinServiceImpl implements MedecinService {
     @Override
     @Transactional(readOnly = true)
     public long countAllMedecins() {
-        return medecinRepository.count();
+        return compteursStatistiques.getTotalMedecins();
     }
     
     @Override
     @Transactional(readOnly = true)
     public long countMedecinsActifs() {
-        return medecinRepository.countByActifTrue();
+        return compteursStatistiques.getMedecinsActifs();
     }
     
     @Override
@@ -259,12 +331,6 @@ public class MedecinServiceImpl implements MedecinService {
     @Override
     @Transactional(readOnly = true)
     public Map<String, Long> getRepartitionParSpecialite() {
-        List<Medecin> medecins = medecinRepository.findAll();
-        return medecins.stream()
-                .filter(Medecin::getActif)
-                .collect(Collectors.groupingBy(
-                    medecin -> medecin.getSpecialite().name(),
-                    Collectors.counting()
-                ));
+        return compteursStatistiques.getRepartitionParSpecialite();
     }
 }
\ No newline at end of file
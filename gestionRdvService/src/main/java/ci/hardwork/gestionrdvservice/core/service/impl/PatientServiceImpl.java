@@ -1,12 +1,20 @@
 package ci.hardwork.gestionrdvservice.core.service.impl;
 
+import ci.hardwork.gestionrdvservice.config.CacheConfig;
 import ci.hardwork.gestionrdvservice.core.dto.*;
+import ci.hardwork.gestionrdvservice.core.evenements.PatientEvenement;
 import ci.hardwork.gestionrdvservice.core.mapper.PatientMapper;
 import ci.hardwork.gestionrdvservice.core.models.Patient;
+import ci.hardwork.gestionrdvservice.core.recherche.IndexRecherche;
 import ci.hardwork.gestionrdvservice.core.repository.PatientRepository;
 import ci.hardwork.gestionrdvservice.core.service.PatientService;
+import ci.hardwork.gestionrdvservice.core.statistiques.CompteursStatistiques;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -15,7 +23,11 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,8 +35,13 @@ import java.util.Optional;
 @Transactional
 public class PatientServiceImpl implements PatientService {
     
+    static final int LIMITE_RECHERCHE_MAX = 50;
+    
     private final PatientRepository patientRepository;
     private final PatientMapper patientMapper;
+    private final ApplicationEventPublisher evenements;
+    private final CompteursStatistiques compteursStatistiques;
+    private final IndexRecherche indexRecherche;
     
     @Override
     public PatientResponseDTO createPatient(PatientCreateDTO patientCreateDTO) {
@@ -44,6 +61,8 @@ public class PatientServiceImpl implements PatientService {
         patient.setActif(true);
         
         Patient savedPatient = patientRepository.save(patient);
+        evenements.publishEvent(new PatientEvenement(savedPatient.getId(), null, savedPatient.getActif()));
+        indexRecherche.indexerPatient(savedPatient);
         log.info("Patient créé avec succès, ID: {}", savedPatient.getId());
         
         return patientMapper.toResponseDTO(savedPatient);
@@ -51,6 +70,7 @@ public class PatientServiceImpl implements PatientService {
     
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PATIENTS, unless = "#result == null")
     public Optional<PatientResponseDTO> getPatientById(Long id) {
         log.debug("Recherche du patient par ID: {}", id);
         return patientRepository.findById(id)
@@ -59,12 +79,22 @@ public class PatientServiceImpl implements PatientService {
     
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PATIENTS_PAR_NSS, unless = "#result == null")
     public Optional<PatientResponseDTO> getPatientByNumeroSecuriteSociale(String nss) {
         log.debug("Recherche du patient par NSS: {}", nss);
         return patientRepository.findByNumeroSecuriteSociale(nss)
                 .map(patientMapper::toResponseDTO);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PATIENTS_PAR_UTILISATEUR, unless = "#result == null")
+    public Optional<PatientResponseDTO> getPatientByUserId(Long userId) {
+        log.debug("Recherche du patient par utilisateur: {}", userId);
+        return patientRepository.findByUserId(userId)
+                .map(patientMapper::toResponseDTO);
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public Optional<PatientResponseDTO> getPatientByEmail(String email) {
@@ -92,6 +122,34 @@ public class PatientServiceImpl implements PatientService {
     }
     
     @Override
+    @Transactional(readOnly = true)
+    public List<PatientResponseDTO> rechercherPatients(String requete, int limite) {
+        if (limite < 1 || limite > LIMITE_RECHERCHE_MAX) {
+            throw new IllegalArgumentException("La limite doit être comprise entre 1 et " + LIMITE_RECHERCHE_MAX);
+        }
+        log.debug("Recherche approximative de patients: {}", requete);
+        
+        List<Long> ids = indexRecherche.rechercherPatients(requete, limite);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // findAllById ne garantit pas l'ordre : on restitue celui du classement
+        Map<Long, Patient> parId = patientRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+        return ids.stream()
+                .map(parId::get)
+                .filter(Objects::nonNull)
+                .map(patientMapper::toResponseDTO)
+                .toList();
+    }
+    
+    // Les caches par NSS et par utilisateur ne sont pas indexés par l'ID : ils sont vidés,
+    // les modifications de patients étant rares devant les lectures
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#id"),
+            @CacheEvict(cacheNames = {CacheConfig.PATIENTS_PAR_NSS, CacheConfig.PATIENTS_PAR_UTILISATEUR}, allEntries = true)
+    })
     public PatientResponseDTO updatePatient(Long id, PatientUpdateDTO patientUpdateDTO) {
         log.info("Mise à jour du patient ID: {}", id);
         
@@ -104,34 +162,50 @@ public class PatientServiceImpl implements PatientService {
             throw new IllegalArgumentException("Un patient avec cet email existe déjà");
         }
         
+        Boolean actifAvant = existingPatient.getActif();
         patientMapper.updateEntityFromDTO(patientUpdateDTO, existingPatient);
         existingPatient.setDateModification(LocalDateTime.now());
         
         Patient savedPatient = patientRepository.save(existingPatient);
+        evenements.publishEvent(new PatientEvenement(id, actifAvant, savedPatient.getActif()));
+        indexRecherche.indexerPatient(savedPatient);
         log.info("Patient mis à jour avec succès, ID: {}", savedPatient.getId());
         
         return patientMapper.toResponseDTO(savedPatient);
     }
     
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#id"),
+            @CacheEvict(cacheNames = {CacheConfig.PATIENTS_PAR_NSS, CacheConfig.PATIENTS_PAR_UTILISATEUR}, allEntries = true)
+    })
     public void deletePatient(Long id) {
         log.info("Suppression du patient ID: {}", id);
         
-        if (!patientRepository.existsById(id)) {
-            throw new IllegalArgumentException("Patient non trouvé avec l'ID: " + id);
-        }
+        Patient patient = patientRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Patient non trouvé avec l'ID: " + id));
         
-        patientRepository.deleteById(id);
+        patientRepository.delete(patient);
+        evenements.publishEvent(new PatientEvenement(id, patient.getActif(), null));
+        indexRecherche.retirerPatient(id);
         log.info("Patient supprimé avec succès, ID: {}", id);
     }
     
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#id"),
+            @CacheEvict(cacheNames = {CacheConfig.PATIENTS_PAR_NSS, CacheConfig.PATIENTS_PAR_UTILISATEUR}, allEntries = true)
+    })
     public void deactivatePatient(Long id) {
         log.info("Désactivation du patient ID: {}", id);
         updatePatientActiveStatus(id, false);
     }
     
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PATIENTS, key = "#id"),
+            @CacheEvict(cacheNames = {CacheConfig.PATIENTS_PAR_NSS, CacheConfig.PATIENTS_PAR_UTILISATEUR}, allEntries = true)
+    })
     public void activatePatient(Long id) {
         log.info("Activation du patient ID: {}", id);
         updatePatientActiveStatus(id, true);
@@ -141,9 +215,11 @@ public class PatientServiceImpl implements PatientService {
         Patient patient = patientRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Patient non trouvé avec l'ID: " + id));
         
+        Boolean actifAvant = patient.getActif();
         patient.setActif(actif);
         patient.setDateModification(LocalDateTime.now());
         patientRepository.save(patient);
+        evenements.publishEvent(new PatientEvenement(id, actifAvant, actif));
         
         log.info("Statut du patient mis à jour, ID: {}, Actif: {}", id, actif);
     }
@@ -170,13 +246,13 @@ public class PatientServiceImpl implements PatientService {
     @Override
     @Transactional(readOnly = true)
     public long countAllPatients() {
-        return patientRepository.count();
+        return compteursStatistiques.getTotalPatients();
     }
     
     @Override
     @Transactional(readOnly = true)
     public long countPatientsActifs() {
-        return patientRepository.countByActifTrue();
+        return compteursStatistiques.getPatientsActifs();
     }
     
     @Override
@@ -1,27 +1,54 @@
 package ci.hardwork.gestionrdvservice.core.service.impl;
 
+import ci.hardwork.gestionrdvservice.core.dto.MedecinResponseDTO;
+import ci.hardwork.gestionrdvservice.core.dto.PageCurseurDTO;
 import ci.hardwork.gestionrdvservice.core.dto.RendezVousCreateDTO;
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousLotResultatDTO;
 import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
+import ci.hardwork.gestionrdvservice.core.evenements.RendezVousEvenement;
 import ci.hardwork.gestionrdvservice.core.mapper.RendezVousMapper;
 import ci.hardwork.gestionrdvservice.core.models.Medecin;
 import ci.hardwork.gestionrdvservice.core.models.Patient;
 import ci.hardwork.gestionrdvservice.core.models.RendezVous;
 import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import ci.hardwork.gestionrdvservice.core.pagination.CurseurRendezVous;
+import ci.hardwork.gestionrdvservice.core.planning.CarteDisponibilites;
+import ci.hardwork.gestionrdvservice.core.planning.ContrainteChevauchement;
+import ci.hardwork.gestionrdvservice.core.planning.CreneauOccupe;
+import ci.hardwork.gestionrdvservice.core.planning.RendezVousIntervalIndex;
+import ci.hardwork.gestionrdvservice.core.planning.SeriesRecurrentes;
+import ci.hardwork.gestionrdvservice.core.planning.VerrousMedecins;
+import ci.hardwork.gestionrdvservice.core.rappels.NotificationSender;
 import ci.hardwork.gestionrdvservice.core.repository.MedecinRepository;
 import ci.hardwork.gestionrdvservice.core.repository.PatientRepository;
 import ci.hardwork.gestionrdvservice.core.repository.RendezVousRepository;
+import ci.hardwork.gestionrdvservice.core.service.MedecinService;
 import ci.hardwork.gestionrdvservice.core.service.RendezVousService;
+import ci.hardwork.gestionrdvservice.core.service.SerieRendezVousService;
+import ci.hardwork.gestionrdvservice.core.statistiques.CompteursStatistiques;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -29,10 +56,24 @@ import java.util.Optional;
 @Transactional
 public class RendezVousServiceImpl implements RendezVousService {
     
+    private static final int PERIODE_CRENEAUX_MAX_JOURS = 31;
+    private static final int TAILLE_PAGE_MAX = 200;
+    private static final int TAILLE_LOT_MAX = 500;
+    private static final LocalTime FIN_DE_JOURNEE = LocalTime.of(23, 59, 59);
+    
     private final RendezVousRepository rendezVousRepository;
     private final PatientRepository patientRepository;
     private final MedecinRepository medecinRepository;
     private final RendezVousMapper rendezVousMapper;
+    private final RendezVousIntervalIndex rendezVousIntervalIndex;
+    private final CarteDisponibilites carteDisponibilites;
+    private final ApplicationEventPublisher evenements;
+    private final CompteursStatistiques compteursStatistiques;
+    private final SerieRendezVousService serieRendezVousService;
+    private final VerrousMedecins verrousMedecins;
+    private final NotificationSender notificationSender;
+    private final MedecinService medecinService;
+    private final SeriesRecurrentes seriesRecurrentes;
     
     @Override
     public RendezVousResponseDTO createRendezVous(RendezVousCreateDTO rendezVousCreateDTO) {
@@ -42,14 +83,16 @@ public class RendezVousServiceImpl implements RendezVousService {
         Patient patient = patientRepository.findById(rendezVousCreateDTO.getPatientId())
                 .orElseThrow(() -> new IllegalArgumentException("Patient non trouvé"));
         
-        Medecin medecin = medecinRepository.findById(rendezVousCreateDTO.getMedecinId())
+        // Fiche du médecin en cache (évincée à chaque modification) : ni lecture ni chargement de l'entité
+        MedecinResponseDTO medecin = medecinService.getMedecinById(rendezVousCreateDTO.getMedecinId())
                 .orElseThrow(() -> new IllegalArgumentException("Médecin non trouvé"));
         
-        if (!medecin.getActif()) {
+        if (!medecin.isActif()) {
             throw new IllegalArgumentException("Le médecin n'est pas actif");
         }
         
-        // Validation du créneau disponible
+        // Validation du créneau disponible, sous le verrou du médecin jusqu'au commit
+        verrousMedecins.verrouiller(medecin.getId());
         if (!isCreneauDisponible(medecin.getId(), 
                                 rendezVousCreateDTO.getDateHeureDebut(), 
                                 rendezVousCreateDTO.getDateHeureFin(), 
@@ -59,45 +102,153 @@ public class RendezVousServiceImpl implements RendezVousService {
         
         RendezVous rendezVous = rendezVousMapper.toEntity(rendezVousCreateDTO);
         rendezVous.setPatient(patient);
-        rendezVous.setMedecin(medecin);
+        rendezVous.setMedecin(medecinRepository.getReferenceById(medecin.getId()));
         rendezVous.setDateCreation(LocalDateTime.now());
         
-        RendezVous savedRendezVous = rendezVousRepository.save(rendezVous);
+        RendezVous savedRendezVous = enregistrerCreneau(rendezVous, "Ce créneau n'est pas disponible");
+        synchroniserPlanning(savedRendezVous);
+        evenements.publishEvent(RendezVousEvenement.creation(savedRendezVous));
         log.info("Rendez-vous créé avec succès, ID: {}", savedRendezVous.getId());
         
-        return rendezVousMapper.toResponseDTO(savedRendezVous);
+        return rendezVousMapper.toResponseDTO(savedRendezVous, medecin);
+    }
+    
+    @Override
+    public RendezVousLotResultatDTO createRendezVousLot(List<RendezVousCreateDTO> lot) {
+        if (lot == null || lot.isEmpty() || lot.size() > TAILLE_LOT_MAX) {
+            throw new IllegalArgumentException("Le lot doit contenir entre 1 et " + TAILLE_LOT_MAX + " rendez-vous");
+        }
+        log.info("Création d'un lot de {} rendez-vous", lot.size());
+        
+        // Une lecture par table, quel que soit le nombre de lignes
+        Map<Long, Patient> patients = patientRepository.findAllById(idsDistincts(lot, RendezVousCreateDTO::getPatientId))
+                .stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+        Map<Long, Medecin> medecins = medecinRepository.findAllById(idsDistincts(lot, RendezVousCreateDTO::getMedecinId))
+                .stream()
+                .collect(Collectors.toMap(Medecin::getId, Function.identity()));
+        
+        Map<Integer, String> erreurs = new TreeMap<>();
+        Map<Long, List<Integer>> lignesParMedecin = new HashMap<>();
+        for (int ligne = 0; ligne < lot.size(); ligne++) {
+            RendezVousCreateDTO dto = lot.get(ligne);
+            Medecin medecin = medecins.get(dto.getMedecinId());
+            if (!patients.containsKey(dto.getPatientId())) {
+                erreurs.put(ligne, "Patient non trouvé");
+            } else if (medecin == null) {
+                erreurs.put(ligne, "Médecin non trouvé");
+            } else if (!medecin.getActif()) {
+                erreurs.put(ligne, "Le médecin n'est pas actif");
+            } else if (!dto.getDateHeureFin().isAfter(dto.getDateHeureDebut())) {
+                erreurs.put(ligne, "La date de fin doit être postérieure à la date de début");
+            } else {
+                lignesParMedecin.computeIfAbsent(medecin.getId(), id -> new ArrayList<>()).add(ligne);
+            }
+        }
+        verrousMedecins.verrouiller(lignesParMedecin.keySet());
+        verifierConflitsLot(lot, lignesParMedecin, erreurs);
+        
+        if (!erreurs.isEmpty()) {
+            log.warn("Lot de rendez-vous refusé: {} ligne(s) en erreur sur {}", erreurs.size(), lot.size());
+            return new RendezVousLotResultatDTO(false, List.of(), erreurs.entrySet().stream()
+                    .map(erreur -> new RendezVousLotResultatDTO.ErreurLigne(erreur.getKey(), erreur.getValue()))
+                    .toList());
+        }
+        
+        LocalDateTime maintenant = LocalDateTime.now();
+        List<RendezVous> nouveaux = new ArrayList<>(lot.size());
+        for (RendezVousCreateDTO dto : lot) {
+            RendezVous rendezVous = rendezVousMapper.toEntity(dto);
+            rendezVous.setPatient(patients.get(dto.getPatientId()));
+            rendezVous.setMedecin(medecins.get(dto.getMedecinId()));
+            rendezVous.setDateCreation(maintenant);
+            nouveaux.add(rendezVous);
+        }
+        
+        // Les identifiants sont pris par blocs dans la séquence : les insertions partent en lots JDBC au flush
+        List<RendezVous> enregistres;
+        try {
+            enregistres = rendezVousRepository.saveAll(nouveaux);
+            rendezVousRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (!ContrainteChevauchement.estViolee(e)) {
+                throw e;
+            }
+            throw new IllegalArgumentException("Un créneau du lot vient d'être réservé par ailleurs");
+        }
+        enregistres.forEach(rendezVous -> {
+            synchroniserPlanning(rendezVous);
+            evenements.publishEvent(RendezVousEvenement.creation(rendezVous));
+        });
+        log.info("Lot de {} rendez-vous créé avec succès", enregistres.size());
+        
+        return new RendezVousLotResultatDTO(true, enregistres.stream().map(rendezVousMapper::toResponseDTO).toList(), List.of());
+    }
+    
+    /**
+     * Confronte les lignes de chaque médecin entre elles (balayage par date de début)
+     * puis aux créneaux déjà occupés, lus en une seule fois sur la période du lot.
+     */
+    private void verifierConflitsLot(List<RendezVousCreateDTO> lot, Map<Long, List<Integer>> lignesParMedecin,
+                                     Map<Integer, String> erreurs) {
+        if (lignesParMedecin.isEmpty()) {
+            return;
+        }
+        LocalDateTime debut = lignesParMedecin.values().stream().flatMap(List::stream)
+                .map(ligne -> lot.get(ligne).getDateHeureDebut())
+                .min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime fin = lignesParMedecin.values().stream().flatMap(List::stream)
+                .map(ligne -> lot.get(ligne).getDateHeureFin())
+                .max(Comparator.naturalOrder()).orElseThrow();
+        Map<Long, List<CreneauOccupe>> occupes = rendezVousIntervalIndex.getCreneauxOccupes(lignesParMedecin.keySet(), debut, fin);
+        
+        for (Map.Entry<Long, List<Integer>> entree : lignesParMedecin.entrySet()) {
+            List<Integer> lignes = entree.getValue();
+            lignes.sort(Comparator.comparing((Integer ligne) -> lot.get(ligne).getDateHeureDebut()));
+            List<CreneauOccupe> existants = occupes.getOrDefault(entree.getKey(), List.of());
+            
+            // Ligne déjà vue qui se termine le plus tard
+            Integer precedente = null;
+            for (Integer ligne : lignes) {
+                RendezVousCreateDTO dto = lot.get(ligne);
+                if (precedente != null && lot.get(precedente).getDateHeureFin().isAfter(dto.getDateHeureDebut())) {
+                    erreurs.put(ligne, "Ce créneau chevauche le rendez-vous " + precedente + " du lot");
+                } else if (existants.stream().anyMatch(c -> c.chevauche(dto.getDateHeureDebut(), dto.getDateHeureFin()))) {
+                    erreurs.put(ligne, "Ce créneau n'est pas disponible");
+                }
+                if (precedente == null || dto.getDateHeureFin().isAfter(lot.get(precedente).getDateHeureFin())) {
+                    precedente = ligne;
+                }
+            }
+        }
+    }
+    
+    private static List<Long> idsDistincts(List<RendezVousCreateDTO> lot, Function<RendezVousCreateDTO, Long> id) {
+        return lot.stream().map(id).distinct().toList();
     }
     
     @Override
     @Transactional(readOnly = true)
     public Optional<RendezVousResponseDTO> getRendezVousById(Long id) {
-        return rendezVousRepository.findById(id)
-                .map(rendezVousMapper::toResponseDTO);
+        return rendezVousRepository.findResponseDTOById(id);
     }
     
     @Override
     @Transactional(readOnly = true)
     public Page<RendezVousResponseDTO> getAllRendezVous(Pageable pageable) {
-        return rendezVousRepository.findAll(pageable)
-                .map(rendezVousMapper::toResponseDTO);
+        return rendezVousRepository.findAllResponseDTOs(pageable);
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<RendezVousResponseDTO> getRendezVousByPatient(Long patientId) {
-        return rendezVousRepository.findByPatientIdOrderByDateHeureDebutDesc(patientId)
-                .stream()
-                .map(rendezVousMapper::toResponseDTO)
-                .toList();
+        return rendezVousRepository.findResponseDTOsByPatientId(patientId);
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<RendezVousResponseDTO> getRendezVousByMedecin(Long medecinId) {
-        return rendezVousRepository.findByMedecinIdOrderByDateHeureDebut(medecinId)
-                .stream()
-                .map(rendezVousMapper::toResponseDTO)
-                .toList();
+        return rendezVousRepository.findResponseDTOsByMedecinId(medecinId);
     }
     
     @Override
@@ -106,11 +257,8 @@ public class RendezVousServiceImpl implements RendezVousService {
         LocalDateTime debut = date.atStartOfDay();
         LocalDateTime fin = date.atTime(23, 59, 59);
         
-        return rendezVousRepository.findByMedecinIdAndDateHeureDebutBetweenOrderByDateHeureDebut(
-                medecinId, debut, fin)
-                .stream()
-                .map(rendezVousMapper::toResponseDTO)
-                .toList();
+        return avecOccurrencesPlanifiees(rendezVousRepository.findResponseDTOsByMedecinIdAndPeriode(medecinId, debut, fin),
+                serieRendezVousService.getOccurrencesPlanifiees(medecinId, debut, fin));
     }
     
     @Override
@@ -118,20 +266,13 @@ public class RendezVousServiceImpl implements RendezVousService {
     public List<RendezVousResponseDTO> getRendezVousByPatientAndDateRange(Long patientId, 
                                                                          LocalDateTime debut, 
                                                                          LocalDateTime fin) {
-        return rendezVousRepository.findByPatientIdAndDateHeureDebutBetweenOrderByDateHeureDebut(
-                patientId, debut, fin)
-                .stream()
-                .map(rendezVousMapper::toResponseDTO)
-                .toList();
+        return rendezVousRepository.findResponseDTOsByPatientIdAndPeriode(patientId, debut, fin);
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<RendezVousResponseDTO> getRendezVousByStatus(RendezVousStatus status) {
-        return rendezVousRepository.findByStatutOrderByDateHeureDebut(status)
-                .stream()
-                .map(rendezVousMapper::toResponseDTO)
-                .toList();
+        return rendezVousRepository.findResponseDTOsByStatut(status);
     }
     
     @Override
@@ -140,10 +281,7 @@ public class RendezVousServiceImpl implements RendezVousService {
         LocalDateTime demain = LocalDateTime.now().plusDays(1);
         LocalDateTime aprèsDemain = demain.plusDays(1);
         
-        return rendezVousRepository.findRendezVousRequiringReminder(demain, aprèsDemain)
-                .stream()
-                .map(rendezVousMapper::toResponseDTO)
-                .toList();
+        return rendezVousRepository.findResponseDTOsRequiringReminder(demain, aprèsDemain);
     }
     
     @Override
@@ -157,6 +295,7 @@ public class RendezVousServiceImpl implements RendezVousService {
         if (!existingRendezVous.getDateHeureDebut().equals(rendezVousUpdateDTO.getDateHeureDebut()) ||
             !existingRendezVous.getDateHeureFin().equals(rendezVousUpdateDTO.getDateHeureFin())) {
             
+            verrousMedecins.verrouiller(rendezVousUpdateDTO.getMedecinId());
             if (!isCreneauDisponible(rendezVousUpdateDTO.getMedecinId(),
                                    rendezVousUpdateDTO.getDateHeureDebut(),
                                    rendezVousUpdateDTO.getDateHeureFin(),
@@ -165,10 +304,17 @@ public class RendezVousServiceImpl implements RendezVousService {
             }
         }
         
+        Long ancienMedecinId = existingRendezVous.getMedecin().getId();
+        CreneauOccupe ancienCreneau = CreneauOccupe.de(existingRendezVous);
+        RendezVousEvenement.Etat avant = RendezVousEvenement.Etat.de(existingRendezVous);
+        
         rendezVousMapper.updateEntityFromDTO(rendezVousUpdateDTO, existingRendezVous);
         existingRendezVous.setDateModification(LocalDateTime.now());
         
-        RendezVous savedRendezVous = rendezVousRepository.save(existingRendezVous);
+        RendezVous savedRendezVous = enregistrerCreneau(existingRendezVous, "Ce nouveau créneau n'est pas disponible");
+        carteDisponibilites.retirer(ancienMedecinId, ancienCreneau);
+        synchroniserPlanning(savedRendezVous);
+        evenements.publishEvent(RendezVousEvenement.modification(avant, savedRendezVous));
         return rendezVousMapper.toResponseDTO(savedRendezVous);
     }
     
@@ -179,10 +325,27 @@ public class RendezVousServiceImpl implements RendezVousService {
         RendezVous rendezVous = rendezVousRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Rendez-vous non trouvé"));
         
+        // Un rendez-vous annulé qui redevient actif reprend un créneau : même contrôle qu'une réservation
+        boolean reactivation = rendezVous.isAnnule() && nouveauStatut != RendezVousStatus.ANNULE;
+        if (reactivation) {
+            verrousMedecins.verrouiller(rendezVous.getMedecin().getId());
+            if (!isCreneauDisponible(rendezVous.getMedecin().getId(),
+                                   rendezVous.getDateHeureDebut(),
+                                   rendezVous.getDateHeureFin(),
+                                   id)) {
+                throw new IllegalArgumentException("Ce créneau n'est pas disponible");
+            }
+        }
+        
+        RendezVousEvenement.Etat avant = RendezVousEvenement.Etat.de(rendezVous);
         rendezVous.setStatut(nouveauStatut);
         rendezVous.setDateModification(LocalDateTime.now());
         
-        RendezVous savedRendezVous = rendezVousRepository.save(rendezVous);
+        RendezVous savedRendezVous = reactivation
+                ? enregistrerCreneau(rendezVous, "Ce créneau n'est pas disponible")
+                : rendezVousRepository.save(rendezVous);
+        synchroniserPlanning(savedRendezVous);
+        evenements.publishEvent(RendezVousEvenement.modification(avant, savedRendezVous));
         return rendezVousMapper.toResponseDTO(savedRendezVous);
     }
     
@@ -193,11 +356,14 @@ public class RendezVousServiceImpl implements RendezVousService {
         RendezVous rendezVous = rendezVousRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Rendez-vous non trouvé"));
         
+        RendezVousEvenement.Etat avant = RendezVousEvenement.Etat.de(rendezVous);
         rendezVous.setStatut(RendezVousStatus.ANNULE);
         rendezVous.setNotes(rendezVous.getNotes() + "\nMotif d'annulation: " + motifAnnulation);
         rendezVous.setDateModification(LocalDateTime.now());
         
         rendezVousRepository.save(rendezVous);
+        retirerDuPlanning(rendezVous);
+        evenements.publishEvent(RendezVousEvenement.modification(avant, rendezVous));
         log.info("Rendez-vous annulé avec succès, ID: {}", id);
     }
     
@@ -208,51 +374,94 @@ public class RendezVousServiceImpl implements RendezVousService {
     
     @Override
     public void deleteRendezVous(Long id) {
-        if (!rendezVousRepository.existsById(id)) {
-            throw new IllegalArgumentException("Rendez-vous non trouvé");
+        RendezVous rendezVous = rendezVousRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Rendez-vous non trouvé"));
+        
+        RendezVousEvenement.Etat avant = RendezVousEvenement.Etat.de(rendezVous);
+        rendezVousRepository.delete(rendezVous);
+        retirerDuPlanning(rendezVous);
+        if (rendezVous.getSerie() != null) {
+            // Occurrence matérialisée : l'occurrence calculée reprend sa place, comme après une écriture de série
+            Long medecinId = rendezVous.getMedecin().getId();
+            seriesRecurrentes.invalider(medecinId);
+            carteDisponibilites.invalider(medecinId);
         }
-        rendezVousRepository.deleteById(id);
+        evenements.publishEvent(RendezVousEvenement.suppression(avant, id));
     }
     
     @Override
     @Transactional(readOnly = true)
     public boolean isCreneauDisponible(Long medecinId, LocalDateTime debut, LocalDateTime fin, Long excludeRendezVousId) {
-        List<RendezVous> conflits = rendezVousRepository.findConflictingRendezVous(medecinId, debut, fin);
-        
-        if (excludeRendezVousId != null) {
-            conflits = conflits.stream()
-                    .filter(rdv -> !rdv.getId().equals(excludeRendezVousId))
-                    .toList();
-        }
-        
-        return conflits.isEmpty();
+        return carteDisponibilites.estLibre(medecinId, debut, fin, excludeRendezVousId);
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<LocalDateTime> getCreneauxLibres(Long medecinId, LocalDate date, int dureeEnMinutes) {
-        // Implémentation basique - à enrichir avec les créneaux de disponibilité du médecin
-        // Pour le moment, retourne des créneaux simples de 9h à 18h
-        List<LocalDateTime> creneauxLibres = List.of();
-        // TODO: Implémenter la logique complète avec les créneaux de disponibilité
-        return creneauxLibres;
+        return getCreneauxLibresPeriode(medecinId, date, date, dureeEnMinutes).get(date);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Map<LocalDate, List<LocalDateTime>> getCreneauxLibresPeriode(Long medecinId, LocalDate dateDebut,
+                                                                       LocalDate dateFin, int dureeEnMinutes) {
+        if (dureeEnMinutes <= 0) {
+            throw new IllegalArgumentException("La durée du rendez-vous doit être positive");
+        }
+        if (dateFin.isBefore(dateDebut)) {
+            throw new IllegalArgumentException("La date de fin doit être postérieure à la date de début");
+        }
+        if (ChronoUnit.DAYS.between(dateDebut, dateFin) >= PERIODE_CRENEAUX_MAX_JOURS) {
+            throw new IllegalArgumentException("La période ne peut pas dépasser " + PERIODE_CRENEAUX_MAX_JOURS + " jours");
+        }
+        
+        return carteDisponibilites.getCreneauxLibres(medecinId, dateDebut, dateFin,
+                Duration.ofMinutes(dureeEnMinutes), LocalDateTime.now());
+    }
+    
+    // Entre instances, le chevauchement est refusé par la contrainte d'exclusion (PostgreSQL) :
+    // l'écriture est envoyée tout de suite pour que le refus remonte comme un créneau indisponible
+    private RendezVous enregistrerCreneau(RendezVous rendezVous, String messageConflit) {
+        try {
+            return rendezVousRepository.saveAndFlush(rendezVous);
+        } catch (DataIntegrityViolationException e) {
+            if (!ContrainteChevauchement.estViolee(e)) {
+                throw e;
+            }
+            throw new IllegalArgumentException(messageConflit);
+        }
+    }
+    
+    private void synchroniserPlanning(RendezVous rendezVous) {
+        rendezVousIntervalIndex.synchroniser(rendezVous);
+        if (rendezVous.isAnnule()) {
+            carteDisponibilites.retirer(rendezVous.getMedecin().getId(), CreneauOccupe.de(rendezVous));
+        } else {
+            carteDisponibilites.ajouter(rendezVous.getMedecin().getId(), CreneauOccupe.de(rendezVous));
+        }
+    }
+    
+    private void retirerDuPlanning(RendezVous rendezVous) {
+        rendezVousIntervalIndex.retirer(rendezVous.getMedecin().getId(), rendezVous.getId());
+        carteDisponibilites.retirer(rendezVous.getMedecin().getId(), CreneauOccupe.de(rendezVous));
     }
     
     @Override
     public void envoyerRappel(Long rendezVousId) {
         log.info("Envoi de rappel pour le rendez-vous ID: {}", rendezVousId);
-        // TODO: Intégrer avec un service d'email/SMS
-        marquerRappelEnvoye(rendezVousId);
+        RendezVousResponseDTO rendezVous = rendezVousRepository.findResponseDTOById(rendezVousId)
+                .orElseThrow(() -> new IllegalArgumentException("Rendez-vous non trouvé"));
+        notificationSender.envoyerRappel(rendezVous);
+        rendezVousRepository.marquerRappelsEnvoyes(List.of(rendezVousId), LocalDateTime.now());
+        evenements.publishEvent(RendezVousEvenement.rappel(rendezVous));
     }
     
     @Override
     public void marquerRappelEnvoye(Long rendezVousId) {
-        RendezVous rendezVous = rendezVousRepository.findById(rendezVousId)
+        RendezVousResponseDTO rendezVous = rendezVousRepository.findResponseDTOById(rendezVousId)
                 .orElseThrow(() -> new IllegalArgumentException("Rendez-vous non trouvé"));
-        
-        rendezVous.setRappelEnvoye(true);
-        rendezVous.setDateRappel(LocalDateTime.now());
-        rendezVousRepository.save(rendezVous);
+        rendezVousRepository.marquerRappelsEnvoyes(List.of(rendezVousId), LocalDateTime.now());
+        evenements.publishEvent(RendezVousEvenement.rappel(rendezVous));
     }
     
     @Override
@@ -267,17 +476,86 @@ public class RendezVousServiceImpl implements RendezVousService {
         LocalDateTime debut = date.atStartOfDay();
         LocalDateTime fin = date.atTime(23, 59, 59);
         
-        return rendezVousRepository.findByDateHeureDebutBetweenOrderByDateHeureDebut(debut, fin)
-                .stream()
-                .map(rendezVousMapper::toResponseDTO)
-                .toList();
+        return avecOccurrencesPlanifiees(rendezVousRepository.findResponseDTOsByPeriode(debut, fin),
+                serieRendezVousService.getOccurrencesPlanifiees(null, debut, fin));
+    }
+    
+    // Les occurrences de séries non encore enregistrées apparaissent dans les vues d'une journée
+    private static List<RendezVousResponseDTO> avecOccurrencesPlanifiees(List<RendezVousResponseDTO> rendezVous,
+                                                                         List<RendezVousResponseDTO> occurrences) {
+        if (occurrences.isEmpty()) {
+            return rendezVous;
+        }
+        List<RendezVousResponseDTO> resultat = new ArrayList<>(rendezVous);
+        resultat.addAll(occurrences);
+        resultat.sort(Comparator.comparing(RendezVousResponseDTO::getDateHeureDebut));
+        return resultat;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public PageCurseurDTO<RendezVousResponseDTO> getAllRendezVous(String curseur, int taille) {
+        CurseurRendezVous position = CurseurRendezVous.decoder(curseur, CurseurRendezVous.DEBUT_CROISSANT);
+        return pageSuivante(rendezVousRepository.findResponseDTOsApres(
+                position.dateHeureDebut(), position.id(), limite(taille)), taille);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public PageCurseurDTO<RendezVousResponseDTO> getRendezVousByPatient(Long patientId, String curseur, int taille) {
+        // Plus récents d'abord, comme la liste complète
+        CurseurRendezVous position = CurseurRendezVous.decoder(curseur, CurseurRendezVous.DEBUT_DECROISSANT);
+        return pageSuivante(rendezVousRepository.findResponseDTOsByPatientIdAvant(
+                patientId, position.dateHeureDebut(), position.id(), limite(taille)), taille);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public PageCurseurDTO<RendezVousResponseDTO> getRendezVousByMedecin(Long medecinId, String curseur, int taille) {
+        CurseurRendezVous position = CurseurRendezVous.decoder(curseur, CurseurRendezVous.DEBUT_CROISSANT);
+        return pageSuivante(rendezVousRepository.findResponseDTOsByMedecinIdApres(
+                medecinId, position.dateHeureDebut(), position.id(), limite(taille)), taille);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public PageCurseurDTO<RendezVousResponseDTO> getRendezVousByStatus(RendezVousStatus status, String curseur, int taille) {
+        CurseurRendezVous position = CurseurRendezVous.decoder(curseur, CurseurRendezVous.DEBUT_CROISSANT);
+        return pageSuivante(rendezVousRepository.findResponseDTOsByStatutApres(
+                status, position.dateHeureDebut(), position.id(), limite(taille)), taille);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public PageCurseurDTO<RendezVousResponseDTO> getRendezVousDuJour(LocalDate date, String curseur, int taille) {
+        CurseurRendezVous position = CurseurRendezVous.decoder(curseur, CurseurRendezVous.DEBUT_CROISSANT);
+        return pageSuivante(rendezVousRepository.findResponseDTOsByPeriodeApres(
+                date.atStartOfDay(), date.atTime(23, 59, 59), position.dateHeureDebut(), position.id(), limite(taille)), taille);
+    }
+    
+    // Une ligne de plus que la taille demandée indique l'existence d'une page suivante
+    private int limite(int taille) {
+        if (taille <= 0 || taille > TAILLE_PAGE_MAX) {
+            throw new IllegalArgumentException("La taille de page doit être comprise entre 1 et " + TAILLE_PAGE_MAX);
+        }
+        return taille + 1;
+    }
+    
+    private PageCurseurDTO<RendezVousResponseDTO> pageSuivante(List<RendezVousResponseDTO> lignes, int taille) {
+        if (lignes.size() <= taille) {
+            return new PageCurseurDTO<>(lignes, null, false);
+        }
+        List<RendezVousResponseDTO> contenu = lignes.subList(0, taille);
+        RendezVousResponseDTO derniere = contenu.get(taille - 1);
+        String curseurSuivant = new CurseurRendezVous(derniere.getDateHeureDebut(), derniere.getId()).encoder();
+        return new PageCurseurDTO<>(List.copyOf(contenu), curseurSuivant, true);
     }
     
     // Méthodes pour statistiques admin
     @Override
     @Transactional(readOnly = true)
     public long countAllRendezVous() {
-        return rendezVousRepository.count();
+        return compteursStatistiques.getTotalRendezVous();
     }
     
     @Override
@@ -285,7 +563,7 @@ public class RendezVousServiceImpl implements RendezVousService {
     public long countRendezVousByStatus(String status) {
         try {
             RendezVousStatus enumStatus = RendezVousStatus.valueOf(status.toUpperCase());
-            return rendezVousRepository.countByStatut(enumStatus);
+            return compteursStatistiques.getRendezVousParStatut(enumStatus);
         } catch (IllegalArgumentException e) {
             return 0;
         }
@@ -294,14 +572,16 @@ public class RendezVousServiceImpl implements RendezVousService {
     @Override
     @Transactional(readOnly = true)
     public int countRendezVousByDate(LocalDate date) {
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(23, 59, 59);
-        return rendezVousRepository.countByDateHeureDebutBetween(startOfDay, endOfDay);
+        return (int) compteursStatistiques.getRendezVousDuJour(date);
     }
     
     @Override
     @Transactional(readOnly = true)
     public int countRendezVousByDateRange(LocalDateTime debut, LocalDateTime fin) {
+        // Les compteurs sont journaliers : seule une période en journées entières peut en être servie
+        if (debut.toLocalTime().equals(LocalTime.MIDNIGHT) && fin.toLocalTime().equals(FIN_DE_JOURNEE)) {
+            return (int) compteursStatistiques.getRendezVousEntre(debut.toLocalDate(), fin.toLocalDate());
+        }
         return rendezVousRepository.countByDateHeureDebutBetween(debut, fin);
     }
     
@@ -314,15 +594,23 @@ public class RendezVousServiceImpl implements RendezVousService {
     @Override
     @Transactional(readOnly = true)
     public List<RendezVousResponseDTO> getRecentRendezVous(int limit) {
-        return rendezVousRepository.findTopByOrderByDateCreationDesc(limit)
-                .stream()
-                .map(rendezVousMapper::toResponseDTO)
-                .toList();
+        return rendezVousRepository.findRecentResponseDTOs(limit);
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<Object[]> getTopMedecinsByRendezVous(int limit) {
-        return rendezVousRepository.findTopMedecinsByRendezVousCount(limit);
+        List<CompteursStatistiques.CompteMedecin> top = compteursStatistiques.getTopMedecins(limit);
+        Map<Long, Medecin> medecins = medecinRepository.findAllById(
+                        top.stream().map(CompteursStatistiques.CompteMedecin::medecinId).toList())
+                .stream()
+                .collect(Collectors.toMap(Medecin::getId, Function.identity()));
+        return top.stream()
+                .filter(compte -> medecins.containsKey(compte.medecinId()))
+                .map(compte -> {
+                    Medecin medecin = medecins.get(compte.medecinId());
+                    return new Object[]{medecin.getId(), medecin.getNom(), medecin.getPrenom(), compte.nombre()};
+                })
+                .toList();
     }
 }
\ No newline at end of file
@@ -0,0 +1,301 @@
+package ci.hardwork.gestionrdvservice.core.service.impl;
+
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
+import ci.hardwork.gestionrdvservice.core.dto.SerieRendezVousDTO;
+import ci.hardwork.gestionrdvservice.core.evenements.RendezVousEvenement;
+import ci.hardwork.gestionrdvservice.core.mapper.RendezVousMapper;
+import ci.hardwork.gestionrdvservice.core.mapper.SerieRendezVousMapper;
+import ci.hardwork.gestionrdvservice.core.models.Medecin;
+import ci.hardwork.gestionrdvservice.core.models.Patient;
+import ci.hardwork.gestionrdvservice.core.models.RendezVous;
+import ci.hardwork.gestionrdvservice.core.models.SerieRendezVous;
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import ci.hardwork.gestionrdvservice.core.planning.CarteDisponibilites;
+import ci.hardwork.gestionrdvservice.core.planning.CreneauOccupe;
+import ci.hardwork.gestionrdvservice.core.planning.InstantanesPlanning;
+import ci.hardwork.gestionrdvservice.core.planning.RegleRecurrence;
+import ci.hardwork.gestionrdvservice.core.planning.RendezVousIntervalIndex;
+import ci.hardwork.gestionrdvservice.core.planning.SeriesRecurrentes;
+import ci.hardwork.gestionrdvservice.core.planning.SeriesRecurrentes.OccurrenceSerie;
+import ci.hardwork.gestionrdvservice.core.planning.VerrousMedecins;
+import ci.hardwork.gestionrdvservice.core.repository.MedecinRepository;
+import ci.hardwork.gestionrdvservice.core.repository.PatientRepository;
+import ci.hardwork.gestionrdvservice.core.repository.RendezVousRepository;
+import ci.hardwork.gestionrdvservice.core.repository.SerieRendezVousRepository;
+import ci.hardwork.gestionrdvservice.core.service.SerieRendezVousService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class SerieRendezVousServiceImpl implements SerieRendezVousService {
+    
+    private static final int CONFLITS_AFFICHES_MAX = 5;
+    
+    private final SerieRendezVousRepository serieRendezVousRepository;
+    private final RendezVousRepository rendezVousRepository;
+    private final PatientRepository patientRepository;
+    private final MedecinRepository medecinRepository;
+    private final SerieRendezVousMapper serieRendezVousMapper;
+    private final RendezVousMapper rendezVousMapper;
+    private final SeriesRecurrentes seriesRecurrentes;
+    private final RendezVousIntervalIndex rendezVousIntervalIndex;
+    private final CarteDisponibilites carteDisponibilites;
+    private final InstantanesPlanning instantanesPlanning;
+    private final ApplicationEventPublisher evenements;
+    private final VerrousMedecins verrousMedecins;
+    
+    @Override
+    public SerieRendezVousDTO createSerie(SerieRendezVousDTO serieDTO) {
+        log.info("Création d'une série de rendez-vous pour patient ID: {}, médecin ID: {}",
+                serieDTO.getPatientId(), serieDTO.getMedecinId());
+    
+        Patient patient = patientRepository.findById(serieDTO.getPatientId())
+                .orElseThrow(() -> new IllegalArgumentException("Patient non trouvé"));
+    
+        Medecin medecin = medecinRepository.findById(serieDTO.getMedecinId())
+                .orElseThrow(() -> new IllegalArgumentException("Médecin non trouvé"));
+    
+        if (!medecin.getActif()) {
+            throw new IllegalArgumentException("Le médecin n'est pas actif");
+        }
+    
+        if (serieDTO.getDateFin().isBefore(serieDTO.getPremiereOccurrence().toLocalDate())) {
+            throw new IllegalArgumentException("La date de fin doit être postérieure à la première occurrence");
+        }
+    
+        SerieRendezVous serie = serieRendezVousMapper.toEntity(serieDTO);
+        serie.setPatient(patient);
+        serie.setMedecin(medecin);
+        serie.setActif(true);
+        if (serie.getIntervalle() == null) {
+            serie.setIntervalle(1);
+        }
+    
+        RegleRecurrence regle = serie.regle();
+        int nombreOccurrences = regle.nombreOccurrences();
+        if (nombreOccurrences > SeriesRecurrentes.OCCURRENCES_MAX) {
+            throw new IllegalArgumentException("Une série ne peut pas dépasser " + SeriesRecurrentes.OCCURRENCES_MAX + " occurrences");
+        }
+        verrousMedecins.verrouiller(medecin.getId());
+        verifierDisponibilite(medecin.getId(), regle, nombreOccurrences);
+    
+        SerieRendezVous savedSerie = serieRendezVousRepository.save(serie);
+        invaliderPlanning(medecin.getId());
+        log.info("Série créée avec succès, ID: {}, {} occurrence(s)", savedSerie.getId(), nombreOccurrences);
+    
+        return serieRendezVousMapper.toDTO(savedSerie);
+    }
+    
+    // Une seule lecture des créneaux occupés sur toute l'étendue de la série
+    private void verifierDisponibilite(Long medecinId, RegleRecurrence regle, int nombreOccurrences) {
+        LocalDateTime debut = regle.premiereOccurrence();
+        LocalDateTime fin = regle.occurrence(nombreOccurrences - 1).plus(regle.duree());
+        List<CreneauOccupe> occupes = rendezVousIntervalIndex.getCreneauxOccupes(medecinId, debut, fin);
+        if (occupes.isEmpty()) {
+            return;
+        }
+    
+        List<LocalDateTime> conflits = regle.occurrencesChevauchant(debut, fin).stream()
+                .filter(occurrence -> occupes.stream().anyMatch(creneau -> creneau.chevauche(occurrence.debut(), occurrence.fin())))
+                .map(RegleRecurrence.Occurrence::debut)
+                .toList();
+        if (!conflits.isEmpty()) {
+            throw new IllegalArgumentException("Créneaux non disponibles pour " + conflits.size() + " occurrence(s) : "
+                    + conflits.stream().limit(CONFLITS_AFFICHES_MAX).map(LocalDateTime::toString).collect(Collectors.joining(", ")));
+        }
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<SerieRendezVousDTO> getSerieById(Long id) {
+        return serieRendezVousRepository.findById(id)
+                .map(serieRendezVousMapper::toDTO);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<SerieRendezVousDTO> getSeriesActivesByPatient(Long patientId) {
+        return serieRendezVousRepository.findByPatientIdAndActifTrue(patientId)
+                .stream()
+                .map(serieRendezVousMapper::toDTO)
+                .toList();
+    }
+    
+    @Override
+    public void arreterSerie(Long id) {
+        log.info("Arrêt de la série ID: {}", id);
+    
+        SerieRendezVous serie = serieRendezVousRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Série non trouvée"));
+    
+        serie.setActif(false);
+        serieRendezVousRepository.save(serie);
+        invaliderPlanning(serie.getMedecin().getId());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<RendezVousResponseDTO> getOccurrencesPlanifiees(Long medecinId, LocalDateTime debut, LocalDateTime fin) {
+        List<SerieRendezVous> series = serieRendezVousRepository.findActivesAvecParticipantsByPeriode(
+                medecinId, debut.toLocalDate(), fin);
+        if (series.isEmpty()) {
+            return List.of();
+        }
+    
+        Map<Long, SerieRendezVous> parId = series.stream()
+                .collect(Collectors.toMap(SerieRendezVous::getId, Function.identity()));
+        return seriesRecurrentes.getOccurrences(series, debut, fin).stream()
+                .filter(occurrence -> !occurrence.debut().isBefore(debut))
+                .sorted(Comparator.comparing(OccurrenceSerie::debut))
+                .map(occurrence -> toResponseDTO(parId.get(occurrence.serieId()), occurrence))
+                .toList();
+    }
+    
+    private RendezVousResponseDTO toResponseDTO(SerieRendezVous serie, OccurrenceSerie occurrence) {
+        RendezVousResponseDTO dto = new RendezVousResponseDTO();
+        dto.setPatientId(serie.getPatient().getId());
+        dto.setPatientNom(serie.getPatient().getNom());
+        dto.setPatientPrenom(serie.getPatient().getPrenom());
+        dto.setMedecinId(serie.getMedecin().getId());
+        dto.setMedecinNom(serie.getMedecin().getNom());
+        dto.setMedecinPrenom(serie.getMedecin().getPrenom());
+        dto.setMedecinSpecialite(serie.getMedecin().getSpecialite() != null ? serie.getMedecin().getSpecialite().name() : null);
+        dto.setDateHeureDebut(occurrence.debut());
+        dto.setDateHeureFin(occurrence.fin());
+        dto.setMotifConsultation(serie.getMotifConsultation());
+        dto.setStatut(RendezVousStatus.PLANIFIE);
+        dto.setTarif(serie.getTarif());
+        dto.setRappelEnvoye(false);
+        dto.setSerieId(serie.getId());
+        dto.setDateOccurrence(occurrence.debut());
+        return dto;
+    }
+    
+    @Override
+    public RendezVousResponseDTO confirmerOccurrence(Long serieId, LocalDateTime dateOccurrence) {
+        log.info("Confirmation de l'occurrence du {} de la série ID: {}", dateOccurrence, serieId);
+        SerieRendezVous serie = getSerieActive(serieId);
+        int rang = rangOccurrence(serie, dateOccurrence);
+        RegleRecurrence regle = serie.regle();
+    
+        RendezVous rendezVous = materialiser(serie, dateOccurrence, regle.occurrence(rang),
+                regle.occurrence(rang).plus(regle.duree()), RendezVousStatus.CONFIRME);
+        return rendezVousMapper.toResponseDTO(rendezVous);
+    }
+    
+    @Override
+    public RendezVousResponseDTO deplacerOccurrence(Long serieId, LocalDateTime dateOccurrence,
+                                                    LocalDateTime nouveauDebut, LocalDateTime nouvelleFin) {
+        log.info("Déplacement de l'occurrence du {} de la série ID: {} vers {}", dateOccurrence, serieId, nouveauDebut);
+        if (!nouvelleFin.isAfter(nouveauDebut)) {
+            throw new IllegalArgumentException("La date de fin doit être postérieure à la date de début");
+        }
+    
+        SerieRendezVous serie = getSerieActive(serieId);
+        int rang = rangOccurrence(serie, dateOccurrence);
+    
+        // L'occurrence déplacée ne se bloque pas elle-même
+        verrousMedecins.verrouiller(serie.getMedecin().getId());
+        if (!carteDisponibilites.estLibre(serie.getMedecin().getId(), nouveauDebut, nouvelleFin,
+                OccurrenceSerie.identifiant(serieId, rang))) {
+            throw new IllegalArgumentException("Ce nouveau créneau n'est pas disponible");
+        }
+    
+        RendezVous rendezVous = materialiser(serie, dateOccurrence, nouveauDebut, nouvelleFin, RendezVousStatus.PLANIFIE);
+        return rendezVousMapper.toResponseDTO(rendezVous);
+    }
+    
+    @Override
+    public void annulerOccurrence(Long serieId, LocalDateTime dateOccurrence, String motifAnnulation) {
+        log.info("Annulation de l'occurrence du {} de la série ID: {}", dateOccurrence, serieId);
+        SerieRendezVous serie = getSerieActive(serieId);
+        int rang = rangOccurrence(serie, dateOccurrence);
+        RegleRecurrence regle = serie.regle();
+    
+        RendezVous rendezVous = nouvelleOccurrence(serie, dateOccurrence, regle.occurrence(rang),
+                regle.occurrence(rang).plus(regle.duree()), RendezVousStatus.ANNULE);
+        rendezVous.setMotifAnnulation(motifAnnulation);
+        enregistrer(rendezVous);
+    }
+    
+    private SerieRendezVous getSerieActive(Long serieId) {
+        SerieRendezVous serie = serieRendezVousRepository.findById(serieId)
+                .orElseThrow(() -> new IllegalArgumentException("Série non trouvée"));
+        if (!serie.getActif()) {
+            throw new IllegalArgumentException("La série est arrêtée");
+        }
+        return serie;
+    }
+    
+    private int rangOccurrence(SerieRendezVous serie, LocalDateTime dateOccurrence) {
+        int rang = serie.regle().rangDe(dateOccurrence);
+        if (rang < 0) {
+            throw new IllegalArgumentException("La série n'a pas d'occurrence à cette date");
+        }
+        rendezVousRepository.findBySerieIdAndDateOccurrence(serie.getId(), dateOccurrence)
+                .ifPresent(existant -> {
+                    throw new IllegalArgumentException("Cette occurrence est déjà enregistrée (rendez-vous ID: "
+                            + existant.getId() + ")");
+                });
+        return rang;
+    }
+    
+    private RendezVous materialiser(SerieRendezVous serie, LocalDateTime dateOccurrence, LocalDateTime debut,
+                                    LocalDateTime fin, RendezVousStatus statut) {
+        return enregistrer(nouvelleOccurrence(serie, dateOccurrence, debut, fin, statut));
+    }
+    
+    private RendezVous nouvelleOccurrence(SerieRendezVous serie, LocalDateTime dateOccurrence, LocalDateTime debut,
+                                          LocalDateTime fin, RendezVousStatus statut) {
+        RendezVous rendezVous = new RendezVous();
+        rendezVous.setPatient(serie.getPatient());
+        rendezVous.setMedecin(serie.getMedecin());
+        rendezVous.setDateHeureDebut(debut);
+        rendezVous.setDateHeureFin(fin);
+        rendezVous.setDureePrevueMinutes(serie.getDureeMinutes());
+        rendezVous.setMotifConsultation(serie.getMotifConsultation());
+        rendezVous.setTarif(serie.getTarif());
+        rendezVous.setStatut(statut);
+        rendezVous.setRappelEnvoye(false);
+        rendezVous.setSerie(serie);
+        rendezVous.setDateOccurrence(dateOccurrence);
+        return rendezVous;
+    }
+    
+    // La ligne remplace l'occurrence calculée : les journées du médecin sont reconstruites
+    private RendezVous enregistrer(RendezVous rendezVous) {
+        RendezVous savedRendezVous;
+        try {
+            savedRendezVous = rendezVousRepository.saveAndFlush(rendezVous);
+        } catch (DataIntegrityViolationException e) {
+            // Enregistrement concurrent de la même occurrence (clé serie_id, date_occurrence)
+            throw new IllegalArgumentException("Cette occurrence vient d'être enregistrée");
+        }
+        rendezVousIntervalIndex.synchroniser(savedRendezVous);
+        invaliderPlanning(savedRendezVous.getMedecin().getId());
+        evenements.publishEvent(RendezVousEvenement.creation(savedRendezVous));
+        log.info("Occurrence enregistrée comme rendez-vous ID: {}", savedRendezVous.getId());
+        return savedRendezVous;
+    }
+    
+    private void invaliderPlanning(Long medecinId) {
+        seriesRecurrentes.invalider(medecinId);
+        carteDisponibilites.invalider(medecinId);
+        instantanesPlanning.invaliderMedecin(medecinId);
+    }
+}
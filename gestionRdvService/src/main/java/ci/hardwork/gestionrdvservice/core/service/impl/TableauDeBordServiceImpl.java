@@ -0,0 +1,109 @@
+package ci.hardwork.gestionrdvservice.core.service.impl;
+
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import ci.hardwork.gestionrdvservice.core.repository.CompteursInscriptions;
+import ci.hardwork.gestionrdvservice.core.repository.MedecinRepository;
+import ci.hardwork.gestionrdvservice.core.repository.PatientRepository;
+import ci.hardwork.gestionrdvservice.core.service.TableauDeBordService;
+import ci.hardwork.gestionrdvservice.core.statistiques.CompteursStatistiques;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Dashboard admin. Les chiffres des rendez-vous et les totaux patients et médecins sont
+ * lus dans les {@link CompteursStatistiques}, comme {@code /admin/stats/globales} : les
+ * deux écrans ne peuvent pas se contredire. Seules les inscriptions par période, que les
+ * compteurs ne tiennent pas, sont calculées en base, en deux agrégats lancés en parallèle.
+ */
+@Service
+@Slf4j
+public class TableauDeBordServiceImpl implements TableauDeBordService {
+    
+    static final int MOIS_EVOLUTION = 6;
+    
+    private final CompteursStatistiques compteursStatistiques;
+    private final PatientRepository patientRepository;
+    private final MedecinRepository medecinRepository;
+    private final Executor executor;
+    
+    public TableauDeBordServiceImpl(CompteursStatistiques compteursStatistiques,
+                                    PatientRepository patientRepository,
+                                    MedecinRepository medecinRepository,
+                                    @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.compteursStatistiques = compteursStatistiques;
+        this.patientRepository = patientRepository;
+        this.medecinRepository = medecinRepository;
+        this.executor = executor;
+    }
+    
+    @Override
+    public Map<String, Object> getTableauDeBord(LocalDate aujourdhui) {
+        log.info("Calcul du dashboard admin au {}", aujourdhui);
+        
+        LocalDate debutSemaine = aujourdhui.minusDays(7);
+        LocalDate debutMois = aujourdhui.withDayOfMonth(1);
+        LocalDateTime finJour = aujourdhui.plusDays(1).atStartOfDay();
+        
+        // Chaque agrégat s'exécute dans sa propre transaction de lecture
+        CompletableFuture<CompteursInscriptions> patients = CompletableFuture.supplyAsync(
+                () -> patientRepository.countInscriptions(aujourdhui.atStartOfDay(), debutSemaine.atStartOfDay(),
+                        debutMois.atStartOfDay(), finJour), executor);
+        CompletableFuture<CompteursInscriptions> medecins = CompletableFuture.supplyAsync(
+                () -> medecinRepository.countInscriptions(aujourdhui.atStartOfDay(), debutSemaine.atStartOfDay(),
+                        debutMois.atStartOfDay(), finJour), executor);
+        CompletableFuture.allOf(patients, medecins).join();
+        CompteursInscriptions compteursPatients = patients.join();
+        CompteursInscriptions compteursMedecins = medecins.join();
+        
+        Map<String, Object> globales = new HashMap<>();
+        globales.put("totalRendezVous", compteursStatistiques.getTotalRendezVous());
+        globales.put("rendezVousPlanifies", compteursStatistiques.getRendezVousParStatut(RendezVousStatus.PLANIFIE));
+        globales.put("rendezVousConfirmes", compteursStatistiques.getRendezVousParStatut(RendezVousStatus.CONFIRME));
+        globales.put("rendezVousTermines", compteursStatistiques.getRendezVousParStatut(RendezVousStatus.TERMINE));
+        globales.put("rendezVousAnnules", compteursStatistiques.getRendezVousParStatut(RendezVousStatus.ANNULE));
+        globales.put("totalPatients", compteursStatistiques.getTotalPatients());
+        globales.put("totalMedecins", compteursStatistiques.getTotalMedecins());
+        globales.put("medecinActifs", compteursStatistiques.getMedecinsActifs());
+        globales.put("patientActifs", compteursStatistiques.getPatientsActifs());
+        globales.put("rendezVousAujourdhui", compteursStatistiques.getRendezVousDuJour(aujourdhui));
+        globales.put("nouveauxPatientsAujourdhui", valeur(compteursPatients.getAujourdhui()));
+        
+        Map<String, Object> dashboard = new HashMap<>();
+        dashboard.put("globales", globales);
+        dashboard.put("semaine", periode(compteursStatistiques.getRendezVousEntre(debutSemaine, aujourdhui),
+                compteursPatients.getSemaine(), compteursMedecins.getSemaine()));
+        dashboard.put("mois", periode(compteursStatistiques.getRendezVousEntre(debutMois, aujourdhui),
+                compteursPatients.getMois(), compteursMedecins.getMois()));
+        
+        Map<String, Long> evolutionMensuelle = new LinkedHashMap<>();
+        for (int i = MOIS_EVOLUTION - 1; i >= 0; i--) {
+            YearMonth mois = YearMonth.from(debutMois.minusMonths(i));
+            evolutionMensuelle.put(mois.getMonth().name(), compteursStatistiques.getRendezVousDuMois(mois));
+        }
+        dashboard.put("evolutionMensuelle", evolutionMensuelle);
+        
+        return dashboard;
+    }
+    
+    private static Map<String, Object> periode(long rendezVous, Long nouveauxPatients, Long nouveauxMedecins) {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("rendezVousPeriode", rendezVous);
+        stats.put("nouveauxPatientsPeriode", valeur(nouveauxPatients));
+        stats.put("nouveauxMedecinsPeriode", valeur(nouveauxMedecins));
+        return stats;
+    }
+    
+    private static long valeur(Long compteur) {
+        return compteur != null ? compteur : 0L;
+    }
+}
@@ -2,70 +2,186 @@ package ci.hardwork.gestionrdvservice.core.service.impl;
 
 import ci.hardwork.gestionrdvservice.core.dto.UserReference;
 import ci.hardwork.gestionrdvservice.core.service.UserReferenceService;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
+/**
+ * Consultation des utilisateurs d'auth-service derrière un cache local.
+ * <p>
+ * Les utilisateurs trouvés sont gardés {@code app.auth.cache.expiration}, les absences
+ * (404) {@code app.auth.cache.expiration-absent} ; une erreur réseau n'est pas mise en
+ * cache. Le cache conserve l'appel en cours : des demandes simultanées pour le même
+ * utilisateur attendent le même appel HTTP au lieu d'en lancer chacune un.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class UserReferenceServiceImpl implements UserReferenceService {
 
+    // Borne la longueur de l'URL d'un appel groupé
+    static final int TAILLE_LOT_MAX = 100;
+
+    private static final ParameterizedTypeReference<UserReference> UTILISATEUR = new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<List<UserReference>> UTILISATEURS = new ParameterizedTypeReference<>() {};
+
     private final RestTemplate restTemplate;
+    private final String authServiceUrl;
+    private final AsyncCache<Long, Optional<UserReference>> parId;
+    private final AsyncCache<String, Optional<UserReference>> parEmail;
 
-    @Value("${app.auth.service-url}")
-    private String authServiceUrl;
+    public UserReferenceServiceImpl(RestTemplate restTemplate,
+                                    @Qualifier("applicationTaskExecutor") Executor executor,
+                                    @Value("${app.auth.service-url}") String authServiceUrl,
+                                    @Value("${app.auth.cache.taille-max:10000}") long tailleMax,
+                                    @Value("${app.auth.cache.expiration:PT10M}") Duration expiration,
+                                    @Value("${app.auth.cache.expiration-absent:PT30S}") Duration expirationAbsent) {
+        this.restTemplate = restTemplate;
+        this.authServiceUrl = authServiceUrl;
+        this.parId = Caffeine.newBuilder()
+                .maximumSize(tailleMax)
+                .expireAfter(new ExpirationUtilisateur<Long>(expiration, expirationAbsent))
+                .executor(executor)
+                .buildAsync();
+        this.parEmail = Caffeine.newBuilder()
+                .maximumSize(tailleMax)
+                .expireAfter(new ExpirationUtilisateur<String>(expiration, expirationAbsent))
+                .executor(executor)
+                .buildAsync();
+    }
 
     @Override
     public Optional<UserReference> getUserById(Long userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
         try {
-            String url = authServiceUrl + "/users/" + userId;
-            ResponseEntity<UserReference> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<UserReference>() {}
-            );
-
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                return Optional.of(response.getBody());
-            }
-        } catch (RestClientException e) {
-            log.error("Erreur lors de la récupération de l'utilisateur avec ID {}: {}", userId, e.getMessage());
+            return parId.get(userId, (id, executor) -> CompletableFuture.supplyAsync(
+                    () -> appeler(authServiceUrl + "/users/" + id), executor)).join();
+        } catch (CompletionException e) {
+            log.error("Erreur lors de la récupération de l'utilisateur avec ID {}: {}", userId, e.getCause().getMessage());
+            return Optional.empty();
         }
-        return Optional.empty();
     }
 
     @Override
     public Optional<UserReference> getUserByEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            Optional<UserReference> utilisateur = parEmail.get(email, (cle, executor) -> CompletableFuture.supplyAsync(
+                    () -> appeler(authServiceUrl + "/users/by-email?email={email}", cle), executor)).join();
+            // Les consultations suivantes par id profitent de la réponse
+            utilisateur.filter(u -> u.getId() != null)
+                    .ifPresent(u -> parId.put(u.getId(), CompletableFuture.completedFuture(utilisateur)));
+            return utilisateur;
+        } catch (CompletionException e) {
+            log.error("Erreur lors de la récupération de l'utilisateur avec email {}: {}", email, e.getCause().getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean userExists(Long userId) {
+        return getUserById(userId).isPresent();
+    }
+
+    @Override
+    public Map<Long, UserReference> getUsersByIds(Collection<Long> userIds) {
+        Set<Long> ids = userIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Optional<UserReference>> trouves;
         try {
-            String url = authServiceUrl + "/users/by-email?email=" + email;
-            ResponseEntity<UserReference> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<UserReference>() {}
-            );
+            trouves = parId.getAll(ids, (manquants, executor) -> CompletableFuture.supplyAsync(
+                    () -> appelerParLots(manquants), executor)).join();
+        } catch (CompletionException e) {
+            log.error("Erreur lors de la récupération groupée de {} utilisateurs: {}", ids.size(), e.getCause().getMessage());
+            // On rend au moins ce que le cache connaît déjà
+            trouves = parId.synchronous().getAllPresent(ids);
+        }
+        Map<Long, UserReference> utilisateurs = new LinkedHashMap<>();
+        trouves.forEach((id, utilisateur) -> utilisateur.ifPresent(u -> utilisateurs.put(id, u)));
+        return utilisateurs;
+    }
 
+    /** Un utilisateur ou {@link Optional#empty()} si auth-service ne le connaît pas ; les autres erreurs remontent. */
+    private Optional<UserReference> appeler(String url, Object... variables) {
+        try {
+            ResponseEntity<UserReference> response = restTemplate.exchange(url, HttpMethod.GET, null, UTILISATEUR, variables);
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 return Optional.of(response.getBody());
             }
-        } catch (RestClientException e) {
-            log.error("Erreur lors de la récupération de l'utilisateur avec email {}: {}", email, e.getMessage());
+            return Optional.empty();
+        } catch (HttpClientErrorException.NotFound e) {
+            return Optional.empty();
         }
-        return Optional.empty();
     }
 
-    @Override
-    public boolean userExists(Long userId) {
-        return getUserById(userId).isPresent();
+    /** Un appel {@code /users/by-ids} par tranche de {@link #TAILLE_LOT_MAX} ; les ids non renvoyés sont absents. */
+    private Map<Long, Optional<UserReference>> appelerParLots(Set<? extends Long> manquants) {
+        Map<Long, Optional<UserReference>> resultat = new HashMap<>();
+        List<Long> ids = new ArrayList<>(manquants);
+        for (int debut = 0; debut < ids.size(); debut += TAILLE_LOT_MAX) {
+            List<Long> tranche = ids.subList(debut, Math.min(debut + TAILLE_LOT_MAX, ids.size()));
+            String liste = tranche.stream().map(String::valueOf).collect(Collectors.joining(","));
+            ResponseEntity<List<UserReference>> response = restTemplate.exchange(
+                    authServiceUrl + "/users/by-ids?ids={ids}", HttpMethod.GET, null, UTILISATEURS, liste);
+            tranche.forEach(id -> resultat.put(id, Optional.empty()));
+            if (response.getBody() != null) {
+                for (UserReference utilisateur : response.getBody()) {
+                    resultat.put(utilisateur.getId(), Optional.of(utilisateur));
+                }
+            }
+        }
+        return resultat;
+    }
+
+    /** Durée de vie d'une entrée selon que l'utilisateur a été trouvé ou non. */
+    private record ExpirationUtilisateur<K>(Duration trouve, Duration absent) implements Expiry<K, Optional<UserReference>> {
+
+        @Override
+        public long expireAfterCreate(K cle, Optional<UserReference> utilisateur, long maintenant) {
+            return (utilisateur.isPresent() ? trouve : absent).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(K cle, Optional<UserReference> utilisateur, long maintenant, long dureeRestante) {
+            return expireAfterCreate(cle, utilisateur, maintenant);
+        }
+
+        @Override
+        public long expireAfterRead(K cle, Optional<UserReference> utilisateur, long maintenant, long dureeRestante) {
+            return dureeRestante;
+        }
     }
-}
\ No newline at end of file
+}
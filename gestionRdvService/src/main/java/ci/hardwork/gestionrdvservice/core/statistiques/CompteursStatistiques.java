@@ -0,0 +1,265 @@
+package ci.hardwork.gestionrdvservice.core.statistiques;
+
+import ci.hardwork.gestionrdvservice.core.evenements.MedecinEvenement;
+import ci.hardwork.gestionrdvservice.core.evenements.PatientEvenement;
+import ci.hardwork.gestionrdvservice.core.evenements.RendezVousEvenement;
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import ci.hardwork.gestionrdvservice.core.models.enums.SpecialiteMedicale;
+import ci.hardwork.gestionrdvservice.core.repository.MedecinRepository;
+import ci.hardwork.gestionrdvservice.core.repository.PatientRepository;
+import ci.hardwork.gestionrdvservice.core.repository.RendezVousRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs statistiques tenus en mémoire : rendez-vous par statut, par jour, par mois
+ * et par médecin, médecins actifs par spécialité, totaux patients et médecins.
+ * <p>
+ * Ils sont corrigés après chaque commit par les événements de domaine et recalculés
+ * périodiquement depuis la base ; un écart dû à un événement concurrent d'une
+ * réconciliation est corrigé à la réconciliation suivante.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CompteursStatistiques {
+
+    private final RendezVousRepository rendezVousRepository;
+    private final MedecinRepository medecinRepository;
+    private final PatientRepository patientRepository;
+
+    // Remplacé en bloc à chaque réconciliation
+    private volatile Compteurs compteurs;
+
+    public record CompteMedecin(Long medecinId, long nombre) {
+    }
+
+    @Scheduled(fixedDelayString = "${app.statistiques.reconciliation-intervalle:PT10M}")
+    public synchronized void reconcilier() {
+        Compteurs recalcules = new Compteurs();
+        for (Object[] ligne : rendezVousRepository.countGroupByStatut()) {
+            recalcules.parStatut.get((RendezVousStatus) ligne[0]).add(nombre(ligne[1]));
+        }
+        for (Object[] ligne : rendezVousRepository.countGroupByJourTous()) {
+            LocalDate jour = (LocalDate) ligne[0];
+            compteur(recalcules.parJour, jour).add(nombre(ligne[1]));
+            compteur(recalcules.parMois, YearMonth.from(jour)).add(nombre(ligne[1]));
+        }
+        for (Object[] ligne : rendezVousRepository.countGroupByMedecin()) {
+            compteur(recalcules.parMedecin, (Long) ligne[0]).add(nombre(ligne[1]));
+        }
+        for (Object[] ligne : medecinRepository.countGroupBySpecialiteAndActif()) {
+            recalcules.appliquer(new MedecinEvenement.Etat((SpecialiteMedicale) ligne[0], Boolean.TRUE.equals(ligne[1])), nombre(ligne[2]));
+        }
+        for (Object[] ligne : patientRepository.countGroupByActif()) {
+            recalcules.appliquer((Boolean) ligne[0], nombre(ligne[1]));
+        }
+
+        Compteurs precedents = compteurs;
+        compteurs = recalcules;
+        if (precedents != null && precedents.totalRendezVous() != recalcules.totalRendezVous()) {
+            log.warn("Écart des compteurs de rendez-vous corrigé: {} en mémoire, {} en base",
+                    precedents.totalRendezVous(), recalcules.totalRendezVous());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surRendezVous(RendezVousEvenement evenement) {
+        Compteurs courants = compteurs;
+        if (courants == null) {
+            // La première réconciliation lira l'état en base
+            return;
+        }
+        if (evenement.avant() != null) {
+            courants.appliquer(evenement.avant(), -1);
+        }
+        if (evenement.apres() != null) {
+            courants.appliquer(evenement.apres(), 1);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surMedecin(MedecinEvenement evenement) {
+        Compteurs courants = compteurs;
+        if (courants == null) {
+            return;
+        }
+        if (evenement.avant() != null) {
+            courants.appliquer(evenement.avant(), -1);
+        }
+        if (evenement.apres() != null) {
+            courants.appliquer(evenement.apres(), 1);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surPatient(PatientEvenement evenement) {
+        Compteurs courants = compteurs;
+        if (courants == null) {
+            return;
+        }
+        if (evenement.actifAvant() != null) {
+            courants.appliquer(evenement.actifAvant(), -1);
+        }
+        if (evenement.actifApres() != null) {
+            courants.appliquer(evenement.actifApres(), 1);
+        }
+    }
+
+    public long getTotalRendezVous() {
+        return compteurs().totalRendezVous();
+    }
+
+    public long getRendezVousParStatut(RendezVousStatus statut) {
+        return compteurs().parStatut.get(statut).sum();
+    }
+
+    public long getRendezVousDuJour(LocalDate jour) {
+        return valeur(compteurs().parJour.get(jour));
+    }
+
+    public long getRendezVousDuMois(YearMonth mois) {
+        return valeur(compteurs().parMois.get(mois));
+    }
+
+    /** Rendez-vous débutant entre deux dates incluses : un compteur par mois complet, un par jour restant. */
+    public long getRendezVousEntre(LocalDate debut, LocalDate fin) {
+        Compteurs courants = compteurs();
+        long total = 0;
+        LocalDate jour = debut;
+        while (!jour.isAfter(fin)) {
+            YearMonth mois = YearMonth.from(jour);
+            if (jour.getDayOfMonth() == 1 && !mois.atEndOfMonth().isAfter(fin)) {
+                total += valeur(courants.parMois.get(mois));
+                jour = mois.plusMonths(1).atDay(1);
+            } else {
+                total += valeur(courants.parJour.get(jour));
+                jour = jour.plusDays(1);
+            }
+        }
+        return total;
+    }
+
+    public List<CompteMedecin> getTopMedecins(int limite) {
+        return compteurs().parMedecin.entrySet().stream()
+                .map(entree -> new CompteMedecin(entree.getKey(), entree.getValue().sum()))
+                .filter(compte -> compte.nombre() > 0)
+                .sorted(Comparator.comparingLong(CompteMedecin::nombre).reversed())
+                .limit(limite)
+                .toList();
+    }
+
+    public long getTotalMedecins() {
+        return compteurs().medecins.sum();
+    }
+
+    public long getMedecinsActifs() {
+        return compteurs().medecinsActifs.sum();
+    }
+
+    public Map<String, Long> getRepartitionParSpecialite() {
+        Map<String, Long> repartition = new TreeMap<>();
+        compteurs().medecinsActifsParSpecialite.forEach((specialite, nombre) -> {
+            if (nombre.sum() > 0) {
+                repartition.put(specialite.name(), nombre.sum());
+            }
+        });
+        return repartition;
+    }
+
+    public long getTotalPatients() {
+        return compteurs().patients.sum();
+    }
+
+    public long getPatientsActifs() {
+        return compteurs().patientsActifs.sum();
+    }
+
+    private Compteurs compteurs() {
+        Compteurs courants = compteurs;
+        if (courants == null) {
+            synchronized (this) {
+                if (compteurs == null) {
+                    reconcilier();
+                }
+                courants = compteurs;
+            }
+        }
+        return courants;
+    }
+
+    private static <K> LongAdder compteur(ConcurrentMap<K, LongAdder> compteurs, K cle) {
+        return compteurs.computeIfAbsent(cle, k -> new LongAdder());
+    }
+
+    private static long valeur(LongAdder compteur) {
+        return compteur != null ? compteur.sum() : 0L;
+    }
+
+    private static long nombre(Object valeur) {
+        return ((Number) valeur).longValue();
+    }
+
+    private static <E extends Enum<E>> Map<E, LongAdder> parEnum(Class<E> type) {
+        Map<E, LongAdder> compteurs = new EnumMap<>(type);
+        for (E constante : type.getEnumConstants()) {
+            compteurs.put(constante, new LongAdder());
+        }
+        return compteurs;
+    }
+
+    private static final class Compteurs {
+
+        // Clés enum pré-remplies : seules les valeurs changent après construction
+        final Map<RendezVousStatus, LongAdder> parStatut = parEnum(RendezVousStatus.class);
+        final ConcurrentMap<LocalDate, LongAdder> parJour = new ConcurrentHashMap<>();
+        final ConcurrentMap<YearMonth, LongAdder> parMois = new ConcurrentHashMap<>();
+        final ConcurrentMap<Long, LongAdder> parMedecin = new ConcurrentHashMap<>();
+        final Map<SpecialiteMedicale, LongAdder> medecinsActifsParSpecialite = parEnum(SpecialiteMedicale.class);
+        final LongAdder medecins = new LongAdder();
+        final LongAdder medecinsActifs = new LongAdder();
+        final LongAdder patients = new LongAdder();
+        final LongAdder patientsActifs = new LongAdder();
+
+        void appliquer(RendezVousEvenement.Etat etat, long delta) {
+            LocalDate jour = etat.dateHeureDebut().toLocalDate();
+            parStatut.get(etat.statut()).add(delta);
+            compteur(parJour, jour).add(delta);
+            compteur(parMois, YearMonth.from(jour)).add(delta);
+            compteur(parMedecin, etat.medecinId()).add(delta);
+        }
+
+        void appliquer(MedecinEvenement.Etat etat, long delta) {
+            medecins.add(delta);
+            if (etat.actif()) {
+                medecinsActifs.add(delta);
+                medecinsActifsParSpecialite.get(etat.specialite()).add(delta);
+            }
+        }
+
+        void appliquer(Boolean patientActif, long delta) {
+            patients.add(delta);
+            if (Boolean.TRUE.equals(patientActif)) {
+                patientsActifs.add(delta);
+            }
+        }
+
+        long totalRendezVous() {
+            return parStatut.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import ci.hardwork.gestionrdvservice.core.dto.StatistiquesDTO;
 import ci.hardwork.gestionrdvservice.core.service.RendezVousService;
 import ci.hardwork.gestionrdvservice.core.service.PatientService;
 import ci.hardwork.gestionrdvservice.core.service.MedecinService;
+import ci.hardwork.gestionrdvservice.core.service.TableauDeBordService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -28,6 +29,7 @@ public class AdminController {
     private final RendezVousService rendezVousService;
     private final PatientService patientService;
     private final MedecinService medecinService;
+    private final TableauDeBordService tableauDeBordService;
     
     @GetMapping("/stats/globales")
     @Operation(summary = "Récupérer les statistiques globales du système")
@@ -99,38 +101,7 @@ public class AdminController {
     @Operation(summary = "Récupérer toutes les données pour le dashboard admin")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
         log.info("Récupération des données complètes du dashboard admin");
-        
-        Map<String, Object> dashboard = new HashMap<>();
-        
-        // Stats globales
-        dashboard.put("globales", getStatistiquesGlobales().getBody());
-        
-        // Stats de la semaine
-        LocalDate now = LocalDate.now();
-        LocalDate debutSemaine = now.minusDays(7);
-        dashboard.put("semaine", getStatistiquesPeriode(debutSemaine, now).getBody());
-        
-        // Stats du mois
-        LocalDate debutMois = now.withDayOfMonth(1);
-        dashboard.put("mois", getStatistiquesPeriode(debutMois, now).getBody());
-        
-        // Évolution mensuelle (6 derniers mois)
-        Map<String, Integer> evolutionMensuelle = new HashMap<>();
-        for (int i = 5; i >= 0; i--) {
-            LocalDate debutMoisI = now.minusMonths(i).withDayOfMonth(1);
-            LocalDate finMoisI = debutMoisI.withDayOfMonth(debutMoisI.lengthOfMonth());
-            
-            int rdvMois = rendezVousService.countRendezVousByDateRange(
-                debutMoisI.atStartOfDay(), 
-                finMoisI.atTime(23, 59, 59)
-            );
-            
-            String moisNom = debutMoisI.getMonth().name();
-            evolutionMensuelle.put(moisNom, rdvMois);
-        }
-        dashboard.put("evolutionMensuelle", evolutionMensuelle);
-        
-        return ResponseEntity.ok(dashboard);
+        return ResponseEntity.ok(tableauDeBordService.getTableauDeBord(LocalDate.now()));
     }
     
     @GetMapping("/stats/activite-recente")
@@ -0,0 +1,61 @@
+package ci.hardwork.gestionrdvservice.web.controller;
+
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import ci.hardwork.gestionrdvservice.core.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/export")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Export", description = "API d'export des rendez-vous pour le reporting")
+public class ExportController {
+    
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+    
+    private final ExportService exportService;
+    
+    @GetMapping("/rdv")
+    @Operation(summary = "Exporter les rendez-vous d'une période", 
+               description = "Écrit les rendez-vous au fil de la lecture (NDJSON ou CSV), sans charger la période en mémoire")
+    @ApiResponse(responseCode = "200", description = "Export en cours de transmission")
+    @ApiResponse(responseCode = "400", description = "Période invalide")
+    public ResponseEntity<StreamingResponseBody> exporterRendezVous(
+            @Parameter(description = "Début de période (inclus)") 
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime debut,
+            @Parameter(description = "Fin de période (exclue)") 
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fin,
+            @Parameter(description = "ID du médecin") @RequestParam(required = false) Long medecinId,
+            @Parameter(description = "Statut des rendez-vous") @RequestParam(required = false) RendezVousStatus statut,
+            @Parameter(description = "Format de sortie") @RequestParam(defaultValue = "NDJSON") ExportService.Format format) {
+        
+        log.info("Demande d'export des rendez-vous du {} au {} au format {}", debut, fin, format);
+        try {
+            exportService.validerPeriode(debut, fin);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        // La transaction de lecture s'ouvre dans le thread d'écriture de la réponse
+        StreamingResponseBody corps = sortie -> exportService.exporterRendezVous(debut, fin, medecinId, statut, format, sortie);
+        String extension = format == ExportService.Format.CSV ? "csv" : "ndjson";
+        return ResponseEntity.ok()
+                .contentType(format == ExportService.Format.CSV ? TEXT_CSV : APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"rendez-vous." + extension + "\"")
+                .body(corps);
+    }
+}
@@ -52,6 +52,16 @@ public class MedecinController {
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    @GetMapping("/utilisateur/{userId}")
+    @Operation(summary = "Récupérer un médecin par son compte utilisateur")
+    @ApiResponse(responseCode = "200", description = "Médecin trouvé")
+    @ApiResponse(responseCode = "404", description = "Médecin non trouvé")
+    public ResponseEntity<MedecinResponseDTO> getMedecinByUserId(@PathVariable Long userId) {
+        return medecinService.getMedecinByUserId(userId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
     @GetMapping
     @Operation(summary = "Lister tous les médecins")
     public ResponseEntity<Page<MedecinResponseDTO>> getAllMedecins(Pageable pageable) {
@@ -66,6 +76,21 @@ public class MedecinController {
         return ResponseEntity.ok(medecins);
     }
     
+    @GetMapping("/recherche")
+    @Operation(summary = "Recherche approximative de médecins actifs", description = "Recherche par nom complet tolérante aux accents, aux fautes de frappe et à la saisie partielle, classée par pertinence")
+    @ApiResponse(responseCode = "200", description = "Médecins les plus proches de la requête")
+    @ApiResponse(responseCode = "400", description = "Limite invalide")
+    public ResponseEntity<List<MedecinResponseDTO>> rechercherMedecins(
+            @Parameter(description = "Texte saisi (nom et/ou prénom)") @RequestParam String q,
+            @Parameter(description = "Nombre maximum de résultats (1 à 50)") @RequestParam(defaultValue = "10") int limite) {
+        try {
+            return ResponseEntity.ok(medecinService.rechercherMedecins(q, limite));
+        } catch (IllegalArgumentException e) {
+            log.error("Erreur lors de la recherche de médecins: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/specialite/{specialite}")
     @Operation(summary = "Rechercher des médecins par spécialité")
     public ResponseEntity<List<MedecinResponseDTO>> getMedecinsBySpecialite(@PathVariable SpecialiteMedicale specialite) {
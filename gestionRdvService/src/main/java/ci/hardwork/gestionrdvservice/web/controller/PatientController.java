@@ -72,6 +72,17 @@ public class PatientController {
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    @GetMapping("/utilisateur/{userId}")
+    @Operation(summary = "Rechercher un patient par compte utilisateur", description = "Trouve le patient rattaché à un compte d'auth-service")
+    @ApiResponse(responseCode = "200", description = "Patient trouvé")
+    @ApiResponse(responseCode = "404", description = "Patient non trouvé")
+    public ResponseEntity<PatientResponseDTO> getPatientByUserId(@Parameter(description = "ID du compte utilisateur") @PathVariable Long userId) {
+        log.debug("Recherche du patient avec l'utilisateur: {}", userId);
+        return patientService.getPatientByUserId(userId)
+                .map(patient -> ResponseEntity.ok(patient))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
     @GetMapping("/email/{email}")
     @Operation(summary = "Rechercher un patient par email", description = "Trouve un patient par son adresse email")
     @ApiResponse(responseCode = "200", description = "Patient trouvé")
@@ -94,6 +105,21 @@ public class PatientController {
         return ResponseEntity.ok(patients);
     }
     
+    @GetMapping("/recherche")
+    @Operation(summary = "Recherche approximative de patients", description = "Recherche par nom complet tolérante aux accents, aux fautes de frappe et à la saisie partielle, classée par pertinence")
+    @ApiResponse(responseCode = "200", description = "Patients les plus proches de la requête")
+    @ApiResponse(responseCode = "400", description = "Limite invalide")
+    public ResponseEntity<List<PatientResponseDTO>> rechercherPatients(
+            @Parameter(description = "Texte saisi (nom et/ou prénom)") @RequestParam String q,
+            @Parameter(description = "Nombre maximum de résultats (1 à 50)") @RequestParam(defaultValue = "10") int limite) {
+        try {
+            return ResponseEntity.ok(patientService.rechercherPatients(q, limite));
+        } catch (IllegalArgumentException e) {
+            log.error("Erreur lors de la recherche de patients: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PutMapping("/{id}")
     @Operation(summary = "Mettre à jour un patient", description = "Met à jour les informations d'un patient existant")
     @ApiResponse(responseCode = "200", description = "Patient mis à jour avec succès")
@@ -1,20 +1,37 @@
 package ci.hardwork.gestionrdvservice.web.controller;
 
+import ci.hardwork.gestionrdvservice.core.dto.ChangementPlanningDTO;
+import ci.hardwork.gestionrdvservice.core.dto.PageCurseurDTO;
+import ci.hardwork.gestionrdvservice.core.dto.PremierCreneauDTO;
 import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
+import ci.hardwork.gestionrdvservice.core.models.enums.SpecialiteMedicale;
+import ci.hardwork.gestionrdvservice.core.planning.AbonnementsPlanning;
+import ci.hardwork.gestionrdvservice.core.planning.InstantanePlanning;
+import ci.hardwork.gestionrdvservice.core.planning.InstantanesPlanning;
+import ci.hardwork.gestionrdvservice.core.service.DisponibiliteService;
 import ci.hardwork.gestionrdvservice.core.service.RendezVousService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/planning")
@@ -24,6 +41,9 @@ import java.util.List;
 public class PlanningController {
     
     private final RendezVousService rendezVousService;
+    private final DisponibiliteService disponibiliteService;
+    private final InstantanesPlanning instantanesPlanning;
+    private final AbonnementsPlanning abonnementsPlanning;
     
     @GetMapping("/medecin/{medecinId}")
     @Operation(summary = "Récupérer le planning d'un médecin", 
@@ -35,18 +55,42 @@ public class PlanningController {
         return ResponseEntity.ok(planning);
     }
     
+    @GetMapping("/medecin/{medecinId}/curseur")
+    @Operation(summary = "Récupérer le planning d'un médecin par curseur", 
+               description = "Pagination par (date de début, id) : le temps de réponse ne dépend pas de la profondeur")
+    @ApiResponse(responseCode = "200", description = "Page du planning récupérée avec succès")
+    @ApiResponse(responseCode = "400", description = "Curseur ou taille de page invalide")
+    public ResponseEntity<PageCurseurDTO<RendezVousResponseDTO>> getPlanningMedecinParCurseur(
+            @Parameter(description = "ID du médecin") @PathVariable Long medecinId,
+            @Parameter(description = "Curseur renvoyé par la page précédente") @RequestParam(required = false) String curseur,
+            @Parameter(description = "Nombre de rendez-vous par page") @RequestParam(defaultValue = "50") int taille) {
+        
+        log.debug("Récupération d'une page du planning pour le médecin ID: {}", medecinId);
+        try {
+            return ResponseEntity.ok(rendezVousService.getRendezVousByMedecin(medecinId, curseur, taille));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/medecin/{medecinId}/date/{date}")
     @Operation(summary = "Récupérer le planning d'un médecin pour une date", 
-               description = "Retourne les rendez-vous d'un médecin pour une date spécifique")
-    @ApiResponse(responseCode = "200", description = "Planning quotidien récupéré avec succès")
-    public ResponseEntity<List<RendezVousResponseDTO>> getPlanningMedecinParDate(
+               description = "Retourne les rendez-vous d'un médecin pour une date spécifique. "
+                           + "Réponse 304 si l'ETag envoyé dans If-None-Match est toujours à jour")
+    @ApiResponse(responseCode = "200", description = "Planning quotidien récupéré avec succès",
+                 content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    array = @ArraySchema(schema = @Schema(implementation = RendezVousResponseDTO.class))))
+    @ApiResponse(responseCode = "304", description = "Planning inchangé depuis l'ETag fourni")
+    public ResponseEntity<byte[]> getPlanningMedecinParDate(
             @Parameter(description = "ID du médecin") @PathVariable Long medecinId,
             @Parameter(description = "Date au format YYYY-MM-DD") 
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest requete) {
         
         log.debug("Récupération du planning pour le médecin ID: {} à la date: {}", medecinId, date);
-        List<RendezVousResponseDTO> planning = rendezVousService.getRendezVousByMedecinAndDate(medecinId, date);
-        return ResponseEntity.ok(planning);
+        InstantanePlanning planning = instantanesPlanning.planningMedecin(medecinId, date,
+                () -> rendezVousService.getRendezVousByMedecinAndDate(medecinId, date));
+        return repondre(planning, requete);
     }
     
     @GetMapping("/patient/{patientId}")
@@ -59,6 +103,24 @@ public class PlanningController {
         return ResponseEntity.ok(planning);
     }
     
+    @GetMapping("/patient/{patientId}/curseur")
+    @Operation(summary = "Récupérer le planning d'un patient par curseur", 
+               description = "Du rendez-vous le plus récent au plus ancien")
+    @ApiResponse(responseCode = "200", description = "Page du planning patient récupérée avec succès")
+    @ApiResponse(responseCode = "400", description = "Curseur ou taille de page invalide")
+    public ResponseEntity<PageCurseurDTO<RendezVousResponseDTO>> getPlanningPatientParCurseur(
+            @Parameter(description = "ID du patient") @PathVariable Long patientId,
+            @Parameter(description = "Curseur renvoyé par la page précédente") @RequestParam(required = false) String curseur,
+            @Parameter(description = "Nombre de rendez-vous par page") @RequestParam(defaultValue = "50") int taille) {
+        
+        log.debug("Récupération d'une page du planning pour le patient ID: {}", patientId);
+        try {
+            return ResponseEntity.ok(rendezVousService.getRendezVousByPatient(patientId, curseur, taille));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/patient/{patientId}/periode")
     @Operation(summary = "Récupérer le planning d'un patient sur une période", 
                description = "Retourne les rendez-vous d'un patient entre deux dates")
@@ -88,14 +150,80 @@ public class PlanningController {
         return ResponseEntity.ok(planning);
     }
     
+    @GetMapping("/jour/{date}/curseur")
+    @Operation(summary = "Récupérer le planning général du jour par curseur", 
+               description = "Retourne une page des rendez-vous planifiés pour une date donnée")
+    @ApiResponse(responseCode = "200", description = "Page du planning du jour récupérée avec succès")
+    @ApiResponse(responseCode = "400", description = "Curseur ou taille de page invalide")
+    public ResponseEntity<PageCurseurDTO<RendezVousResponseDTO>> getPlanningDuJourParCurseur(
+            @Parameter(description = "Date au format YYYY-MM-DD") 
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @Parameter(description = "Curseur renvoyé par la page précédente") @RequestParam(required = false) String curseur,
+            @Parameter(description = "Nombre de rendez-vous par page") @RequestParam(defaultValue = "50") int taille) {
+        
+        log.debug("Récupération d'une page du planning général pour le: {}", date);
+        try {
+            return ResponseEntity.ok(rendezVousService.getRendezVousDuJour(date, curseur, taille));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/aujourd-hui")
     @Operation(summary = "Récupérer le planning d'aujourd'hui", 
-               description = "Retourne tous les rendez-vous planifiés pour aujourd'hui")
-    @ApiResponse(responseCode = "200", description = "Planning d'aujourd'hui récupéré avec succès")
-    public ResponseEntity<List<RendezVousResponseDTO>> getPlanningAujourdhui() {
+               description = "Retourne tous les rendez-vous planifiés pour aujourd'hui. "
+                           + "Réponse 304 si l'ETag envoyé dans If-None-Match est toujours à jour")
+    @ApiResponse(responseCode = "200", description = "Planning d'aujourd'hui récupéré avec succès",
+                 content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    array = @ArraySchema(schema = @Schema(implementation = RendezVousResponseDTO.class))))
+    @ApiResponse(responseCode = "304", description = "Planning inchangé depuis l'ETag fourni")
+    public ResponseEntity<byte[]> getPlanningAujourdhui(WebRequest requete) {
         log.debug("Récupération du planning d'aujourd'hui");
-        List<RendezVousResponseDTO> planning = rendezVousService.getRendezVousDuJour(LocalDate.now());
-        return ResponseEntity.ok(planning);
+        LocalDate aujourdhui = LocalDate.now();
+        InstantanePlanning planning = instantanesPlanning.planningGeneral(aujourdhui,
+                () -> rendezVousService.getRendezVousDuJour(aujourdhui));
+        return repondre(planning, requete);
+    }
+    
+    @GetMapping(value = "/flux/medecin/{medecinId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Suivre les changements du planning d'un médecin", 
+               description = "Flux Server-Sent Events : un événement 'planning' par création, modification, "
+                           + "confirmation ou annulation commitée d'un rendez-vous du médecin")
+    @ApiResponse(responseCode = "200", description = "Flux ouvert",
+                 content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                                    schema = @Schema(implementation = ChangementPlanningDTO.class)))
+    @ApiResponse(responseCode = "503", description = "Nombre maximum d'abonnés atteint")
+    public ResponseEntity<SseEmitter> suivrePlanningMedecin(
+            @Parameter(description = "ID du médecin") @PathVariable Long medecinId) {
+        
+        log.debug("Abonnement au planning du médecin ID: {}", medecinId);
+        try {
+            return ResponseEntity.ok(abonnementsPlanning.abonnerMedecin(medecinId));
+        } catch (IllegalStateException e) {
+            log.warn("Abonnement au planning du médecin ID: {} refusé: {}", medecinId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
+    @GetMapping(value = "/flux/jour/{date}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Suivre les changements du planning général d'un jour", 
+               description = "Flux Server-Sent Events : un événement 'planning' par changement commité "
+                           + "d'un rendez-vous de ce jour, tous médecins confondus")
+    @ApiResponse(responseCode = "200", description = "Flux ouvert",
+                 content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                                    schema = @Schema(implementation = ChangementPlanningDTO.class)))
+    @ApiResponse(responseCode = "503", description = "Nombre maximum d'abonnés atteint")
+    public ResponseEntity<SseEmitter> suivrePlanningDuJour(
+            @Parameter(description = "Date au format YYYY-MM-DD") 
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        
+        log.debug("Abonnement au planning général du: {}", date);
+        try {
+            return ResponseEntity.ok(abonnementsPlanning.abonnerJour(date));
+        } catch (IllegalStateException e) {
+            log.warn("Abonnement au planning général du {} refusé: {}", date, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
     }
     
     @GetMapping("/disponibilites/medecin/{medecinId}")
@@ -116,6 +244,55 @@ public class PlanningController {
         return ResponseEntity.ok(disponibilites);
     }
     
+    @GetMapping("/disponibilites/medecin/{medecinId}/periode")
+    @Operation(summary = "Récupérer les disponibilités d'un médecin sur une période", 
+               description = "Retourne, jour par jour, les créneaux libres d'un médecin entre deux dates (31 jours maximum)")
+    @ApiResponse(responseCode = "200", description = "Disponibilités récupérées avec succès")
+    @ApiResponse(responseCode = "400", description = "Période ou durée invalide")
+    public ResponseEntity<Map<LocalDate, List<LocalDateTime>>> getDisponibilitesMedecinPeriode(
+            @Parameter(description = "ID du médecin") @PathVariable Long medecinId,
+            @Parameter(description = "Date de début au format YYYY-MM-DD") 
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate debut,
+            @Parameter(description = "Date de fin au format YYYY-MM-DD (incluse)") 
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fin,
+            @Parameter(description = "Durée du rendez-vous en minutes (défaut: 30)") 
+            @RequestParam(defaultValue = "30") int dureeEnMinutes) {
+        
+        log.debug("Récupération des disponibilités pour le médecin ID: {} du {} au {} (durée: {} min)", 
+                medecinId, debut, fin, dureeEnMinutes);
+        try {
+            return ResponseEntity.ok(rendezVousService.getCreneauxLibresPeriode(medecinId, debut, fin, dureeEnMinutes));
+        } catch (IllegalArgumentException e) {
+            log.error("Erreur lors du calcul des disponibilités: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/premier-disponible")
+    @Operation(summary = "Rechercher les premiers créneaux disponibles", 
+               description = "Retourne les créneaux libres les plus proches, tous médecins confondus, pour une spécialité et une ville")
+    @ApiResponse(responseCode = "200", description = "Créneaux récupérés avec succès")
+    @ApiResponse(responseCode = "400", description = "Paramètres invalides")
+    public ResponseEntity<List<PremierCreneauDTO>> getPremiersCreneauxDisponibles(
+            @Parameter(description = "Spécialité recherchée") @RequestParam SpecialiteMedicale specialite,
+            @Parameter(description = "Ville du cabinet") @RequestParam String ville,
+            @Parameter(description = "Durée du rendez-vous en minutes (défaut: 30)") 
+            @RequestParam(defaultValue = "30") int duree,
+            @Parameter(description = "Nombre de créneaux à retourner (défaut: 10, max: 50)") 
+            @RequestParam(defaultValue = "10") int nombre,
+            @Parameter(description = "Nombre de jours explorés à partir d'aujourd'hui (défaut: 14, max: 31)") 
+            @RequestParam(defaultValue = "14") int jours) {
+        
+        log.debug("Recherche des premiers créneaux disponibles - Spécialité: {}, Ville: {}, Durée: {} min", 
+                specialite, ville, duree);
+        try {
+            return ResponseEntity.ok(disponibiliteService.getPremiersCreneauxDisponibles(specialite, ville, duree, nombre, jours));
+        } catch (IllegalArgumentException e) {
+            log.error("Erreur lors de la recherche des premiers créneaux: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/validation-creneau")
     @Operation(summary = "Valider un créneau", 
                description = "Vérifie si un créneau est disponible pour un médecin")
@@ -144,4 +321,19 @@ public class PlanningController {
         List<RendezVousResponseDTO> rappels = rendezVousService.getRendezVousRequiringReminder();
         return ResponseEntity.ok(rappels);
     }
+    
+    // Le client revalide à chaque interrogation ; un planning inchangé ne renvoie ni corps ni accès base
+    private static ResponseEntity<byte[]> repondre(InstantanePlanning planning, WebRequest requete) {
+        if (requete.checkNotModified(planning.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(planning.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(planning.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(planning.corps());
+    }
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -46,6 +47,25 @@ public class RendezVousController {
         }
     }
     
+    @PostMapping("/lot")
+    @Operation(summary = "Créer un lot de rendez-vous",
+               description = "Crée tous les rendez-vous du lot ou aucun ; en cas de refus, chaque ligne en erreur est détaillée")
+    @ApiResponse(responseCode = "201", description = "Lot créé en entier")
+    @ApiResponse(responseCode = "400", description = "Lot refusé : détail des lignes en erreur")
+    public ResponseEntity<RendezVousLotResultatDTO> createRendezVousLot(@Valid @RequestBody RendezVousLotDTO lotDTO) {
+        log.info("Création d'un lot de {} rendez-vous", lotDTO.getRendezVous().size());
+        try {
+            RendezVousLotResultatDTO resultat = rendezVousService.createRendezVousLot(lotDTO.getRendezVous());
+            if (!resultat.isAccepte()) {
+                return ResponseEntity.badRequest().body(resultat);
+            }
+            return new ResponseEntity<>(resultat, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            log.error("Erreur lors de la création du lot de rendez-vous: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Récupérer un rendez-vous par ID")
     @ApiResponse(responseCode = "200", description = "Rendez-vous trouvé")
@@ -63,6 +83,21 @@ public class RendezVousController {
         return ResponseEntity.ok(rendezVous);
     }
     
+    @GetMapping("/curseur")
+    @Operation(summary = "Lister tous les rendez-vous par curseur",
+               description = "Pagination par (date de début, id) : le temps de réponse ne dépend pas de la profondeur")
+    @ApiResponse(responseCode = "200", description = "Page récupérée avec succès")
+    @ApiResponse(responseCode = "400", description = "Curseur ou taille de page invalide")
+    public ResponseEntity<PageCurseurDTO<RendezVousResponseDTO>> getAllRendezVousParCurseur(
+            @Parameter(description = "Curseur renvoyé par la page précédente") @RequestParam(required = false) String curseur,
+            @RequestParam(defaultValue = "50") int taille) {
+        try {
+            return ResponseEntity.ok(rendezVousService.getAllRendezVous(curseur, taille));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/patient/{patientId}")
     @Operation(summary = "Récupérer les rendez-vous d'un patient")
     public ResponseEntity<List<RendezVousResponseDTO>> getRendezVousByPatient(@PathVariable Long patientId) {
@@ -70,6 +105,20 @@ public class RendezVousController {
         return ResponseEntity.ok(rendezVous);
     }
     
+    @GetMapping("/patient/{patientId}/curseur")
+    @Operation(summary = "Récupérer les rendez-vous d'un patient par curseur", description = "Du plus récent au plus ancien")
+    @ApiResponse(responseCode = "400", description = "Curseur ou taille de page invalide")
+    public ResponseEntity<PageCurseurDTO<RendezVousResponseDTO>> getRendezVousByPatientParCurseur(
+            @PathVariable Long patientId,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(defaultValue = "50") int taille) {
+        try {
+            return ResponseEntity.ok(rendezVousService.getRendezVousByPatient(patientId, curseur, taille));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/medecin/{medecinId}")
     @Operation(summary = "Récupérer les rendez-vous d'un médecin")
     public ResponseEntity<List<RendezVousResponseDTO>> getRendezVousByMedecin(@PathVariable Long medecinId) {
@@ -77,6 +126,20 @@ public class RendezVousController {
         return ResponseEntity.ok(rendezVous);
     }
     
+    @GetMapping("/medecin/{medecinId}/curseur")
+    @Operation(summary = "Récupérer les rendez-vous d'un médecin par curseur")
+    @ApiResponse(responseCode = "400", description = "Curseur ou taille de page invalide")
+    public ResponseEntity<PageCurseurDTO<RendezVousResponseDTO>> getRendezVousByMedecinParCurseur(
+            @PathVariable Long medecinId,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(defaultValue = "50") int taille) {
+        try {
+            return ResponseEntity.ok(rendezVousService.getRendezVousByMedecin(medecinId, curseur, taille));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/medecin/{medecinId}/date/{date}")
     @Operation(summary = "Récupérer les rendez-vous d'un médecin pour une date donnée")
     public ResponseEntity<List<RendezVousResponseDTO>> getRendezVousByMedecinAndDate(
@@ -103,6 +166,20 @@ public class RendezVousController {
         return ResponseEntity.ok(rendezVous);
     }
     
+    @GetMapping("/statut/{status}/curseur")
+    @Operation(summary = "Récupérer les rendez-vous par statut par curseur")
+    @ApiResponse(responseCode = "400", description = "Curseur ou taille de page invalide")
+    public ResponseEntity<PageCurseurDTO<RendezVousResponseDTO>> getRendezVousByStatusParCurseur(
+            @PathVariable RendezVousStatus status,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(defaultValue = "50") int taille) {
+        try {
+            return ResponseEntity.ok(rendezVousService.getRendezVousByStatus(status, curseur, taille));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/aujourdhui")
     @Operation(summary = "Récupérer les rendez-vous du jour")
     public ResponseEntity<List<RendezVousResponseDTO>> getRendezVousDuJour() {
@@ -110,6 +187,19 @@ public class RendezVousController {
         return ResponseEntity.ok(rendezVous);
     }
     
+    @GetMapping("/aujourdhui/curseur")
+    @Operation(summary = "Récupérer les rendez-vous du jour par curseur")
+    @ApiResponse(responseCode = "400", description = "Curseur ou taille de page invalide")
+    public ResponseEntity<PageCurseurDTO<RendezVousResponseDTO>> getRendezVousDuJourParCurseur(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(defaultValue = "50") int taille) {
+        try {
+            return ResponseEntity.ok(rendezVousService.getRendezVousDuJour(LocalDate.now(), curseur, taille));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/rappels-requis")
     @Operation(summary = "Récupérer les rendez-vous nécessitant un rappel")
     public ResponseEntity<List<RendezVousResponseDTO>> getRendezVousRequiringReminder() {
@@ -122,6 +212,7 @@ public class RendezVousController {
     @ApiResponse(responseCode = "200", description = "Rendez-vous mis à jour avec succès")
     @ApiResponse(responseCode = "400", description = "Données invalides")
     @ApiResponse(responseCode = "404", description = "Rendez-vous non trouvé")
+    @ApiResponse(responseCode = "409", description = "Rendez-vous modifié en parallèle, à relire avant de réessayer")
     public ResponseEntity<RendezVousResponseDTO> updateRendezVous(
             @PathVariable Long id, @Valid @RequestBody RendezVousCreateDTO rendezVousUpdateDTO) {
         try {
@@ -129,11 +220,15 @@ public class RendezVousController {
             return ResponseEntity.ok(updatedRendezVous);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Modification concurrente du rendez-vous ID: {}", id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
     
     @PatchMapping("/{id}/statut")
     @Operation(summary = "Mettre à jour le statut d'un rendez-vous")
+    @ApiResponse(responseCode = "409", description = "Rendez-vous modifié en parallèle, à relire avant de réessayer")
     public ResponseEntity<RendezVousResponseDTO> updateStatut(
             @PathVariable Long id, @RequestParam RendezVousStatus nouveauStatut) {
         try {
@@ -141,6 +236,9 @@ public class RendezVousController {
             return ResponseEntity.ok(updatedRendezVous);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Modification concurrente du rendez-vous ID: {}", id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
     
@@ -152,6 +250,9 @@ public class RendezVousController {
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Modification concurrente du rendez-vous ID: {}", id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
     
@@ -164,6 +265,9 @@ public class RendezVousController {
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Modification concurrente du rendez-vous ID: {}", id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
     
@@ -0,0 +1,122 @@
+package ci.hardwork.gestionrdvservice.web.controller;
+
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
+import ci.hardwork.gestionrdvservice.core.dto.SerieRendezVousDTO;
+import ci.hardwork.gestionrdvservice.core.service.SerieRendezVousService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/series")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Séries de rendez-vous", description = "API de gestion des rendez-vous récurrents")
+public class SerieRendezVousController {
+    
+    private final SerieRendezVousService serieRendezVousService;
+    
+    @PostMapping
+    @Operation(summary = "Créer une série de rendez-vous",
+               description = "Enregistre la règle de récurrence ; toutes les occurrences doivent être disponibles")
+    @ApiResponse(responseCode = "201", description = "Série créée avec succès")
+    @ApiResponse(responseCode = "400", description = "Données invalides ou occurrence non disponible")
+    public ResponseEntity<SerieRendezVousDTO> createSerie(@Valid @RequestBody SerieRendezVousDTO serieDTO) {
+        log.info("Création d'une série de rendez-vous - Patient: {}, Médecin: {}",
+                serieDTO.getPatientId(), serieDTO.getMedecinId());
+        try {
+            SerieRendezVousDTO createdSerie = serieRendezVousService.createSerie(serieDTO);
+            return new ResponseEntity<>(createdSerie, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            log.error("Erreur lors de la création de la série: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/{id}")
+    @Operation(summary = "Récupérer une série par ID")
+    @ApiResponse(responseCode = "200", description = "Série trouvée")
+    @ApiResponse(responseCode = "404", description = "Série non trouvée")
+    public ResponseEntity<SerieRendezVousDTO> getSerieById(@PathVariable Long id) {
+        return serieRendezVousService.getSerieById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/patient/{patientId}")
+    @Operation(summary = "Récupérer les séries actives d'un patient")
+    public ResponseEntity<List<SerieRendezVousDTO>> getSeriesActivesByPatient(@PathVariable Long patientId) {
+        return ResponseEntity.ok(serieRendezVousService.getSeriesActivesByPatient(patientId));
+    }
+    
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Arrêter une série", description = "Les occurrences déjà enregistrées sont conservées")
+    public ResponseEntity<Void> arreterSerie(@PathVariable Long id) {
+        try {
+            serieRendezVousService.arreterSerie(id);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @PatchMapping("/{id}/occurrences/confirmer")
+    @Operation(summary = "Confirmer une occurrence", description = "Enregistre l'occurrence comme rendez-vous confirmé")
+    @ApiResponse(responseCode = "200", description = "Occurrence confirmée")
+    @ApiResponse(responseCode = "400", description = "Date hors série ou occurrence déjà enregistrée")
+    public ResponseEntity<RendezVousResponseDTO> confirmerOccurrence(
+            @PathVariable Long id,
+            @Parameter(description = "Date prévue de l'occurrence") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime date) {
+        try {
+            return ResponseEntity.ok(serieRendezVousService.confirmerOccurrence(id, date));
+        } catch (IllegalArgumentException e) {
+            log.error("Erreur lors de la confirmation de l'occurrence: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PatchMapping("/{id}/occurrences/deplacer")
+    @Operation(summary = "Déplacer une occurrence", description = "Enregistre l'occurrence comme rendez-vous sur le nouveau créneau")
+    @ApiResponse(responseCode = "200", description = "Occurrence déplacée")
+    @ApiResponse(responseCode = "400", description = "Date hors série, occurrence déjà enregistrée ou créneau non disponible")
+    public ResponseEntity<RendezVousResponseDTO> deplacerOccurrence(
+            @PathVariable Long id,
+            @Parameter(description = "Date prévue de l'occurrence") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime date,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime debut,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fin) {
+        try {
+            return ResponseEntity.ok(serieRendezVousService.deplacerOccurrence(id, date, debut, fin));
+        } catch (IllegalArgumentException e) {
+            log.error("Erreur lors du déplacement de l'occurrence: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PatchMapping("/{id}/occurrences/annuler")
+    @Operation(summary = "Annuler une occurrence")
+    @ApiResponse(responseCode = "200", description = "Occurrence annulée")
+    @ApiResponse(responseCode = "400", description = "Date hors série ou occurrence déjà enregistrée")
+    public ResponseEntity<Void> annulerOccurrence(
+            @PathVariable Long id,
+            @Parameter(description = "Date prévue de l'occurrence") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime date,
+            @RequestParam String motifAnnulation) {
+        try {
+            serieRendezVousService.annulerOccurrence(id, date, motifAnnulation);
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException e) {
+            log.error("Erreur lors de l'annulation de l'occurrence: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package ci.hardwork.gestionrdvservice.benchmark;
+
+import ci.hardwork.gestionrdvservice.GestionRdvServiceApplication;
+import ci.hardwork.gestionrdvservice.core.models.Medecin;
+import ci.hardwork.gestionrdvservice.core.models.Patient;
+import ci.hardwork.gestionrdvservice.core.models.RendezVous;
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import ci.hardwork.gestionrdvservice.core.models.enums.SpecialiteMedicale;
+import ci.hardwork.gestionrdvservice.core.planning.RendezVousIntervalIndex;
+import ci.hardwork.gestionrdvservice.core.repository.MedecinRepository;
+import ci.hardwork.gestionrdvservice.core.repository.PatientRepository;
+import ci.hardwork.gestionrdvservice.core.repository.RendezVousRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare la détection de conflit par requête SQL (chemin historique) et par
+ * l'index en mémoire, sur l'agenda d'un médecin chargé de plusieurs milliers
+ * de rendez-vous. Base H2 du profil de test.
+ * Lancement : exécuter {@link #main(String[])} avec le classpath de test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConflitRendezVousBenchmark {
+
+    @Param({"1000", "10000"})
+    private int nombreRendezVous;
+
+    private ConfigurableApplicationContext context;
+    private RendezVousRepository rendezVousRepository;
+    private RendezVousIntervalIndex index;
+    private Long medecinId;
+    private LocalDateTime origine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(GestionRdvServiceApplication.class)
+                .profiles("test")
+                .properties("spring.main.web-application-type=none", "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.ci.hardwork.gestionrdvservice=WARN")
+                .run();
+        rendezVousRepository = context.getBean(RendezVousRepository.class);
+        index = context.getBean(RendezVousIntervalIndex.class);
+
+        Patient patient = new Patient();
+        patient.setUserId(1L);
+        patient.setNumeroSecuriteSociale("1234567890123");
+        patient.setNom("Bench");
+        patient.setPrenom("Patient");
+        patient = context.getBean(PatientRepository.class).save(patient);
+
+        Medecin medecin = new Medecin();
+        medecin.setUserId(2L);
+        medecin.setNumeroRPPS("12345678901");
+        medecin.setNom("Bench");
+        medecin.setPrenom("Medecin");
+        medecin.setSpecialite(SpecialiteMedicale.GENERALISTE);
+        medecin = context.getBean(MedecinRepository.class).save(medecin);
+        medecinId = medecin.getId();
+
+        // Rendez-vous de 30 minutes espacés d'une heure à partir de demain
+        origine = LocalDateTime.now().plusDays(1).withHour(8).withMinute(0).withSecond(0).withNano(0);
+        List<RendezVous> rendezVous = new ArrayList<>(nombreRendezVous);
+        for (int i = 0; i < nombreRendezVous; i++) {
+            RendezVous rdv = new RendezVous();
+            rdv.setPatient(patient);
+            rdv.setMedecin(medecin);
+            rdv.setDateHeureDebut(origine.plusHours(i));
+            rdv.setDateHeureFin(origine.plusHours(i).plusMinutes(30));
+            rdv.setStatut(RendezVousStatus.PLANIFIE);
+            rendezVous.add(rdv);
+        }
+        rendezVousRepository.saveAll(rendezVous);
+        index.invaliderTout();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void requeteSql(Blackhole blackhole) {
+        LocalDateTime debut = debutAleatoire();
+        blackhole.consume(rendezVousRepository.findConflictingRendezVous(medecinId, debut, debut.plusMinutes(30)).isEmpty());
+    }
+
+    @Benchmark
+    public void indexEnMemoire(Blackhole blackhole) {
+        LocalDateTime debut = debutAleatoire();
+        blackhole.consume(index.estLibre(medecinId, debut, debut.plusMinutes(30), null));
+    }
+
+    private LocalDateTime debutAleatoire() {
+        return origine.plusMinutes(15L * ThreadLocalRandom.current().nextInt(nombreRendezVous * 4));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ConflitRendezVousBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,90 @@
+package ci.hardwork.gestionrdvservice.benchmark;
+
+import ci.hardwork.gestionrdvservice.core.models.CreneauDisponibilite;
+import ci.hardwork.gestionrdvservice.core.planning.CreneauOccupe;
+import ci.hardwork.gestionrdvservice.core.planning.DisponibiliteJour;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure le parcours du bitmap d'une journée chargée pour les créneaux libres, et
+ * compare le test de conflit sur la liste des rendez-vous et sur le bitmap.
+ * Lancement : exécuter {@link #main(String[])} avec le classpath de test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreneauxLibresBenchmark {
+
+    private static final Duration DUREE = Duration.ofMinutes(30);
+
+    /** Un rendez-vous de 15 minutes tous les {@code espacement} quarts d'heure. */
+    @Param({"2", "4"})
+    private int espacement;
+
+    private LocalDate jour;
+    private List<CreneauDisponibilite> plages;
+    private List<CreneauOccupe> occupes;
+    private DisponibiliteJour disponibilite;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jour = LocalDate.now().plusDays(1);
+        plages = List.of(plage(LocalTime.of(8, 0), LocalTime.of(12, 0)), plage(LocalTime.of(14, 0), LocalTime.of(19, 0)));
+
+        occupes = new ArrayList<>();
+        LocalDateTime debut = jour.atTime(8, 0);
+        for (long id = 1; debut.isBefore(jour.atTime(19, 0)); id++) {
+            occupes.add(new CreneauOccupe(id, debut, debut.plusMinutes(15)));
+            debut = debut.plusMinutes(15L * espacement);
+        }
+        disponibilite = DisponibiliteJour.construire(jour, plages, occupes);
+    }
+
+    @Benchmark
+    public void parcoursBitmap(Blackhole blackhole) {
+        blackhole.consume(disponibilite.creneauxLibres(DUREE, null));
+    }
+
+    @Benchmark
+    public void testConflitObjets(Blackhole blackhole) {
+        LocalDateTime debut = jour.atTime(10, 40);
+        LocalDateTime fin = debut.plus(DUREE);
+        blackhole.consume(occupes.stream().noneMatch(c -> c.chevauche(debut, fin)));
+    }
+
+    @Benchmark
+    public void testConflitBitmap(Blackhole blackhole) {
+        LocalDateTime debut = jour.atTime(10, 40);
+        blackhole.consume(disponibilite.estLibre(debut, debut.plus(DUREE), null));
+    }
+
+    private CreneauDisponibilite plage(LocalTime debut, LocalTime fin) {
+        CreneauDisponibilite plage = new CreneauDisponibilite();
+        plage.setJourSemaine(jour.getDayOfWeek());
+        plage.setHeureDebut(debut);
+        plage.setHeureFin(fin);
+        plage.setActif(true);
+        return plage;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CreneauxLibresBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
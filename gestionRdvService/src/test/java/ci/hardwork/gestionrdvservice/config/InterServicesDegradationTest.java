@@ -0,0 +1,206 @@
+package ci.hardwork.gestionrdvservice.config;
+
+import ci.hardwork.gestionrdvservice.core.dto.UserReference;
+import ci.hardwork.gestionrdvservice.core.service.impl.UserReferenceServiceImpl;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Appels vers un auth-service simulé par un serveur HTTP local : lent, en panne ou saturé,
+ * il ne doit ni bloquer l'appelant au-delà du délai de lecture ni continuer à être sollicité
+ * une fois le circuit ouvert.
+ */
+@DisplayName("Tests de dégradation du client inter-services")
+class InterServicesDegradationTest {
+
+    private static final int APPELS_AVANT_OUVERTURE = 4;
+
+    private HttpServer authService;
+    private ExecutorService executor;
+    private AtomicInteger appelsRecus;
+    private CountDownLatch liberation;
+    private CloseableHttpClient httpClient;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private SimpleMeterRegistry meterRegistry;
+    private RestTemplate restTemplate;
+    private String url;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        appelsRecus = new AtomicInteger();
+        executor = Executors.newCachedThreadPool();
+        liberation = new CountDownLatch(1);
+        authService = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        authService.createContext("/api/users/", this::repondre);
+        authService.setExecutor(executor);
+        authService.start();
+        url = "http://localhost:" + authService.getAddress().getPort() + "/api";
+
+        InterServicesProperties proprietes = new InterServicesProperties();
+        InterServicesProperties.Cible cible = new InterServicesProperties.Cible();
+        cible.setUrl(url);
+        cible.setConnexion(Duration.ofMillis(500));
+        cible.setLecture(Duration.ofSeconds(1));
+        proprietes.getCibles().put("auth-service", cible);
+
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(APPELS_AVANT_OUVERTURE)
+                .minimumNumberOfCalls(APPELS_AVANT_OUVERTURE)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        meterRegistry = new SimpleMeterRegistry();
+
+        AppConfig config = new AppConfig();
+        httpClient = config.httpClientInterServices(proprietes);
+        restTemplate = config.restTemplate(httpClient, proprietes, circuitBreakerRegistry, bulkheadRegistry, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        liberation.countDown();
+        authService.stop(0);
+        executor.shutdownNow();
+        httpClient.close();
+    }
+
+    @Test
+    @DisplayName("Doit abandonner un appel lent au délai de lecture et dégrader la réponse")
+    void shouldGiveUpSlowCallAtReadTimeout() {
+        // Given
+        UserReferenceServiceImpl userReferenceService = userReferenceService();
+
+        // When
+        long debut = System.nanoTime();
+        Optional<UserReference> utilisateur = userReferenceService.getUserById(1L);
+        Duration duree = Duration.ofNanos(System.nanoTime() - debut);
+
+        // Then
+        assertThat(utilisateur).isEmpty();
+        assertThat(duree).isLessThan(Duration.ofSeconds(3));
+        assertThat(meterRegistry.get(ResilienceInterServices.METRIQUE)
+                .tag("cible", "auth-service")
+                .tag("resultat", "erreur")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Doit ouvrir le circuit après des échecs répétés et ne plus solliciter le service")
+    void shouldOpenCircuitAfterRepeatedFailures() {
+        // Given
+        UserReferenceServiceImpl userReferenceService = userReferenceService();
+        for (long id = 500; id < 500 + APPELS_AVANT_OUVERTURE; id++) {
+            assertThat(userReferenceService.getUserById(id)).isEmpty();
+        }
+        assertThat(circuitBreakerRegistry.circuitBreaker("auth-service").getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        int appelsAvantOuverture = appelsRecus.get();
+
+        // When
+        long debut = System.nanoTime();
+        Optional<UserReference> utilisateur = userReferenceService.getUserById(2L);
+        Duration duree = Duration.ofNanos(System.nanoTime() - debut);
+
+        // Then : le service sain n'est même pas appelé
+        assertThat(utilisateur).isEmpty();
+        assertThat(appelsRecus.get()).isEqualTo(appelsAvantOuverture);
+        assertThat(duree).isLessThan(Duration.ofMillis(200));
+        assertThat(meterRegistry.get(ResilienceInterServices.METRIQUE)
+                .tag("resultat", "circuit-ouvert")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Doit refuser aussitôt un appel quand la cloison de la cible est pleine")
+    void shouldRejectCallWhenBulkheadIsFull() throws Exception {
+        // Given : un appel bloqué occupe l'unique place de la cloison
+        CompletableFuture<String> appelBloque = CompletableFuture.supplyAsync(
+                () -> restTemplate.getForObject(url + "/users/bloque", String.class));
+        while (appelsRecus.get() == 0) {
+            Thread.sleep(10);
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> restTemplate.getForObject(url + "/users/2", UserReference.class))
+                .isInstanceOf(ResourceAccessException.class)
+                .hasMessageContaining("Trop d'appels simultanés vers auth-service");
+        liberation.countDown();
+        appelBloque.handle((resultat, erreur) -> null).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Doit mesurer la durée des appels réussis par cible")
+    void shouldRecordLatencyOfSuccessfulCalls() {
+        // When
+        Optional<UserReference> utilisateur = userReferenceService().getUserById(2L);
+
+        // Then
+        assertThat(utilisateur).map(UserReference::getUsername).contains("user2");
+        assertThat(meterRegistry.get(ResilienceInterServices.METRIQUE)
+                .tag("cible", "auth-service")
+                .tag("resultat", "200")
+                .timer().count()).isEqualTo(1);
+    }
+
+    private UserReferenceServiceImpl userReferenceService() {
+        return new UserReferenceServiceImpl(restTemplate, Runnable::run, url, 1000,
+                Duration.ofMinutes(10), Duration.ofSeconds(30));
+    }
+
+    /** /users/2 répond aussitôt ; les autres chemins attendent la fin du test et dépassent le délai de lecture. */
+    private void repondre(HttpExchange echange) throws IOException {
+        appelsRecus.incrementAndGet();
+        String chemin = echange.getRequestURI().getPath();
+        try {
+            if (chemin.endsWith("/users/2")) {
+                byte[] corps = """
+                        {"id":2,"username":"user2","email":"user2@email.com","firstName":"Awa","lastName":"Traore","isEnabled":true}
+                        """.getBytes(StandardCharsets.UTF_8);
+                echange.getResponseHeaders().add("Content-Type", "application/json");
+                echange.sendResponseHeaders(200, corps.length);
+                try (OutputStream sortie = echange.getResponseBody()) {
+                    sortie.write(corps);
+                }
+                return;
+            }
+            liberation.await(3, TimeUnit.SECONDS);
+            echange.sendResponseHeaders(204, -1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            echange.close();
+        }
+    }
+}
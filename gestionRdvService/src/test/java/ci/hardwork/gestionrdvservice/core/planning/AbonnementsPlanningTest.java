@@ -0,0 +1,77 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import ci.hardwork.gestionrdvservice.core.evenements.RendezVousEvenement;
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests des abonnements au planning")
+class AbonnementsPlanningTest {
+
+    private static final int FILE_MAX = 2;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private LocalDateTime demain9h;
+
+    @BeforeEach
+    void setUp() {
+        demain9h = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @Test
+    @DisplayName("Doit garder un abonné qui suit le rythme des changements")
+    void shouldKeepSubscriberThatKeepsUp() {
+        // Given : chaque envoi part aussitôt
+        AbonnementsPlanning abonnements = abonnements(Runnable::run);
+        abonnements.abonnerMedecin(1L);
+
+        // When
+        for (long id = 1; id <= 5; id++) {
+            abonnements.surRendezVous(creation(id, 1L));
+        }
+
+        // Then
+        assertThat(abonnements.getNombreAbonnes()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Doit retirer un abonné dont la file déborde sans retenir les autres")
+    void shouldDropSlowSubscriberWithoutBlockingOthers() {
+        // Given : les envois restent en attente, comme derrière une connexion bloquée
+        List<Runnable> envois = new ArrayList<>();
+        AbonnementsPlanning abonnements = abonnements(envois::add);
+        abonnements.abonnerMedecin(1L);
+        abonnements.abonnerMedecin(2L);
+
+        // When
+        for (long id = 1; id <= FILE_MAX + 1; id++) {
+            abonnements.surRendezVous(creation(id, 1L));
+        }
+        abonnements.surRendezVous(creation(10L, 2L));
+
+        // Then : seul l'abonné du médecin 1 est retiré, un seul envoi en cours par abonné
+        assertThat(abonnements.getNombreAbonnes()).isEqualTo(1);
+        assertThat(envois).hasSize(2);
+        envois.forEach(Runnable::run);
+        assertThat(abonnements.getNombreAbonnes()).isEqualTo(1);
+    }
+
+    private AbonnementsPlanning abonnements(Executor executor) {
+        return new AbonnementsPlanning(objectMapper, executor, 100, Duration.ofMinutes(30), FILE_MAX);
+    }
+
+    private RendezVousEvenement creation(Long rendezVousId, Long medecinId) {
+        return new RendezVousEvenement(rendezVousId, null, new RendezVousEvenement.Etat(
+                medecinId, 1L, demain9h, demain9h.plusMinutes(30), RendezVousStatus.PLANIFIE));
+    }
+}
@@ -0,0 +1,259 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import ci.hardwork.gestionrdvservice.core.models.CreneauDisponibilite;
+import ci.hardwork.gestionrdvservice.core.models.Medecin;
+import ci.hardwork.gestionrdvservice.core.repository.CreneauDisponibiliteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de la carte des disponibilités")
+class CarteDisponibilitesTest {
+
+    private static final Duration TRENTE_MINUTES = Duration.ofMinutes(30);
+
+    @Mock
+    private CreneauDisponibiliteRepository creneauDisponibiliteRepository;
+
+    @Mock
+    private RendezVousIntervalIndex rendezVousIntervalIndex;
+
+    private CarteDisponibilites carte;
+    private LocalDate demain;
+
+    @BeforeEach
+    void setUp() {
+        carte = new CarteDisponibilites(creneauDisponibiliteRepository, rendezVousIntervalIndex, 100, Duration.ofHours(1));
+        demain = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    @DisplayName("Doit construire la journée une seule fois puis répondre depuis le cache")
+    void shouldBuildDayOnceThenServeFromCache() {
+        // Given
+        givenPlage(9, 10);
+        givenOccupes(new CreneauOccupe(5L, demain.atTime(9, 0), demain.atTime(9, 30)));
+
+        // When
+        List<LocalDateTime> premier = creneauxLibres();
+        List<LocalDateTime> second = creneauxLibres();
+
+        // Then
+        assertThat(premier).containsExactly(demain.atTime(9, 30));
+        assertThat(second).isEqualTo(premier);
+        verify(creneauDisponibiliteRepository, times(1)).findByMedecinIdInAndActifTrue(Set.of(1L));
+        verify(rendezVousIntervalIndex, times(1)).getCreneauxOccupes(anyCollection(), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Doit reconstruire la journée après expiration même consultée en continu")
+    void shouldRebuildDayAfterExpiration() {
+        // Given
+        carte = new CarteDisponibilites(creneauDisponibiliteRepository, rendezVousIntervalIndex, 100, Duration.ZERO);
+        givenPlage(9, 10);
+        givenOccupes();
+
+        // When
+        creneauxLibres();
+        carte.ajouter(1L, new CreneauOccupe(6L, demain.atTime(9, 30), demain.atTime(10, 0)));
+        creneauxLibres();
+
+        // Then
+        verify(creneauDisponibiliteRepository, times(2)).findByMedecinIdInAndActifTrue(Set.of(1L));
+        verify(rendezVousIntervalIndex, times(2)).getCreneauxOccupes(anyCollection(), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Doit construire toutes les journées manquantes d'une période en une lecture")
+    void shouldLoadMissingDaysOfPeriodTogether() {
+        // Given
+        givenPlage(9, 10);
+        givenOccupes();
+
+        // When
+        Map<LocalDate, List<LocalDateTime>> result = carte.getCreneauxLibres(1L, demain, demain.plusDays(6), TRENTE_MINUTES, null);
+
+        // Then
+        assertThat(result).hasSize(7);
+        assertThat(result.get(demain)).containsExactly(demain.atTime(9, 0), demain.atTime(9, 30));
+        assertThat(result.get(demain.plusDays(1))).isEmpty();
+        verify(rendezVousIntervalIndex).getCreneauxOccupes(Set.of(1L), demain.atStartOfDay(), demain.plusDays(7).atStartOfDay());
+    }
+
+    @Test
+    @DisplayName("Doit corriger la journée en place lors d'une réservation et d'une annulation")
+    void shouldPatchDayOnBookingAndCancellation() {
+        // Given
+        givenPlage(9, 10);
+        givenOccupes(new CreneauOccupe(5L, demain.atTime(9, 0), demain.atTime(9, 30)));
+        creneauxLibres();
+
+        // When & Then
+        CreneauOccupe reservation = new CreneauOccupe(6L, demain.atTime(9, 30), demain.atTime(10, 0));
+        carte.ajouter(1L, reservation);
+        assertThat(creneauxLibres()).isEmpty();
+
+        carte.retirer(1L, new CreneauOccupe(5L, demain.atTime(9, 0), demain.atTime(9, 30)));
+        assertThat(creneauxLibres()).containsExactly(demain.atTime(9, 0));
+
+        verify(creneauDisponibiliteRepository, times(1)).findByMedecinIdInAndActifTrue(Set.of(1L));
+    }
+
+    @Test
+    @DisplayName("Doit ouvrir une nouvelle plage sur les journées en cache")
+    void shouldOpenNewPlageOnCachedDays() {
+        // Given
+        givenPlage(9, 10);
+        givenOccupes();
+        creneauxLibres();
+
+        // When
+        carte.ajouterPlage(1L, plage(14, 15));
+
+        // Then
+        assertThat(creneauxLibres()).containsExactly(
+                demain.atTime(9, 0), demain.atTime(9, 30), demain.atTime(14, 0), demain.atTime(14, 30));
+    }
+
+    @Test
+    @DisplayName("Doit rester exact pour des rendez-vous hors de la grille de 5 minutes")
+    void shouldStayExactOffGrid() {
+        // Given
+        givenPlage(9, 10);
+        givenOccupes(new CreneauOccupe(5L, demain.atTime(9, 2), demain.atTime(9, 27)));
+
+        // When & Then
+        assertThat(carte.estLibre(1L, demain.atTime(9, 27), demain.atTime(9, 57), null)).isTrue();
+        assertThat(carte.estLibre(1L, demain.atTime(9, 20), demain.atTime(9, 40), null)).isFalse();
+        assertThat(carte.estLibre(1L, demain.atTime(9, 20), demain.atTime(9, 40), 5L)).isTrue();
+        // Les créneaux proposés ne touchent jamais un quantum occupé
+        assertThat(creneauxLibres()).containsExactly(demain.atTime(9, 30));
+    }
+
+    @Test
+    @DisplayName("Doit retirer les créneaux occupés et repartir de leur fin")
+    void shouldSubtractBookedIntervals() {
+        // Given
+        givenPlage(9, 11);
+        givenOccupes(new CreneauOccupe(5L, demain.atTime(9, 30), demain.atTime(9, 45)));
+
+        // When & Then
+        assertThat(creneauxLibres()).containsExactly(demain.atTime(9, 0), demain.atTime(9, 45), demain.atTime(10, 15));
+    }
+
+    @Test
+    @DisplayName("Ne doit proposer aucun créneau avant la borne au plus tôt")
+    void shouldNotReturnSlotsBeforeLowerBound() {
+        // Given
+        givenPlage(9, 11);
+        givenOccupes();
+
+        // When
+        List<LocalDateTime> creneaux = carte.getCreneauxLibres(1L, demain, demain, TRENTE_MINUTES, demain.atTime(9, 40)).get(demain);
+
+        // Then
+        assertThat(creneaux).containsExactly(demain.atTime(10, 0), demain.atTime(10, 30));
+    }
+
+    @Test
+    @DisplayName("Ne doit proposer que des créneaux acceptés par le contrôle des réservations")
+    void shouldOnlyOfferSlotsAcceptedByBookingCheck() {
+        // Given : rendez-vous hors grille et plage qui ne tombe pas sur un quantum
+        when(creneauDisponibiliteRepository.findByMedecinIdInAndActifTrue(Set.of(1L)))
+                .thenReturn(List.of(plage(LocalTime.of(8, 57), LocalTime.of(12, 0))));
+        givenOccupes(new CreneauOccupe(5L, demain.atTime(9, 32), demain.atTime(9, 41)),
+                new CreneauOccupe(6L, demain.atTime(10, 58), demain.atTime(11, 3)));
+
+        // When
+        List<LocalDateTime> creneaux = carte.getCreneauxLibres(1L, demain, demain, Duration.ofMinutes(20), null).get(demain);
+
+        // Then
+        assertThat(creneaux).isNotEmpty();
+        assertThat(creneaux).allMatch(debut -> carte.estLibre(1L, debut, debut.plusMinutes(20), null));
+        assertThat(creneaux).allMatch(debut -> !debut.toLocalTime().isBefore(LocalTime.of(8, 57)));
+    }
+
+    @Test
+    @DisplayName("Doit construire les journées de plusieurs médecins en une lecture groupée")
+    void shouldLoadSeveralDoctorsTogether() {
+        // Given
+        CreneauDisponibilite plageMedecin2 = plage(LocalTime.of(14, 0), LocalTime.of(15, 0));
+        plageMedecin2.setMedecin(medecin(2L));
+        when(creneauDisponibiliteRepository.findByMedecinIdInAndActifTrue(Set.of(1L, 2L)))
+                .thenReturn(List.of(plage(9, 10), plageMedecin2));
+        when(rendezVousIntervalIndex.getCreneauxOccupes(anyCollection(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Map.of(2L, List.of(new CreneauOccupe(7L, demain.atTime(14, 0), demain.atTime(14, 30)))));
+
+        // When
+        Map<Long, List<DisponibiliteJour>> journees = carte.getJournees(List.of(1L, 2L), demain, demain.plusDays(1));
+
+        // Then
+        assertThat(journees.get(1L)).extracting(DisponibiliteJour::getJour).containsExactly(demain, demain.plusDays(1));
+        assertThat(journees.get(1L).get(0).creneauxLibres(TRENTE_MINUTES, null))
+                .containsExactly(demain.atTime(9, 0), demain.atTime(9, 30));
+        assertThat(journees.get(2L).get(0).creneauxLibres(TRENTE_MINUTES, null)).containsExactly(demain.atTime(14, 30));
+        verify(creneauDisponibiliteRepository, times(1)).findByMedecinIdInAndActifTrue(anyCollection());
+        verify(rendezVousIntervalIndex, times(1)).getCreneauxOccupes(anyCollection(), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Doit déléguer à l'index un intervalle sur plusieurs jours")
+    void shouldDelegateMultiDayRangeToIndex() {
+        // Given
+        LocalDateTime debut = demain.atTime(23, 0);
+        when(rendezVousIntervalIndex.estLibre(1L, debut, debut.plusHours(2), null)).thenReturn(true);
+
+        // When & Then
+        assertThat(carte.estLibre(1L, debut, debut.plusHours(2), null)).isTrue();
+        verifyNoInteractions(creneauDisponibiliteRepository);
+    }
+
+    private List<LocalDateTime> creneauxLibres() {
+        return carte.getCreneauxLibres(1L, demain, demain, TRENTE_MINUTES, null).get(demain);
+    }
+
+    private void givenPlage(int heureDebut, int heureFin) {
+        when(creneauDisponibiliteRepository.findByMedecinIdInAndActifTrue(Set.of(1L))).thenReturn(List.of(plage(heureDebut, heureFin)));
+    }
+
+    private void givenOccupes(CreneauOccupe... occupes) {
+        when(rendezVousIntervalIndex.getCreneauxOccupes(anyCollection(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Map.of(1L, List.of(occupes)));
+    }
+
+    private CreneauDisponibilite plage(int heureDebut, int heureFin) {
+        return plage(LocalTime.of(heureDebut, 0), LocalTime.of(heureFin, 0));
+    }
+
+    private CreneauDisponibilite plage(LocalTime heureDebut, LocalTime heureFin) {
+        CreneauDisponibilite plage = new CreneauDisponibilite();
+        plage.setMedecin(medecin(1L));
+        plage.setJourSemaine(demain.getDayOfWeek());
+        plage.setHeureDebut(heureDebut);
+        plage.setHeureFin(heureFin);
+        plage.setActif(true);
+        return plage;
+    }
+
+    private Medecin medecin(Long id) {
+        Medecin medecin = new Medecin();
+        medecin.setId(id);
+        return medecin;
+    }
+}
@@ -0,0 +1,176 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
+import ci.hardwork.gestionrdvservice.core.evenements.PatientEvenement;
+import ci.hardwork.gestionrdvservice.core.evenements.RendezVousEvenement;
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests des instantanés de planning")
+class InstantanesPlanningTest {
+
+    private InstantanesPlanning instantanes;
+    private LocalDate demain;
+    private AtomicInteger chargements;
+
+    @BeforeEach
+    void setUp() {
+        instantanes = new InstantanesPlanning(new ObjectMapper().findAndRegisterModules(), 100, Duration.ofMinutes(15));
+        demain = LocalDate.now().plusDays(1);
+        chargements = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Doit construire l'instantané une seule fois puis le rendre tel quel")
+    void shouldBuildSnapshotOnceThenServeIt() {
+        // When
+        InstantanePlanning premier = instantanes.planningMedecin(1L, demain, planning(10L));
+        InstantanePlanning second = instantanes.planningMedecin(1L, demain, planning(10L));
+
+        // Then
+        assertThat(second).isSameAs(premier);
+        assertThat(chargements.get()).isEqualTo(1);
+        assertThat(new String(premier.corps(), StandardCharsets.UTF_8)).contains("\"id\":10");
+        assertThat(premier.etag()).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    @DisplayName("Doit reconstruire l'instantané après expiration même interrogé en continu")
+    void shouldRebuildSnapshotAfterExpiration() {
+        // Given
+        instantanes = new InstantanesPlanning(new ObjectMapper().findAndRegisterModules(), 100, Duration.ZERO);
+
+        // When
+        instantanes.planningMedecin(1L, demain, planning(10L));
+        instantanes.planningMedecin(1L, demain, planning(10L));
+
+        // Then
+        assertThat(chargements.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Ne doit invalider que la journée du médecin et le planning général de ce jour")
+    void shouldInvalidateOnlyTouchedDoctorDay() {
+        // Given
+        instantanes.planningMedecin(1L, demain, planning(10L));
+        instantanes.planningMedecin(2L, demain, planning(20L));
+        instantanes.planningMedecin(1L, demain.plusDays(1), planning(11L));
+        instantanes.planningGeneral(demain, planning(10L, 20L));
+        chargements.set(0);
+
+        // When
+        instantanes.surRendezVous(RendezVousEvenement.rappel(rendezVous(10L, 1L, demain.atTime(9, 0))));
+        instantanes.planningMedecin(1L, demain, planning(10L));
+        instantanes.planningMedecin(2L, demain, planning(20L));
+        instantanes.planningMedecin(1L, demain.plusDays(1), planning(11L));
+        instantanes.planningGeneral(demain, planning(10L, 20L));
+
+        // Then : seuls le médecin 1 et le planning général de demain sont reconstruits
+        assertThat(chargements.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Doit invalider l'ancien et le nouveau jour d'un rendez-vous déplacé")
+    void shouldInvalidateBothDaysOfMovedAppointment() {
+        // Given
+        LocalDate apresDemain = demain.plusDays(1);
+        InstantanePlanning avantDeplacement = instantanes.planningMedecin(1L, demain, planning(10L));
+        instantanes.planningMedecin(1L, apresDemain, planning());
+        chargements.set(0);
+        RendezVousEvenement.Etat avant = RendezVousEvenement.Etat.de(rendezVous(10L, 1L, demain.atTime(9, 0)));
+        RendezVousEvenement.Etat apres = RendezVousEvenement.Etat.de(rendezVous(10L, 1L, apresDemain.atTime(9, 0)));
+
+        // When
+        instantanes.surRendezVous(new RendezVousEvenement(10L, avant, apres));
+        InstantanePlanning jourQuitte = instantanes.planningMedecin(1L, demain, planning());
+        InstantanePlanning jourRejoint = instantanes.planningMedecin(1L, apresDemain, planning(10L));
+
+        // Then
+        assertThat(chargements.get()).isEqualTo(2);
+        assertThat(jourQuitte.etag()).isNotEqualTo(avantDeplacement.etag());
+        assertThat(jourRejoint.etag()).isEqualTo(avantDeplacement.etag());
+    }
+
+    @Test
+    @DisplayName("Doit garder le même ETag pour un contenu reconstruit à l'identique")
+    void shouldKeepEtagForIdenticalContent() {
+        // Given
+        InstantanePlanning avant = instantanes.planningMedecin(1L, demain, planning(10L));
+
+        // When
+        instantanes.invaliderTout();
+        InstantanePlanning apres = instantanes.planningMedecin(1L, demain, planning(10L));
+
+        // Then
+        assertThat(apres).isNotSameAs(avant);
+        assertThat(apres.etag()).isEqualTo(avant.etag());
+    }
+
+    @Test
+    @DisplayName("Ne doit pas garder un instantané lu pendant une invalidation")
+    void shouldNotKeepSnapshotBuiltDuringInvalidation() {
+        // Given : une écriture est commitée pendant la lecture du planning
+        Supplier<List<RendezVousResponseDTO>> lectureConcurrente = () -> {
+            chargements.incrementAndGet();
+            instantanes.surRendezVous(RendezVousEvenement.rappel(rendezVous(20L, 2L, demain.atTime(9, 0))));
+            return List.of();
+        };
+
+        // When
+        instantanes.planningMedecin(1L, demain, lectureConcurrente);
+        instantanes.planningMedecin(1L, demain, planning(10L));
+
+        // Then
+        assertThat(chargements.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Doit invalider tous les plannings à la modification d'un patient")
+    void shouldInvalidateEverythingOnPatientChange() {
+        // Given
+        instantanes.planningMedecin(1L, demain, planning(10L));
+        instantanes.planningGeneral(demain, planning(10L));
+        chargements.set(0);
+
+        // When
+        instantanes.surPatient(new PatientEvenement(5L, true, true));
+        instantanes.planningMedecin(1L, demain, planning(10L));
+        instantanes.planningGeneral(demain, planning(10L));
+
+        // Then
+        assertThat(chargements.get()).isEqualTo(2);
+    }
+
+    private Supplier<List<RendezVousResponseDTO>> planning(Long... ids) {
+        return () -> {
+            chargements.incrementAndGet();
+            return List.of(ids).stream()
+                    .map(id -> rendezVous(id, 1L, demain.atTime(9, 0)))
+                    .toList();
+        };
+    }
+
+    private RendezVousResponseDTO rendezVous(Long id, Long medecinId, LocalDateTime debut) {
+        RendezVousResponseDTO dto = new RendezVousResponseDTO();
+        dto.setId(id);
+        dto.setMedecinId(medecinId);
+        dto.setPatientId(5L);
+        dto.setDateHeureDebut(debut);
+        dto.setDateHeureFin(debut.plusMinutes(30));
+        dto.setStatut(RendezVousStatus.PLANIFIE);
+        return dto;
+    }
+}
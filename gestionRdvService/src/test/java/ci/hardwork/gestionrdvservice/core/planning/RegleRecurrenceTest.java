@@ -0,0 +1,82 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import ci.hardwork.gestionrdvservice.core.models.enums.FrequenceRecurrence;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests de la règle de récurrence")
+class RegleRecurrenceTest {
+
+    private static final LocalDateTime LUNDI_10H = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    @Test
+    @DisplayName("Doit développer une série hebdomadaire sur la période demandée")
+    void shouldExpandWeeklySeriesOverPeriod() {
+        // Given : kinésithérapie chaque lundi pendant dix semaines
+        RegleRecurrence regle = new RegleRecurrence(LUNDI_10H, Duration.ofMinutes(45), FrequenceRecurrence.HEBDOMADAIRE,
+                1, LUNDI_10H.toLocalDate().plusWeeks(9));
+
+        // When
+        List<RegleRecurrence.Occurrence> occurrences = regle.occurrencesChevauchant(
+                LUNDI_10H.plusWeeks(3).minusDays(1), LUNDI_10H.plusWeeks(5).plusDays(1));
+
+        // Then
+        assertThat(regle.nombreOccurrences()).isEqualTo(10);
+        assertThat(occurrences).extracting(RegleRecurrence.Occurrence::rang).containsExactly(3, 4, 5);
+        assertThat(occurrences.get(0).debut()).isEqualTo(LUNDI_10H.plusWeeks(3));
+        assertThat(occurrences.get(0).fin()).isEqualTo(LUNDI_10H.plusWeeks(3).plusMinutes(45));
+    }
+
+    @Test
+    @DisplayName("Doit inclure une occurrence commencée avant la période et s'arrêter à la date de fin")
+    void shouldIncludeOverlappingOccurrenceAndStopAtEndDate() {
+        // Given : une semaine sur deux
+        RegleRecurrence regle = new RegleRecurrence(LUNDI_10H, Duration.ofHours(1), FrequenceRecurrence.HEBDOMADAIRE,
+                2, LUNDI_10H.toLocalDate().plusWeeks(4));
+
+        // When & Then
+        assertThat(regle.occurrencesChevauchant(LUNDI_10H.plusWeeks(2).plusMinutes(30), LUNDI_10H.plusWeeks(2).plusHours(2)))
+                .extracting(RegleRecurrence.Occurrence::rang).containsExactly(1);
+        assertThat(regle.occurrencesChevauchant(LUNDI_10H.plusWeeks(2).plusHours(1), LUNDI_10H.plusWeeks(2).plusHours(2)))
+                .isEmpty();
+        assertThat(regle.occurrencesChevauchant(LUNDI_10H, LUNDI_10H.plusYears(1)))
+                .extracting(RegleRecurrence.Occurrence::rang).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    @DisplayName("Doit revenir au même jour du mois, ramené au dernier jour des mois plus courts")
+    void shouldKeepDayOfMonthForMonthlySeries() {
+        // Given : le 31 de chaque mois
+        LocalDateTime le31 = LocalDateTime.of(2030, 1, 31, 9, 0);
+        RegleRecurrence regle = new RegleRecurrence(le31, Duration.ofMinutes(30), FrequenceRecurrence.MENSUELLE,
+                1, LocalDate.of(2030, 4, 30));
+
+        // When & Then
+        assertThat(regle.nombreOccurrences()).isEqualTo(4);
+        assertThat(regle.occurrence(1)).isEqualTo(LocalDateTime.of(2030, 2, 28, 9, 0));
+        assertThat(regle.occurrence(2)).isEqualTo(LocalDateTime.of(2030, 3, 31, 9, 0));
+        assertThat(regle.occurrence(3)).isEqualTo(LocalDateTime.of(2030, 4, 30, 9, 0));
+    }
+
+    @Test
+    @DisplayName("Doit retrouver le rang d'une occurrence et refuser une date hors série")
+    void shouldFindRankOfOccurrence() {
+        // Given
+        RegleRecurrence regle = new RegleRecurrence(LUNDI_10H, Duration.ofMinutes(30), FrequenceRecurrence.HEBDOMADAIRE,
+                1, LUNDI_10H.toLocalDate().plusWeeks(9));
+
+        // When & Then
+        assertThat(regle.rangDe(LUNDI_10H)).isZero();
+        assertThat(regle.rangDe(LUNDI_10H.plusWeeks(7))).isEqualTo(7);
+        assertThat(regle.rangDe(LUNDI_10H.plusWeeks(7).plusHours(1))).isEqualTo(-1);
+        assertThat(regle.rangDe(LUNDI_10H.plusWeeks(10))).isEqualTo(-1);
+        assertThat(regle.rangDe(LUNDI_10H.minusWeeks(1))).isEqualTo(-1);
+    }
+}
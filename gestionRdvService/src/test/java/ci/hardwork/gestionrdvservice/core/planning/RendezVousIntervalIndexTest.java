@@ -0,0 +1,149 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import ci.hardwork.gestionrdvservice.core.models.Medecin;
+import ci.hardwork.gestionrdvservice.core.models.RendezVous;
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import ci.hardwork.gestionrdvservice.core.repository.RendezVousRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de l'index des créneaux occupés")
+class RendezVousIntervalIndexTest {
+
+    @Mock
+    private RendezVousRepository rendezVousRepository;
+
+    @Mock
+    private SeriesRecurrentes seriesRecurrentes;
+
+    private RendezVousIntervalIndex index;
+
+    private LocalDateTime demain9h;
+
+    @BeforeEach
+    void setUp() {
+        index = new RendezVousIntervalIndex(rendezVousRepository, seriesRecurrentes, 100, Duration.ofMinutes(10));
+        demain9h = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        when(rendezVousRepository.findCreneauxOccupesByMedecinId(eq(1L), any())).thenReturn(List.of(
+                new CreneauOccupe(10L, demain9h, demain9h.plusMinutes(30)),
+                new CreneauOccupe(11L, demain9h.plusHours(2), demain9h.plusHours(3))
+        ));
+    }
+
+    @Test
+    @DisplayName("Doit détecter un chevauchement et accepter un créneau adjacent")
+    void shouldDetectOverlapAndAllowAdjacentSlot() {
+        assertThat(index.estLibre(1L, demain9h.plusMinutes(15), demain9h.plusMinutes(45), null)).isFalse();
+        assertThat(index.estLibre(1L, demain9h.plusMinutes(30), demain9h.plusMinutes(60), null)).isTrue();
+        assertThat(index.estLibre(1L, demain9h.plusHours(2).plusMinutes(50), demain9h.plusHours(4), null)).isFalse();
+        assertThat(index.estLibre(1L, demain9h.minusMinutes(30), demain9h, null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Doit ignorer le rendez-vous exclu")
+    void shouldIgnoreExcludedRendezVous() {
+        assertThat(index.estLibre(1L, demain9h, demain9h.plusMinutes(30), 10L)).isTrue();
+        assertThat(index.estLibre(1L, demain9h, demain9h.plusMinutes(30), 11L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Doit charger l'agenda une seule fois puis répondre sans base de données")
+    void shouldLoadAgendaOnlyOnce() {
+        index.estLibre(1L, demain9h, demain9h.plusMinutes(30), null);
+        index.estLibre(1L, demain9h.plusHours(5), demain9h.plusHours(6), null);
+
+        verify(rendezVousRepository, times(1)).findCreneauxOccupesByMedecinId(eq(1L), any());
+        verify(rendezVousRepository, never()).findConflictingRendezVous(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Doit recharger l'agenda après expiration")
+    void shouldReloadAgendaAfterExpiration() {
+        // Given
+        index = new RendezVousIntervalIndex(rendezVousRepository, seriesRecurrentes, 100, Duration.ZERO);
+
+        // When
+        index.estLibre(1L, demain9h, demain9h.plusMinutes(30), null);
+        index.estLibre(1L, demain9h, demain9h.plusMinutes(30), null);
+
+        // Then
+        verify(rendezVousRepository, times(2)).findCreneauxOccupesByMedecinId(eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("Ne doit pas garder un agenda lu pendant une écriture")
+    void shouldNotKeepAgendaLoadedDuringWrite() {
+        // Given : agenda invalidé, puis une annulation commitée pendant sa relecture
+        index.estLibre(1L, demain9h, demain9h.plusMinutes(30), null);
+        index.invalider(1L);
+        when(rendezVousRepository.findCreneauxOccupesByMedecinId(eq(1L), any())).thenAnswer(invocation -> {
+            index.retirer(1L, 10L);
+            return List.of(new CreneauOccupe(10L, demain9h, demain9h.plusMinutes(30)));
+        });
+
+        // When
+        assertThat(index.estLibre(1L, demain9h, demain9h.plusMinutes(30), null)).isFalse();
+        index.estLibre(1L, demain9h, demain9h.plusMinutes(30), null);
+
+        // Then : l'agenda périmé a servi une fois puis a été relu
+        verify(rendezVousRepository, times(3)).findCreneauxOccupesByMedecinId(eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("Doit refléter la création, la modification et l'annulation")
+    void shouldReflectWrites() {
+        index.estLibre(1L, demain9h, demain9h.plusMinutes(30), null);
+
+        RendezVous rendezVous = rendezVous(12L, demain9h.plusHours(5), demain9h.plusHours(6), RendezVousStatus.PLANIFIE);
+        index.synchroniser(rendezVous);
+        assertThat(index.estLibre(1L, demain9h.plusHours(5), demain9h.plusHours(6), null)).isFalse();
+
+        rendezVous.setDateHeureDebut(demain9h.plusHours(7));
+        rendezVous.setDateHeureFin(demain9h.plusHours(8));
+        index.synchroniser(rendezVous);
+        assertThat(index.estLibre(1L, demain9h.plusHours(5), demain9h.plusHours(6), null)).isTrue();
+        assertThat(index.estLibre(1L, demain9h.plusHours(7), demain9h.plusHours(8), null)).isFalse();
+
+        rendezVous.setStatut(RendezVousStatus.ANNULE);
+        index.synchroniser(rendezVous);
+        assertThat(index.estLibre(1L, demain9h.plusHours(7), demain9h.plusHours(8), null)).isTrue();
+
+        index.retirer(1L, 10L);
+        assertThat(index.estLibre(1L, demain9h, demain9h.plusMinutes(30), null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Doit interroger la base pour une période antérieure à l'horizon chargé")
+    void shouldFallBackToDatabaseBeforeHorizon() {
+        LocalDateTime hier = LocalDateTime.now().minusDays(1);
+        when(rendezVousRepository.findConflictingRendezVous(1L, hier, hier.plusMinutes(30))).thenReturn(List.of());
+
+        assertThat(index.estLibre(1L, hier, hier.plusMinutes(30), null)).isTrue();
+        verify(rendezVousRepository).findConflictingRendezVous(1L, hier, hier.plusMinutes(30));
+    }
+
+    private RendezVous rendezVous(Long id, LocalDateTime debut, LocalDateTime fin, RendezVousStatus statut) {
+        Medecin medecin = new Medecin();
+        medecin.setId(1L);
+        RendezVous rendezVous = new RendezVous();
+        rendezVous.setId(id);
+        rendezVous.setMedecin(medecin);
+        rendezVous.setDateHeureDebut(debut);
+        rendezVous.setDateHeureFin(fin);
+        rendezVous.setStatut(statut);
+        return rendezVous;
+    }
+}
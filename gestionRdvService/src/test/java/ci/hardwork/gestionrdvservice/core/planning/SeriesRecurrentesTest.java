@@ -0,0 +1,82 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import ci.hardwork.gestionrdvservice.core.repository.RendezVousRepository;
+import ci.hardwork.gestionrdvservice.core.repository.SerieRendezVousRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests du cache des séries récurrentes")
+class SeriesRecurrentesTest {
+
+    @Mock
+    private SerieRendezVousRepository serieRendezVousRepository;
+
+    @Mock
+    private RendezVousRepository rendezVousRepository;
+
+    private SeriesRecurrentes series;
+
+    private LocalDateTime demain9h;
+
+    @BeforeEach
+    void setUp() {
+        series = new SeriesRecurrentes(serieRendezVousRepository, rendezVousRepository, 100, Duration.ofMinutes(5));
+        demain9h = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        when(serieRendezVousRepository.findByMedecinIdAndActifTrue(1L)).thenReturn(List.of());
+    }
+
+    @Test
+    @DisplayName("Doit charger les séries d'un médecin une seule fois")
+    void shouldLoadSeriesOnce() {
+        // When
+        series.getOccurrences(1L, demain9h, demain9h.plusHours(1));
+        List<SeriesRecurrentes.OccurrenceSerie> occurrences = series.getOccurrences(1L, demain9h, demain9h.plusHours(1));
+
+        // Then
+        assertThat(occurrences).isEmpty();
+        verify(serieRendezVousRepository, times(1)).findByMedecinIdAndActifTrue(1L);
+    }
+
+    @Test
+    @DisplayName("Doit relire les séries après expiration")
+    void shouldReloadSeriesAfterExpiration() {
+        // Given
+        series = new SeriesRecurrentes(serieRendezVousRepository, rendezVousRepository, 100, Duration.ZERO);
+
+        // When
+        series.getOccurrences(1L, demain9h, demain9h.plusHours(1));
+        series.getOccurrences(1L, demain9h, demain9h.plusHours(1));
+
+        // Then
+        verify(serieRendezVousRepository, times(2)).findByMedecinIdAndActifTrue(1L);
+    }
+
+    @Test
+    @DisplayName("Ne doit pas garder des séries lues pendant une écriture")
+    void shouldNotKeepSeriesLoadedDuringWrite() {
+        // Given : une écriture de série commitée pendant la lecture
+        when(serieRendezVousRepository.findByMedecinIdAndActifTrue(1L)).thenAnswer(invocation -> {
+            series.invalider(1L);
+            return List.of();
+        });
+
+        // When
+        series.getOccurrences(1L, demain9h, demain9h.plusHours(1));
+        series.getOccurrences(1L, demain9h, demain9h.plusHours(1));
+
+        // Then
+        verify(serieRendezVousRepository, times(2)).findByMedecinIdAndActifTrue(1L);
+    }
+}
@@ -0,0 +1,70 @@
+package ci.hardwork.gestionrdvservice.core.planning;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Tests des verrous par médecin")
+class VerrousMedecinsTest {
+
+    private final VerrousMedecins verrous = new VerrousMedecins(16);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Doit refuser un verrou pris hors transaction")
+    void shouldRejectLockOutsideTransaction() {
+        assertThatThrownBy(() -> verrous.verrouiller(1L))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Doit garder le verrou jusqu'à la fin de la transaction")
+    void shouldHoldLockUntilTransactionCompletes() throws Exception {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        verrous.verrouiller(List.of(1L, 17L, 2L));
+
+        // When & Then : même bande que 1L, bloqué ; bande différente, libre
+        assertThat(essayerDansUneAutreTransaction(33L)).isFalse();
+        assertThat(essayerDansUneAutreTransaction(3L)).isTrue();
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(essayerDansUneAutreTransaction(33L)).isTrue();
+    }
+
+    private boolean essayerDansUneAutreTransaction(Long medecinId) throws Exception {
+        CompletableFuture<Void> tentative = CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                verrous.verrouiller(medecinId);
+                TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                        TransactionSynchronization.STATUS_COMMITTED);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        });
+        try {
+            tentative.get(500, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (java.util.concurrent.TimeoutException e) {
+            return false;
+        }
+    }
+}
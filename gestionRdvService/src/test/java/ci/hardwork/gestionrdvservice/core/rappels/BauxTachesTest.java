@@ -0,0 +1,87 @@
+package ci.hardwork.gestionrdvservice.core.rappels;
+
+import ci.hardwork.gestionrdvservice.core.models.BailTache;
+import ci.hardwork.gestionrdvservice.core.repository.BailTacheRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("Tests des baux de tâches planifiées")
+class BauxTachesTest {
+
+    private static final String TACHE = "rappels-rendez-vous";
+    private static final Duration DUREE = Duration.ofMinutes(2);
+
+    @Autowired
+    private BailTacheRepository bailTacheRepository;
+
+    private BauxTaches instanceA;
+    private BauxTaches instanceB;
+
+    @BeforeEach
+    void setUp() {
+        instanceA = new BauxTaches(bailTacheRepository, "instance-a");
+        instanceB = new BauxTaches(bailTacheRepository, "instance-b");
+    }
+
+    @Test
+    @DisplayName("Doit réserver le bail à une seule instance tant qu'il court")
+    void shouldGrantLeaseToSingleInstance() {
+        // When & Then
+        assertThat(instanceA.acquerir(TACHE, DUREE)).isTrue();
+        assertThat(instanceB.acquerir(TACHE, DUREE)).isFalse();
+        // Le détenteur prolonge son bail
+        assertThat(instanceA.acquerir(TACHE, DUREE)).isTrue();
+        assertThat(bailTacheRepository.findById(TACHE))
+                .get()
+                .extracting(BailTache::getDetenteur)
+                .isEqualTo("instance-a");
+    }
+
+    @Test
+    @DisplayName("Doit laisser une autre instance reprendre un bail libéré")
+    void shouldLetAnotherInstanceTakeReleasedLease() {
+        // Given
+        assertThat(instanceA.acquerir(TACHE, DUREE)).isTrue();
+
+        // When
+        instanceA.liberer(TACHE);
+
+        // Then
+        assertThat(instanceB.acquerir(TACHE, DUREE)).isTrue();
+        assertThat(instanceA.acquerir(TACHE, DUREE)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Doit laisser reprendre le bail d'une instance arrêtée une fois expiré")
+    void shouldTakeOverExpiredLease() {
+        // Given : bail d'une instance arrêtée sans l'avoir rendu
+        bailTacheRepository.saveAndFlush(new BailTache(TACHE, "instance-arretee", LocalDateTime.now().minusSeconds(1)));
+
+        // When & Then
+        assertThat(instanceB.acquerir(TACHE, DUREE)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Ne doit pas libérer le bail détenu par une autre instance")
+    void shouldNotReleaseLeaseHeldByAnotherInstance() {
+        // Given
+        assertThat(instanceA.acquerir(TACHE, DUREE)).isTrue();
+
+        // When
+        instanceB.liberer(TACHE);
+
+        // Then
+        assertThat(instanceB.acquerir(TACHE, DUREE)).isFalse();
+    }
+}
@@ -0,0 +1,237 @@
+package ci.hardwork.gestionrdvservice.core.rappels;
+
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
+import ci.hardwork.gestionrdvservice.core.evenements.RendezVousEvenement;
+import ci.hardwork.gestionrdvservice.core.repository.RendezVousRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests du diffuseur de rappels")
+class DiffuseurRappelsTest {
+
+    private static final int TAILLE_LOT = 4;
+    private static final int ENVOIS_SIMULTANES = 3;
+    private static final Duration DUREE_BAIL = Duration.ofMinutes(2);
+
+    @Mock
+    private RendezVousRepository rendezVousRepository;
+
+    @Mock
+    private BauxTaches bauxTaches;
+
+    @Mock
+    private ApplicationEventPublisher evenements;
+
+    private ExecutorService executor;
+    private LocalDateTime demain;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(16);
+        demain = LocalDate.now().plusDays(1).atTime(9, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Ne doit rien lire ni envoyer sans le bail")
+    void shouldDoNothingWithoutLease() {
+        // Given
+        when(bauxTaches.acquerir(DiffuseurRappels.BAIL, DUREE_BAIL)).thenReturn(false);
+        NotificationSenderMemoire sender = new NotificationSenderMemoire(Set.of(), 0);
+
+        // When
+        int envoyes = diffuseur(sender, 24).diffuser();
+
+        // Then
+        assertThat(envoyes).isZero();
+        assertThat(sender.envoyes()).isEmpty();
+        verifyNoInteractions(rendezVousRepository);
+        verify(bauxTaches, never()).liberer(any());
+    }
+
+    @Test
+    @DisplayName("Doit parcourir les lots par curseur et les marquer en une requête chacun")
+    void shouldWalkBatchesWithCursorAndMarkEachInOneUpdate() {
+        // Given
+        when(bauxTaches.acquerir(DiffuseurRappels.BAIL, DUREE_BAIL)).thenReturn(true);
+        List<RendezVousResponseDTO> premierLot = rendezVous(1, 4);
+        List<RendezVousResponseDTO> secondLot = rendezVous(5, 6);
+        when(rendezVousRepository.findResponseDTOsRequiringReminderApres(any(), any(), any(), eq(TAILLE_LOT)))
+                .thenReturn(premierLot, secondLot);
+        NotificationSenderMemoire sender = new NotificationSenderMemoire(Set.of(), 0);
+
+        // When
+        int envoyes = diffuseur(sender, 24).diffuser();
+
+        // Then
+        assertThat(envoyes).isEqualTo(6);
+        assertThat(sender.envoyes()).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L, 6L);
+        ArgumentCaptor<LocalDateTime> curseurDebut = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<Long> curseurId = ArgumentCaptor.forClass(Long.class);
+        verify(rendezVousRepository, times(2)).findResponseDTOsRequiringReminderApres(
+                any(), curseurDebut.capture(), curseurId.capture(), eq(TAILLE_LOT));
+        assertThat(curseurDebut.getAllValues().get(1)).isEqualTo(premierLot.get(3).getDateHeureDebut());
+        assertThat(curseurId.getAllValues()).containsExactly(0L, 4L);
+        verify(rendezVousRepository).marquerRappelsEnvoyes(ids(1L, 2L, 3L, 4L), any());
+        verify(rendezVousRepository).marquerRappelsEnvoyes(ids(5L, 6L), any());
+        verify(rendezVousRepository, never()).save(any());
+        // Bail pris au départ, prolongé après le lot complet, rendu à la fin
+        verify(bauxTaches, times(2)).acquerir(DiffuseurRappels.BAIL, DUREE_BAIL);
+        verify(bauxTaches).liberer(DiffuseurRappels.BAIL);
+    }
+
+    @Test
+    @DisplayName("Ne doit marquer que les rappels envoyés, avec un nombre borné d'envois simultanés")
+    void shouldMarkOnlySuccessfulSendsWithBoundedConcurrency() {
+        // Given
+        when(bauxTaches.acquerir(DiffuseurRappels.BAIL, DUREE_BAIL)).thenReturn(true);
+        when(rendezVousRepository.findResponseDTOsRequiringReminderApres(any(), any(), any(), eq(TAILLE_LOT)))
+                .thenReturn(rendezVous(1, 3));
+        NotificationSenderMemoire sender = new NotificationSenderMemoire(Set.of(2L), 50);
+
+        // When
+        int envoyes = diffuseur(sender, 24).diffuser();
+
+        // Then
+        assertThat(envoyes).isEqualTo(2);
+        verify(rendezVousRepository).marquerRappelsEnvoyes(ids(1L, 3L), any());
+        // Les plannings affichant un rappel envoyé sont à rafraîchir, pas ceux de l'échec
+        ArgumentCaptor<RendezVousEvenement> publies = ArgumentCaptor.forClass(RendezVousEvenement.class);
+        verify(evenements, times(2)).publishEvent(publies.capture());
+        assertThat(publies.getAllValues()).extracting(RendezVousEvenement::rendezVousId).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(sender.maximumSimultanes()).isBetween(1, ENVOIS_SIMULTANES);
+        verify(bauxTaches).liberer(DiffuseurRappels.BAIL);
+    }
+
+    @Test
+    @DisplayName("Doit limiter la fenêtre aux heures de rappel configurées")
+    void shouldHonourConfiguredReminderWindow() {
+        // Given
+        when(bauxTaches.acquerir(DiffuseurRappels.BAIL, DUREE_BAIL)).thenReturn(true);
+        when(rendezVousRepository.findResponseDTOsRequiringReminderApres(any(), any(), any(), eq(TAILLE_LOT)))
+                .thenReturn(List.of());
+        LocalDateTime avant = LocalDateTime.now();
+
+        // When
+        diffuseur(new NotificationSenderMemoire(Set.of(), 0), 6).diffuser();
+
+        // Then
+        LocalDateTime apres = LocalDateTime.now();
+        ArgumentCaptor<LocalDateTime> fin = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> curseurDebut = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(rendezVousRepository).findResponseDTOsRequiringReminderApres(
+                fin.capture(), curseurDebut.capture(), eq(0L), eq(TAILLE_LOT));
+        assertThat(fin.getValue()).isBetween(avant.plusHours(6), apres.plusHours(6));
+        assertThat(curseurDebut.getValue()).isBetween(avant, apres);
+        verify(rendezVousRepository, never()).marquerRappelsEnvoyes(any(), any());
+    }
+
+    @Test
+    @DisplayName("Doit s'arrêter si le bail est perdu entre deux lots")
+    void shouldStopWhenLeaseIsLost() {
+        // Given
+        when(bauxTaches.acquerir(DiffuseurRappels.BAIL, DUREE_BAIL)).thenReturn(true, false);
+        when(rendezVousRepository.findResponseDTOsRequiringReminderApres(any(), any(), any(), eq(TAILLE_LOT)))
+                .thenReturn(rendezVous(1, 4));
+        NotificationSenderMemoire sender = new NotificationSenderMemoire(Set.of(), 0);
+
+        // When
+        int envoyes = diffuseur(sender, 24).diffuser();
+
+        // Then
+        assertThat(envoyes).isEqualTo(TAILLE_LOT);
+        verify(rendezVousRepository, times(1)).findResponseDTOsRequiringReminderApres(any(), any(), any(), anyInt());
+        verify(rendezVousRepository).marquerRappelsEnvoyes(ids(1L, 2L, 3L, 4L), any());
+    }
+
+    @Test
+    @DisplayName("Doit prolonger le bail pendant des envois plus longs que sa durée")
+    void shouldRenewLeaseWhileSlowSendsAreRunning() {
+        // Given
+        Duration bailCourt = Duration.ofMillis(200);
+        when(bauxTaches.acquerir(DiffuseurRappels.BAIL, bailCourt)).thenReturn(true);
+        when(rendezVousRepository.findResponseDTOsRequiringReminderApres(any(), any(), any(), eq(TAILLE_LOT)))
+                .thenReturn(rendezVous(1, 3));
+        NotificationSenderMemoire sender = new NotificationSenderMemoire(Set.of(), 300);
+
+        // When
+        int envoyes = diffuseur(sender, 24, bailCourt).diffuser();
+
+        // Then : pris au départ, puis prolongé pendant l'attente des envois
+        assertThat(envoyes).isEqualTo(3);
+        verify(bauxTaches, atLeast(3)).acquerir(DiffuseurRappels.BAIL, bailCourt);
+        verify(bauxTaches).liberer(DiffuseurRappels.BAIL);
+    }
+
+    @Test
+    @DisplayName("Doit cesser de soumettre des envois si le bail est perdu pendant un lot")
+    void shouldStopSubmittingWhenLeaseIsLostDuringBatch() {
+        // Given
+        Duration bailCourt = Duration.ofMillis(200);
+        when(bauxTaches.acquerir(DiffuseurRappels.BAIL, bailCourt)).thenReturn(true, false);
+        when(rendezVousRepository.findResponseDTOsRequiringReminderApres(any(), any(), any(), eq(TAILLE_LOT)))
+                .thenReturn(rendezVous(1, 4));
+        NotificationSenderMemoire sender = new NotificationSenderMemoire(Set.of(), 300);
+
+        // When
+        int envoyes = diffuseur(sender, 24, bailCourt).diffuser();
+
+        // Then : les envois partis sont marqués, le quatrième n'est pas soumis
+        assertThat(envoyes).isEqualTo(ENVOIS_SIMULTANES);
+        assertThat(sender.envoyes()).containsExactlyInAnyOrder(1L, 2L, 3L);
+        verify(rendezVousRepository).marquerRappelsEnvoyes(ids(1L, 2L, 3L), any());
+        verify(rendezVousRepository, times(1)).findResponseDTOsRequiringReminderApres(any(), any(), any(), anyInt());
+    }
+
+    private DiffuseurRappels diffuseur(NotificationSender sender, long heuresAvant) {
+        return diffuseur(sender, heuresAvant, DUREE_BAIL);
+    }
+
+    private DiffuseurRappels diffuseur(NotificationSender sender, long heuresAvant, Duration dureeBail) {
+        return new DiffuseurRappels(rendezVousRepository, sender, bauxTaches, evenements, executor,
+                heuresAvant, TAILLE_LOT, ENVOIS_SIMULTANES, dureeBail);
+    }
+
+    private List<RendezVousResponseDTO> rendezVous(long premierId, long dernierId) {
+        return LongStream.rangeClosed(premierId, dernierId)
+                .mapToObj(id -> {
+                    RendezVousResponseDTO dto = new RendezVousResponseDTO();
+                    dto.setId(id);
+                    dto.setDateHeureDebut(demain.plusMinutes(30 * id));
+                    dto.setPatientNom("Patient" + id);
+                    dto.setMedecinNom("Medecin" + id);
+                    return dto;
+                })
+                .toList();
+    }
+
+    private static Collection<Long> ids(Long... attendus) {
+        return argThat(ids -> ids != null && ids.size() == attendus.length && ids.containsAll(List.of(attendus)));
+    }
+}
@@ -0,0 +1,53 @@
+package ci.hardwork.gestionrdvservice.core.rappels;
+
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Canal de test : conserve les rappels envoyés, échoue pour les rendez-vous désignés et
+ * mesure le nombre maximal d'envois simultanés.
+ */
+class NotificationSenderMemoire implements NotificationSender {
+
+    private final Queue<Long> envoyes = new ConcurrentLinkedQueue<>();
+    private final Set<Long> enEchec;
+    private final long dureeEnvoiMs;
+    private final AtomicInteger enCours = new AtomicInteger();
+    private final AtomicInteger maximumSimultanes = new AtomicInteger();
+
+    NotificationSenderMemoire(Set<Long> enEchec, long dureeEnvoiMs) {
+        this.enEchec = enEchec;
+        this.dureeEnvoiMs = dureeEnvoiMs;
+    }
+
+    @Override
+    public void envoyerRappel(RendezVousResponseDTO rendezVous) {
+        maximumSimultanes.accumulateAndGet(enCours.incrementAndGet(), Math::max);
+        try {
+            if (dureeEnvoiMs > 0) {
+                Thread.sleep(dureeEnvoiMs);
+            }
+            if (enEchec.contains(rendezVous.getId())) {
+                throw new IllegalStateException("Passerelle SMS indisponible");
+            }
+            envoyes.add(rendezVous.getId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            enCours.decrementAndGet();
+        }
+    }
+
+    List<Long> envoyes() {
+        return List.copyOf(envoyes);
+    }
+
+    int maximumSimultanes() {
+        return maximumSimultanes.get();
+    }
+}
@@ -0,0 +1,78 @@
+package ci.hardwork.gestionrdvservice.core.recherche;
+
+import ci.hardwork.gestionrdvservice.core.models.Patient;
+import ci.hardwork.gestionrdvservice.core.repository.MedecinRepository;
+import ci.hardwork.gestionrdvservice.core.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de l'index de recherche")
+class IndexRechercheTest {
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Mock
+    private MedecinRepository medecinRepository;
+
+    @InjectMocks
+    private IndexRecherche indexRecherche;
+
+    @BeforeEach
+    void setUp() {
+        when(patientRepository.findNomsPourRecherche()).thenReturn(lignes(new Object[] {1L, "Jean", "Dupont"}));
+        when(medecinRepository.findNomsActifsPourRecherche()).thenReturn(List.of());
+        indexRecherche.charger();
+    }
+
+    @Test
+    @DisplayName("Doit trouver après reconstruction un patient enregistré sur une autre instance")
+    void shouldFindPatientRegisteredElsewhereAfterRebuild() {
+        // Given
+        when(patientRepository.findNomsPourRecherche()).thenReturn(lignes(
+                new Object[] {1L, "Jean", "Dupont"}, new Object[] {2L, "Awa", "Kouassi"}));
+        assertThat(indexRecherche.rechercherPatients("Kouassi", 10)).isEmpty();
+
+        // When
+        indexRecherche.rafraichir();
+
+        // Then
+        assertThat(indexRecherche.rechercherPatients("Kouassi", 10)).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Doit garder une écriture locale commitée pendant la reconstruction")
+    void shouldKeepLocalWriteCommittedDuringRebuild() {
+        // Given : le patient est enregistré ici pendant la lecture des noms
+        Patient patient = new Patient();
+        patient.setId(3L);
+        patient.setPrenom("Marc");
+        patient.setNom("Durand");
+        when(patientRepository.findNomsPourRecherche()).thenAnswer(invocation -> {
+            indexRecherche.indexerPatient(patient);
+            return lignes(new Object[] {1L, "Jean", "Dupont"});
+        });
+
+        // When
+        indexRecherche.rafraichir();
+
+        // Then
+        assertThat(indexRecherche.rechercherPatients("Durand", 10)).containsExactly(3L);
+    }
+
+    private static List<Object[]> lignes(Object[]... lignes) {
+        return new ArrayList<>(List.of(lignes));
+    }
+}
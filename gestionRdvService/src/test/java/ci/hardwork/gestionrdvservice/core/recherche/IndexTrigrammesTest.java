@@ -0,0 +1,90 @@
+package ci.hardwork.gestionrdvservice.core.recherche;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests de l'index de trigrammes")
+class IndexTrigrammesTest {
+
+    private IndexTrigrammes index;
+
+    @BeforeEach
+    void setUp() {
+        index = new IndexTrigrammes();
+        index.indexer(1L, "Hélène Lefèvre");
+        index.indexer(2L, "Jean Dupont");
+        index.indexer(3L, "Jeanne Dupond");
+        index.indexer(4L, "Marc Durand");
+        index.indexer(5L, "Œdipe Kouassi");
+    }
+
+    @Test
+    @DisplayName("La recherche ignore les accents, la casse et les ligatures")
+    void shouldIgnoreAccentsCaseAndLigatures() {
+        assertThat(ids("helene LEFEVRE")).startsWith(1L);
+        assertThat(ids("oedipe")).startsWith(5L);
+    }
+
+    @Test
+    @DisplayName("La recherche tolère une faute de frappe")
+    void shouldTolerateTypo() {
+        assertThat(ids("Dupomt Jean")).startsWith(2L);
+        assertThat(ids("Lefevbre")).startsWith(1L);
+    }
+
+    @Test
+    @DisplayName("Un début de mot suffit pour la saisie au fil de l'eau")
+    void shouldMatchPrefixOfLastWord() {
+        assertThat(ids("Jean Dup")).containsExactly(2L, 3L);
+        assertThat(ids("Dura")).startsWith(4L);
+    }
+
+    @Test
+    @DisplayName("Les résultats sont classés par similarité et bornés à la limite")
+    void shouldRankAndBoundResults() {
+        // When
+        List<IndexTrigrammes.Resultat> resultats = index.rechercher("Jeanne Dupond", 1);
+
+        // Then
+        assertThat(resultats).hasSize(1);
+        assertThat(resultats.get(0).id()).isEqualTo(3L);
+        assertThat(index.rechercher("Jeanne Dupond", 10))
+                .extracting(IndexTrigrammes.Resultat::score)
+                .isSortedAccordingTo((a, b) -> Double.compare(b, a));
+    }
+
+    @Test
+    @DisplayName("Une requête sans rapport ou vide ne renvoie rien")
+    void shouldReturnNothingForUnrelatedOrBlankQuery() {
+        assertThat(ids("Zyxwvu")).isEmpty();
+        assertThat(ids("  -- ")).isEmpty();
+        assertThat(ids(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("La réindexation remplace l'ancien nom et le retrait efface le document")
+    void shouldReplaceOnReindexAndForgetOnRemoval() {
+        // When
+        index.indexer(4L, "Marc Koffi");
+
+        // Then
+        assertThat(ids("Durand")).doesNotContain(4L);
+        assertThat(ids("Koffi")).containsExactly(4L);
+
+        // When
+        index.retirer(4L);
+
+        // Then
+        assertThat(ids("Koffi")).isEmpty();
+        assertThat(index.taille()).isEqualTo(4);
+    }
+
+    private List<Long> ids(String requete) {
+        return index.rechercher(requete, 10).stream().map(IndexTrigrammes.Resultat::id).toList();
+    }
+}
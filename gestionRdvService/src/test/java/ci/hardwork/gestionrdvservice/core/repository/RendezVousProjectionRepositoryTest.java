@@ -0,0 +1,250 @@
+package ci.hardwork.gestionrdvservice.core.repository;
+
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
+import ci.hardwork.gestionrdvservice.core.models.Medecin;
+import ci.hardwork.gestionrdvservice.core.models.Patient;
+import ci.hardwork.gestionrdvservice.core.models.RendezVous;
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import ci.hardwork.gestionrdvservice.core.models.enums.SpecialiteMedicale;
+import ci.hardwork.gestionrdvservice.core.pagination.CurseurRendezVous;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie, via les statistiques Hibernate, le nombre de requêtes SQL émises par
+ * les lectures de listes de rendez-vous.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@DisplayName("Tests des projections RendezVous")
+class RendezVousProjectionRepositoryTest {
+
+    private static final int NOMBRE_RENDEZ_VOUS = 12;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RendezVousRepository rendezVousRepository;
+
+    private Statistics statistics;
+    private List<Patient> patients;
+    private List<Medecin> medecins;
+    private LocalDateTime demain;
+
+    @BeforeEach
+    void setUp() {
+        patients = new ArrayList<>();
+        medecins = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            patients.add(entityManager.persist(createPatient(i)));
+            medecins.add(entityManager.persist(createMedecin(i)));
+        }
+
+        demain = LocalDate.now().plusDays(1).atTime(8, 0);
+        for (int i = 0; i < NOMBRE_RENDEZ_VOUS; i++) {
+            LocalDateTime debut = demain.plusMinutes(30L * i);
+            entityManager.persist(createRendezVous(patients.get(i % 3), medecins.get(i / 4), debut, debut.plusMinutes(30)));
+        }
+        entityManager.flush();
+        // Les associations doivent être relues depuis la base, pas depuis le contexte de persistance
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Le parcours des entités charge patient et médecin un par un (N+1)")
+    void entityPathShouldIssueOneQueryPerAssociation() {
+        // When
+        List<RendezVous> rendezVous = rendezVousRepository.findByDateHeureDebutBetweenOrderByDateHeureDebut(
+                demain, demain.plusDays(1));
+        rendezVous.forEach(r -> {
+            r.getPatient().getNom();
+            r.getMedecin().getSpecialite();
+        });
+
+        // Then
+        assertThat(rendezVous).hasSize(NOMBRE_RENDEZ_VOUS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1 + patients.size() + medecins.size());
+    }
+
+    @Test
+    @DisplayName("La projection du planning du jour s'exécute en une seule requête")
+    void dayPlanningProjectionShouldIssueSingleQuery() {
+        // When
+        List<RendezVousResponseDTO> planning = rendezVousRepository.findResponseDTOsByPeriode(demain, demain.plusDays(1));
+
+        // Then
+        assertThat(planning).hasSize(NOMBRE_RENDEZ_VOUS);
+        RendezVousResponseDTO premier = planning.get(0);
+        assertThat(premier.getPatientNom()).isEqualTo("Patient0");
+        assertThat(premier.getMedecinNom()).isEqualTo("Medecin0");
+        assertThat(premier.getMedecinSpecialite()).isEqualTo(SpecialiteMedicale.CARDIOLOGIE.name());
+        assertThat(premier.getDateHeureDebut()).isEqualTo(demain);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Les projections par médecin, patient, statut et récentes s'exécutent en une requête chacune")
+    void listProjectionsShouldIssueOneQueryEach() {
+        // When & Then
+        assertThat(rendezVousRepository.findResponseDTOsByMedecinId(medecins.get(0).getId())).hasSize(4);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        assertThat(rendezVousRepository.findResponseDTOsByPatientId(patients.get(0).getId())).hasSize(4);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        assertThat(rendezVousRepository.findResponseDTOsByStatut(RendezVousStatus.PLANIFIE)).hasSize(NOMBRE_RENDEZ_VOUS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+
+        assertThat(rendezVousRepository.findRecentResponseDTOs(5)).hasSize(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("La projection paginée n'ajoute que la requête de comptage")
+    void pagedProjectionShouldIssueSelectAndCount() {
+        // When
+        Page<RendezVousResponseDTO> page = rendezVousRepository.findAllResponseDTOs(
+                PageRequest.of(0, 5, Sort.by("dateHeureDebut")));
+
+        // Then
+        assertThat(page.getContent()).hasSize(5);
+        assertThat(page.getTotalElements()).isEqualTo(NOMBRE_RENDEZ_VOUS);
+        assertThat(page.getContent().get(0).getDateHeureDebut()).isEqualTo(demain);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("La pagination par curseur parcourt tout l'historique, une requête par page")
+    void cursorPaginationShouldWalkWholeHistoryWithOneQueryPerPage() {
+        // Given : deux rendez-vous à la même heure, départagés par l'id
+        entityManager.persistAndFlush(createRendezVous(patients.get(1), medecins.get(0), demain, demain.plusMinutes(30)));
+        entityManager.clear();
+        statistics.clear();
+        Long medecinId = medecins.get(0).getId();
+
+        // When
+        List<RendezVousResponseDTO> parcourus = new ArrayList<>();
+        CurseurRendezVous position = CurseurRendezVous.DEBUT_CROISSANT;
+        int pages = 0;
+        while (true) {
+            List<RendezVousResponseDTO> page = rendezVousRepository.findResponseDTOsByMedecinIdApres(
+                    medecinId, position.dateHeureDebut(), position.id(), 2);
+            pages++;
+            if (page.isEmpty()) {
+                break;
+            }
+            parcourus.addAll(page);
+            RendezVousResponseDTO derniere = page.get(page.size() - 1);
+            position = new CurseurRendezVous(derniere.getDateHeureDebut(), derniere.getId());
+        }
+
+        // Then
+        assertThat(parcourus).hasSize(5);
+        assertThat(parcourus).extracting(RendezVousResponseDTO::getId).doesNotHaveDuplicates();
+        assertThat(parcourus).isSortedAccordingTo(Comparator
+                .comparing(RendezVousResponseDTO::getDateHeureDebut)
+                .thenComparing(RendezVousResponseDTO::getId));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(pages);
+    }
+
+    @Test
+    @DisplayName("Les rappels d'un lot sont lus puis marqués envoyés en une requête chacun")
+    void reminderBatchShouldIssueOneSelectAndOneBulkUpdate() {
+        // When
+        LocalDateTime fin = demain.plusDays(1);
+        CurseurRendezVous position = new CurseurRendezVous(LocalDateTime.now(), 0L);
+        int lots = 0;
+        while (true) {
+            List<RendezVousResponseDTO> lot = rendezVousRepository.findResponseDTOsRequiringReminderApres(
+                    fin, position.dateHeureDebut(), position.id(), 5);
+            if (lot.isEmpty()) {
+                break;
+            }
+            lots++;
+            int marques = rendezVousRepository.marquerRappelsEnvoyes(
+                    lot.stream().map(RendezVousResponseDTO::getId).toList(), LocalDateTime.now());
+            assertThat(marques).isEqualTo(lot.size());
+            RendezVousResponseDTO dernier = lot.get(lot.size() - 1);
+            position = new CurseurRendezVous(dernier.getDateHeureDebut(), dernier.getId());
+        }
+
+        // Then : 3 lots (5, 5, 2) et une lecture finale vide
+        assertThat(lots).isEqualTo(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2L * lots + 1);
+        entityManager.clear();
+        assertThat(rendezVousRepository.findAll()).allSatisfy(rdv -> {
+            assertThat(rdv.getRappelEnvoye()).isTrue();
+            assertThat(rdv.getDateRappel()).isNotNull();
+            assertThat(rdv.getVersion()).isEqualTo(1L);
+        });
+        assertThat(rendezVousRepository.findResponseDTOsRequiringReminderApres(
+                fin, LocalDateTime.now(), 0L, 5)).isEmpty();
+    }
+
+    private Patient createPatient(int index) {
+        Patient patient = new Patient();
+        patient.setUserId(3000L + index);
+        patient.setNom("Patient" + index);
+        patient.setPrenom("Test");
+        patient.setNumeroSecuriteSociale("100000000000" + index);
+        patient.setEmail("patient" + index + "@email.com");
+        patient.setDateNaissance(LocalDate.of(1990, 1, 1));
+        patient.setActif(true);
+        patient.setDateCreation(LocalDateTime.now());
+        return patient;
+    }
+
+    private Medecin createMedecin(int index) {
+        Medecin medecin = new Medecin();
+        medecin.setUserId(4000L + index);
+        medecin.setNom("Medecin" + index);
+        medecin.setPrenom("Test");
+        medecin.setNumeroRPPS("1000000000" + index);
+        medecin.setSpecialite(SpecialiteMedicale.CARDIOLOGIE);
+        medecin.setEmail("medecin" + index + "@medical.com");
+        medecin.setVilleCabinet("Paris");
+        medecin.setTarif(new BigDecimal("50.00"));
+        medecin.setActif(true);
+        medecin.setDateCreation(LocalDateTime.now());
+        return medecin;
+    }
+
+    private RendezVous createRendezVous(Patient patient, Medecin medecin, LocalDateTime debut, LocalDateTime fin) {
+        RendezVous rdv = new RendezVous();
+        rdv.setPatient(patient);
+        rdv.setMedecin(medecin);
+        rdv.setDateHeureDebut(debut);
+        rdv.setDateHeureFin(fin);
+        rdv.setMotifConsultation("Consultation de contrôle");
+        rdv.setStatut(RendezVousStatus.PLANIFIE);
+        rdv.setTarif(new BigDecimal("50.00"));
+        rdv.setRappelEnvoye(false);
+        rdv.setDateCreation(LocalDateTime.now());
+        return rdv;
+    }
+}
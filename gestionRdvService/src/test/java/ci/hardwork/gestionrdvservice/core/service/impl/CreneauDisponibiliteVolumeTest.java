@@ -0,0 +1,156 @@
+package ci.hardwork.gestionrdvservice.core.service.impl;
+
+import ci.hardwork.gestionrdvservice.core.dto.CreneauDisponibiliteDTO;
+import ci.hardwork.gestionrdvservice.core.mapper.CreneauMapper;
+import ci.hardwork.gestionrdvservice.core.mapper.MedecinMapper;
+import ci.hardwork.gestionrdvservice.core.models.CreneauDisponibilite;
+import ci.hardwork.gestionrdvservice.core.models.Medecin;
+import ci.hardwork.gestionrdvservice.core.models.enums.SpecialiteMedicale;
+import ci.hardwork.gestionrdvservice.core.planning.CarteDisponibilites;
+import ci.hardwork.gestionrdvservice.core.recherche.IndexRecherche;
+import ci.hardwork.gestionrdvservice.core.repository.CreneauDisponibiliteRepository;
+import ci.hardwork.gestionrdvservice.core.repository.MedecinRepository;
+import ci.hardwork.gestionrdvservice.core.statistiques.CompteursStatistiques;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test de non-régression de volume : avec 10 000 médecins en base, l'ajout, la lecture
+ * et la suppression d'un créneau émettent un nombre de requêtes SQL constant.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@DisplayName("Tests de volume des créneaux de disponibilité")
+class CreneauDisponibiliteVolumeTest {
+
+    private static final int NOMBRE_MEDECINS = 10_000;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MedecinRepository medecinRepository;
+
+    @Autowired
+    private CreneauDisponibiliteRepository creneauDisponibiliteRepository;
+
+    private MedecinServiceImpl medecinService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        medecinService = new MedecinServiceImpl(medecinRepository, creneauDisponibiliteRepository,
+                mock(MedecinMapper.class), Mappers.getMapper(CreneauMapper.class), mock(CarteDisponibilites.class),
+                mock(ApplicationEventPublisher.class), mock(CompteursStatistiques.class), mock(IndexRecherche.class));
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+
+    @Test
+    @DisplayName("Doit gérer les créneaux en un nombre constant de requêtes avec 10 000 médecins")
+    void shouldManageSlotsWithConstantQueryCountAmongTenThousandDoctors() {
+        // Given
+        Medecin dernier = null;
+        for (int i = 0; i < NOMBRE_MEDECINS; i++) {
+            dernier = entityManager.persist(createMedecin(i));
+            entityManager.persist(createCreneau(dernier, DayOfWeek.MONDAY, 9, 12));
+            if (i % 1000 == 999) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Long medecinId = dernier.getId();
+
+        // When & Then : ajout (médecin, insertion)
+        statistics.clear();
+        CreneauDisponibiliteDTO ajoute = medecinService.addCreneauDisponibilite(medecinId, creneauDTO(DayOfWeek.MONDAY, 14, 18));
+        entityManager.flush();
+        assertThat(ajoute.getId()).isNotNull();
+        assertThat(ajoute.getMedecinId()).isEqualTo(medecinId);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        entityManager.clear();
+
+        // Lecture (médecin, créneaux)
+        statistics.clear();
+        List<CreneauDisponibiliteDTO> creneaux = medecinService.getCreneauxDisponibilite(medecinId);
+        assertThat(creneaux).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        entityManager.clear();
+
+        // Suppression (créneau, suppression)
+        statistics.clear();
+        medecinService.removeCreneauDisponibilite(ajoute.getId());
+        entityManager.flush();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(creneauDisponibiliteRepository.findById(ajoute.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Doit accepter une plage qui recouvre une plage du même jour")
+    void shouldAcceptOverlappingSlotOnSameDay() {
+        // Given
+        Medecin medecin = entityManager.persist(createMedecin(0));
+        entityManager.persist(createCreneau(medecin, DayOfWeek.MONDAY, 9, 12));
+        entityManager.flush();
+
+        // When
+        CreneauDisponibiliteDTO ajoute = medecinService.addCreneauDisponibilite(medecin.getId(), creneauDTO(DayOfWeek.MONDAY, 11, 13));
+
+        // Then : les plages se cumulent, le planning les fusionne
+        assertThat(ajoute.getId()).isNotNull();
+        assertThat(creneauDisponibiliteRepository.findByMedecinIdAndActifTrue(medecin.getId())).hasSize(2);
+    }
+
+    private CreneauDisponibiliteDTO creneauDTO(DayOfWeek jour, int heureDebut, int heureFin) {
+        CreneauDisponibiliteDTO dto = new CreneauDisponibiliteDTO();
+        dto.setJourSemaine(jour);
+        dto.setHeureDebut(LocalTime.of(heureDebut, 0));
+        dto.setHeureFin(LocalTime.of(heureFin, 0));
+        dto.setActif(true);
+        return dto;
+    }
+
+    private CreneauDisponibilite createCreneau(Medecin medecin, DayOfWeek jour, int heureDebut, int heureFin) {
+        CreneauDisponibilite creneau = new CreneauDisponibilite();
+        creneau.setMedecin(medecin);
+        creneau.setJourSemaine(jour);
+        creneau.setHeureDebut(LocalTime.of(heureDebut, 0));
+        creneau.setHeureFin(LocalTime.of(heureFin, 0));
+        creneau.setActif(true);
+        return creneau;
+    }
+
+    private Medecin createMedecin(int index) {
+        Medecin medecin = new Medecin();
+        medecin.setUserId(100_000L + index);
+        medecin.setNom("Medecin" + index);
+        medecin.setPrenom("Volume");
+        medecin.setNumeroRPPS(String.format("%011d", index));
+        medecin.setSpecialite(SpecialiteMedicale.GENERALISTE);
+        medecin.setEmail("volume" + index + "@medical.com");
+        medecin.setVilleCabinet("Abidjan");
+        medecin.setTarif(new BigDecimal("50.00"));
+        medecin.setActif(true);
+        return medecin;
+    }
+}
@@ -0,0 +1,121 @@
+package ci.hardwork.gestionrdvservice.core.service.impl;
+
+import ci.hardwork.gestionrdvservice.core.dto.PremierCreneauDTO;
+import ci.hardwork.gestionrdvservice.core.models.CreneauDisponibilite;
+import ci.hardwork.gestionrdvservice.core.models.Medecin;
+import ci.hardwork.gestionrdvservice.core.models.enums.SpecialiteMedicale;
+import ci.hardwork.gestionrdvservice.core.planning.CarteDisponibilites;
+import ci.hardwork.gestionrdvservice.core.planning.CreneauOccupe;
+import ci.hardwork.gestionrdvservice.core.planning.RendezVousIntervalIndex;
+import ci.hardwork.gestionrdvservice.core.repository.CreneauDisponibiliteRepository;
+import ci.hardwork.gestionrdvservice.core.repository.MedecinRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests du Service Disponibilité")
+class DisponibiliteServiceImplTest {
+
+    @Mock
+    private MedecinRepository medecinRepository;
+
+    @Mock
+    private CreneauDisponibiliteRepository creneauDisponibiliteRepository;
+
+    @Mock
+    private RendezVousIntervalIndex rendezVousIntervalIndex;
+
+    private DisponibiliteServiceImpl disponibiliteService;
+
+    private Medecin medecin1;
+    private Medecin medecin2;
+    private LocalDate demain;
+
+    @BeforeEach
+    void setUp() {
+        // Carte réelle : le service lit les mêmes journées que le contrôle des réservations
+        disponibiliteService = new DisponibiliteServiceImpl(medecinRepository,
+                new CarteDisponibilites(creneauDisponibiliteRepository, rendezVousIntervalIndex, 1000, Duration.ofHours(1)));
+        demain = LocalDate.now().plusDays(1);
+        medecin1 = medecin(1L, "Martin");
+        medecin2 = medecin(2L, "Durand");
+    }
+
+    @Test
+    @DisplayName("Doit fusionner les agendas et retourner les créneaux les plus proches")
+    void shouldMergeAgendasAndReturnEarliestSlots() {
+        // Given
+        when(medecinRepository.findBySpecialiteAndVilleCabinetAndActiveTrue(SpecialiteMedicale.CARDIOLOGIE, "Abidjan"))
+                .thenReturn(List.of(medecin1, medecin2));
+        when(creneauDisponibiliteRepository.findByMedecinIdInAndActifTrue(any()))
+                .thenReturn(List.of(plage(medecin1, 9), plage(medecin2, 8)));
+        when(rendezVousIntervalIndex.getCreneauxOccupes(anyCollection(), any(), any()))
+                .thenReturn(Map.of(2L, List.of(new CreneauOccupe(7L, demain.atTime(8, 0), demain.atTime(8, 30)))));
+
+        // When
+        List<PremierCreneauDTO> result = disponibiliteService.getPremiersCreneauxDisponibles(
+                SpecialiteMedicale.CARDIOLOGIE, "Abidjan", 30, 3, 7);
+
+        // Then
+        assertThat(result).extracting(PremierCreneauDTO::getDateHeureDebut)
+                .containsExactly(demain.atTime(8, 30), demain.atTime(9, 0), demain.atTime(9, 30));
+        assertThat(result).extracting(PremierCreneauDTO::getMedecinId).containsExactly(2L, 1L, 1L);
+        assertThat(result.get(0).getDateHeureFin()).isEqualTo(demain.atTime(9, 0));
+        verify(creneauDisponibiliteRepository, times(1)).findByMedecinIdInAndActifTrue(any());
+        verify(rendezVousIntervalIndex, times(1)).getCreneauxOccupes(anyCollection(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Doit retourner une liste vide sans médecin correspondant")
+    void shouldReturnEmptyListWithoutMatchingDoctor() {
+        when(medecinRepository.findBySpecialiteAndVilleCabinetAndActiveTrue(any(), any())).thenReturn(List.of());
+
+        assertThat(disponibiliteService.getPremiersCreneauxDisponibles(
+                SpecialiteMedicale.CARDIOLOGIE, "Abidjan", 30, 5, 14)).isEmpty();
+        verifyNoInteractions(creneauDisponibiliteRepository, rendezVousIntervalIndex);
+    }
+
+    @Test
+    @DisplayName("Doit refuser un nombre de créneaux invalide")
+    void shouldRejectInvalidCount() {
+        assertThatThrownBy(() -> disponibiliteService.getPremiersCreneauxDisponibles(
+                SpecialiteMedicale.CARDIOLOGIE, "Abidjan", 30, 0, 14))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Medecin medecin(Long id, String nom) {
+        Medecin medecin = new Medecin();
+        medecin.setId(id);
+        medecin.setNom(nom);
+        medecin.setPrenom("Dr");
+        medecin.setSpecialite(SpecialiteMedicale.CARDIOLOGIE);
+        medecin.setVilleCabinet("Abidjan");
+        medecin.setActif(true);
+        return medecin;
+    }
+
+    private CreneauDisponibilite plage(Medecin medecin, int heureDebut) {
+        CreneauDisponibilite plage = new CreneauDisponibilite();
+        plage.setMedecin(medecin);
+        plage.setJourSemaine(demain.getDayOfWeek());
+        plage.setHeureDebut(LocalTime.of(heureDebut, 0));
+        plage.setHeureFin(LocalTime.of(heureDebut + 1, 0));
+        plage.setActif(true);
+        return plage;
+    }
+}
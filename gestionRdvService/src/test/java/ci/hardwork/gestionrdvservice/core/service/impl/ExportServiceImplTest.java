@@ -0,0 +1,123 @@
+package ci.hardwork.gestionrdvservice.core.service.impl;
+
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import ci.hardwork.gestionrdvservice.core.repository.RendezVousRepository;
+import ci.hardwork.gestionrdvservice.core.service.ExportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests du Service Export")
+class ExportServiceImplTest {
+
+    @Mock
+    private RendezVousRepository rendezVousRepository;
+
+    private ObjectMapper objectMapper;
+    private ExportServiceImpl exportService;
+    private LocalDateTime debut;
+    private LocalDateTime fin;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new ExportServiceImpl(rendezVousRepository, objectMapper);
+        debut = LocalDate.now().plusDays(1).atStartOfDay();
+        fin = debut.plusDays(1);
+    }
+
+    @Test
+    @DisplayName("Doit écrire une ligne JSON par rendez-vous et fermer le flux")
+    void shouldWriteOneJsonLinePerRendezVousAndCloseStream() throws Exception {
+        // Given
+        AtomicBoolean ferme = new AtomicBoolean();
+        when(rendezVousRepository.streamResponseDTOsForExport(debut, fin, 1L, null))
+                .thenReturn(Stream.of(rendezVous(1L, "Contrôle"), rendezVous(2L, "Suivi")).onClose(() -> ferme.set(true)));
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+
+        // When
+        long nombre = exportService.exporterRendezVous(debut, fin, 1L, null, ExportService.Format.NDJSON, sortie);
+
+        // Then
+        String[] lignes = sortie.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(nombre).isEqualTo(2);
+        assertThat(lignes).hasSize(2);
+        JsonNode premiere = objectMapper.readTree(lignes[0]);
+        assertThat(premiere.get("id").asLong()).isEqualTo(1L);
+        assertThat(premiere.get("motifConsultation").asText()).isEqualTo("Contrôle");
+        assertThat(LocalDateTime.parse(premiere.get("dateHeureDebut").asText())).isEqualTo(debut.plusHours(9));
+        assertThat(ferme).isTrue();
+    }
+
+    @Test
+    @DisplayName("Doit écrire l'en-tête CSV et échapper les champs selon la RFC 4180")
+    void shouldWriteCsvHeaderAndEscapeFields() throws Exception {
+        // Given
+        when(rendezVousRepository.streamResponseDTOsForExport(debut, fin, null, RendezVousStatus.PLANIFIE))
+                .thenReturn(Stream.of(rendezVous(1L, "Douleur, \"aiguë\"")));
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+
+        // When
+        long nombre = exportService.exporterRendezVous(debut, fin, null, RendezVousStatus.PLANIFIE, ExportService.Format.CSV, sortie);
+
+        // Then
+        String[] lignes = sortie.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(nombre).isEqualTo(1);
+        assertThat(lignes[0]).startsWith("id,patientId,patientNom");
+        assertThat(lignes[1]).startsWith("1,10,Dupont,Jean,20,Martin,Paul,CARDIOLOGIE,")
+                .contains(",PLANIFIE,\"Douleur, \"\"aiguë\"\"\",50.00,");
+    }
+
+    @Test
+    @DisplayName("Doit refuser une période vide ou inversée")
+    void shouldRejectInvalidPeriod() {
+        // When & Then
+        assertThatThrownBy(() -> exportService.exporterRendezVous(fin, debut, null, null,
+                ExportService.Format.NDJSON, new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("date de début");
+        verifyNoInteractions(rendezVousRepository);
+    }
+
+    private RendezVousResponseDTO rendezVous(Long id, String motif) {
+        RendezVousResponseDTO dto = new RendezVousResponseDTO();
+        dto.setId(id);
+        dto.setPatientId(10L);
+        dto.setPatientNom("Dupont");
+        dto.setPatientPrenom("Jean");
+        dto.setMedecinId(20L);
+        dto.setMedecinNom("Martin");
+        dto.setMedecinPrenom("Paul");
+        dto.setMedecinSpecialite("CARDIOLOGIE");
+        dto.setDateHeureDebut(debut.plusHours(9));
+        dto.setDateHeureFin(debut.plusHours(9).plusMinutes(30));
+        dto.setStatut(RendezVousStatus.PLANIFIE);
+        dto.setMotifConsultation(motif);
+        dto.setTarif(new BigDecimal("50.00"));
+        dto.setRappelEnvoye(false);
+        return dto;
+    }
+}
@@ -3,9 +3,12 @@ package ci.hardwork.gestionrdvservice.core.service.impl;
 import ci.hardwork.gestionrdvservice.core.dto.PatientCreateDTO;
 import ci.hardwork.gestionrdvservice.core.dto.PatientResponseDTO;
 import ci.hardwork.gestionrdvservice.core.dto.PatientUpdateDTO;
+import ci.hardwork.gestionrdvservice.core.evenements.PatientEvenement;
 import ci.hardwork.gestionrdvservice.core.mapper.PatientMapper;
 import ci.hardwork.gestionrdvservice.core.models.Patient;
+import ci.hardwork.gestionrdvservice.core.recherche.IndexRecherche;
 import ci.hardwork.gestionrdvservice.core.repository.PatientRepository;
+import ci.hardwork.gestionrdvservice.core.statistiques.CompteursStatistiques;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,6 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -38,6 +42,15 @@ class PatientServiceImplTest {
     @Mock
     private PatientMapper patientMapper;
     
+    @Mock
+    private ApplicationEventPublisher evenements;
+    
+    @Mock
+    private CompteursStatistiques compteursStatistiques;
+    
+    @Mock
+    private IndexRecherche indexRecherche;
+    
     @InjectMocks
     private PatientServiceImpl patientService;
     
@@ -205,6 +218,37 @@ class PatientServiceImplTest {
         assertThat(result.get(0).getNom()).isEqualTo("Dupont");
     }
     
+    @Test
+    @DisplayName("Doit restituer les patients dans l'ordre de pertinence de l'index")
+    void shouldReturnFuzzySearchResultsInRankOrder() {
+        // Given
+        Patient autre = new Patient();
+        autre.setId(2L);
+        PatientResponseDTO autreDTO = new PatientResponseDTO();
+        autreDTO.setId(2L);
+        when(indexRecherche.rechercherPatients("dupon", 10)).thenReturn(List.of(2L, 1L));
+        when(patientRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(patient, autre));
+        when(patientMapper.toResponseDTO(patient)).thenReturn(patientResponseDTO);
+        when(patientMapper.toResponseDTO(autre)).thenReturn(autreDTO);
+        
+        // When
+        List<PatientResponseDTO> result = patientService.rechercherPatients("dupon", 10);
+        
+        // Then
+        assertThat(result).extracting(PatientResponseDTO::getId).containsExactly(2L, 1L);
+    }
+    
+    @Test
+    @DisplayName("Doit refuser une limite de recherche hors bornes")
+    void shouldRejectOutOfRangeSearchLimit() {
+        // When & Then
+        assertThatThrownBy(() -> patientService.rechercherPatients("dupont", 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> patientService.rechercherPatients("dupont", 51))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(indexRecherche);
+    }
+    
     @Test
     @DisplayName("Doit mettre à jour un patient existant")
     void shouldUpdateExistingPatient() {
@@ -221,6 +265,7 @@ class PatientServiceImplTest {
         assertThat(result).isNotNull();
         verify(patientMapper).updateEntityFromDTO(eq(patientUpdateDTO), eq(patient));
         verify(patientRepository).save(patient);
+        verify(indexRecherche).indexerPatient(patient);
     }
     
     @Test
@@ -239,27 +284,30 @@ class PatientServiceImplTest {
     @DisplayName("Doit supprimer un patient existant")
     void shouldDeleteExistingPatient() {
         // Given
-        when(patientRepository.existsById(1L)).thenReturn(true);
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
         
         // When
         patientService.deletePatient(1L);
         
         // Then
-        verify(patientRepository).deleteById(1L);
+        verify(patientRepository).delete(patient);
+        verify(evenements).publishEvent(new PatientEvenement(1L, true, null));
+        verify(indexRecherche).retirerPatient(1L);
     }
     
     @Test
     @DisplayName("Ne doit pas supprimer un patient inexistant")
     void shouldNotDeleteNonExistentPatient() {
         // Given
-        when(patientRepository.existsById(999L)).thenReturn(false);
+        when(patientRepository.findById(999L)).thenReturn(Optional.empty());
         
         // When & Then
         assertThatThrownBy(() -> patientService.deletePatient(999L))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Patient non trouvé avec l'ID: 999");
         
-        verify(patientRepository, never()).deleteById(999L);
+        verify(patientRepository, never()).delete(any(Patient.class));
+        verifyNoInteractions(evenements);
     }
     
     @Test
@@ -276,6 +324,7 @@ class PatientServiceImplTest {
         verify(patientRepository).findById(1L);
         verify(patientRepository).save(patient);
         assertThat(patient.getActif()).isFalse();
+        verify(evenements).publishEvent(new PatientEvenement(1L, true, false));
     }
     
     @Test
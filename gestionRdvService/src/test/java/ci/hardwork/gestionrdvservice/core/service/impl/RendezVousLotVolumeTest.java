@@ -0,0 +1,201 @@
+package ci.hardwork.gestionrdvservice.core.service.impl;
+
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousCreateDTO;
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousLotResultatDTO;
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
+import ci.hardwork.gestionrdvservice.core.mapper.RendezVousMapper;
+import ci.hardwork.gestionrdvservice.core.models.Medecin;
+import ci.hardwork.gestionrdvservice.core.models.Patient;
+import ci.hardwork.gestionrdvservice.core.models.RendezVous;
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import ci.hardwork.gestionrdvservice.core.models.enums.SpecialiteMedicale;
+import ci.hardwork.gestionrdvservice.core.planning.CarteDisponibilites;
+import ci.hardwork.gestionrdvservice.core.planning.RendezVousIntervalIndex;
+import ci.hardwork.gestionrdvservice.core.planning.SeriesRecurrentes;
+import ci.hardwork.gestionrdvservice.core.planning.VerrousMedecins;
+import ci.hardwork.gestionrdvservice.core.rappels.NotificationSender;
+import ci.hardwork.gestionrdvservice.core.repository.MedecinRepository;
+import ci.hardwork.gestionrdvservice.core.repository.PatientRepository;
+import ci.hardwork.gestionrdvservice.core.repository.RendezVousRepository;
+import ci.hardwork.gestionrdvservice.core.service.MedecinService;
+import ci.hardwork.gestionrdvservice.core.service.SerieRendezVousService;
+import ci.hardwork.gestionrdvservice.core.statistiques.CompteursStatistiques;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Vérifie qu'un lot de rendez-vous est validé et inséré en un nombre de requêtes SQL
+ * indépendant de sa taille, et qu'un lot comportant une ligne en erreur n'écrit rien.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@DisplayName("Tests de volume de la création de rendez-vous par lot")
+class RendezVousLotVolumeTest {
+
+    private static final int NOMBRE_SEMAINES = 40;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RendezVousRepository rendezVousRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MedecinRepository medecinRepository;
+
+    private RendezVousServiceImpl rendezVousService;
+    private Statistics statistics;
+    private Patient patient;
+    private Medecin medecin;
+    private LocalDateTime premiereSeance;
+
+    @BeforeEach
+    void setUp() {
+        rendezVousService = new RendezVousServiceImpl(rendezVousRepository, patientRepository, medecinRepository,
+                Mappers.getMapper(RendezVousMapper.class), new RendezVousIntervalIndex(rendezVousRepository, mock(SeriesRecurrentes.class), 100, Duration.ofMinutes(10)),
+                mock(CarteDisponibilites.class), mock(ApplicationEventPublisher.class), mock(CompteursStatistiques.class),
+                mock(SerieRendezVousService.class), new VerrousMedecins(16), mock(NotificationSender.class),
+                mock(MedecinService.class), mock(SeriesRecurrentes.class));
+        patient = entityManager.persist(createPatient());
+        medecin = entityManager.persist(createMedecin());
+        premiereSeance = LocalDate.now().plusDays(7).atTime(10, 0);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+
+    @Test
+    @DisplayName("Doit créer un lot hebdomadaire en un nombre constant de requêtes")
+    void shouldCreateWeeklyBatchWithConstantQueryCount() {
+        // Given : une séance de kinésithérapie par semaine
+        List<RendezVousCreateDTO> lot = new ArrayList<>();
+        for (int semaine = 0; semaine < NOMBRE_SEMAINES; semaine++) {
+            lot.add(createDTO(patient.getId(), medecin.getId(), premiereSeance.plusWeeks(semaine)));
+        }
+
+        // When
+        statistics.clear();
+        RendezVousLotResultatDTO resultat = rendezVousService.createRendezVousLot(lot);
+        entityManager.flush();
+
+        // Then : patients, médecins, créneaux occupés, séquence (une ou deux lectures), insertions groupées
+        assertThat(resultat.isAccepte()).isTrue();
+        assertThat(resultat.getErreurs()).isEmpty();
+        assertThat(resultat.getRendezVous()).hasSize(NOMBRE_SEMAINES);
+        assertThat(resultat.getRendezVous()).extracting(RendezVousResponseDTO::getId).doesNotContainNull();
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(NOMBRE_SEMAINES);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Doit refuser tout le lot et détailler chaque ligne en erreur")
+    void shouldRejectWholeBatchWithPerLineErrors() {
+        // Given : un rendez-vous existant à la troisième séance
+        entityManager.persist(createRendezVous(premiereSeance.plusWeeks(2)));
+        entityManager.flush();
+        entityManager.clear();
+        long avant = rendezVousRepository.count();
+
+        List<RendezVousCreateDTO> lot = List.of(
+                createDTO(patient.getId(), medecin.getId(), premiereSeance),
+                createDTO(patient.getId(), medecin.getId(), premiereSeance.plusMinutes(15)),
+                createDTO(patient.getId(), medecin.getId(), premiereSeance.plusWeeks(2)),
+                createDTO(-1L, medecin.getId(), premiereSeance.plusWeeks(3)),
+                createDTO(patient.getId(), medecin.getId(), premiereSeance.plusWeeks(4)));
+
+        // When
+        RendezVousLotResultatDTO resultat = rendezVousService.createRendezVousLot(lot);
+        entityManager.flush();
+
+        // Then
+        assertThat(resultat.isAccepte()).isFalse();
+        assertThat(resultat.getRendezVous()).isEmpty();
+        assertThat(resultat.getErreurs())
+                .extracting(RendezVousLotResultatDTO.ErreurLigne::getIndex, RendezVousLotResultatDTO.ErreurLigne::getMessage)
+                .containsExactly(
+                        tuple(1, "Ce créneau chevauche le rendez-vous 0 du lot"),
+                        tuple(2, "Ce créneau n'est pas disponible"),
+                        tuple(3, "Patient non trouvé"));
+        assertThat(rendezVousRepository.count()).isEqualTo(avant);
+    }
+
+    private RendezVousCreateDTO createDTO(Long patientId, Long medecinId, LocalDateTime debut) {
+        RendezVousCreateDTO dto = new RendezVousCreateDTO();
+        dto.setPatientId(patientId);
+        dto.setMedecinId(medecinId);
+        dto.setDateHeureDebut(debut);
+        dto.setDateHeureFin(debut.plusMinutes(30));
+        dto.setMotifConsultation("Séance de kinésithérapie");
+        dto.setStatut(RendezVousStatus.PLANIFIE);
+        dto.setTarif(new BigDecimal("40.00"));
+        dto.setRappelEnvoye(false);
+        return dto;
+    }
+
+    private RendezVous createRendezVous(LocalDateTime debut) {
+        RendezVous rdv = new RendezVous();
+        rdv.setPatient(entityManager.find(Patient.class, patient.getId()));
+        rdv.setMedecin(entityManager.find(Medecin.class, medecin.getId()));
+        rdv.setDateHeureDebut(debut);
+        rdv.setDateHeureFin(debut.plusMinutes(30));
+        rdv.setMotifConsultation("Consultation de contrôle");
+        rdv.setStatut(RendezVousStatus.PLANIFIE);
+        rdv.setRappelEnvoye(false);
+        rdv.setDateCreation(LocalDateTime.now());
+        return rdv;
+    }
+
+    private Patient createPatient() {
+        Patient nouveau = new Patient();
+        nouveau.setUserId(5000L);
+        nouveau.setNom("Kouadio");
+        nouveau.setPrenom("Awa");
+        nouveau.setNumeroSecuriteSociale("2000000000001");
+        nouveau.setEmail("awa.kouadio@email.com");
+        nouveau.setDateNaissance(LocalDate.of(1985, 3, 12));
+        nouveau.setActif(true);
+        nouveau.setDateCreation(LocalDateTime.now());
+        return nouveau;
+    }
+
+    private Medecin createMedecin() {
+        Medecin nouveau = new Medecin();
+        nouveau.setUserId(6000L);
+        nouveau.setNom("Yao");
+        nouveau.setPrenom("Koffi");
+        nouveau.setNumeroRPPS("20000000001");
+        nouveau.setSpecialite(SpecialiteMedicale.GENERALISTE);
+        nouveau.setEmail("koffi.yao@medical.com");
+        nouveau.setVilleCabinet("Abidjan");
+        nouveau.setTarif(new BigDecimal("40.00"));
+        nouveau.setActif(true);
+        nouveau.setDateCreation(LocalDateTime.now());
+        return nouveau;
+    }
+}
@@ -1,32 +1,52 @@
 package ci.hardwork.gestionrdvservice.core.service.impl;
 
+import ci.hardwork.gestionrdvservice.core.dto.MedecinResponseDTO;
+import ci.hardwork.gestionrdvservice.core.dto.PageCurseurDTO;
 import ci.hardwork.gestionrdvservice.core.dto.RendezVousCreateDTO;
 import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
+import ci.hardwork.gestionrdvservice.core.evenements.RendezVousEvenement;
 import ci.hardwork.gestionrdvservice.core.mapper.RendezVousMapper;
 import ci.hardwork.gestionrdvservice.core.models.Medecin;
 import ci.hardwork.gestionrdvservice.core.models.Patient;
 import ci.hardwork.gestionrdvservice.core.models.RendezVous;
+import ci.hardwork.gestionrdvservice.core.models.SerieRendezVous;
 import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
 import ci.hardwork.gestionrdvservice.core.models.enums.SpecialiteMedicale;
+import ci.hardwork.gestionrdvservice.core.pagination.CurseurRendezVous;
+import ci.hardwork.gestionrdvservice.core.planning.CarteDisponibilites;
+import ci.hardwork.gestionrdvservice.core.planning.CreneauOccupe;
+import ci.hardwork.gestionrdvservice.core.planning.RendezVousIntervalIndex;
+import ci.hardwork.gestionrdvservice.core.planning.SeriesRecurrentes;
+import ci.hardwork.gestionrdvservice.core.planning.VerrousMedecins;
+import ci.hardwork.gestionrdvservice.core.rappels.NotificationSender;
 import ci.hardwork.gestionrdvservice.core.repository.MedecinRepository;
 import ci.hardwork.gestionrdvservice.core.repository.PatientRepository;
 import ci.hardwork.gestionrdvservice.core.repository.RendezVousRepository;
+import ci.hardwork.gestionrdvservice.core.service.MedecinService;
+import ci.hardwork.gestionrdvservice.core.service.SerieRendezVousService;
+import ci.hardwork.gestionrdvservice.core.statistiques.CompteursStatistiques;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -50,12 +70,40 @@ class RendezVousServiceImplTest {
     @Mock
     private RendezVousMapper rendezVousMapper;
     
+    @Mock
+    private RendezVousIntervalIndex rendezVousIntervalIndex;
+    
+    @Mock
+    private CarteDisponibilites carteDisponibilites;
+    
+    @Mock
+    private ApplicationEventPublisher evenements;
+    
+    @Mock
+    private CompteursStatistiques compteursStatistiques;
+    
+    @Mock
+    private SerieRendezVousService serieRendezVousService;
+    
+    @Mock
+    private VerrousMedecins verrousMedecins;
+    
+    @Mock
+    private NotificationSender notificationSender;
+    
+    @Mock
+    private MedecinService medecinService;
+    
+    @Mock
+    private SeriesRecurrentes seriesRecurrentes;
+    
     @InjectMocks
     private RendezVousServiceImpl rendezVousService;
     
     private RendezVousCreateDTO rendezVousCreateDTO;
     private Patient patient;
     private Medecin medecin;
+    private MedecinResponseDTO medecinDTO;
     private RendezVous rendezVous;
     private RendezVousResponseDTO rendezVousResponseDTO;
     
@@ -86,6 +134,13 @@ class RendezVousServiceImplTest {
         medecin.setSpecialite(SpecialiteMedicale.CARDIOLOGIE);
         medecin.setActif(true);
         
+        medecinDTO = new MedecinResponseDTO();
+        medecinDTO.setId(1L);
+        medecinDTO.setNom("Dr. Martin");
+        medecinDTO.setPrenom("Sophie");
+        medecinDTO.setSpecialite(SpecialiteMedicale.CARDIOLOGIE);
+        medecinDTO.setActif(true);
+        
         rendezVous = new RendezVous();
         rendezVous.setId(1L);
         rendezVous.setPatient(patient);
@@ -115,11 +170,12 @@ class RendezVousServiceImplTest {
     void shouldCreateRendezVousSuccessfully() {
         // Given
         when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
-        when(medecinRepository.findById(1L)).thenReturn(Optional.of(medecin));
-        when(rendezVousRepository.findConflictingRendezVous(anyLong(), any(), any())).thenReturn(List.of());
+        when(medecinService.getMedecinById(1L)).thenReturn(Optional.of(medecinDTO));
+        when(medecinRepository.getReferenceById(1L)).thenReturn(medecin);
+        when(carteDisponibilites.estLibre(anyLong(), any(), any(), isNull())).thenReturn(true);
         when(rendezVousMapper.toEntity(any(RendezVousCreateDTO.class))).thenReturn(rendezVous);
-        when(rendezVousRepository.save(any(RendezVous.class))).thenReturn(rendezVous);
-        when(rendezVousMapper.toResponseDTO(any(RendezVous.class))).thenReturn(rendezVousResponseDTO);
+        when(rendezVousRepository.saveAndFlush(any(RendezVous.class))).thenReturn(rendezVous);
+        when(rendezVousMapper.toResponseDTO(rendezVous, medecinDTO)).thenReturn(rendezVousResponseDTO);
         
         // When
         RendezVousResponseDTO result = rendezVousService.createRendezVous(rendezVousCreateDTO);
@@ -130,8 +186,13 @@ class RendezVousServiceImplTest {
         assertThat(result.getStatut()).isEqualTo(RendezVousStatus.PLANIFIE);
         
         verify(patientRepository).findById(1L);
-        verify(medecinRepository).findById(1L);
-        verify(rendezVousRepository).save(any(RendezVous.class));
+        verify(medecinService).getMedecinById(1L);
+        // Le médecin n'est pas relu en base : une simple référence suffit à l'association
+        verify(medecinRepository, never()).findById(anyLong());
+        verify(rendezVousRepository).saveAndFlush(any(RendezVous.class));
+        verify(rendezVousIntervalIndex).synchroniser(rendezVous);
+        verify(carteDisponibilites).ajouter(1L, CreneauOccupe.de(rendezVous));
+        verify(evenements).publishEvent(RendezVousEvenement.creation(rendezVous));
     }
     
     @Test
@@ -145,7 +206,7 @@ class RendezVousServiceImplTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Patient non trouvé");
         
-        verify(rendezVousRepository, never()).save(any(RendezVous.class));
+        verify(rendezVousRepository, never()).saveAndFlush(any(RendezVous.class));
     }
     
     @Test
@@ -153,30 +214,30 @@ class RendezVousServiceImplTest {
     void shouldNotCreateRendezVousWithNonExistentMedecin() {
         // Given
         when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
-        when(medecinRepository.findById(1L)).thenReturn(Optional.empty());
+        when(medecinService.getMedecinById(1L)).thenReturn(Optional.empty());
         
         // When & Then
         assertThatThrownBy(() -> rendezVousService.createRendezVous(rendezVousCreateDTO))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Médecin non trouvé");
         
-        verify(rendezVousRepository, never()).save(any(RendezVous.class));
+        verify(rendezVousRepository, never()).saveAndFlush(any(RendezVous.class));
     }
     
     @Test
     @DisplayName("Ne doit pas créer un rendez-vous avec un médecin inactif")
     void shouldNotCreateRendezVousWithInactiveMedecin() {
         // Given
-        medecin.setActif(false);
+        medecinDTO.setActif(false);
         when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
-        when(medecinRepository.findById(1L)).thenReturn(Optional.of(medecin));
+        when(medecinService.getMedecinById(1L)).thenReturn(Optional.of(medecinDTO));
         
         // When & Then
         assertThatThrownBy(() -> rendezVousService.createRendezVous(rendezVousCreateDTO))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Le médecin n'est pas actif");
         
-        verify(rendezVousRepository, never()).save(any(RendezVous.class));
+        verify(rendezVousRepository, never()).saveAndFlush(any(RendezVous.class));
     }
     
     @Test
@@ -184,24 +245,114 @@ class RendezVousServiceImplTest {
     void shouldNotCreateRendezVousWithUnavailableSlot() {
         // Given
         when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
-        when(medecinRepository.findById(1L)).thenReturn(Optional.of(medecin));
-        when(rendezVousRepository.findConflictingRendezVous(anyLong(), any(), any()))
-                .thenReturn(List.of(rendezVous));
+        when(medecinService.getMedecinById(1L)).thenReturn(Optional.of(medecinDTO));
+        when(carteDisponibilites.estLibre(anyLong(), any(), any(), isNull())).thenReturn(false);
         
         // When & Then
         assertThatThrownBy(() -> rendezVousService.createRendezVous(rendezVousCreateDTO))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Ce créneau n'est pas disponible");
         
-        verify(rendezVousRepository, never()).save(any(RendezVous.class));
+        verify(rendezVousRepository, never()).saveAndFlush(any(RendezVous.class));
+    }
+    
+    @Test
+    @DisplayName("Doit vérifier le créneau sous le verrou du médecin")
+    void shouldCheckSlotUnderDoctorLock() {
+        // Given
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
+        when(medecinService.getMedecinById(1L)).thenReturn(Optional.of(medecinDTO));
+        when(carteDisponibilites.estLibre(anyLong(), any(), any(), isNull())).thenReturn(false);
+        
+        // When
+        assertThatThrownBy(() -> rendezVousService.createRendezVous(rendezVousCreateDTO))
+                .isInstanceOf(IllegalArgumentException.class);
+        
+        // Then
+        InOrder ordre = inOrder(verrousMedecins, carteDisponibilites);
+        ordre.verify(verrousMedecins).verrouiller(1L);
+        ordre.verify(carteDisponibilites).estLibre(anyLong(), any(), any(), isNull());
+    }
+    
+    @Test
+    @DisplayName("Doit refuser le créneau lorsque la base rejette un chevauchement")
+    void shouldRejectSlotWhenDatabaseRejectsOverlap() {
+        // Given : une autre instance a réservé le créneau entre-temps
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
+        when(medecinService.getMedecinById(1L)).thenReturn(Optional.of(medecinDTO));
+        when(medecinRepository.getReferenceById(1L)).thenReturn(medecin);
+        when(carteDisponibilites.estLibre(anyLong(), any(), any(), isNull())).thenReturn(true);
+        when(rendezVousMapper.toEntity(any(RendezVousCreateDTO.class))).thenReturn(rendezVous);
+        when(rendezVousRepository.saveAndFlush(any(RendezVous.class)))
+                .thenThrow(chevauchementRefuse());
+        
+        // When & Then
+        assertThatThrownBy(() -> rendezVousService.createRendezVous(rendezVousCreateDTO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Ce créneau n'est pas disponible");
+        verify(rendezVousIntervalIndex, never()).synchroniser(any());
+        verify(evenements, never()).publishEvent(any());
+    }
+    
+    @Test
+    @DisplayName("Ne doit pas faire passer une autre violation d'intégrité pour un créneau pris")
+    void shouldRethrowOtherIntegrityViolations() {
+        // Given : violation de clé étrangère, pas de chevauchement
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
+        when(medecinService.getMedecinById(1L)).thenReturn(Optional.of(medecinDTO));
+        when(medecinRepository.getReferenceById(1L)).thenReturn(medecin);
+        when(carteDisponibilites.estLibre(anyLong(), any(), any(), isNull())).thenReturn(true);
+        when(rendezVousMapper.toEntity(any(RendezVousCreateDTO.class))).thenReturn(rendezVous);
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("fk_rendez_vous_patient",
+                new SQLException("violates foreign key constraint", "23503"));
+        when(rendezVousRepository.saveAndFlush(any(RendezVous.class))).thenThrow(violation);
+        
+        // When & Then
+        assertThatThrownBy(() -> rendezVousService.createRendezVous(rendezVousCreateDTO))
+                .isSameAs(violation);
+    }
+    
+    @Test
+    @DisplayName("Doit supprimer un rendez-vous sans toucher aux séries")
+    void shouldDeleteRendezVous() {
+        // Given
+        when(rendezVousRepository.findById(1L)).thenReturn(Optional.of(rendezVous));
+        
+        // When
+        rendezVousService.deleteRendezVous(1L);
+        
+        // Then
+        verify(rendezVousRepository).delete(rendezVous);
+        verify(rendezVousIntervalIndex).retirer(1L, 1L);
+        verify(carteDisponibilites).retirer(1L, CreneauOccupe.de(rendezVous));
+        verify(evenements).publishEvent(any(RendezVousEvenement.class));
+        verifyNoInteractions(seriesRecurrentes);
+    }
+    
+    @Test
+    @DisplayName("Doit rendre sa place à l'occurrence calculée quand l'occurrence matérialisée est supprimée")
+    void shouldRestoreComputedOccurrenceWhenDeletingMaterializedOne() {
+        // Given
+        SerieRendezVous serie = new SerieRendezVous();
+        serie.setId(5L);
+        rendezVous.setSerie(serie);
+        rendezVous.setDateOccurrence(rendezVous.getDateHeureDebut());
+        when(rendezVousRepository.findById(1L)).thenReturn(Optional.of(rendezVous));
+        
+        // When
+        rendezVousService.deleteRendezVous(1L);
+        
+        // Then
+        verify(rendezVousRepository).delete(rendezVous);
+        verify(seriesRecurrentes).invalider(1L);
+        verify(carteDisponibilites).invalider(1L);
     }
     
     @Test
     @DisplayName("Doit récupérer un rendez-vous par ID")
     void shouldGetRendezVousById() {
         // Given
-        when(rendezVousRepository.findById(1L)).thenReturn(Optional.of(rendezVous));
-        when(rendezVousMapper.toResponseDTO(any(RendezVous.class))).thenReturn(rendezVousResponseDTO);
+        when(rendezVousRepository.findResponseDTOById(1L)).thenReturn(Optional.of(rendezVousResponseDTO));
         
         // When
         Optional<RendezVousResponseDTO> result = rendezVousService.getRendezVousById(1L);
@@ -210,7 +361,8 @@ class RendezVousServiceImplTest {
         assertThat(result).isPresent();
         assertThat(result.get().getId()).isEqualTo(1L);
         
-        verify(rendezVousRepository).findById(1L);
+        verify(rendezVousRepository).findResponseDTOById(1L);
+        verifyNoInteractions(rendezVousMapper);
     }
     
     @Test
@@ -218,10 +370,9 @@ class RendezVousServiceImplTest {
     void shouldGetAllRendezVousWithPagination() {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
-        Page<RendezVous> rendezVousPage = new PageImpl<>(List.of(rendezVous));
+        Page<RendezVousResponseDTO> rendezVousPage = new PageImpl<>(List.of(rendezVousResponseDTO));
         
-        when(rendezVousRepository.findAll(pageable)).thenReturn(rendezVousPage);
-        when(rendezVousMapper.toResponseDTO(any(RendezVous.class))).thenReturn(rendezVousResponseDTO);
+        when(rendezVousRepository.findAllResponseDTOs(pageable)).thenReturn(rendezVousPage);
         
         // When
         Page<RendezVousResponseDTO> result = rendezVousService.getAllRendezVous(pageable);
@@ -235,9 +386,8 @@ class RendezVousServiceImplTest {
     @DisplayName("Doit récupérer les rendez-vous d'un patient")
     void shouldGetRendezVousByPatient() {
         // Given
-        when(rendezVousRepository.findByPatientIdOrderByDateHeureDebutDesc(1L))
-                .thenReturn(List.of(rendezVous));
-        when(rendezVousMapper.toResponseDTO(any(RendezVous.class))).thenReturn(rendezVousResponseDTO);
+        when(rendezVousRepository.findResponseDTOsByPatientId(1L))
+                .thenReturn(List.of(rendezVousResponseDTO));
         
         // When
         List<RendezVousResponseDTO> result = rendezVousService.getRendezVousByPatient(1L);
@@ -251,9 +401,8 @@ class RendezVousServiceImplTest {
     @DisplayName("Doit récupérer les rendez-vous d'un médecin")
     void shouldGetRendezVousByMedecin() {
         // Given
-        when(rendezVousRepository.findByMedecinIdOrderByDateHeureDebut(1L))
-                .thenReturn(List.of(rendezVous));
-        when(rendezVousMapper.toResponseDTO(any(RendezVous.class))).thenReturn(rendezVousResponseDTO);
+        when(rendezVousRepository.findResponseDTOsByMedecinId(1L))
+                .thenReturn(List.of(rendezVousResponseDTO));
         
         // When
         List<RendezVousResponseDTO> result = rendezVousService.getRendezVousByMedecin(1L);
@@ -267,9 +416,8 @@ class RendezVousServiceImplTest {
     @DisplayName("Doit récupérer les rendez-vous par statut")
     void shouldGetRendezVousByStatus() {
         // Given
-        when(rendezVousRepository.findByStatutOrderByDateHeureDebut(RendezVousStatus.PLANIFIE))
-                .thenReturn(List.of(rendezVous));
-        when(rendezVousMapper.toResponseDTO(any(RendezVous.class))).thenReturn(rendezVousResponseDTO);
+        when(rendezVousRepository.findResponseDTOsByStatut(RendezVousStatus.PLANIFIE))
+                .thenReturn(List.of(rendezVousResponseDTO));
         
         // When
         List<RendezVousResponseDTO> result = rendezVousService.getRendezVousByStatus(RendezVousStatus.PLANIFIE);
@@ -286,6 +434,7 @@ class RendezVousServiceImplTest {
         when(rendezVousRepository.findById(1L)).thenReturn(Optional.of(rendezVous));
         when(rendezVousRepository.save(any(RendezVous.class))).thenReturn(rendezVous);
         when(rendezVousMapper.toResponseDTO(any(RendezVous.class))).thenReturn(rendezVousResponseDTO);
+        RendezVousEvenement.Etat avant = RendezVousEvenement.Etat.de(rendezVous);
         
         // When
         RendezVousResponseDTO result = rendezVousService.updateStatut(1L, RendezVousStatus.CONFIRME);
@@ -294,6 +443,61 @@ class RendezVousServiceImplTest {
         assertThat(result).isNotNull();
         verify(rendezVousRepository).save(rendezVous);
         assertThat(rendezVous.getStatut()).isEqualTo(RendezVousStatus.CONFIRME);
+        verify(evenements).publishEvent(RendezVousEvenement.modification(avant, rendezVous));
+        assertThat(avant.statut()).isEqualTo(RendezVousStatus.PLANIFIE);
+    }
+    
+    @Test
+    @DisplayName("Doit revérifier le créneau sous le verrou à la réactivation d'un rendez-vous annulé")
+    void shouldCheckSlotUnderLockWhenReactivatingCancelledRendezVous() {
+        // Given
+        rendezVous.setStatut(RendezVousStatus.ANNULE);
+        when(rendezVousRepository.findById(1L)).thenReturn(Optional.of(rendezVous));
+        when(carteDisponibilites.estLibre(eq(1L), any(), any(), eq(1L))).thenReturn(true);
+        when(rendezVousRepository.saveAndFlush(any(RendezVous.class))).thenReturn(rendezVous);
+        
+        // When
+        rendezVousService.updateStatut(1L, RendezVousStatus.CONFIRME);
+        
+        // Then
+        InOrder ordre = inOrder(verrousMedecins, carteDisponibilites, rendezVousRepository);
+        ordre.verify(verrousMedecins).verrouiller(1L);
+        ordre.verify(carteDisponibilites).estLibre(eq(1L), any(), any(), eq(1L));
+        ordre.verify(rendezVousRepository).saveAndFlush(rendezVous);
+        verify(rendezVousRepository, never()).save(any(RendezVous.class));
+    }
+    
+    @Test
+    @DisplayName("Ne doit pas réactiver un rendez-vous annulé dont le créneau a été repris")
+    void shouldNotReactivateCancelledRendezVousOnTakenSlot() {
+        // Given
+        rendezVous.setStatut(RendezVousStatus.ANNULE);
+        when(rendezVousRepository.findById(1L)).thenReturn(Optional.of(rendezVous));
+        when(carteDisponibilites.estLibre(eq(1L), any(), any(), eq(1L))).thenReturn(false);
+        
+        // When & Then
+        assertThatThrownBy(() -> rendezVousService.updateStatut(1L, RendezVousStatus.PLANIFIE))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Ce créneau n'est pas disponible");
+        assertThat(rendezVous.getStatut()).isEqualTo(RendezVousStatus.ANNULE);
+        verify(evenements, never()).publishEvent(any());
+    }
+    
+    @Test
+    @DisplayName("Doit refuser la réactivation lorsque la base rejette un chevauchement")
+    void shouldRejectReactivationWhenDatabaseRejectsOverlap() {
+        // Given : une autre instance a pris le créneau entre-temps
+        rendezVous.setStatut(RendezVousStatus.ANNULE);
+        when(rendezVousRepository.findById(1L)).thenReturn(Optional.of(rendezVous));
+        when(carteDisponibilites.estLibre(eq(1L), any(), any(), eq(1L))).thenReturn(true);
+        when(rendezVousRepository.saveAndFlush(any(RendezVous.class)))
+                .thenThrow(chevauchementRefuse());
+        
+        // When & Then
+        assertThatThrownBy(() -> rendezVousService.updateStatut(1L, RendezVousStatus.CONFIRME))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Ce créneau n'est pas disponible");
+        verify(rendezVousIntervalIndex, never()).synchroniser(any());
     }
     
     @Test
@@ -310,6 +514,8 @@ class RendezVousServiceImplTest {
         verify(rendezVousRepository).save(rendezVous);
         assertThat(rendezVous.getStatut()).isEqualTo(RendezVousStatus.ANNULE);
         assertThat(rendezVous.getNotes()).contains("Patient indisponible");
+        verify(rendezVousIntervalIndex).retirer(1L, 1L);
+        verify(carteDisponibilites).retirer(1L, CreneauOccupe.de(rendezVous));
     }
     
     @Test
@@ -334,14 +540,15 @@ class RendezVousServiceImplTest {
         // Given
         LocalDateTime debut = LocalDateTime.now().plusDays(1);
         LocalDateTime fin = debut.plusMinutes(30);
-        when(rendezVousRepository.findConflictingRendezVous(1L, debut, fin)).thenReturn(List.of());
+        when(carteDisponibilites.estLibre(1L, debut, fin, null)).thenReturn(true);
         
         // When
         boolean available = rendezVousService.isCreneauDisponible(1L, debut, fin, null);
         
         // Then
         assertThat(available).isTrue();
-        verify(rendezVousRepository).findConflictingRendezVous(1L, debut, fin);
+        verify(carteDisponibilites).estLibre(1L, debut, fin, null);
+        verify(rendezVousRepository, never()).findConflictingRendezVous(any(), any(), any());
     }
     
     @Test
@@ -350,7 +557,7 @@ class RendezVousServiceImplTest {
         // Given
         LocalDateTime debut = LocalDateTime.now().plusDays(1);
         LocalDateTime fin = debut.plusMinutes(30);
-        when(rendezVousRepository.findConflictingRendezVous(1L, debut, fin)).thenReturn(List.of(rendezVous));
+        when(carteDisponibilites.estLibre(1L, debut, fin, null)).thenReturn(false);
         
         // When
         boolean available = rendezVousService.isCreneauDisponible(1L, debut, fin, null);
@@ -360,19 +567,121 @@ class RendezVousServiceImplTest {
     }
     
     @Test
-    @DisplayName("Doit marquer un rappel comme envoyé")
+    @DisplayName("Doit calculer les créneaux libres d'une période depuis la carte des disponibilités")
+    void shouldComputeFreeSlotsForPeriod() {
+        // Given
+        LocalDate jour = LocalDate.now().plusDays(1);
+        when(carteDisponibilites.getCreneauxLibres(eq(1L), eq(jour), eq(jour.plusDays(6)), eq(Duration.ofMinutes(30)), any()))
+                .thenReturn(Map.of(jour, List.of(jour.atTime(9, 30))));
+        
+        // When
+        Map<LocalDate, List<LocalDateTime>> result = rendezVousService.getCreneauxLibresPeriode(1L, jour, jour.plusDays(6), 30);
+        
+        // Then
+        assertThat(result.get(jour)).containsExactly(jour.atTime(9, 30));
+        verify(carteDisponibilites, times(1)).getCreneauxLibres(anyLong(), any(), any(), any(), any());
+    }
+    
+    @Test
+    @DisplayName("Doit refuser une période de créneaux trop longue")
+    void shouldRejectTooLongPeriod() {
+        LocalDate jour = LocalDate.now();
+        assertThatThrownBy(() -> rendezVousService.getCreneauxLibresPeriode(1L, jour, jour.plusDays(40), 30))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    @DisplayName("Doit paginer par curseur et reprendre après la dernière ligne")
+    void shouldPaginateByCursor() {
+        // Given
+        RendezVousResponseDTO suivant = new RendezVousResponseDTO();
+        suivant.setId(2L);
+        suivant.setDateHeureDebut(rendezVousResponseDTO.getDateHeureDebut().plusHours(1));
+        CurseurRendezVous debut = CurseurRendezVous.DEBUT_CROISSANT;
+        when(rendezVousRepository.findResponseDTOsByMedecinIdApres(1L, debut.dateHeureDebut(), debut.id(), 2))
+                .thenReturn(List.of(rendezVousResponseDTO, suivant));
+        
+        // When
+        PageCurseurDTO<RendezVousResponseDTO> page = rendezVousService.getRendezVousByMedecin(1L, null, 1);
+        
+        // Then
+        assertThat(page.getContenu()).containsExactly(rendezVousResponseDTO);
+        assertThat(page.isPageSuivante()).isTrue();
+        assertThat(CurseurRendezVous.decoder(page.getCurseurSuivant(), null))
+                .isEqualTo(new CurseurRendezVous(rendezVousResponseDTO.getDateHeureDebut(), 1L));
+    }
+    
+    @Test
+    @DisplayName("Doit signaler la dernière page sans curseur suivant")
+    void shouldReturnLastPageWithoutCursor() {
+        // Given
+        CurseurRendezVous position = new CurseurRendezVous(rendezVousResponseDTO.getDateHeureDebut().minusDays(1), 7L);
+        when(rendezVousRepository.findResponseDTOsByMedecinIdApres(1L, position.dateHeureDebut(), 7L, 11))
+                .thenReturn(List.of(rendezVousResponseDTO));
+        
+        // When
+        PageCurseurDTO<RendezVousResponseDTO> page = rendezVousService.getRendezVousByMedecin(1L, position.encoder(), 10);
+        
+        // Then
+        assertThat(page.getContenu()).hasSize(1);
+        assertThat(page.isPageSuivante()).isFalse();
+        assertThat(page.getCurseurSuivant()).isNull();
+    }
+    
+    @Test
+    @DisplayName("Doit refuser un curseur invalide ou une taille de page hors limites")
+    void shouldRejectInvalidCursorOrPageSize() {
+        assertThatThrownBy(() -> rendezVousService.getRendezVousByMedecin(1L, "pas-un-curseur", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> rendezVousService.getRendezVousByMedecin(1L, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(rendezVousRepository);
+    }
+    
+    @Test
+    @DisplayName("Doit marquer un rappel comme envoyé en une requête")
     void shouldMarkReminderAsSent() {
         // Given
-        when(rendezVousRepository.findById(1L)).thenReturn(Optional.of(rendezVous));
-        when(rendezVousRepository.save(any(RendezVous.class))).thenReturn(rendezVous);
+        when(rendezVousRepository.findResponseDTOById(1L)).thenReturn(Optional.of(rendezVousResponseDTO));
         
         // When
         rendezVousService.marquerRappelEnvoye(1L);
         
         // Then
-        verify(rendezVousRepository).save(rendezVous);
-        assertThat(rendezVous.getRappelEnvoye()).isTrue();
-        assertThat(rendezVous.getDateRappel()).isNotNull();
+        verify(rendezVousRepository).marquerRappelsEnvoyes(eq(List.of(1L)), any(LocalDateTime.class));
+        verify(rendezVousRepository, never()).findById(anyLong());
+        verify(rendezVousRepository, never()).save(any(RendezVous.class));
+        verify(evenements).publishEvent(RendezVousEvenement.rappel(rendezVousResponseDTO));
+    }
+    
+    @Test
+    @DisplayName("Doit envoyer un rappel puis le marquer envoyé en une requête")
+    void shouldSendReminderThroughNotificationSender() {
+        // Given
+        when(rendezVousRepository.findResponseDTOById(1L)).thenReturn(Optional.of(rendezVousResponseDTO));
+        
+        // When
+        rendezVousService.envoyerRappel(1L);
+        
+        // Then
+        InOrder ordre = inOrder(notificationSender, rendezVousRepository);
+        ordre.verify(notificationSender).envoyerRappel(rendezVousResponseDTO);
+        ordre.verify(rendezVousRepository).marquerRappelsEnvoyes(eq(List.of(1L)), any(LocalDateTime.class));
+        verify(rendezVousRepository, never()).save(any(RendezVous.class));
+        verify(evenements).publishEvent(RendezVousEvenement.rappel(rendezVousResponseDTO));
+    }
+    
+    @Test
+    @DisplayName("Ne doit rien envoyer pour un rendez-vous inexistant")
+    void shouldNotSendReminderForUnknownRendezVous() {
+        // Given
+        when(rendezVousRepository.findResponseDTOById(99L)).thenReturn(Optional.empty());
+        
+        // When & Then
+        assertThatThrownBy(() -> rendezVousService.envoyerRappel(99L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Rendez-vous non trouvé");
+        verifyNoInteractions(notificationSender);
     }
     
     @Test
@@ -388,4 +697,9 @@ class RendezVousServiceImplTest {
         assertThat(count).isEqualTo(5L);
         verify(rendezVousRepository).countByStatut(RendezVousStatus.PLANIFIE);
     }
-}
\ No newline at end of file
+    
+    private static DataIntegrityViolationException chevauchementRefuse() {
+        return new DataIntegrityViolationException("ex_rendez_vous_medecin_creneau",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01"));
+    }
+}
@@ -0,0 +1,253 @@
+package ci.hardwork.gestionrdvservice.core.service.impl;
+
+import ci.hardwork.gestionrdvservice.core.dto.SerieRendezVousDTO;
+import ci.hardwork.gestionrdvservice.core.mapper.RendezVousMapper;
+import ci.hardwork.gestionrdvservice.core.mapper.SerieRendezVousMapper;
+import ci.hardwork.gestionrdvservice.core.models.Medecin;
+import ci.hardwork.gestionrdvservice.core.models.Patient;
+import ci.hardwork.gestionrdvservice.core.models.RendezVous;
+import ci.hardwork.gestionrdvservice.core.models.SerieRendezVous;
+import ci.hardwork.gestionrdvservice.core.models.enums.FrequenceRecurrence;
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import ci.hardwork.gestionrdvservice.core.planning.CarteDisponibilites;
+import ci.hardwork.gestionrdvservice.core.planning.CreneauOccupe;
+import ci.hardwork.gestionrdvservice.core.planning.InstantanesPlanning;
+import ci.hardwork.gestionrdvservice.core.planning.RendezVousIntervalIndex;
+import ci.hardwork.gestionrdvservice.core.planning.SeriesRecurrentes;
+import ci.hardwork.gestionrdvservice.core.planning.SeriesRecurrentes.OccurrenceSerie;
+import ci.hardwork.gestionrdvservice.core.planning.VerrousMedecins;
+import ci.hardwork.gestionrdvservice.core.repository.MedecinRepository;
+import ci.hardwork.gestionrdvservice.core.repository.PatientRepository;
+import ci.hardwork.gestionrdvservice.core.repository.RendezVousRepository;
+import ci.hardwork.gestionrdvservice.core.repository.SerieRendezVousRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests du Service des séries de rendez-vous")
+class SerieRendezVousServiceImplTest {
+
+    @Mock
+    private SerieRendezVousRepository serieRendezVousRepository;
+
+    @Mock
+    private RendezVousRepository rendezVousRepository;
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Mock
+    private MedecinRepository medecinRepository;
+
+    @Mock
+    private SerieRendezVousMapper serieRendezVousMapper;
+
+    @Mock
+    private RendezVousMapper rendezVousMapper;
+
+    @Mock
+    private SeriesRecurrentes seriesRecurrentes;
+
+    @Mock
+    private RendezVousIntervalIndex rendezVousIntervalIndex;
+
+    @Mock
+    private CarteDisponibilites carteDisponibilites;
+
+    @Mock
+    private InstantanesPlanning instantanesPlanning;
+
+    @Mock
+    private ApplicationEventPublisher evenements;
+
+    @Mock
+    private VerrousMedecins verrousMedecins;
+
+    @InjectMocks
+    private SerieRendezVousServiceImpl serieRendezVousService;
+
+    private Patient patient;
+    private Medecin medecin;
+    private LocalDateTime premiereSeance;
+    private SerieRendezVous serie;
+
+    @BeforeEach
+    void setUp() {
+        patient = new Patient();
+        patient.setId(1L);
+        patient.setNom("Dupont");
+        patient.setPrenom("Jean");
+
+        medecin = new Medecin();
+        medecin.setId(2L);
+        medecin.setNom("Martin");
+        medecin.setPrenom("Marie");
+        medecin.setActif(true);
+
+        // Kinésithérapie chaque semaine pendant dix semaines
+        premiereSeance = LocalDate.now().plusDays(7).atTime(10, 0);
+        serie = new SerieRendezVous();
+        serie.setId(5L);
+        serie.setPatient(patient);
+        serie.setMedecin(medecin);
+        serie.setPremiereOccurrence(premiereSeance);
+        serie.setDureeMinutes(45);
+        serie.setFrequence(FrequenceRecurrence.HEBDOMADAIRE);
+        serie.setIntervalle(1);
+        serie.setDateFin(premiereSeance.toLocalDate().plusWeeks(9));
+        serie.setMotifConsultation("Rééducation du genou");
+        serie.setActif(true);
+    }
+
+    @Test
+    @DisplayName("Doit vérifier toute la série en une lecture et l'enregistrer sans créer d'occurrence")
+    void shouldCheckWholeSeriesOnceAndStoreOnlyTheRule() {
+        // Given
+        SerieRendezVousDTO serieDTO = serieDTO();
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
+        when(medecinRepository.findById(2L)).thenReturn(Optional.of(medecin));
+        when(serieRendezVousMapper.toEntity(serieDTO)).thenReturn(nouvelleSerie());
+        when(rendezVousIntervalIndex.getCreneauxOccupes(eq(2L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        when(serieRendezVousRepository.save(any(SerieRendezVous.class))).thenReturn(serie);
+        when(serieRendezVousMapper.toDTO(serie)).thenReturn(serieDTO);
+
+        // When
+        serieRendezVousService.createSerie(serieDTO);
+
+        // Then
+        verify(rendezVousIntervalIndex).getCreneauxOccupes(2L, premiereSeance, premiereSeance.plusWeeks(9).plusMinutes(45));
+        verify(rendezVousRepository, never()).saveAndFlush(any());
+        verify(seriesRecurrentes).invalider(2L);
+        verify(carteDisponibilites).invalider(2L);
+        verify(instantanesPlanning).invaliderMedecin(2L);
+    }
+
+    @Test
+    @DisplayName("Doit refuser une série dont une occurrence chevauche un rendez-vous")
+    void shouldRejectSeriesWithConflictingOccurrence() {
+        // Given : un rendez-vous existant pendant la quatrième séance
+        SerieRendezVousDTO serieDTO = serieDTO();
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
+        when(medecinRepository.findById(2L)).thenReturn(Optional.of(medecin));
+        when(serieRendezVousMapper.toEntity(serieDTO)).thenReturn(nouvelleSerie());
+        when(rendezVousIntervalIndex.getCreneauxOccupes(eq(2L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(new CreneauOccupe(40L, premiereSeance.plusWeeks(3).plusMinutes(30),
+                        premiereSeance.plusWeeks(3).plusMinutes(60))));
+
+        // When & Then
+        assertThatThrownBy(() -> serieRendezVousService.createSerie(serieDTO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("1 occurrence(s)")
+                .hasMessageContaining(premiereSeance.plusWeeks(3).toString());
+        verify(serieRendezVousRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Doit enregistrer l'occurrence confirmée comme rendez-vous lié à la série")
+    void shouldMaterializeConfirmedOccurrence() {
+        // Given
+        LocalDateTime troisiemeSeance = premiereSeance.plusWeeks(2);
+        when(serieRendezVousRepository.findById(5L)).thenReturn(Optional.of(serie));
+        when(rendezVousRepository.findBySerieIdAndDateOccurrence(5L, troisiemeSeance)).thenReturn(Optional.empty());
+        when(rendezVousRepository.saveAndFlush(any(RendezVous.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        serieRendezVousService.confirmerOccurrence(5L, troisiemeSeance);
+
+        // Then
+        ArgumentCaptor<RendezVous> captor = ArgumentCaptor.forClass(RendezVous.class);
+        verify(rendezVousRepository).saveAndFlush(captor.capture());
+        RendezVous rendezVous = captor.getValue();
+        assertThat(rendezVous.getSerie()).isSameAs(serie);
+        assertThat(rendezVous.getDateOccurrence()).isEqualTo(troisiemeSeance);
+        assertThat(rendezVous.getDateHeureFin()).isEqualTo(troisiemeSeance.plusMinutes(45));
+        assertThat(rendezVous.getStatut()).isEqualTo(RendezVousStatus.CONFIRME);
+        verify(rendezVousIntervalIndex).synchroniser(rendezVous);
+        verify(seriesRecurrentes).invalider(2L);
+        verify(carteDisponibilites).invalider(2L);
+    }
+
+    @Test
+    @DisplayName("Doit refuser une date hors série ou une occurrence déjà enregistrée")
+    void shouldRejectUnknownOrAlreadyMaterializedOccurrence() {
+        // Given
+        RendezVous existant = new RendezVous();
+        existant.setId(30L);
+        when(serieRendezVousRepository.findById(5L)).thenReturn(Optional.of(serie));
+        when(rendezVousRepository.findBySerieIdAndDateOccurrence(5L, premiereSeance)).thenReturn(Optional.of(existant));
+
+        // When & Then
+        assertThatThrownBy(() -> serieRendezVousService.confirmerOccurrence(5L, premiereSeance.plusDays(1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("pas d'occurrence");
+        assertThatThrownBy(() -> serieRendezVousService.confirmerOccurrence(5L, premiereSeance))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("déjà enregistrée");
+        verify(rendezVousRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Doit déplacer une occurrence sans qu'elle se bloque elle-même")
+    void shouldMoveOccurrenceExcludingItself() {
+        // Given
+        LocalDateTime deuxiemeSeance = premiereSeance.plusWeeks(1);
+        LocalDateTime nouveauDebut = deuxiemeSeance.plusMinutes(15);
+        when(serieRendezVousRepository.findById(5L)).thenReturn(Optional.of(serie));
+        when(rendezVousRepository.findBySerieIdAndDateOccurrence(5L, deuxiemeSeance)).thenReturn(Optional.empty());
+        when(carteDisponibilites.estLibre(2L, nouveauDebut, nouveauDebut.plusMinutes(45), OccurrenceSerie.identifiant(5L, 1)))
+                .thenReturn(true);
+        when(rendezVousRepository.saveAndFlush(any(RendezVous.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        serieRendezVousService.deplacerOccurrence(5L, deuxiemeSeance, nouveauDebut, nouveauDebut.plusMinutes(45));
+
+        // Then
+        ArgumentCaptor<RendezVous> captor = ArgumentCaptor.forClass(RendezVous.class);
+        verify(rendezVousRepository).saveAndFlush(captor.capture());
+        assertThat(captor.getValue().getDateHeureDebut()).isEqualTo(nouveauDebut);
+        assertThat(captor.getValue().getDateOccurrence()).isEqualTo(deuxiemeSeance);
+        assertThat(captor.getValue().getStatut()).isEqualTo(RendezVousStatus.PLANIFIE);
+    }
+
+    private SerieRendezVousDTO serieDTO() {
+        SerieRendezVousDTO dto = new SerieRendezVousDTO();
+        dto.setPatientId(1L);
+        dto.setMedecinId(2L);
+        dto.setPremiereOccurrence(premiereSeance);
+        dto.setDureeMinutes(45);
+        dto.setFrequence(FrequenceRecurrence.HEBDOMADAIRE);
+        dto.setIntervalle(1);
+        dto.setDateFin(premiereSeance.toLocalDate().plusWeeks(9));
+        dto.setMotifConsultation("Rééducation du genou");
+        return dto;
+    }
+
+    private SerieRendezVous nouvelleSerie() {
+        SerieRendezVous nouvelle = new SerieRendezVous();
+        nouvelle.setPremiereOccurrence(premiereSeance);
+        nouvelle.setDureeMinutes(45);
+        nouvelle.setFrequence(FrequenceRecurrence.HEBDOMADAIRE);
+        nouvelle.setIntervalle(1);
+        nouvelle.setDateFin(premiereSeance.toLocalDate().plusWeeks(9));
+        nouvelle.setMotifConsultation("Rééducation du genou");
+        return nouvelle;
+    }
+}
@@ -0,0 +1,218 @@
+package ci.hardwork.gestionrdvservice.core.service.impl;
+
+import ci.hardwork.gestionrdvservice.core.evenements.RendezVousEvenement;
+import ci.hardwork.gestionrdvservice.core.models.Medecin;
+import ci.hardwork.gestionrdvservice.core.models.Patient;
+import ci.hardwork.gestionrdvservice.core.models.RendezVous;
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import ci.hardwork.gestionrdvservice.core.models.enums.SpecialiteMedicale;
+import ci.hardwork.gestionrdvservice.core.repository.MedecinRepository;
+import ci.hardwork.gestionrdvservice.core.repository.PatientRepository;
+import ci.hardwork.gestionrdvservice.core.repository.RendezVousRepository;
+import ci.hardwork.gestionrdvservice.core.statistiques.CompteursStatistiques;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Dashboard calculé sur une base H2 : les compteurs sont réconciliés et les agrégats
+ * exécutés dans le thread du test (et donc dans sa transaction) pour voir les données
+ * non validées.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@DisplayName("Tests du Service Tableau de bord")
+class TableauDeBordServiceImplTest {
+
+    private static final LocalDate AUJOURDHUI = LocalDate.of(2026, 3, 15);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RendezVousRepository rendezVousRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MedecinRepository medecinRepository;
+
+    private CompteursStatistiques compteursStatistiques;
+    private TableauDeBordServiceImpl tableauDeBordService;
+    private Statistics statistics;
+    private Medecin medecin;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        compteursStatistiques = new CompteursStatistiques(rendezVousRepository, medecinRepository, patientRepository);
+        tableauDeBordService = new TableauDeBordServiceImpl(
+                compteursStatistiques, patientRepository, medecinRepository, Runnable::run);
+
+        patient = createPatient(0, AUJOURDHUI.atTime(9, 0), true);
+        createPatient(1, AUJOURDHUI.minusDays(6).atTime(9, 0), false);
+        createPatient(2, LocalDate.of(2026, 2, 1).atTime(9, 0), true);
+        medecin = createMedecin(0, LocalDate.of(2026, 3, 3).atTime(9, 0));
+        createMedecin(1, LocalDate.of(2025, 12, 1).atTime(9, 0));
+
+        createRendezVous(patient, medecin, AUJOURDHUI.atTime(10, 0), RendezVousStatus.PLANIFIE);
+        createRendezVous(patient, medecin, LocalDate.of(2026, 3, 10).atTime(10, 0), RendezVousStatus.CONFIRME);
+        createRendezVous(patient, medecin, LocalDate.of(2026, 3, 2).atTime(10, 0), RendezVousStatus.TERMINE);
+        createRendezVous(patient, medecin, LocalDate.of(2026, 3, 28).atTime(10, 0), RendezVousStatus.PLANIFIE);
+        createRendezVous(patient, medecin, LocalDate.of(2026, 1, 20).atTime(10, 0), RendezVousStatus.ANNULE);
+        createRendezVous(patient, medecin, LocalDate.of(2025, 9, 10).atTime(10, 0), RendezVousStatus.ABSENT);
+        entityManager.flush();
+        entityManager.clear();
+        compteursStatistiques.reconcilier();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Doit lire le dashboard dans les compteurs et ne calculer que les inscriptions en base")
+    @SuppressWarnings("unchecked")
+    void shouldReadDashboardFromCountersAndOnlyQueryRegistrations() {
+        // When
+        Map<String, Object> dashboard = tableauDeBordService.getTableauDeBord(AUJOURDHUI);
+
+        // Then
+        assertThat((Map<String, Object>) dashboard.get("globales")).containsOnly(
+                entry("totalRendezVous", 6L),
+                entry("rendezVousPlanifies", 2L),
+                entry("rendezVousConfirmes", 1L),
+                entry("rendezVousTermines", 1L),
+                entry("rendezVousAnnules", 1L),
+                entry("totalPatients", 3L),
+                entry("totalMedecins", 2L),
+                entry("medecinActifs", 2L),
+                entry("patientActifs", 2L),
+                entry("rendezVousAujourdhui", 1L),
+                entry("nouveauxPatientsAujourdhui", 1L));
+        assertThat((Map<String, Object>) dashboard.get("semaine")).containsOnly(
+                entry("rendezVousPeriode", 2L),
+                entry("nouveauxPatientsPeriode", 2L),
+                entry("nouveauxMedecinsPeriode", 0L));
+        assertThat((Map<String, Object>) dashboard.get("mois")).containsOnly(
+                entry("rendezVousPeriode", 3L),
+                entry("nouveauxPatientsPeriode", 2L),
+                entry("nouveauxMedecinsPeriode", 1L));
+        assertThat((Map<String, Long>) dashboard.get("evolutionMensuelle")).containsExactly(
+                entry("OCTOBER", 0L),
+                entry("NOVEMBER", 0L),
+                entry("DECEMBER", 0L),
+                entry("JANUARY", 1L),
+                entry("FEBRUARY", 0L),
+                entry("MARCH", 4L));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Doit donner les mêmes chiffres que les compteurs des statistiques globales")
+    @SuppressWarnings("unchecked")
+    void shouldMatchGlobalStatisticsCounters() {
+        // Given : une réservation commitée, connue des compteurs par son événement
+        compteursStatistiques.surRendezVous(new RendezVousEvenement(99L, null, new RendezVousEvenement.Etat(
+                medecin.getId(), patient.getId(), AUJOURDHUI.atTime(15, 0), AUJOURDHUI.atTime(15, 30), RendezVousStatus.PLANIFIE)));
+
+        // When
+        Map<String, Object> globales = (Map<String, Object>) tableauDeBordService.getTableauDeBord(AUJOURDHUI).get("globales");
+
+        // Then
+        assertThat(globales)
+                .containsEntry("totalRendezVous", compteursStatistiques.getTotalRendezVous())
+                .containsEntry("rendezVousPlanifies", 3L)
+                .containsEntry("rendezVousAujourdhui", compteursStatistiques.getRendezVousDuJour(AUJOURDHUI));
+        assertThat(globales.get("rendezVousAujourdhui")).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Doit retourner des compteurs à zéro sur une base vide")
+    @SuppressWarnings("unchecked")
+    void shouldReturnZeroCountersOnEmptyDatabase() {
+        // Given
+        rendezVousRepository.deleteAllInBatch();
+        patientRepository.deleteAllInBatch();
+        medecinRepository.deleteAllInBatch();
+        compteursStatistiques.reconcilier();
+
+        // When
+        Map<String, Object> dashboard = tableauDeBordService.getTableauDeBord(AUJOURDHUI);
+
+        // Then
+        assertThat((Map<String, Object>) dashboard.get("globales"))
+                .containsEntry("totalRendezVous", 0L)
+                .containsEntry("patientActifs", 0L)
+                .containsEntry("nouveauxPatientsAujourdhui", 0L);
+        assertThat((Map<String, Long>) dashboard.get("evolutionMensuelle")).hasSize(6).containsValue(0L);
+    }
+
+    private Patient createPatient(int index, LocalDateTime dateCreation, boolean actif) {
+        Patient patient = new Patient();
+        patient.setUserId(5000L + index);
+        patient.setNom("Patient" + index);
+        patient.setPrenom("Test");
+        patient.setNumeroSecuriteSociale("200000000000" + index);
+        patient.setEmail("stats" + index + "@email.com");
+        patient.setDateNaissance(LocalDate.of(1990, 1, 1));
+        patient.setActif(actif);
+        entityManager.persistAndFlush(patient);
+        // La date de création est écrasée à l'insertion : on la repositionne
+        entityManager.getEntityManager()
+                .createQuery("UPDATE Patient p SET p.dateCreation = :date WHERE p.id = :id")
+                .setParameter("date", dateCreation)
+                .setParameter("id", patient.getId())
+                .executeUpdate();
+        return patient;
+    }
+
+    private Medecin createMedecin(int index, LocalDateTime dateCreation) {
+        Medecin medecin = new Medecin();
+        medecin.setUserId(6000L + index);
+        medecin.setNom("Medecin" + index);
+        medecin.setPrenom("Test");
+        medecin.setNumeroRPPS("2000000000" + index);
+        medecin.setSpecialite(SpecialiteMedicale.CARDIOLOGIE);
+        medecin.setEmail("stats" + index + "@medical.com");
+        medecin.setVilleCabinet("Paris");
+        medecin.setTarif(new BigDecimal("50.00"));
+        medecin.setActif(true);
+        entityManager.persistAndFlush(medecin);
+        entityManager.getEntityManager()
+                .createQuery("UPDATE Medecin m SET m.dateCreation = :date WHERE m.id = :id")
+                .setParameter("date", dateCreation)
+                .setParameter("id", medecin.getId())
+                .executeUpdate();
+        return medecin;
+    }
+
+    private void createRendezVous(Patient patient, Medecin medecin, LocalDateTime debut, RendezVousStatus statut) {
+        RendezVous rdv = new RendezVous();
+        rdv.setPatient(patient);
+        rdv.setMedecin(medecin);
+        rdv.setDateHeureDebut(debut);
+        rdv.setDateHeureFin(debut.plusMinutes(30));
+        rdv.setMotifConsultation("Consultation de contrôle");
+        rdv.setStatut(statut);
+        rdv.setTarif(new BigDecimal("50.00"));
+        rdv.setRappelEnvoye(false);
+        entityManager.persist(rdv);
+    }
+}
@@ -0,0 +1,237 @@
+package ci.hardwork.gestionrdvservice.core.service.impl;
+
+import ci.hardwork.gestionrdvservice.core.dto.UserReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests du service de référence utilisateurs")
+class UserReferenceServiceImplTest {
+
+    private static final String URL = "http://auth-service/api";
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private UserReferenceServiceImpl userReferenceService;
+
+    @BeforeEach
+    void setUp() {
+        userReferenceService = service(Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Doit servir une deuxième consultation depuis le cache")
+    void shouldServeSecondLookupFromCache() {
+        // Given
+        when(restTemplate.exchange(eq(URL + "/users/1"), eq(HttpMethod.GET), isNull(), utilisateur()))
+                .thenReturn(ResponseEntity.ok(user(1L)));
+
+        // When
+        Optional<UserReference> premier = userReferenceService.getUserById(1L);
+        boolean existe = userReferenceService.userExists(1L);
+
+        // Then
+        assertThat(premier).map(UserReference::getEmail).contains("user1@email.com");
+        assertThat(existe).isTrue();
+        verify(restTemplate, times(1)).exchange(eq(URL + "/users/1"), eq(HttpMethod.GET), isNull(), utilisateur());
+    }
+
+    @Test
+    @DisplayName("Doit garder en cache un utilisateur inconnu")
+    void shouldCacheUnknownUser() {
+        // Given
+        when(restTemplate.exchange(eq(URL + "/users/9"), eq(HttpMethod.GET), isNull(), utilisateur()))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", HttpHeaders.EMPTY, null, null));
+
+        // When
+        Optional<UserReference> premier = userReferenceService.getUserById(9L);
+        Optional<UserReference> second = userReferenceService.getUserById(9L);
+
+        // Then
+        assertThat(premier).isEmpty();
+        assertThat(second).isEmpty();
+        verify(restTemplate, times(1)).exchange(eq(URL + "/users/9"), eq(HttpMethod.GET), isNull(), utilisateur());
+    }
+
+    @Test
+    @DisplayName("Ne doit pas garder en cache une erreur réseau")
+    void shouldNotCacheNetworkError() {
+        // Given
+        when(restTemplate.exchange(eq(URL + "/users/1"), eq(HttpMethod.GET), isNull(), utilisateur()))
+                .thenThrow(new ResourceAccessException("Connection refused"))
+                .thenReturn(ResponseEntity.ok(user(1L)));
+
+        // When
+        Optional<UserReference> pendantPanne = userReferenceService.getUserById(1L);
+        Optional<UserReference> apresPanne = userReferenceService.getUserById(1L);
+
+        // Then
+        assertThat(pendantPanne).isEmpty();
+        assertThat(apresPanne).isPresent();
+        verify(restTemplate, times(2)).exchange(eq(URL + "/users/1"), eq(HttpMethod.GET), isNull(), utilisateur());
+    }
+
+    @Test
+    @DisplayName("Doit faire un seul appel pour des demandes simultanées du même utilisateur")
+    void shouldCoalesceConcurrentMisses() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        userReferenceService = service(executor);
+        CountDownLatch reponse = new CountDownLatch(1);
+        when(restTemplate.exchange(eq(URL + "/users/1"), eq(HttpMethod.GET), isNull(), utilisateur()))
+                .thenAnswer(invocation -> {
+                    reponse.await(5, TimeUnit.SECONDS);
+                    return ResponseEntity.ok(user(1L));
+                });
+
+        // When
+        List<CompletableFuture<Optional<UserReference>>> demandes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            demandes.add(CompletableFuture.supplyAsync(() -> userReferenceService.getUserById(1L)));
+        }
+        Thread.sleep(100);
+        reponse.countDown();
+
+        // Then
+        for (CompletableFuture<Optional<UserReference>> demande : demandes) {
+            assertThat(demande.get(5, TimeUnit.SECONDS)).isPresent();
+        }
+        verify(restTemplate, times(1)).exchange(eq(URL + "/users/1"), eq(HttpMethod.GET), isNull(), utilisateur());
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Doit réutiliser la consultation par email pour les consultations par id")
+    void shouldPopulateIdCacheFromEmailLookup() {
+        // Given
+        when(restTemplate.exchange(eq(URL + "/users/by-email?email={email}"), eq(HttpMethod.GET), isNull(), utilisateur(),
+                eq("user1@email.com")))
+                .thenReturn(ResponseEntity.ok(user(1L)));
+
+        // When
+        Optional<UserReference> parEmail = userReferenceService.getUserByEmail("user1@email.com");
+        Optional<UserReference> parId = userReferenceService.getUserById(1L);
+
+        // Then
+        assertThat(parEmail).isPresent();
+        assertThat(parId).map(UserReference::getId).contains(1L);
+        verify(restTemplate, never()).exchange(eq(URL + "/users/1"), eq(HttpMethod.GET), isNull(), utilisateur());
+    }
+
+    @Test
+    @DisplayName("Doit récupérer les utilisateurs manquants en un seul appel groupé")
+    void shouldFetchMissingUsersInSingleBulkCall() {
+        // Given : l'utilisateur 1 est déjà en cache
+        when(restTemplate.exchange(eq(URL + "/users/1"), eq(HttpMethod.GET), isNull(), utilisateur()))
+                .thenReturn(ResponseEntity.ok(user(1L)));
+        userReferenceService.getUserById(1L);
+        when(restTemplate.exchange(eq(URL + "/users/by-ids?ids={ids}"), eq(HttpMethod.GET), isNull(), utilisateurs(), anyString()))
+                .thenReturn(ResponseEntity.ok(List.of(user(2L))));
+
+        // When
+        Map<Long, UserReference> utilisateurs = userReferenceService.getUsersByIds(List.of(1L, 2L, 3L));
+
+        // Then
+        assertThat(utilisateurs).containsOnlyKeys(1L, 2L);
+        ArgumentCaptor<String> ids = ArgumentCaptor.forClass(String.class);
+        verify(restTemplate, times(1)).exchange(eq(URL + "/users/by-ids?ids={ids}"), eq(HttpMethod.GET), isNull(),
+                utilisateurs(), ids.capture());
+        assertThat(ids.getValue().split(",")).containsExactlyInAnyOrder("2", "3");
+        // L'utilisateur 3, inconnu, est mis en cache comme absent
+        assertThat(userReferenceService.getUserById(3L)).isEmpty();
+        verify(restTemplate, never()).exchange(eq(URL + "/users/3"), eq(HttpMethod.GET), isNull(), utilisateur());
+    }
+
+    @Test
+    @DisplayName("Doit découper un grand lot en appels de taille bornée")
+    void shouldSplitLargeBulkIntoBoundedCalls() {
+        // Given
+        List<Long> ids = LongStream.rangeClosed(1, 250).boxed().toList();
+        when(restTemplate.exchange(eq(URL + "/users/by-ids?ids={ids}"), eq(HttpMethod.GET), isNull(), utilisateurs(), anyString()))
+                .thenReturn(ResponseEntity.ok(List.of()));
+
+        // When
+        Map<Long, UserReference> utilisateurs = userReferenceService.getUsersByIds(ids);
+
+        // Then
+        assertThat(utilisateurs).isEmpty();
+        ArgumentCaptor<String> tranches = ArgumentCaptor.forClass(String.class);
+        verify(restTemplate, times(3)).exchange(eq(URL + "/users/by-ids?ids={ids}"), eq(HttpMethod.GET), isNull(),
+                utilisateurs(), tranches.capture());
+        assertThat(tranches.getAllValues().stream()
+                .flatMap(tranche -> Arrays.stream(tranche.split(",")))
+                .map(Long::valueOf)
+                .collect(Collectors.toSet()))
+                .hasSize(250);
+        assertThat(tranches.getAllValues())
+                .allSatisfy(tranche -> assertThat(tranche.split(",")).hasSizeLessThanOrEqualTo(UserReferenceServiceImpl.TAILLE_LOT_MAX));
+    }
+
+    @Test
+    @DisplayName("Doit rendre les utilisateurs déjà en cache si l'appel groupé échoue")
+    void shouldReturnCachedUsersWhenBulkCallFails() {
+        // Given
+        when(restTemplate.exchange(eq(URL + "/users/1"), eq(HttpMethod.GET), isNull(), utilisateur()))
+                .thenReturn(ResponseEntity.ok(user(1L)));
+        userReferenceService.getUserById(1L);
+        when(restTemplate.exchange(eq(URL + "/users/by-ids?ids={ids}"), eq(HttpMethod.GET), isNull(), utilisateurs(), anyString()))
+                .thenThrow(new ResourceAccessException("Read timed out"));
+
+        // When
+        Map<Long, UserReference> utilisateurs = userReferenceService.getUsersByIds(List.of(1L, 2L));
+
+        // Then
+        assertThat(utilisateurs).containsOnlyKeys(1L);
+    }
+
+    private UserReferenceServiceImpl service(Executor executor) {
+        return new UserReferenceServiceImpl(restTemplate, executor, URL, 1000,
+                Duration.ofMinutes(10), Duration.ofSeconds(30));
+    }
+
+    private static ParameterizedTypeReference<UserReference> utilisateur() {
+        return ArgumentMatchers.any();
+    }
+
+    private static ParameterizedTypeReference<List<UserReference>> utilisateurs() {
+        return ArgumentMatchers.any();
+    }
+
+    private UserReference user(Long id) {
+        return new UserReference(id, "user" + id, "user" + id + "@email.com", "Prenom" + id, "Nom" + id, true);
+    }
+}
@@ -0,0 +1,140 @@
+package ci.hardwork.gestionrdvservice.core.statistiques;
+
+import ci.hardwork.gestionrdvservice.core.evenements.MedecinEvenement;
+import ci.hardwork.gestionrdvservice.core.evenements.PatientEvenement;
+import ci.hardwork.gestionrdvservice.core.evenements.RendezVousEvenement;
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import ci.hardwork.gestionrdvservice.core.models.enums.SpecialiteMedicale;
+import ci.hardwork.gestionrdvservice.core.repository.MedecinRepository;
+import ci.hardwork.gestionrdvservice.core.repository.PatientRepository;
+import ci.hardwork.gestionrdvservice.core.repository.RendezVousRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests des compteurs statistiques")
+class CompteursStatistiquesTest {
+
+    private static final LocalDate JOUR = LocalDate.of(2026, 3, 10);
+
+    @Mock
+    private RendezVousRepository rendezVousRepository;
+
+    @Mock
+    private MedecinRepository medecinRepository;
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @InjectMocks
+    private CompteursStatistiques compteurs;
+
+    @BeforeEach
+    void setUp() {
+        when(rendezVousRepository.countGroupByStatut()).thenReturn(List.of(
+                new Object[]{RendezVousStatus.PLANIFIE, 3L},
+                new Object[]{RendezVousStatus.ANNULE, 1L}));
+        when(rendezVousRepository.countGroupByJourTous()).thenReturn(List.of(
+                new Object[]{JOUR, 3L},
+                new Object[]{JOUR.plusMonths(1), 1L}));
+        when(rendezVousRepository.countGroupByMedecin()).thenReturn(List.of(
+                new Object[]{1L, 1L},
+                new Object[]{2L, 3L}));
+        when(medecinRepository.countGroupBySpecialiteAndActif()).thenReturn(List.of(
+                new Object[]{SpecialiteMedicale.CARDIOLOGIE, true, 2L},
+                new Object[]{SpecialiteMedicale.DERMATOLOGIE, false, 1L}));
+        when(patientRepository.countGroupByActif()).thenReturn(List.<Object[]>of(
+                new Object[]{true, 5L}));
+    }
+
+    @Test
+    @DisplayName("Doit s'initialiser depuis la base à la première lecture")
+    void shouldLoadFromDatabaseOnFirstRead() {
+        // When & Then
+        assertThat(compteurs.getTotalRendezVous()).isEqualTo(4);
+        assertThat(compteurs.getRendezVousParStatut(RendezVousStatus.PLANIFIE)).isEqualTo(3);
+        assertThat(compteurs.getRendezVousDuJour(JOUR)).isEqualTo(3);
+        assertThat(compteurs.getRendezVousDuMois(YearMonth.from(JOUR))).isEqualTo(3);
+        assertThat(compteurs.getTotalMedecins()).isEqualTo(3);
+        assertThat(compteurs.getMedecinsActifs()).isEqualTo(2);
+        assertThat(compteurs.getRepartitionParSpecialite()).containsOnly(entry("CARDIOLOGIE", 2L));
+        assertThat(compteurs.getTotalPatients()).isEqualTo(5);
+        assertThat(compteurs.getPatientsActifs()).isEqualTo(5);
+        assertThat(compteurs.getTopMedecins(1)).containsExactly(new CompteursStatistiques.CompteMedecin(2L, 3));
+
+        verify(rendezVousRepository, times(1)).countGroupByStatut();
+    }
+
+    @Test
+    @DisplayName("Doit appliquer les événements de création, changement de statut et suppression")
+    void shouldApplyDomainEvents() {
+        // Given
+        compteurs.reconcilier();
+        RendezVousEvenement.Etat planifie = new RendezVousEvenement.Etat(
+                1L, 10L, JOUR.atTime(9, 0), JOUR.atTime(9, 30), RendezVousStatus.PLANIFIE);
+        RendezVousEvenement.Etat confirme = new RendezVousEvenement.Etat(
+                1L, 10L, JOUR.plusDays(1).atTime(9, 0), JOUR.plusDays(1).atTime(9, 30), RendezVousStatus.CONFIRME);
+
+        // When
+        compteurs.surRendezVous(new RendezVousEvenement(20L, null, planifie));
+        compteurs.surRendezVous(new RendezVousEvenement(20L, planifie, confirme));
+        compteurs.surMedecin(new MedecinEvenement(3L, new MedecinEvenement.Etat(SpecialiteMedicale.DERMATOLOGIE, false),
+                new MedecinEvenement.Etat(SpecialiteMedicale.DERMATOLOGIE, true)));
+        compteurs.surPatient(new PatientEvenement(10L, true, null));
+
+        // Then
+        assertThat(compteurs.getTotalRendezVous()).isEqualTo(5);
+        assertThat(compteurs.getRendezVousParStatut(RendezVousStatus.PLANIFIE)).isEqualTo(3);
+        assertThat(compteurs.getRendezVousParStatut(RendezVousStatus.CONFIRME)).isEqualTo(1);
+        assertThat(compteurs.getRendezVousDuJour(JOUR)).isEqualTo(3);
+        assertThat(compteurs.getRendezVousDuJour(JOUR.plusDays(1))).isEqualTo(1);
+        assertThat(compteurs.getTopMedecins(2)).extracting(CompteursStatistiques.CompteMedecin::nombre).containsExactly(3L, 2L);
+        assertThat(compteurs.getRepartitionParSpecialite()).containsEntry("DERMATOLOGIE", 1L);
+        assertThat(compteurs.getPatientsActifs()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Doit sommer les mois complets et les jours restants d'une période")
+    void shouldSumFullMonthsAndRemainingDays() {
+        // Given
+        compteurs.reconcilier();
+        compteurs.surRendezVous(new RendezVousEvenement(21L, null, new RendezVousEvenement.Etat(
+                1L, 10L, LocalDateTime.of(2026, 2, 28, 9, 0), LocalDateTime.of(2026, 2, 28, 9, 30), RendezVousStatus.PLANIFIE)));
+
+        // When & Then
+        assertThat(compteurs.getRendezVousEntre(LocalDate.of(2026, 2, 28), LocalDate.of(2026, 4, 30))).isEqualTo(5);
+        assertThat(compteurs.getRendezVousEntre(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31))).isEqualTo(3);
+        assertThat(compteurs.getRendezVousEntre(JOUR.plusDays(1), JOUR.plusDays(20))).isZero();
+    }
+
+    @Test
+    @DisplayName("Doit remplacer les compteurs dérivés lors de la réconciliation")
+    void shouldReplaceDriftedCountersOnReconciliation() {
+        // Given
+        compteurs.reconcilier();
+        compteurs.surRendezVous(new RendezVousEvenement(22L, null, new RendezVousEvenement.Etat(
+                1L, 10L, JOUR.atTime(11, 0), JOUR.atTime(11, 30), RendezVousStatus.PLANIFIE)));
+        assertThat(compteurs.getTotalRendezVous()).isEqualTo(5);
+
+        // When : la transaction n'a finalement rien écrit en base
+        compteurs.reconcilier();
+
+        // Then
+        assertThat(compteurs.getTotalRendezVous()).isEqualTo(4);
+        assertThat(compteurs.getRendezVousDuJour(JOUR)).isEqualTo(3);
+    }
+}
@@ -0,0 +1,214 @@
+package ci.hardwork.gestionrdvservice.integration;
+
+import ci.hardwork.gestionrdvservice.config.CacheConfig;
+import ci.hardwork.gestionrdvservice.core.dto.CreneauDisponibiliteDTO;
+import ci.hardwork.gestionrdvservice.core.dto.MedecinResponseDTO;
+import ci.hardwork.gestionrdvservice.core.dto.PatientResponseDTO;
+import ci.hardwork.gestionrdvservice.core.models.Medecin;
+import ci.hardwork.gestionrdvservice.core.models.Patient;
+import ci.hardwork.gestionrdvservice.core.models.enums.SpecialiteMedicale;
+import ci.hardwork.gestionrdvservice.core.planning.CarteDisponibilites;
+import ci.hardwork.gestionrdvservice.core.repository.MedecinRepository;
+import ci.hardwork.gestionrdvservice.core.repository.PatientRepository;
+import ci.hardwork.gestionrdvservice.core.service.MedecinService;
+import ci.hardwork.gestionrdvservice.core.service.PatientService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Caches de lecture des médecins, créneaux et patients sur un contexte complet : les
+ * évictions ont lieu au commit des modifications.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@DisplayName("Tests des caches médecins et patients")
+class CacheReferentielTest {
+
+    @Autowired
+    private MedecinService medecinService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private MedecinRepository medecinRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private CarteDisponibilites carteDisponibilites;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Medecin medecin;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        medecin = medecinRepository.save(createMedecin());
+        patient = patientRepository.save(createPatient());
+    }
+
+    @AfterEach
+    void tearDown() {
+        medecinRepository.deleteAll();
+        patientRepository.deleteAll();
+        carteDisponibilites.invaliderTout();
+        cacheManager.getCacheNames().forEach(nom -> cacheManager.getCache(nom).clear());
+    }
+
+    @Test
+    @DisplayName("Doit servir une deuxième consultation du médecin depuis le cache et le mesurer")
+    void shouldServeSecondLookupFromCacheAndRecordIt() {
+        // Given
+        double succesAvant = compteur(CacheConfig.MEDECINS, "hit");
+        double echecsAvant = compteur(CacheConfig.MEDECINS, "miss");
+
+        // When
+        Optional<MedecinResponseDTO> premier = medecinService.getMedecinById(medecin.getId());
+        Optional<MedecinResponseDTO> second = medecinService.getMedecinById(medecin.getId());
+
+        // Then
+        assertThat(premier).isPresent();
+        assertThat(second).get().isSameAs(premier.get());
+        assertThat(compteur(CacheConfig.MEDECINS, "miss") - echecsAvant).isEqualTo(1);
+        assertThat(compteur(CacheConfig.MEDECINS, "hit") - succesAvant).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Doit évincer le médecin de tous ses caches à la désactivation")
+    void shouldEvictMedecinOnDeactivation() {
+        // Given
+        assertThat(medecinService.getMedecinById(medecin.getId())).get().extracting(MedecinResponseDTO::isActif).isEqualTo(true);
+        assertThat(medecinService.getMedecinByNumeroRPPS(medecin.getNumeroRPPS())).isPresent();
+        assertThat(medecinService.getMedecinByUserId(medecin.getUserId())).isPresent();
+
+        // When
+        medecinService.deactivateMedecin(medecin.getId());
+
+        // Then
+        assertThat(medecinService.getMedecinById(medecin.getId())).get().extracting(MedecinResponseDTO::isActif).isEqualTo(false);
+        assertThat(medecinService.getMedecinByNumeroRPPS(medecin.getNumeroRPPS())).get().extracting(MedecinResponseDTO::isActif).isEqualTo(false);
+        assertThat(medecinService.getMedecinByUserId(medecin.getUserId())).get().extracting(MedecinResponseDTO::isActif).isEqualTo(false);
+    }
+
+    @Test
+    @DisplayName("Doit évincer les créneaux du médecin à l'ajout et à la suppression d'une plage")
+    void shouldEvictSlotsOnChange() {
+        // Given
+        assertThat(medecinService.getCreneauxDisponibilite(medecin.getId())).isEmpty();
+
+        // When
+        CreneauDisponibiliteDTO ajoute = medecinService.addCreneauDisponibilite(medecin.getId(), creneau());
+        List<CreneauDisponibiliteDTO> apresAjout = medecinService.getCreneauxDisponibilite(medecin.getId());
+        medecinService.removeCreneauDisponibilite(ajoute.getId());
+        List<CreneauDisponibiliteDTO> apresSuppression = medecinService.getCreneauxDisponibilite(medecin.getId());
+
+        // Then
+        assertThat(apresAjout).extracting(CreneauDisponibiliteDTO::getId).containsExactly(ajoute.getId());
+        assertThat(apresSuppression).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Ne doit pas garder en cache un RPPS inconnu")
+    void shouldNotCacheUnknownRpps() {
+        // Given
+        String rpps = "49999999999";
+        assertThat(medecinService.getMedecinByNumeroRPPS(rpps)).isEmpty();
+
+        // When
+        Medecin nouveau = createMedecin();
+        nouveau.setUserId(9101L);
+        nouveau.setNumeroRPPS(rpps);
+        nouveau.setEmail("nouveau.cache@medical.com");
+        medecinRepository.save(nouveau);
+
+        // Then
+        assertThat(medecinService.getMedecinByNumeroRPPS(rpps)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Doit évincer le patient de ses caches à la désactivation")
+    void shouldEvictPatientOnDeactivation() {
+        // Given
+        assertThat(patientService.getPatientById(patient.getId())).isPresent();
+        assertThat(patientService.getPatientByNumeroSecuriteSociale(patient.getNumeroSecuriteSociale())).isPresent();
+        assertThat(patientService.getPatientByUserId(patient.getUserId())).isPresent();
+
+        // When
+        patientService.deactivatePatient(patient.getId());
+
+        // Then
+        assertThat(patientService.getPatientById(patient.getId())).get().extracting(PatientResponseDTO::isActif).isEqualTo(false);
+        assertThat(patientService.getPatientByNumeroSecuriteSociale(patient.getNumeroSecuriteSociale()))
+                .get().extracting(PatientResponseDTO::isActif).isEqualTo(false);
+        assertThat(patientService.getPatientByUserId(patient.getUserId())).get().extracting(PatientResponseDTO::isActif).isEqualTo(false);
+    }
+
+    private double compteur(String cache, String resultat) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", cache)
+                .tag("result", resultat)
+                .functionCounter().count();
+    }
+
+    private CreneauDisponibiliteDTO creneau() {
+        CreneauDisponibiliteDTO dto = new CreneauDisponibiliteDTO();
+        dto.setMedecinId(medecin.getId());
+        dto.setJourSemaine(DayOfWeek.MONDAY);
+        dto.setHeureDebut(LocalTime.of(9, 0));
+        dto.setHeureFin(LocalTime.of(12, 0));
+        dto.setActif(true);
+        return dto;
+    }
+
+    private Patient createPatient() {
+        Patient nouveau = new Patient();
+        nouveau.setUserId(9200L);
+        nouveau.setNom("Yao");
+        nouveau.setPrenom("Adjoua");
+        nouveau.setNumeroSecuriteSociale("2000000000092");
+        nouveau.setEmail("adjoua.yao@email.com");
+        nouveau.setDateNaissance(LocalDate.of(1988, 3, 12));
+        nouveau.setActif(true);
+        nouveau.setDateCreation(LocalDateTime.now());
+        return nouveau;
+    }
+
+    private Medecin createMedecin() {
+        Medecin nouveau = new Medecin();
+        nouveau.setUserId(9100L);
+        nouveau.setNom("Cache");
+        nouveau.setPrenom("Medecin");
+        nouveau.setNumeroRPPS("40000000091");
+        nouveau.setSpecialite(SpecialiteMedicale.GENERALISTE);
+        nouveau.setEmail("medecin.cache@medical.com");
+        nouveau.setVilleCabinet("Abidjan");
+        nouveau.setTarif(new BigDecimal("40.00"));
+        nouveau.setActif(true);
+        nouveau.setDateCreation(LocalDateTime.now());
+        return nouveau;
+    }
+}
@@ -0,0 +1,257 @@
+package ci.hardwork.gestionrdvservice.integration;
+
+import ci.hardwork.gestionrdvservice.core.dto.ChangementPlanningDTO;
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousCreateDTO;
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
+import ci.hardwork.gestionrdvservice.core.models.Medecin;
+import ci.hardwork.gestionrdvservice.core.models.Patient;
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import ci.hardwork.gestionrdvservice.core.models.enums.SpecialiteMedicale;
+import ci.hardwork.gestionrdvservice.core.models.enums.TypeChangementPlanning;
+import ci.hardwork.gestionrdvservice.core.planning.AbonnementsPlanning;
+import ci.hardwork.gestionrdvservice.core.planning.CarteDisponibilites;
+import ci.hardwork.gestionrdvservice.core.planning.RendezVousIntervalIndex;
+import ci.hardwork.gestionrdvservice.core.repository.MedecinRepository;
+import ci.hardwork.gestionrdvservice.core.repository.PatientRepository;
+import ci.hardwork.gestionrdvservice.core.repository.RendezVousRepository;
+import ci.hardwork.gestionrdvservice.core.service.RendezVousService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Flux SSE des changements de planning sur un serveur réel : les événements ne partent
+ * qu'au commit, un par écriture, et seulement vers les abonnés concernés.
+ */
+// Battement rapproché : les connexions fermées par un test sont libérées avant le suivant
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.rdv.planning.flux-battement=PT0.2S")
+@ActiveProfiles("test")
+@DisplayName("Tests du flux des changements de planning")
+class FluxPlanningTest {
+
+    private static final long ATTENTE_SECONDES = 5;
+    private static final long SILENCE_MILLIS = 500;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    @Autowired
+    private RendezVousService rendezVousService;
+
+    @Autowired
+    private RendezVousRepository rendezVousRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MedecinRepository medecinRepository;
+
+    @Autowired
+    private RendezVousIntervalIndex rendezVousIntervalIndex;
+
+    @Autowired
+    private CarteDisponibilites carteDisponibilites;
+
+    @Autowired
+    private AbonnementsPlanning abonnementsPlanning;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final List<Stream<String>> flux = new ArrayList<>();
+    private Patient patient;
+    private Medecin medecin;
+    private Medecin autreMedecin;
+    private LocalDateTime jourJ10h;
+
+    @BeforeEach
+    void setUp() {
+        patient = patientRepository.save(createPatient());
+        medecin = medecinRepository.save(createMedecin(0));
+        autreMedecin = medecinRepository.save(createMedecin(1));
+        // Au-delà du délai d'annulation
+        jourJ10h = LocalDate.now().plusDays(3).atTime(10, 0);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        flux.forEach(Stream::close);
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(ATTENTE_SECONDES);
+        while (abonnementsPlanning.getNombreAbonnes() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(50);
+        }
+        rendezVousRepository.deleteAll();
+        medecinRepository.deleteAll();
+        patientRepository.deleteAll();
+        rendezVousIntervalIndex.invaliderTout();
+        carteDisponibilites.invaliderTout();
+    }
+
+    @Test
+    @DisplayName("Doit diffuser un seul événement par création, confirmation et annulation commitées")
+    void shouldStreamOneEventPerCommittedChange() throws Exception {
+        // Given
+        BlockingQueue<ChangementPlanningDTO> changements = abonner("/planning/flux/medecin/" + medecin.getId());
+
+        // When
+        RendezVousResponseDTO cree = rendezVousService.createRendezVous(createDTO(medecin.getId(), jourJ10h));
+        rendezVousService.confirmRendezVous(cree.getId());
+        rendezVousService.cancelRendezVous(cree.getId(), "Empêchement");
+
+        // Then
+        ChangementPlanningDTO creation = changements.poll(ATTENTE_SECONDES, TimeUnit.SECONDS);
+        ChangementPlanningDTO confirmation = changements.poll(ATTENTE_SECONDES, TimeUnit.SECONDS);
+        ChangementPlanningDTO annulation = changements.poll(ATTENTE_SECONDES, TimeUnit.SECONDS);
+        assertThat(creation).isNotNull();
+        assertThat(creation.getType()).isEqualTo(TypeChangementPlanning.CREATION);
+        assertThat(creation.getRendezVousId()).isEqualTo(cree.getId());
+        assertThat(creation.getDateHeureDebut()).isEqualTo(jourJ10h);
+        assertThat(confirmation).isNotNull();
+        assertThat(confirmation.getType()).isEqualTo(TypeChangementPlanning.CONFIRMATION);
+        assertThat(annulation).isNotNull();
+        assertThat(annulation.getType()).isEqualTo(TypeChangementPlanning.ANNULATION);
+        assertThat(annulation.getStatut()).isEqualTo(RendezVousStatus.ANNULE);
+        assertThat(List.of(creation.getSequence(), confirmation.getSequence(), annulation.getSequence())).isSorted();
+        assertThat(changements.poll(SILENCE_MILLIS, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    @DisplayName("Ne doit rien diffuser pour une transaction annulée")
+    void shouldNotStreamRolledBackChange() throws Exception {
+        // Given
+        BlockingQueue<ChangementPlanningDTO> changements = abonner("/planning/flux/medecin/" + medecin.getId());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // When
+        transaction.executeWithoutResult(statut -> {
+            rendezVousService.createRendezVous(createDTO(medecin.getId(), jourJ10h));
+            statut.setRollbackOnly();
+        });
+        RendezVousResponseDTO commite = rendezVousService.createRendezVous(createDTO(medecin.getId(), jourJ10h.plusHours(1)));
+
+        // Then : le premier événement reçu est celui de la transaction commitée
+        ChangementPlanningDTO premier = changements.poll(ATTENTE_SECONDES, TimeUnit.SECONDS);
+        assertThat(premier).isNotNull();
+        assertThat(premier.getRendezVousId()).isEqualTo(commite.getId());
+        assertThat(changements.poll(SILENCE_MILLIS, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    @DisplayName("Ne doit diffuser que les changements du médecin ou du jour suivis")
+    void shouldStreamOnlySubscribedDoctorOrDay() throws Exception {
+        // Given
+        BlockingQueue<ChangementPlanningDTO> parMedecin = abonner("/planning/flux/medecin/" + medecin.getId());
+        BlockingQueue<ChangementPlanningDTO> parJour = abonner("/planning/flux/jour/" + jourJ10h.toLocalDate());
+
+        // When
+        RendezVousResponseDTO autreJour = rendezVousService.createRendezVous(createDTO(medecin.getId(), jourJ10h.plusDays(1)));
+        RendezVousResponseDTO autreMedecinJourJ = rendezVousService.createRendezVous(createDTO(autreMedecin.getId(), jourJ10h));
+
+        // Then
+        assertThat(parMedecin.poll(ATTENTE_SECONDES, TimeUnit.SECONDS))
+                .extracting(ChangementPlanningDTO::getRendezVousId).isEqualTo(autreJour.getId());
+        assertThat(parJour.poll(ATTENTE_SECONDES, TimeUnit.SECONDS))
+                .extracting(ChangementPlanningDTO::getRendezVousId).isEqualTo(autreMedecinJourJ.getId());
+        assertThat(parMedecin.poll(SILENCE_MILLIS, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(parJour.poll(SILENCE_MILLIS, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    private BlockingQueue<ChangementPlanningDTO> abonner(String chemin) throws Exception {
+        int abonnesAvant = abonnementsPlanning.getNombreAbonnes();
+        HttpRequest requete = HttpRequest.newBuilder(URI.create("http://localhost:" + port + contextPath + chemin))
+                .header("Accept", "text/event-stream")
+                .build();
+        HttpResponse<Stream<String>> reponse = client.send(requete, HttpResponse.BodyHandlers.ofLines());
+        assertThat(reponse.statusCode()).isEqualTo(200);
+        assertThat(abonnementsPlanning.getNombreAbonnes()).isEqualTo(abonnesAvant + 1);
+        flux.add(reponse.body());
+
+        BlockingQueue<ChangementPlanningDTO> changements = new LinkedBlockingQueue<>();
+        CompletableFuture.runAsync(() -> reponse.body()
+                .filter(ligne -> ligne.startsWith("data:"))
+                .forEach(ligne -> {
+                    try {
+                        changements.add(objectMapper.readValue(ligne.substring("data:".length()), ChangementPlanningDTO.class));
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }));
+        return changements;
+    }
+
+    private RendezVousCreateDTO createDTO(Long medecinId, LocalDateTime debut) {
+        RendezVousCreateDTO dto = new RendezVousCreateDTO();
+        dto.setPatientId(patient.getId());
+        dto.setMedecinId(medecinId);
+        dto.setDateHeureDebut(debut);
+        dto.setDateHeureFin(debut.plusMinutes(30));
+        dto.setMotifConsultation("Consultation de suivi");
+        dto.setStatut(RendezVousStatus.PLANIFIE);
+        dto.setTarif(new BigDecimal("40.00"));
+        dto.setRappelEnvoye(false);
+        return dto;
+    }
+
+    private Patient createPatient() {
+        Patient nouveau = new Patient();
+        nouveau.setUserId(9300L);
+        nouveau.setNom("Koffi");
+        nouveau.setPrenom("Ama");
+        nouveau.setNumeroSecuriteSociale("2000000000093");
+        nouveau.setEmail("ama.koffi@email.com");
+        nouveau.setDateNaissance(LocalDate.of(1992, 9, 4));
+        nouveau.setActif(true);
+        nouveau.setDateCreation(LocalDateTime.now());
+        return nouveau;
+    }
+
+    private Medecin createMedecin(int index) {
+        Medecin nouveau = new Medecin();
+        nouveau.setUserId(9400L + index);
+        nouveau.setNom("Flux" + index);
+        nouveau.setPrenom("Medecin");
+        nouveau.setNumeroRPPS(String.format("5%010d", index));
+        nouveau.setSpecialite(SpecialiteMedicale.GENERALISTE);
+        nouveau.setEmail("flux" + index + "@medical.com");
+        nouveau.setVilleCabinet("Abidjan");
+        nouveau.setTarif(new BigDecimal("40.00"));
+        nouveau.setActif(true);
+        nouveau.setDateCreation(LocalDateTime.now());
+        return nouveau;
+    }
+}
@@ -0,0 +1,246 @@
+package ci.hardwork.gestionrdvservice.integration;
+
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousCreateDTO;
+import ci.hardwork.gestionrdvservice.core.models.Medecin;
+import ci.hardwork.gestionrdvservice.core.models.Patient;
+import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
+import ci.hardwork.gestionrdvservice.core.models.enums.SpecialiteMedicale;
+import ci.hardwork.gestionrdvservice.core.planning.CarteDisponibilites;
+import ci.hardwork.gestionrdvservice.core.planning.RendezVousIntervalIndex;
+import ci.hardwork.gestionrdvservice.core.planning.VerrousMedecins;
+import ci.hardwork.gestionrdvservice.core.repository.MedecinRepository;
+import ci.hardwork.gestionrdvservice.core.repository.PatientRepository;
+import ci.hardwork.gestionrdvservice.core.repository.RendezVousRepository;
+import ci.hardwork.gestionrdvservice.core.service.RendezVousService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Réservations concurrentes sur un contexte complet : les transactions sont réellement
+ * commitées, les index d'agenda partagés entre les threads.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@DisplayName("Tests de concurrence des réservations")
+class RendezVousConcurrenceTest {
+
+    private static final int NOMBRE_THREADS = 200;
+    private static final int NOMBRE_MEDECINS = 20;
+
+    @Autowired
+    private RendezVousService rendezVousService;
+
+    @Autowired
+    private RendezVousRepository rendezVousRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MedecinRepository medecinRepository;
+
+    @Autowired
+    private RendezVousIntervalIndex rendezVousIntervalIndex;
+
+    @Autowired
+    private CarteDisponibilites carteDisponibilites;
+
+    @Autowired
+    private VerrousMedecins verrousMedecins;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService executor;
+    private Patient patient;
+    private List<Medecin> medecins;
+    private LocalDateTime demain10h;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(NOMBRE_THREADS);
+        patient = patientRepository.save(createPatient());
+        medecins = new ArrayList<>();
+        for (int i = 0; i < NOMBRE_MEDECINS; i++) {
+            medecins.add(medecinRepository.save(createMedecin(i)));
+        }
+        demain10h = LocalDate.now().plusDays(1).atTime(10, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        rendezVousRepository.deleteAll();
+        medecinRepository.deleteAll();
+        patientRepository.deleteAll();
+        rendezVousIntervalIndex.invaliderTout();
+        carteDisponibilites.invaliderTout();
+    }
+
+    @Test
+    @DisplayName("Doit accepter une seule réservation quand 200 threads visent le même créneau")
+    void shouldAcceptExactlyOneBookingForSameSlot() throws Exception {
+        // Given
+        Long medecinId = medecins.get(0).getId();
+        CountDownLatch depart = new CountDownLatch(1);
+        AtomicInteger acceptees = new AtomicInteger();
+        AtomicInteger refusees = new AtomicInteger();
+        Queue<Throwable> erreurs = new ConcurrentLinkedQueue<>();
+
+        // When
+        List<CompletableFuture<Void>> taches = new ArrayList<>();
+        for (int i = 0; i < NOMBRE_THREADS; i++) {
+            taches.add(CompletableFuture.runAsync(() -> {
+                try {
+                    depart.await();
+                    rendezVousService.createRendezVous(createDTO(medecinId, demain10h));
+                    acceptees.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    refusees.incrementAndGet();
+                } catch (Throwable e) {
+                    erreurs.add(e);
+                }
+            }, executor));
+        }
+        depart.countDown();
+        CompletableFuture.allOf(taches.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(erreurs).isEmpty();
+        assertThat(acceptees.get()).isEqualTo(1);
+        assertThat(refusees.get()).isEqualTo(NOMBRE_THREADS - 1);
+        assertThat(rendezVousRepository.findByMedecinIdOrderByDateHeureDebut(medecinId)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Doit accepter en parallèle toutes les réservations de créneaux distincts sur plusieurs médecins")
+    void shouldAcceptAllDistinctBookingsAcrossDoctors() throws Exception {
+        // Given : 10 créneaux distincts pour chacun des 20 médecins
+        CountDownLatch depart = new CountDownLatch(1);
+        AtomicInteger acceptees = new AtomicInteger();
+        Queue<Throwable> erreurs = new ConcurrentLinkedQueue<>();
+
+        // When
+        List<CompletableFuture<Void>> taches = new ArrayList<>();
+        for (int i = 0; i < NOMBRE_THREADS; i++) {
+            Long medecinId = medecins.get(i % NOMBRE_MEDECINS).getId();
+            LocalDateTime debut = demain10h.plusMinutes(30L * (i / NOMBRE_MEDECINS));
+            taches.add(CompletableFuture.runAsync(() -> {
+                try {
+                    depart.await();
+                    rendezVousService.createRendezVous(createDTO(medecinId, debut));
+                    acceptees.incrementAndGet();
+                } catch (Throwable e) {
+                    erreurs.add(e);
+                }
+            }, executor));
+        }
+        depart.countDown();
+        CompletableFuture.allOf(taches.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(erreurs).isEmpty();
+        assertThat(acceptees.get()).isEqualTo(NOMBRE_THREADS);
+        assertThat(rendezVousRepository.count()).isEqualTo(NOMBRE_THREADS);
+    }
+
+    @Test
+    @DisplayName("Ne doit pas bloquer un médecin pendant qu'un autre est verrouillé")
+    void shouldNotBlockOtherDoctorWhileOneIsLocked() throws Exception {
+        // Given : une transaction garde le verrou du premier médecin
+        Long medecinBloque = medecins.get(0).getId();
+        Long autreMedecin = medecins.get(1).getId();
+        CountDownLatch verrouPris = new CountDownLatch(1);
+        CountDownLatch liberer = new CountDownLatch(1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CompletableFuture<Void> detenteur = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(statut -> {
+            verrousMedecins.verrouiller(medecinBloque);
+            verrouPris.countDown();
+            try {
+                liberer.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }), executor);
+        assertThat(verrouPris.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        CompletableFuture<?> reservationBloquee = CompletableFuture.supplyAsync(
+                () -> rendezVousService.createRendezVous(createDTO(medecinBloque, demain10h)), executor);
+        CompletableFuture<?> reservationLibre = CompletableFuture.supplyAsync(
+                () -> rendezVousService.createRendezVous(createDTO(autreMedecin, demain10h)), executor);
+
+        // Then
+        reservationLibre.get(10, TimeUnit.SECONDS);
+        assertThat(reservationBloquee).isNotDone();
+
+        liberer.countDown();
+        detenteur.get(10, TimeUnit.SECONDS);
+        reservationBloquee.get(10, TimeUnit.SECONDS);
+        assertThat(rendezVousRepository.count()).isEqualTo(2);
+    }
+
+    private RendezVousCreateDTO createDTO(Long medecinId, LocalDateTime debut) {
+        RendezVousCreateDTO dto = new RendezVousCreateDTO();
+        dto.setPatientId(patient.getId());
+        dto.setMedecinId(medecinId);
+        dto.setDateHeureDebut(debut);
+        dto.setDateHeureFin(debut.plusMinutes(30));
+        dto.setMotifConsultation("Consultation de suivi");
+        dto.setStatut(RendezVousStatus.PLANIFIE);
+        dto.setTarif(new BigDecimal("40.00"));
+        dto.setRappelEnvoye(false);
+        return dto;
+    }
+
+    private Patient createPatient() {
+        Patient nouveau = new Patient();
+        nouveau.setUserId(7000L);
+        nouveau.setNom("Kouassi");
+        nouveau.setPrenom("Aya");
+        nouveau.setNumeroSecuriteSociale("2000000000002");
+        nouveau.setEmail("aya.kouassi@email.com");
+        nouveau.setDateNaissance(LocalDate.of(1990, 6, 1));
+        nouveau.setActif(true);
+        nouveau.setDateCreation(LocalDateTime.now());
+        return nouveau;
+    }
+
+    private Medecin createMedecin(int index) {
+        Medecin nouveau = new Medecin();
+        nouveau.setUserId(8000L + index);
+        nouveau.setNom("Medecin" + index);
+        nouveau.setPrenom("Concurrence");
+        nouveau.setNumeroRPPS(String.format("3%010d", index));
+        nouveau.setSpecialite(SpecialiteMedicale.GENERALISTE);
+        nouveau.setEmail("concurrence" + index + "@medical.com");
+        nouveau.setVilleCabinet("Abidjan");
+        nouveau.setTarif(new BigDecimal("40.00"));
+        nouveau.setActif(true);
+        nouveau.setDateCreation(LocalDateTime.now());
+        return nouveau;
+    }
+}
@@ -1,6 +1,9 @@
 package ci.hardwork.gestionrdvservice.web.controller;
 
+import ci.hardwork.gestionrdvservice.core.dto.PageCurseurDTO;
 import ci.hardwork.gestionrdvservice.core.dto.RendezVousCreateDTO;
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousLotDTO;
+import ci.hardwork.gestionrdvservice.core.dto.RendezVousLotResultatDTO;
 import ci.hardwork.gestionrdvservice.core.dto.RendezVousResponseDTO;
 import ci.hardwork.gestionrdvservice.core.models.enums.RendezVousStatus;
 import ci.hardwork.gestionrdvservice.core.service.RendezVousService;
@@ -15,6 +18,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
@@ -134,6 +138,44 @@ class RendezVousControllerTest {
         verify(rendezVousService).createRendezVous(any(RendezVousCreateDTO.class));
     }
     
+    @Test
+    @DisplayName("POST /rdv/lot - Doit créer le lot et retourner les rendez-vous créés")
+    void shouldCreateRendezVousBatch() throws Exception {
+        // Given
+        RendezVousLotDTO lot = new RendezVousLotDTO();
+        lot.setRendezVous(List.of(rendezVousCreateDTO));
+        when(rendezVousService.createRendezVousLot(anyList()))
+                .thenReturn(new RendezVousLotResultatDTO(true, List.of(rendezVousResponseDTO), List.of()));
+        
+        // When & Then
+        mockMvc.perform(post("/rdv/lot")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(lot)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.accepte").value(true))
+                .andExpect(jsonPath("$.rendezVous[0].id").value(1L));
+    }
+    
+    @Test
+    @DisplayName("POST /rdv/lot - Doit retourner 400 avec le détail des lignes refusées")
+    void shouldReturn400WithRejectedLinesForBatch() throws Exception {
+        // Given
+        RendezVousLotDTO lot = new RendezVousLotDTO();
+        lot.setRendezVous(List.of(rendezVousCreateDTO, rendezVousCreateDTO));
+        when(rendezVousService.createRendezVousLot(anyList()))
+                .thenReturn(new RendezVousLotResultatDTO(false, List.of(),
+                        List.of(new RendezVousLotResultatDTO.ErreurLigne(1, "Ce créneau chevauche le rendez-vous 0 du lot"))));
+        
+        // When & Then
+        mockMvc.perform(post("/rdv/lot")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(lot)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.accepte").value(false))
+                .andExpect(jsonPath("$.erreurs[0].index").value(1))
+                .andExpect(jsonPath("$.rendezVous").isEmpty());
+    }
+    
     @Test
     @DisplayName("GET /rdv/{id} - Doit retourner un rendez-vous existant")
     void shouldReturnExistingRendezVous() throws Exception {
@@ -217,6 +259,34 @@ class RendezVousControllerTest {
         verify(rendezVousService).getRendezVousByMedecin(1L);
     }
     
+    @Test
+    @DisplayName("GET /rdv/medecin/{medecinId}/curseur - Doit retourner une page et le curseur suivant")
+    void shouldReturnMedecinRendezVousPageByCursor() throws Exception {
+        // Given
+        when(rendezVousService.getRendezVousByMedecin(1L, "abc", 20))
+                .thenReturn(new PageCurseurDTO<>(List.of(rendezVousResponseDTO), "def", true));
+        
+        // When & Then
+        mockMvc.perform(get("/rdv/medecin/1/curseur").param("curseur", "abc").param("taille", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenu.length()").value(1))
+                .andExpect(jsonPath("$.contenu[0].medecinId").value(1L))
+                .andExpect(jsonPath("$.curseurSuivant").value("def"))
+                .andExpect(jsonPath("$.pageSuivante").value(true));
+    }
+    
+    @Test
+    @DisplayName("GET /rdv/medecin/{medecinId}/curseur - Doit retourner 400 pour un curseur invalide")
+    void shouldReturn400ForInvalidCursor() throws Exception {
+        // Given
+        when(rendezVousService.getRendezVousByMedecin(1L, "invalide", 50))
+                .thenThrow(new IllegalArgumentException("Curseur de pagination invalide"));
+        
+        // When & Then
+        mockMvc.perform(get("/rdv/medecin/1/curseur").param("curseur", "invalide"))
+                .andExpect(status().isBadRequest());
+    }
+    
     @Test
     @DisplayName("GET /rdv/medecin/{medecinId}/date/{date} - Doit retourner les rendez-vous d'un médecin pour une date")
     void shouldReturnMedecinRendezVousByDate() throws Exception {
@@ -284,6 +354,20 @@ class RendezVousControllerTest {
         verify(rendezVousService).updateRendezVous(eq(1L), any(RendezVousCreateDTO.class));
     }
     
+    @Test
+    @DisplayName("PUT /rdv/{id} - Doit retourner 409 si le rendez-vous a été modifié en parallèle")
+    void shouldReturn409OnConcurrentUpdate() throws Exception {
+        // Given
+        when(rendezVousService.updateRendezVous(eq(1L), any(RendezVousCreateDTO.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException("RendezVous", 1L));
+        
+        // When & Then
+        mockMvc.perform(put("/rdv/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(rendezVousCreateDTO)))
+                .andExpect(status().isConflict());
+    }
+    
     @Test
     @DisplayName("PATCH /rdv/{id}/statut - Doit mettre à jour le statut d'un rendez-vous")
     void shouldUpdateRendezVousStatus() throws Exception {